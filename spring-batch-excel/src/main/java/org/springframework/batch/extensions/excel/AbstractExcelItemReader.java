@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2022 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,27 @@
 
 package org.springframework.batch.extensions.excel;
 
+import java.util.Arrays;
 import java.util.Locale;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.poi.ss.usermodel.DataFormatter;
 
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory;
 import org.springframework.batch.extensions.excel.support.rowset.RowSet;
 import org.springframework.batch.extensions.excel.support.rowset.RowSetFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
 import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
@@ -37,12 +45,29 @@ import org.springframework.util.ClassUtils;
  * It will read the file sheet for sheet and row for row. It is loosy based on the
  * {@link org.springframework.batch.item.file.FlatFileItemReader}
  *
+ * When a {@link RowFilter} is configured, the number of rows it rejected is stored in the
+ * {@code ExecutionContext} and, when the reader is registered as listener (which the step
+ * builders do for readers), added to the filter count of the {@code StepExecution}.
+ *
  * @param <T> the type
  * @author Marten Deinum
  * @since 0.1.0
  */
 public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingItemStreamItemReader<T>
-		implements ResourceAwareItemReaderItemStream<T>, InitializingBean {
+		implements ResourceAwareItemReaderItemStream<T>, StepExecutionListener, InitializingBean {
+
+	/**
+	 * Key in the {@code ExecutionContext} for the index of the sheet being read.
+	 */
+	protected static final String CURRENT_SHEET_KEY = "current.sheet";
+
+	/**
+	 * Key in the {@code ExecutionContext} for the index, in the {@code RowSet}, of the row
+	 * read last.
+	 */
+	protected static final String CURRENT_ROW_KEY = "current.row";
+
+	static final String FILTERED_COUNT_KEY = "filtered.count";
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -56,6 +81,12 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 
 	private RowMapper<T> rowMapper;
 
+	private RowFilter rowFilter;
+
+	private int filteredCount;
+
+	private int filteredCountAtOpen;
+
 	private RowCallbackHandler skippedRowsCallback;
 
 	private boolean noInput = false;
@@ -64,8 +95,26 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 
 	private RowSetFactory rowSetFactory = new DefaultRowSetFactory();
 
+	private Sheet sheet;
+
+	private LookAheadSheet lookAheadSheet;
+
 	private RowSet rs;
 
+	private SheetSelector sheetSelector = SheetSelector.ALL;
+
+	private int startRow = 0;
+
+	private int endRow = -1;
+
+	private int[] projectedColumns;
+
+	private String[] projectedColumnNames;
+
+	private int restartSheet = -1;
+
+	private int restartRow = -1;
+
 	private String password;
 
 	private boolean datesAsIso = false;
@@ -76,8 +125,16 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 
 	private DataFormatterCustomizer dataFormatterCustomizer = DataFormatterCustomizer.DEFAULT;
 
+	private int formatCacheSize = 0;
+
+	private CellValueFormatter cellValueFormatter;
+
 	private FormulaEvaluatorFactory formulaEvaluatorFactory = FormulaEvaluatorFactory.NOOP;
 
+	private int prefetchSize = 0;
+
+	private TaskExecutor prefetchTaskExecutor = new SimpleAsyncTaskExecutor("excel-prefetch-");
+
 	public AbstractExcelItemReader() {
 		super();
 		this.setName(ClassUtils.getShortName(this.getClass()));
@@ -106,55 +163,220 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 			return null;
 		}
 
-		if (this.rs == null || !this.rs.next()) {
-			if (!nextSheet()) {
-				if (this.logger.isDebugEnabled()) {
-					this.logger.debug("No more sheets in '" + this.resource.getDescription() + "'.");
+		while (true) {
+			if (this.rs == null || !this.rs.next() || isAfterEndRow()) {
+				if (!nextSheet()) {
+					if (this.logger.isDebugEnabled()) {
+						this.logger.debug("No more sheets in '" + this.resource.getDescription() + "'.");
+					}
+					return null;
 				}
-				return null;
 			}
-		}
 
-		// skip all the blank row from which content has been deleted but still a valid row
-		while (null != this.rs.getCurrentRow() && isInvalidValidRow(this.rs)) {
-			this.rs.next();
+			// skip all the blank row from which content has been deleted but still a valid
+			// row, the rows are only formatted when the RowMapper asks for it
+			if (this.rs.isCurrentRowBlank()) {
+				continue;
+			}
+			if (!isAccepted()) {
+				this.filteredCount++;
+				continue;
+			}
+			try {
+				return this.rowMapper.mapRow(this.rs);
+			}
+			catch (Exception ex) {
+				throw parseException(ex);
+			}
 		}
+	}
+
+	private boolean isAccepted() {
 		try {
-			return (this.rs.getCurrentRow() != null) ? this.rowMapper.mapRow(this.rs) : doRead();
+			return this.rowFilter == null || this.rowFilter.accept(this.rs);
 		}
 		catch (Exception ex) {
-			throw new ExcelFileParseException("Exception parsing Excel file.", ex, this.resource.getDescription(),
-					this.rs.getMetaData().getSheetName(), this.rs.getCurrentRowIndex(), this.rs.getCurrentRow());
+			throw parseException(ex);
 		}
 	}
 
+	private ExcelFileParseException parseException(Exception ex) {
+		return parseException(ex, this.rs);
+	}
+
+	ExcelFileParseException parseException(Exception ex, RowSet rs) {
+		return new ExcelFileParseException("Exception parsing Excel file.", ex, this.resource.getDescription(),
+				rs.getMetaData().getSheetName(), rs.getCurrentRowIndex(), rs.copyCurrentRow());
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		this.restartSheet = -1;
+		this.restartRow = -1;
+		this.filteredCount = 0;
+		if (isSaveState() && executionContext.containsKey(getExecutionContextKey(CURRENT_SHEET_KEY))) {
+			this.restartSheet = executionContext.getInt(getExecutionContextKey(CURRENT_SHEET_KEY));
+			this.restartRow = executionContext.getInt(getExecutionContextKey(CURRENT_ROW_KEY));
+		}
+		if (isSaveState() && executionContext.containsKey(getExecutionContextKey(FILTERED_COUNT_KEY))) {
+			this.filteredCount = executionContext.getInt(getExecutionContextKey(FILTERED_COUNT_KEY));
+		}
+		this.filteredCountAtOpen = this.filteredCount;
+		super.open(executionContext);
+	}
+
 	/**
-	 * On restart this will increment rowSet to where job left off previously.
-	 * Temporarily switch out the configured {@code RowMapper} so we can use the
-	 * {@code #doRead} method and reuse the logic in there, but without actually map to
-	 * instances (this to save memory and have better performance).
+	 * Next to the item count, stores the sheet and the index of the row which has been
+	 * read last. On restart reading resumes at that row directly.
 	 */
 	@Override
-	protected void jumpToItem(final int itemIndex) {
-		var current = this.rowMapper;
-		this.rowMapper = (rs) -> null;
-		try {
-			for (int i = 0; i < itemIndex; i++) {
-				doRead();
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (isSaveState()) {
+			if (this.rs != null) {
+				executionContext.putInt(getExecutionContextKey(CURRENT_SHEET_KEY), this.currentSheet - 1);
+				executionContext.putInt(getExecutionContextKey(CURRENT_ROW_KEY), this.rs.getCurrentRowIndex());
 			}
+			else {
+				executionContext.remove(getExecutionContextKey(CURRENT_SHEET_KEY));
+				executionContext.remove(getExecutionContextKey(CURRENT_ROW_KEY));
+			}
+			if (this.rowFilter != null) {
+				executionContext.putInt(getExecutionContextKey(FILTERED_COUNT_KEY), this.filteredCount);
+			}
+		}
+	}
+
+	/**
+	 * Store the state for the given item and filter count instead of the current ones, for
+	 * a caller which has read rows ahead of the items it has returned. The position of the
+	 * row read last is beyond those items, so it is removed and a restart skips the rows
+	 * based on the item count.
+	 * @param executionContext the {@code ExecutionContext} to store the state in
+	 * @param itemCount the number of items returned
+	 * @param filteredCount the number of rows rejected by the {@code RowFilter} before
+	 * the item returned last
+	 */
+	protected void updateForItemCount(ExecutionContext executionContext, int itemCount, int filteredCount) {
+		int currentItemCount = getCurrentItemCount();
+		int currentFilteredCount = this.filteredCount;
+		setCurrentItemCount(itemCount);
+		this.filteredCount = filteredCount;
+		try {
+			update(executionContext);
 		}
 		finally {
-			this.rowMapper = current;
+			setCurrentItemCount(currentItemCount);
+			this.filteredCount = currentFilteredCount;
+		}
+		if (isSaveState()) {
+			clearResumePosition(executionContext);
+		}
+	}
+
+	/**
+	 * Remove the position of the row read last from the {@code ExecutionContext}, so a
+	 * restart skips the rows based on the item count. Subclasses storing more of the
+	 * position should remove it as well.
+	 * @param executionContext the {@code ExecutionContext} to remove the position from
+	 */
+	protected void clearResumePosition(ExecutionContext executionContext) {
+		executionContext.remove(getExecutionContextKey(CURRENT_SHEET_KEY));
+		executionContext.remove(getExecutionContextKey(CURRENT_ROW_KEY));
+	}
+
+	/**
+	 * Adds the number of rows rejected by the {@code RowFilter}, since the reader was
+	 * opened, to the filter count of the {@code StepExecution}.
+	 */
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		int filtered = this.filteredCount - this.filteredCountAtOpen;
+		if (filtered > 0) {
+			stepExecution.setFilterCount(stepExecution.getFilterCount() + filtered);
+			this.filteredCountAtOpen = this.filteredCount;
+		}
+		return null;
+	}
+
+	/**
+	 * The number of rows rejected by the {@code RowFilter}, including those rejected
+	 * before a restart.
+	 * @return the number of filtered rows
+	 */
+	public int getFilteredCount() {
+		return this.filteredCount;
+	}
+
+	/**
+	 * On restart this will increment rowSet to where job left off previously. When the
+	 * sheet and row which have been read last are known it will resume at that row, else
+	 * it uses the same logic as {@code #doRead} to determine what is an item. In both
+	 * cases the rows are skipped through {@link RowSet#skip()} so that the cells of the
+	 * skipped rows are neither formatted nor mapped (where the {@code Sheet} supports
+	 * this).
+	 */
+	@Override
+	protected void jumpToItem(final int itemIndex) {
+		if (this.restartSheet != -1 && resume(this.restartSheet, this.restartRow)) {
+			return;
+		}
+		closeSheet();
+		this.currentSheet = 0;
+		for (int i = 0; i < itemIndex; i++) {
+			if (!skipItem()) {
+				return;
+			}
 		}
 	}
 
-	private boolean isInvalidValidRow(RowSet rs) {
-		for (var str : rs.getCurrentRow()) {
-			if (!str.isEmpty()) {
-				return false;
+	/**
+	 * Open the given sheet and move to the given row.
+	 * @param sheetIndex the index of the sheet
+	 * @param rowIndex the index of the row in the {@code RowSet}
+	 * @return {@code true} if positioned on the row, {@code false} if the row cannot be
+	 * reached
+	 */
+	private boolean resume(int sheetIndex, int rowIndex) {
+		if (this.noInput || sheetIndex >= getNumberOfSheets()) {
+			return false;
+		}
+		this.currentSheet = sheetIndex;
+		if (!nextSheet() || this.currentSheet - 1 != sheetIndex || this.rs.getCurrentRowIndex() > rowIndex) {
+			return false;
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Resuming sheet " + this.sheet.getName() + " at row " + rowIndex + ".");
+		}
+		return this.rs.skip(rowIndex - this.rs.getCurrentRowIndex());
+	}
+
+	/**
+	 * Skip the rows which make up the next item, blank rows are skipped as well.
+	 * @return {@code true} if an item has been skipped, {@code false} if there are no more
+	 * items
+	 */
+	private boolean skipItem() {
+		if (this.noInput) {
+			return false;
+		}
+		while (true) {
+			// rows need to be read to determine if they are accepted by the filter
+			boolean moved = (this.rowFilter != null) ? this.rs != null && this.rs.next()
+					: this.rs != null && this.rs.skip();
+			if (!moved || isAfterEndRow()) {
+				if (!nextSheet()) {
+					return false;
+				}
+			}
+			if (!this.rs.isCurrentRowBlank() && isAccepted()) {
+				return true;
 			}
 		}
-		return true;
+	}
+
+	private boolean isAfterEndRow() {
+		return this.endRow >= 0 && this.rs.getCurrentRowIndex() >= this.endRow;
 	}
 
 	@Override
@@ -179,6 +401,12 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 			return;
 		}
 
+		if (this.cellValueFormatter != null) {
+			this.cellValueFormatter.clear();
+		}
+		else {
+			initializeFormatters();
+		}
 		this.openExcelFile(this.resource, this.password);
 		this.noInput = false;
 		if (this.logger.isDebugEnabled()) {
@@ -188,32 +416,122 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 	}
 
 	private boolean nextSheet() {
+		closeSheet();
 		while (this.currentSheet < this.getNumberOfSheets()) {
-			final Sheet sheet = this.getSheet(this.currentSheet);
-			this.rs = this.rowSetFactory.create(sheet);
+			if (!isSheetSelected(this.currentSheet)) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Skipping sheet " + getSheetName(this.currentSheet) + ", not selected.");
+				}
+				this.currentSheet++;
+				continue;
+			}
+			this.sheet = this.getSheet(this.currentSheet);
+			boolean forwardOnly = this.sheet.isForwardOnly();
+			if (forwardOnly) {
+				this.lookAheadSheet = new LookAheadSheet(this.sheet);
+				this.sheet = this.lookAheadSheet;
+			}
+			if (this.prefetchSize > 0) {
+				this.sheet = new PrefetchingSheet(this.sheet, this.prefetchSize, this.prefetchTaskExecutor);
+			}
+			this.rs = this.rowSetFactory.create(this.sheet);
+			// the column names are determined when first needed, unless the rows which hold
+			// them are read on another thread, projected or skipped without being kept
+			boolean namesAhead = forwardOnly
+					&& (this.prefetchSize > 0 || this.projectedColumns != null || this.projectedColumnNames != null
+							|| this.startRow > 0);
+			if (namesAhead) {
+				this.rs.getMetaData().getColumnNames();
+			}
+			applyColumnProjection();
 			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Opening sheet " + sheet.getName() + ".");
+				this.logger.debug("Opening sheet " + this.sheet.getName() + ".");
 			}
 
+			if (forwardOnly && !namesAhead) {
+				this.lookAheadSheet.setRetaining(true);
+			}
 			for (int i = 0; i < this.linesToSkip; i++) {
 				if (this.rs.next() && this.skippedRowsCallback != null) {
 					this.skippedRowsCallback.handleRow(this.rs);
 				}
 			}
+			if (forwardOnly) {
+				this.lookAheadSheet.setRetaining(false);
+			}
+			// skip the rows before the start row, without calling the callback
+			if (this.rs.getCurrentRowIndex() + 1 < this.startRow) {
+				this.rs.skip(this.startRow - 1 - this.rs.getCurrentRowIndex());
+			}
 			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Openend sheet " + sheet.getName() + ", with " + sheet.getNumberOfRows() + " rows.");
+				this.logger.debug("Openend sheet " + this.sheet.getName() + ", with " + this.sheet.getNumberOfRows() + " rows.");
 			}
 			this.currentSheet++;
-			if (this.rs.next()) {
+			if (this.rs.next() && !isAfterEndRow()) {
 				return true;
 			}
+			closeSheet();
 		}
 		return false;
 	}
 
+	/**
+	 * Restrict the current sheet to the projected columns, column names are resolved
+	 * against the column names of the {@code RowSet} before the projection is applied.
+	 */
+	private void applyColumnProjection() {
+		int[] columns = this.projectedColumns;
+		if (this.projectedColumnNames != null) {
+			String[] names = this.rs.getMetaData().getColumnNames();
+			if (names == null) {
+				// no header row, the sheet is empty
+				return;
+			}
+			columns = new int[this.projectedColumnNames.length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.asList(names).indexOf(this.projectedColumnNames[i]);
+				if (columns[i] == -1) {
+					throw new IllegalStateException("Column '" + this.projectedColumnNames[i] + "' not found in sheet "
+							+ this.sheet.getName() + ", available columns " + Arrays.toString(names) + ".");
+				}
+			}
+		}
+		if (columns != null) {
+			this.sheet.setColumnProjection(columns);
+		}
+	}
+
+	/**
+	 * Determine if the sheet with the given index is to be read.
+	 * @param sheet the sheet index
+	 * @return {@code true} if the sheet is selected by the configured
+	 * {@code SheetSelector}
+	 */
+	protected boolean isSheetSelected(int sheet) {
+		return this.sheetSelector.select(sheet, getSheetName(sheet));
+	}
+
+	/**
+	 * Close the current sheet, so that the resources it holds can be released as soon as
+	 * it has been read.
+	 */
+	private void closeSheet() {
+		if (this.sheet != null) {
+			try {
+				this.sheet.close();
+			}
+			catch (Exception ex) {
+				this.logger.warn("Exception closing sheet " + this.sheet.getName() + ".", ex);
+			}
+			this.sheet = null;
+			this.lookAheadSheet = null;
+			this.rs = null;
+		}
+	}
+
 	protected void doClose() throws Exception {
+		closeSheet();
 		this.currentSheet = 0;
-		this.rs = null;
 	}
 
 	/**
@@ -228,6 +546,24 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 		Assert.notNull(this.rowMapper, "RowMapper must be set");
 		Assert.notNull(this.dataFormatterCustomizer, "DataFormatterCustomizer must be set");
 		Assert.notNull(this.formulaEvaluatorFactory, "FormulaEvaluatorFactory must be set");
+		Assert.notNull(this.sheetSelector, "SheetSelector must be set");
+		Assert.isTrue(this.projectedColumns == null || this.projectedColumnNames == null,
+				"Either the projected columns or the projected column names can be set, not both");
+		if (this.projectedColumns != null) {
+			Assert.isTrue(Arrays.stream(this.projectedColumns).allMatch((column) -> column >= 0),
+					"Projected columns must not be negative");
+			Assert.isTrue(Arrays.stream(this.projectedColumns).distinct().count() == this.projectedColumns.length,
+					"Projected columns must be unique");
+		}
+		initializeFormatters();
+	}
+
+	/**
+	 * Create the {@code DataFormatter} and {@code CellValueFormatter} from the
+	 * configuration. Also done when the reader is opened without being initialized, e.g.
+	 * to only inspect the sheets of the workbook.
+	 */
+	private void initializeFormatters() {
 		if (this.datesAsIso) {
 			this.dataFormatter = (this.userLocale != null) ? new IsoFormattingDateDataFormatter(this.userLocale) : new IsoFormattingDateDataFormatter();
 		}
@@ -235,12 +571,22 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 			this.dataFormatter = (this.userLocale != null) ? new DataFormatter(this.userLocale) : new DataFormatter();
 		}
 		this.dataFormatterCustomizer.customize(this.dataFormatter);
+		this.cellValueFormatter = new CellValueFormatter(this.dataFormatter, this.formatCacheSize);
 	}
 
 	protected DataFormatter getDataFormatter() {
 		return this.dataFormatter;
 	}
 
+	/**
+	 * The {@code CellValueFormatter} to format the cells with, which uses the
+	 * {@link #getDataFormatter() DataFormatter}.
+	 * @return the {@code CellValueFormatter}
+	 */
+	protected CellValueFormatter getCellValueFormatter() {
+		return this.cellValueFormatter;
+	}
+
 	/**
 	 * Set the number of lines to skip. This number is applied to all worksheet in the
 	 * excel file! default to 0
@@ -257,6 +603,22 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 	 */
 	protected abstract Sheet getSheet(int sheet);
 
+	/**
+	 * Get the name of the sheet with the given sheet index. Used to determine if a sheet
+	 * is to be read without having to open it, the default implementation does open the
+	 * sheet through {@link #getSheet(int)}.
+	 * @param sheet the sheet index
+	 * @return the name of the sheet
+	 */
+	protected String getSheetName(int sheet) {
+		try (Sheet current = getSheet(sheet)) {
+			return current.getName();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot determine name of sheet " + sheet + ".", ex);
+		}
+	}
+
 	/**
 	 * The number of sheets in the underlying workbook.
 	 * @return the number of sheets.
@@ -291,6 +653,16 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 		this.rowMapper = rowMapper;
 	}
 
+	/**
+	 * Public setter for the {@code rowFilter}. Used to determine which rows are to be
+	 * mapped, rows which aren't accepted are skipped. Default {@code null} to map all
+	 * rows.
+	 * @param rowFilter the {@code RowFilter} to use.
+	 */
+	public void setRowFilter(RowFilter rowFilter) {
+		this.rowFilter = rowFilter;
+	}
+
 	/**
 	 * Public setter for the <code>rowSetFactory</code>. Used to create a {@code RowSet}
 	 * implemenation. By default the {@code DefaultRowSetFactory} is used.
@@ -300,6 +672,74 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 		this.rowSetFactory = rowSetFactory;
 	}
 
+	/**
+	 * The {@code SheetSelector} to determine which sheets of the workbook to read. Sheets
+	 * which aren't selected will not be opened. By default all sheets are read.
+	 * @param sheetSelector the {@code SheetSelector} to use, never {@code null}
+	 * @see SheetSelector
+	 */
+	public void setSheetSelector(SheetSelector sheetSelector) {
+		this.sheetSelector = sheetSelector;
+	}
+
+	/**
+	 * Only read the sheet with the given (0-based) index. Shortcut for
+	 * {@code setSheetSelector(SheetSelector.indexes(sheetIndex))}.
+	 * @param sheetIndex the index of the sheet to read
+	 * @see #setSheetSelector(SheetSelector)
+	 * @see ExcelPartitioner
+	 */
+	public void setSheetIndex(int sheetIndex) {
+		this.sheetSelector = SheetSelector.indexes(sheetIndex);
+	}
+
+	/**
+	 * The (0-based) index of the first row of a sheet to read, rows before it are skipped
+	 * without being mapped. The lines to skip are always skipped, and passed to the
+	 * skipped rows callback, regardless of the start row. Applied to all the sheets which
+	 * are read, default 0.
+	 * @param startRow the index of the first row to read (inclusive)
+	 * @see ExcelPartitioner
+	 */
+	public void setStartRow(int startRow) {
+		this.startRow = startRow;
+	}
+
+	/**
+	 * The (0-based) index of the row at which to stop reading a sheet, the sheet is closed
+	 * as soon as this row is reached. Applied to all the sheets which are read, default
+	 * {@code -1} to read all the rows.
+	 * @param endRow the index of the row to stop reading at (exclusive), or {@code -1}
+	 * @see ExcelPartitioner
+	 */
+	public void setEndRow(int endRow) {
+		this.endRow = endRow;
+	}
+
+	/**
+	 * Only read the columns with the given (0-based) indexes, the rows exposed by the
+	 * {@code RowSet} contain only these columns in the given order. Cells of the other
+	 * columns are passed over without being formatted, rows without content in the
+	 * projected columns are treated as blank rows. Default all columns are read.
+	 * @param projectedColumns the indexes of the columns to read
+	 * @see #setProjectedColumnNames(String...)
+	 */
+	public void setProjectedColumns(int... projectedColumns) {
+		this.projectedColumns = projectedColumns;
+	}
+
+	/**
+	 * Only read the columns with the given names, like
+	 * {@link #setProjectedColumns(int...)}. The names are resolved, for each sheet,
+	 * against the column names of the {@code RowSet} as determined by the
+	 * {@code ColumnNameExtractor} of the {@code RowSetFactory}.
+	 * @param projectedColumnNames the names of the columns to read
+	 * @see org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory#setColumnNameExtractor
+	 */
+	public void setProjectedColumnNames(String... projectedColumnNames) {
+		this.projectedColumnNames = projectedColumnNames;
+	}
+
 	/**
 	 * Set the callback handler to call when a row is being skipped.
 	 * @param skippedRowsCallback will be called for each one of the initial skipped lines
@@ -362,4 +802,79 @@ public abstract class AbstractExcelItemReader<T> extends AbstractItemCountingIte
 	protected FormulaEvaluatorFactory getFormulaEvaluatorFactory() {
 		return this.formulaEvaluatorFactory;
 	}
+
+	/**
+	 * The number of rows to read ahead, on a separate thread, while the rows read before
+	 * are mapped and processed. The rows read ahead are parsed and formatted but not yet
+	 * counted, the state stored in the {@code ExecutionContext} reflects the rows which
+	 * have been returned. Default {@code 0}, the rows are read when they are needed.
+	 * @param prefetchSize the number of rows to read ahead, {@code 0} to disable
+	 * @see #setPrefetchTaskExecutor(TaskExecutor)
+	 */
+	public void setPrefetchSize(int prefetchSize) {
+		Assert.isTrue(prefetchSize >= 0, "The prefetchSize cannot be negative.");
+		this.prefetchSize = prefetchSize;
+	}
+
+	protected int getPrefetchSize() {
+		return this.prefetchSize;
+	}
+
+	/**
+	 * Whether rows of the current sheet have been read ahead of the row returned last,
+	 * because rows are prefetched or because the header row was read ahead and not all
+	 * the rows up to it have been returned yet. The position of the underlying sheet is
+	 * then beyond the row returned last.
+	 * @return {@code true} when rows have been read ahead
+	 */
+	protected boolean isReadingAhead() {
+		return this.prefetchSize > 0 || (this.lookAheadSheet != null && this.lookAheadSheet.hasPendingRows());
+	}
+
+	/**
+	 * The {@code TaskExecutor} providing the thread which reads the rows of a sheet ahead,
+	 * a task is submitted for each sheet. Default a {@code SimpleAsyncTaskExecutor}, which
+	 * can be configured to use virtual threads.
+	 * @param prefetchTaskExecutor the {@code TaskExecutor} to use, never {@code null}
+	 * @see #setPrefetchSize(int)
+	 */
+	public void setPrefetchTaskExecutor(TaskExecutor prefetchTaskExecutor) {
+		Assert.notNull(prefetchTaskExecutor, "The prefetchTaskExecutor cannot be null.");
+		this.prefetchTaskExecutor = prefetchTaskExecutor;
+	}
+
+	/**
+	 * The number of formatted numeric values to remember, per style, so cells with the
+	 * same value and style are only formatted once. This pays off for columns with few
+	 * distinct values, like dates or codes; use {@link #getFormatCacheHitCount()} and
+	 * {@link #getFormatCacheMissCount()} to tune it. Default {@code 0}, every cell is
+	 * formatted.
+	 * @param formatCacheSize the number of formatted values to remember, {@code 0} to
+	 * disable
+	 * @see CellValueFormatter
+	 */
+	public void setFormatCacheSize(int formatCacheSize) {
+		Assert.isTrue(formatCacheSize >= 0, "The formatCacheSize cannot be negative.");
+		this.formatCacheSize = formatCacheSize;
+	}
+
+	/**
+	 * The number of numeric cells whose formatted value was remembered, since the reader
+	 * was initialized.
+	 * @return the number of hits, {@code 0} when no values are remembered
+	 * @see #setFormatCacheSize(int)
+	 */
+	public long getFormatCacheHitCount() {
+		return (this.cellValueFormatter != null) ? this.cellValueFormatter.getHitCount() : 0;
+	}
+
+	/**
+	 * The number of numeric cells which had to be formatted while remembering the
+	 * formatted values, since the reader was initialized.
+	 * @return the number of misses, {@code 0} when no values are remembered
+	 * @see #setFormatCacheSize(int)
+	 */
+	public long getFormatCacheMissCount() {
+		return (this.cellValueFormatter != null) ? this.cellValueFormatter.getMissCount() : 0;
+	}
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Formats numeric cells with a {@code DataFormatter}, optionally remembering the
+ * formatted values per style. Sheets tend to reuse a handful of styles for millions of
+ * cells, and columns like dates or codes have few distinct values, while the
+ * {@code DataFormatter} interprets the number format again for every cell. The formatted
+ * value only depends on the value and the style of the cell, so for a cell with the same
+ * value and style as a cell formatted before, the remembered value is returned.
+ *
+ * The formatted values are kept in a bounded cache, in which a value replaces the value
+ * used least recently of the two slots it can be in, so a column with many distinct
+ * values doesn't grow the cache. The number of hits and misses is counted to tune the
+ * size of the cache. Styles of columns with many distinct values, like amounts, would
+ * only push out the values of other styles: when less than a quarter of the first
+ * {@value #SAMPLE_SIZE} values of a style are remembered, the values of the style are
+ * no longer remembered. As style indexes are specific to a workbook, the cache is
+ * {@link #clear() cleared} when another workbook is opened.
+ *
+ * Like the readers, this class is not thread-safe. The counters can be read from another
+ * thread, e.g. while the rows are read ahead, but are only approximate then.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public final class CellValueFormatter {
+
+	private static final int MINIMUM_CACHE_SIZE = 16;
+
+	private static final int MAXIMUM_CACHE_SIZE = 1 << 24;
+
+	private static final int SAMPLE_SIZE = 1024;
+
+	private static final int BYPASSED = -1;
+
+	private final DataFormatter dataFormatter;
+
+	private final int shift;
+
+	@Nullable
+	private final long[] values;
+
+	@Nullable
+	private final int[] styles;
+
+	@Nullable
+	private final String[] results;
+
+	private int[] styleLookups = new int[0];
+
+	private int[] styleHits = new int[0];
+
+	private long hitCount;
+
+	private long missCount;
+
+	/**
+	 * Create a {@code CellValueFormatter} which formats every cell with the given
+	 * {@code DataFormatter}.
+	 * @param dataFormatter the {@code DataFormatter} to format the cells with
+	 */
+	public CellValueFormatter(DataFormatter dataFormatter) {
+		this(dataFormatter, 0);
+	}
+
+	/**
+	 * Create a {@code CellValueFormatter} remembering up to about the given number of
+	 * formatted values. The size is rounded up to a power of two.
+	 * @param dataFormatter the {@code DataFormatter} to format the cells with
+	 * @param cacheSize the number of formatted values to remember, {@code 0} to disable
+	 * the cache
+	 */
+	public CellValueFormatter(DataFormatter dataFormatter, int cacheSize) {
+		Assert.notNull(dataFormatter, "The dataFormatter cannot be null.");
+		Assert.isTrue(cacheSize >= 0 && cacheSize <= MAXIMUM_CACHE_SIZE,
+				() -> "The cacheSize must be between 0 and " + MAXIMUM_CACHE_SIZE + ".");
+		this.dataFormatter = dataFormatter;
+		if (cacheSize > 0) {
+			int capacity = Math.max(MINIMUM_CACHE_SIZE, Integer.highestOneBit(cacheSize - 1) << 1);
+			this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+			this.values = new long[capacity];
+			this.styles = new int[capacity];
+			this.results = new String[capacity];
+		}
+		else {
+			this.shift = 0;
+			this.values = null;
+			this.styles = null;
+			this.results = null;
+		}
+	}
+
+	/**
+	 * The {@code DataFormatter} used to format the cells.
+	 * @return the {@code DataFormatter}
+	 */
+	public DataFormatter getDataFormatter() {
+		return this.dataFormatter;
+	}
+
+	/**
+	 * Format a numeric value like
+	 * {@link DataFormatter#formatRawCellContents(double, int, String, boolean)} does.
+	 * @param value the value of the cell
+	 * @param style the index of the style of the cell, which determines the format
+	 * @param formatIndex the index of the number format of the style
+	 * @param formatString the number format of the style
+	 * @param use1904Windowing whether the workbook uses the 1904 date system
+	 * @return the formatted value
+	 */
+	public String formatRawCellContents(double value, int style, int formatIndex, String formatString,
+			boolean use1904Windowing) {
+		int slot = find(value, style);
+		if (slot == -1) {
+			return this.dataFormatter.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+		}
+		String result = this.results[slot];
+		if (result == null) {
+			result = this.dataFormatter.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+			this.results[slot] = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Format a cell like {@link DataFormatter#formatCellValue(Cell)} does. Only the values
+	 * of numeric cells are remembered, other cells are formatted each time.
+	 * @param cell the cell, can be {@code null}
+	 * @return the formatted value
+	 */
+	public String formatCellValue(@Nullable Cell cell) {
+		if (this.results == null || cell == null || cell.getCellType() != CellType.NUMERIC) {
+			return this.dataFormatter.formatCellValue(cell);
+		}
+		int slot = find(cell.getNumericCellValue(), Short.toUnsignedInt(cell.getCellStyle().getIndex()));
+		if (slot == -1) {
+			return this.dataFormatter.formatCellValue(cell);
+		}
+		String result = this.results[slot];
+		if (result == null) {
+			result = this.dataFormatter.formatCellValue(cell);
+			this.results[slot] = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Find the slot of the value with the given style. A value can be in one of two
+	 * slots, the one used most recently first, so two values which happen to share their
+	 * slots, e.g. a date and a code in the same row, don't keep replacing each other. On
+	 * a miss the first slot is claimed for the value and its result is {@code null}, to
+	 * be filled in by the caller.
+	 * @param value the value of the cell
+	 * @param style the index of the style of the cell
+	 * @return the slot, or {@code -1} when the value isn't remembered
+	 */
+	private int find(double value, int style) {
+		if (this.results == null) {
+			return -1;
+		}
+		if (style >= this.styleLookups.length) {
+			this.styleLookups = Arrays.copyOf(this.styleLookups, Math.max(style + 1, this.styleLookups.length * 2));
+			this.styleHits = Arrays.copyOf(this.styleHits, this.styleLookups.length);
+		}
+		int lookups = this.styleLookups[style];
+		if (lookups == BYPASSED) {
+			this.missCount++;
+			return -1;
+		}
+		if (lookups < SAMPLE_SIZE) {
+			this.styleLookups[style] = lookups + 1;
+			if (lookups + 1 == SAMPLE_SIZE && this.styleHits[style] < SAMPLE_SIZE / 4) {
+				this.styleLookups[style] = BYPASSED;
+			}
+		}
+		long bits = Double.doubleToRawLongBits(value);
+		long hash = bits + style * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		int slot = (int) ((hash ^ (hash >>> 33)) >>> this.shift);
+		if (matches(slot, bits, style)) {
+			hit(style);
+			return slot;
+		}
+		int other = slot ^ 1;
+		if (matches(other, bits, style)) {
+			hit(style);
+			swap(slot, other);
+			return slot;
+		}
+		this.missCount++;
+		swap(slot, other);
+		this.values[slot] = bits;
+		this.styles[slot] = style;
+		this.results[slot] = null;
+		return slot;
+	}
+
+	private void hit(int style) {
+		this.hitCount++;
+		this.styleHits[style]++;
+	}
+
+	private boolean matches(int slot, long bits, int style) {
+		return this.results[slot] != null && this.values[slot] == bits && this.styles[slot] == style;
+	}
+
+	private void swap(int slot, int other) {
+		long value = this.values[slot];
+		this.values[slot] = this.values[other];
+		this.values[other] = value;
+		int style = this.styles[slot];
+		this.styles[slot] = this.styles[other];
+		this.styles[other] = style;
+		String result = this.results[slot];
+		this.results[slot] = this.results[other];
+		this.results[other] = result;
+	}
+
+	/**
+	 * Forget the formatted values and which styles are no longer remembered, to be called
+	 * when another workbook is opened as the styles are those of the workbook. The
+	 * counters are kept.
+	 */
+	public void clear() {
+		if (this.results != null) {
+			Arrays.fill(this.results, null);
+		}
+		this.styleLookups = new int[0];
+		this.styleHits = new int[0];
+	}
+
+	/**
+	 * The number of cells whose formatted value was remembered.
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * The number of numeric cells which were formatted by the {@code DataFormatter} while
+	 * the cache is enabled, including the cells of styles which are no longer
+	 * remembered.
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Partitioner} which splits an Excel workbook into a partition per sheet, and
+ * optionally each sheet into partitions of a fixed number of rows. The sheets, and the
+ * number of rows of each sheet, are determined with the configured
+ * {@link AbstractExcelItemReader}, its {@code SheetSelector} is taken into account. For
+ * the {@code StreamingXlsxItemReader} the number of rows is taken from the
+ * {@code dimension} of a sheet, so no rows need to be read.
+ *
+ * The {@code ExecutionContext} of each partition contains the {@code sheetIndex},
+ * {@code sheetName}, {@code startRow} and {@code endRow} which can be used to configure
+ * the reader of the partition, for instance
+ * {@code #{stepExecutionContext['sheetIndex']}} for
+ * {@link AbstractExcelItemReader#setSheetIndex(int)}. The {@code endRow} of the last
+ * partition of a sheet is {@code -1}, so that rows beyond the declared dimension are
+ * still read.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class ExcelPartitioner implements Partitioner, InitializingBean {
+
+	/** The key for the index of the sheet to read. **/
+	public static final String SHEET_INDEX_KEY = "sheetIndex";
+
+	/** The key for the name of the sheet to read. **/
+	public static final String SHEET_NAME_KEY = "sheetName";
+
+	/** The key for the index of the first row to read (inclusive). **/
+	public static final String START_ROW_KEY = "startRow";
+
+	/** The key for the index of the row to stop reading at (exclusive). **/
+	public static final String END_ROW_KEY = "endRow";
+
+	private static final String PARTITION_KEY = "partition";
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private AbstractExcelItemReader<?> itemReader;
+
+	private int rowsPerPartition = 0;
+
+	/**
+	 * The {@code AbstractExcelItemReader} to use to determine the sheets and the number of
+	 * rows of the workbook. It needs a resource but no {@code RowMapper}, and doesn't have
+	 * to be initialized with {@code afterPropertiesSet()}, it is opened and closed on each
+	 * call to {@link #partition(int)}. Use a different instance than the reader of the
+	 * partitioned step.
+	 * @param itemReader the reader to inspect the workbook with
+	 */
+	public void setItemReader(AbstractExcelItemReader<?> itemReader) {
+		this.itemReader = itemReader;
+	}
+
+	/**
+	 * The maximum number of rows of a partition, sheets with more rows are split into
+	 * multiple partitions. Default {@code 0} to create a single partition per sheet.
+	 * @param rowsPerPartition the maximum number of rows of a partition
+	 */
+	public void setRowsPerPartition(int rowsPerPartition) {
+		this.rowsPerPartition = rowsPerPartition;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.notNull(this.itemReader, "ItemReader must be set");
+	}
+
+	/**
+	 * Create the partitions for the workbook, the {@code gridSize} is ignored as the
+	 * number of partitions is determined by the workbook and the
+	 * {@code rowsPerPartition}.
+	 * @param gridSize ignored
+	 * @return the partitions in order of sheet and row
+	 */
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+		try {
+			this.itemReader.open(new ExecutionContext());
+			for (int i = 0; i < this.itemReader.getNumberOfSheets(); i++) {
+				if (!this.itemReader.isSheetSelected(i)) {
+					continue;
+				}
+				partition(i, partitions);
+			}
+		}
+		finally {
+			this.itemReader.close();
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Created " + partitions.size() + " partitions.");
+		}
+		return partitions;
+	}
+
+	private void partition(int sheetIndex, Map<String, ExecutionContext> partitions) {
+		String name;
+		int rows;
+		try (Sheet sheet = this.itemReader.getSheet(sheetIndex)) {
+			name = sheet.getName();
+			rows = sheet.getNumberOfRows();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot determine number of rows of sheet " + sheetIndex + ".", ex);
+		}
+
+		int startRow = 0;
+		while (true) {
+			int endRow = startRow + this.rowsPerPartition;
+			boolean last = this.rowsPerPartition <= 0 || endRow >= rows;
+			ExecutionContext context = new ExecutionContext();
+			context.putInt(SHEET_INDEX_KEY, sheetIndex);
+			context.putString(SHEET_NAME_KEY, name);
+			context.putInt(START_ROW_KEY, startRow);
+			context.putInt(END_ROW_KEY, last ? -1 : endRow);
+			partitions.put(PARTITION_KEY + partitions.size(), context);
+			if (last) {
+				return;
+			}
+			startRow = endRow;
+		}
+	}
+
+}
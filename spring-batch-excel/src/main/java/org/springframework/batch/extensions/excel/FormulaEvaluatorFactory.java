@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2024 the original author or authors.
+ * Copyright 2011-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,10 @@ import org.springframework.lang.Nullable;
  * Factory interface for creating a {@code FormulaEvaluator}, the default will return {@code null} as to re-use the
  * cached formula result in the workbooks.
  *
+ * The {@code PoiItemReader} creates the evaluator once per workbook, when the first formula cell is read, and shares it
+ * between the sheets so the results it has evaluated, e.g. of cells referenced by other formulas, are evaluated only
+ * once. Only the formula cells which are read are evaluated, the cells of columns which aren't projected never are.
+ *
  * @author Marten Deinum
  * @since 0.2.0
  *
@@ -32,10 +36,10 @@ import org.springframework.lang.Nullable;
 @FunctionalInterface
 public interface FormulaEvaluatorFactory {
 
-	/** Return {@code null} for the {@code FormulaEvaluator}, used by default. **/
+	/** Return {@code null} for the {@code FormulaEvaluator}, the cached results are used, used by default. **/
 	FormulaEvaluatorFactory NOOP = (wb) -> null;
 
-	/** Delegate the creation of the {@code FormulaEvaluator} to the workbook. **/
+	/** Delegate the creation of the {@code FormulaEvaluator} to the workbook, the formulas are evaluated. **/
 	FormulaEvaluatorFactory SIMPLE = (wb) -> wb.getCreationHelper().createFormulaEvaluator();
 
 	/**
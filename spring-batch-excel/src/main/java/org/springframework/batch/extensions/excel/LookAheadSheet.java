@@ -0,0 +1,309 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code Sheet} which adds {@link #getRow(int)} to a {@link Sheet#isForwardOnly()
+ * forward-only} {@code Sheet}, for the rows which haven't been read yet. Requesting such a
+ * row, e.g. the header row by a {@code ColumnNameExtractor}, reads the rows up to and
+ * including that row ahead, in the same pass over the sheet. The rows read ahead are
+ * copied with {@link TypedRow#copyOf(TypedRow)} and returned again, in order, when the
+ * rows are read.
+ *
+ * The row number passed to {@link #getRow(int)} is the 0-based index of the row as
+ * returned by the iterator of the other {@code Sheet}. Once the rows read ahead have been
+ * returned and later rows are read, only the rows read ahead are available, requesting
+ * another row fails with an {@code IllegalStateException}. A column projection set after the rows have
+ * been read ahead applies to these rows when they are returned.
+ *
+ * While {@link #setRetaining(boolean) retaining}, the rows read without a projection are
+ * copied as well, as long as no row has been passed without being kept, so they can
+ * still be requested afterwards. This keeps e.g. the header row skipped when a sheet is
+ * opened available to a {@code ColumnNameExtractor} which is only used later, without
+ * reading ahead.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class LookAheadSheet implements Sheet {
+
+	private final Sheet delegate;
+
+	private final List<TypedRow> readAhead = new ArrayList<>();
+
+	@Nullable
+	private Iterator<String[]> rows;
+
+	@Nullable
+	private Iterator<String[]> lookAhead;
+
+	private int returned;
+
+	private boolean passed;
+
+	private boolean retaining;
+
+	LookAheadSheet(Sheet delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public int getNumberOfRows() {
+		return this.delegate.getNumberOfRows();
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	/**
+	 * Returns a row read ahead, reading ahead up to the given row when no rows after the
+	 * rows read ahead have been read yet.
+	 * @throws IllegalStateException when the row has already been passed without being
+	 * read ahead
+	 */
+	@Override
+	@Nullable
+	public String[] getRow(int rowNumber) {
+		if (rowNumber < 0) {
+			return null;
+		}
+		if (rowNumber >= this.readAhead.size()) {
+			if (this.passed) {
+				throw new IllegalStateException("Row " + rowNumber + " of sheet " + getName()
+						+ " has already been read, only the " + this.readAhead.size()
+						+ " rows read ahead are available.");
+			}
+			Iterator<String[]> rows = delegateRows();
+			while (rowNumber >= this.readAhead.size()) {
+				TypedRow row = this.delegate.nextTypedRow(rows);
+				if (row == null) {
+					return null;
+				}
+				this.readAhead.add(TypedRow.copyOf(row));
+			}
+		}
+		return this.readAhead.get(rowNumber).getStrings().clone();
+	}
+
+	@Override
+	public void setColumnProjection(int[] columns) {
+		this.delegate.setColumnProjection(columns);
+	}
+
+	@Override
+	@Nullable
+	public int[] getColumnProjection() {
+		return this.delegate.getColumnProjection();
+	}
+
+	@Override
+	public boolean isRowBufferReused() {
+		return this.delegate.isRowBufferReused();
+	}
+
+	/**
+	 * Keep a copy of the rows which are read from now on, until turned off again.
+	 * @param retaining {@code true} to keep the rows read
+	 */
+	void setRetaining(boolean retaining) {
+		this.retaining = retaining;
+	}
+
+	/**
+	 * Whether there are rows read ahead which haven't been returned yet.
+	 * @return {@code true} if rows are pending
+	 */
+	boolean hasPendingRows() {
+		return this.returned < this.readAhead.size();
+	}
+
+	private Iterator<String[]> delegateRows() {
+		if (this.rows == null) {
+			this.rows = this.delegate.iterator();
+		}
+		return this.rows;
+	}
+
+	@Override
+	public Iterator<String[]> iterator() {
+		if (this.lookAhead != null) {
+			return this.delegate.iterator();
+		}
+		this.lookAhead = new Iterator<>() {
+
+			private TypedRow next;
+
+			@Override
+			public boolean hasNext() {
+				if (this.next == null) {
+					this.next = nextTypedRow(this);
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public String[] next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				String[] row = this.next.getStrings();
+				this.next = null;
+				return row;
+			}
+		};
+		return this.lookAhead;
+	}
+
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		if (rows != this.lookAhead) {
+			return this.delegate.nextTypedRow(rows);
+		}
+		if (this.returned < this.readAhead.size()) {
+			return project(this.readAhead.get(this.returned++));
+		}
+		TypedRow row = this.delegate.nextTypedRow(delegateRows());
+		if (row != null && this.retaining && !this.passed && getColumnProjection() == null) {
+			this.readAhead.add(TypedRow.copyOf(row));
+			this.returned++;
+		}
+		else {
+			this.passed = true;
+		}
+		return row;
+	}
+
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		if (rows != this.lookAhead) {
+			return this.delegate.skipRow(rows);
+		}
+		if (this.returned < this.readAhead.size()) {
+			return project(this.readAhead.get(this.returned++)).isBlank() ? SkippedRow.BLANK : SkippedRow.CONTENT;
+		}
+		this.passed = true;
+		return this.delegate.skipRow(delegateRows());
+	}
+
+	/**
+	 * Skips the rows read ahead and lets the other {@code Sheet} skip the remaining rows,
+	 * so it can skip them in its own way, e.g. by seeking to a checkpoint.
+	 */
+	@Override
+	public int skipRows(Iterator<String[]> rows, int count) {
+		if (rows != this.lookAhead) {
+			return this.delegate.skipRows(rows, count);
+		}
+		int skipped = Math.min(count, this.readAhead.size() - this.returned);
+		this.returned += skipped;
+		if (skipped == count) {
+			return skipped;
+		}
+		this.passed = true;
+		return skipped + this.delegate.skipRows(delegateRows(), count - skipped);
+	}
+
+	/**
+	 * A row read ahead, restricted to the projected columns when a projection has been
+	 * set after the row was read.
+	 * @param row the row read ahead
+	 * @return the row to return
+	 */
+	private TypedRow project(TypedRow row) {
+		int[] projection = getColumnProjection();
+		return (projection != null) ? new ProjectedRow(row, projection) : row;
+	}
+
+	@Override
+	public void close() throws Exception {
+		this.readAhead.clear();
+		this.delegate.close();
+	}
+
+	/**
+	 * View of the projected columns of a row which has been read in full.
+	 */
+	private static final class ProjectedRow implements TypedRow {
+
+		private final TypedRow row;
+
+		private final int[] projection;
+
+		private ProjectedRow(TypedRow row, int[] projection) {
+			this.row = row;
+			this.projection = projection;
+		}
+
+		private int column(int column) {
+			return (column >= 0 && column < this.projection.length) ? this.projection[column] : -1;
+		}
+
+		@Override
+		public int getNumberOfColumns() {
+			return this.projection.length;
+		}
+
+		@Override
+		public CellType getCellType(int column) {
+			return this.row.getCellType(column(column));
+		}
+
+		@Override
+		@Nullable
+		public String getRawString(int column) {
+			return this.row.getRawString(column(column));
+		}
+
+		@Override
+		public String getString(int column) {
+			return this.row.getString(column(column));
+		}
+
+		@Override
+		public String[] getStrings() {
+			String[] strings = new String[this.projection.length];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = this.row.getString(this.projection[i]);
+			}
+			return strings;
+		}
+
+		@Override
+		public double getDouble(int column) {
+			return this.row.getDouble(column(column));
+		}
+
+		@Override
+		public boolean isDate1904() {
+			return this.row.isDate1904();
+		}
+
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.batch.item.ItemReader} which reads the rows with an
+ * {@link AbstractExcelItemReader} but maps them, with a {@link RowMapper}, on the threads
+ * of a {@code TaskExecutor}. Use this when mapping a row is expensive compared to parsing
+ * it, e.g. when the {@code RowMapper} does heavy conversions or validation.
+ *
+ * Parsing the workbook stays sequential: the rows are read, skipped and filtered by the
+ * {@code AbstractExcelItemReader}, which hands out a {@link RowSet#snapshot() snapshot}
+ * of each row. Up to {@link #setWindowSize(int) windowSize} rows are mapped ahead of the
+ * row returned, the items are returned in the order of the rows. Hence a regular,
+ * single-threaded, step gets the same items in the same order as from the
+ * {@code AbstractExcelItemReader} itself.
+ *
+ * The state stored in the {@code ExecutionContext} is that of the
+ * {@code AbstractExcelItemReader}, corrected for the rows which have been read but not yet
+ * returned: the item count (and filter count) of the row returned last is stored, so a
+ * restart continues with the first row which hasn't been returned. The position of the
+ * row read last is not stored while rows are pending, on restart the rows are skipped
+ * based on the item count.
+ *
+ * The {@code RowMapper} is called concurrently and has to be thread-safe. This reader
+ * itself is not thread-safe, like the {@code AbstractExcelItemReader} it is meant for a
+ * single thread.
+ *
+ * @param <T> the type
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class ParallelMappingExcelItemReader<T>
+		implements ResourceAwareItemReaderItemStream<T>, StepExecutionListener, InitializingBean {
+
+	private final AbstractExcelItemReader<RowSet> delegate;
+
+	private final RowMapper<T> rowMapper;
+
+	private final Deque<PendingItem<T>> pending = new ArrayDeque<>();
+
+	private int windowSize = 4 * Runtime.getRuntime().availableProcessors();
+
+	private TaskExecutor taskExecutor = new TaskExecutorAdapter(ForkJoinPool.commonPool());
+
+	private boolean exhausted;
+
+	private int itemCount;
+
+	private int filteredCount;
+
+	/**
+	 * Create a reader which reads the rows with the given reader and maps them with the
+	 * given {@code RowMapper}. The {@code RowMapper} of the given reader is replaced by
+	 * one which takes a snapshot of the row.
+	 * @param delegate the reader to read the rows with
+	 * @param rowMapper the thread-safe {@code RowMapper} to map the rows with
+	 */
+	public ParallelMappingExcelItemReader(AbstractExcelItemReader<RowSet> delegate, RowMapper<T> rowMapper) {
+		Assert.notNull(delegate, "The delegate cannot be null.");
+		Assert.notNull(rowMapper, "The rowMapper cannot be null.");
+		this.delegate = delegate;
+		this.rowMapper = rowMapper;
+		this.delegate.setRowMapper(RowSet::snapshot);
+	}
+
+	@Override
+	public void setResource(Resource resource) {
+		this.delegate.setResource(resource);
+	}
+
+	/**
+	 * The maximum number of rows which are mapped, or waiting to be mapped, ahead of the
+	 * row returned. Default four times the number of available processors.
+	 * @param windowSize the number of rows to map ahead, at least {@code 1}
+	 */
+	public void setWindowSize(int windowSize) {
+		Assert.isTrue(windowSize > 0, "The windowSize must be greater than 0.");
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * The {@code TaskExecutor} to map the rows with, a task is submitted for each row.
+	 * Default the common {@code ForkJoinPool}. For a {@code RowMapper} which blocks, e.g.
+	 * on a lookup, a {@code SimpleAsyncTaskExecutor} using virtual threads is a better fit.
+	 * @param taskExecutor the {@code TaskExecutor} to use, never {@code null}
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "The taskExecutor cannot be null.");
+		this.taskExecutor = taskExecutor;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		this.delegate.afterPropertiesSet();
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		this.pending.clear();
+		this.exhausted = false;
+		this.delegate.open(executionContext);
+		this.itemCount = this.delegate.getCurrentItemCount();
+		this.filteredCount = this.delegate.getFilteredCount();
+	}
+
+	@Override
+	@Nullable
+	public T read() throws Exception {
+		while (true) {
+			fill();
+			PendingItem<T> next = this.pending.poll();
+			if (next == null) {
+				return null;
+			}
+			this.itemCount = next.itemCount;
+			this.filteredCount = next.filteredCount;
+			T item = next.get(this.delegate);
+			if (item != null) {
+				return item;
+			}
+		}
+	}
+
+	/**
+	 * Read rows until the window is full. A failure to read a row is returned in the
+	 * order of the rows as well.
+	 */
+	private void fill() {
+		while (!this.exhausted && this.pending.size() < this.windowSize) {
+			RowSet row;
+			try {
+				row = this.delegate.read();
+			}
+			catch (Exception ex) {
+				this.pending.add(new PendingItem<>(null, CompletableFuture.failedFuture(ex),
+						this.delegate.getCurrentItemCount(), this.delegate.getFilteredCount()));
+				continue;
+			}
+			if (row == null) {
+				this.exhausted = true;
+			}
+			else {
+				CompletableFuture<T> item = CompletableFuture.supplyAsync(() -> map(row), this.taskExecutor);
+				this.pending.add(new PendingItem<>(row, item, this.delegate.getCurrentItemCount(),
+						this.delegate.getFilteredCount()));
+			}
+		}
+	}
+
+	private T map(RowSet row) {
+		try {
+			return this.rowMapper.mapRow(row);
+		}
+		catch (Exception ex) {
+			throw new CompletionException(ex);
+		}
+	}
+
+	/**
+	 * Stores the state of the {@code AbstractExcelItemReader}. When rows have been read
+	 * but not yet returned, the item and filter count are those of the row returned last
+	 * and the position of the row read last is removed.
+	 */
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		if (this.pending.isEmpty()) {
+			this.delegate.update(executionContext);
+		}
+		else {
+			this.delegate.updateForItemCount(executionContext, this.itemCount, this.filteredCount);
+		}
+	}
+
+	/**
+	 * Discards the rows which have been read but not yet returned, rows which are being
+	 * mapped are not interrupted.
+	 */
+	@Override
+	public void close() throws ItemStreamException {
+		this.pending.forEach((item) -> item.item.cancel(false));
+		this.pending.clear();
+		this.delegate.close();
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		return this.delegate.afterStep(stepExecution);
+	}
+
+	private static final class PendingItem<T> {
+
+		@Nullable
+		private final RowSet row;
+
+		private final CompletableFuture<T> item;
+
+		private final int itemCount;
+
+		private final int filteredCount;
+
+		private PendingItem(@Nullable RowSet row, CompletableFuture<T> item, int itemCount, int filteredCount) {
+			this.row = row;
+			this.item = item;
+			this.itemCount = itemCount;
+			this.filteredCount = filteredCount;
+		}
+
+		/**
+		 * The mapped item, a failure to map the row is reported like the
+		 * {@code AbstractExcelItemReader} does, with the sheet, index and values of the row.
+		 * @param delegate the reader which has read the row
+		 * @return the item, can be {@code null}
+		 * @throws Exception when the row could not be read or mapped
+		 */
+		@Nullable
+		private T get(AbstractExcelItemReader<RowSet> delegate) throws Exception {
+			try {
+				return this.item.join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				Exception exception = (Exception) cause;
+				throw (this.row != null) ? delegate.parseException(exception, this.row) : exception;
+			}
+		}
+
+	}
+
+}
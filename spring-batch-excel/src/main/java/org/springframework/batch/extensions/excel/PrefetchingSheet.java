@@ -0,0 +1,292 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code Sheet} which reads the rows of another {@code Sheet} ahead, on a thread of a
+ * {@code TaskExecutor}, into a bounded queue. The rows are handed over in batches. This
+ * overlaps parsing and formatting the rows with mapping and processing them on the thread
+ * of the reader.
+ *
+ * Reading ahead starts with the first row read through {@link #nextTypedRow(Iterator)},
+ * rows skipped before that are skipped on the thread of the reader without being
+ * formatted. The rows read ahead are copied with {@link TypedRow#copyOf(TypedRow)}, as
+ * the rows of the other {@code Sheet} are only valid until the next row is read. All
+ * other methods are delegated and should only be used before the rows are read.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class PrefetchingSheet implements Sheet {
+
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+
+	private static final int MAX_BATCH_SIZE = 64;
+
+	private static final Object END = new Object();
+
+	private final Sheet delegate;
+
+	private final BlockingQueue<List<Object>> queue;
+
+	private final int batchSize;
+
+	private final TaskExecutor taskExecutor;
+
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private volatile boolean closed;
+
+	@Nullable
+	private Iterator<String[]> rows;
+
+	@Nullable
+	private Iterator<String[]> prefetched;
+
+	private boolean started;
+
+	private boolean finished;
+
+	private List<Object> batch = Collections.emptyList();
+
+	private int position;
+
+	PrefetchingSheet(Sheet delegate, int prefetchSize, TaskExecutor taskExecutor) {
+		this.delegate = delegate;
+		// rows are handed over in batches to limit the synchronization between the threads
+		this.batchSize = Math.min(prefetchSize, MAX_BATCH_SIZE);
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, prefetchSize / this.batchSize));
+		this.taskExecutor = taskExecutor;
+	}
+
+	@Override
+	public int getNumberOfRows() {
+		return this.delegate.getNumberOfRows();
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	@Nullable
+	public String[] getRow(int rowNumber) {
+		return this.delegate.getRow(rowNumber);
+	}
+
+	@Override
+	public boolean isForwardOnly() {
+		return this.delegate.isForwardOnly();
+	}
+
+	@Override
+	public void setColumnProjection(int[] columns) {
+		this.delegate.setColumnProjection(columns);
+	}
+
+	@Override
+	@Nullable
+	public int[] getColumnProjection() {
+		return this.delegate.getColumnProjection();
+	}
+
+	@Override
+	public Iterator<String[]> iterator() {
+		if (this.rows != null) {
+			return this.delegate.iterator();
+		}
+		this.rows = this.delegate.iterator();
+		this.prefetched = new Iterator<>() {
+
+			private TypedRow next;
+
+			@Override
+			public boolean hasNext() {
+				if (this.next == null) {
+					this.next = nextTypedRow(this);
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public String[] next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				String[] row = this.next.getStrings();
+				this.next = null;
+				return row;
+			}
+		};
+		return this.prefetched;
+	}
+
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		if (!isPrefetched(rows)) {
+			return this.delegate.nextTypedRow(rows);
+		}
+		if (!this.started) {
+			this.taskExecutor.execute(this::prefetch);
+			this.started = true;
+		}
+		if (this.finished) {
+			return null;
+		}
+		Object element = take();
+		if (element instanceof TypedRow row) {
+			return row;
+		}
+		this.finished = true;
+		if (element instanceof RuntimeException ex) {
+			throw ex;
+		}
+		if (element instanceof Error error) {
+			throw error;
+		}
+		return null;
+	}
+
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		if (!isPrefetched(rows)) {
+			return this.delegate.skipRow(rows);
+		}
+		if (!this.started) {
+			return this.delegate.skipRow(this.rows);
+		}
+		TypedRow row = nextTypedRow(rows);
+		if (row == null) {
+			return SkippedRow.NONE;
+		}
+		return row.isBlank() ? SkippedRow.BLANK : SkippedRow.CONTENT;
+	}
+
+	@Override
+	public int skipRows(Iterator<String[]> rows, int count) {
+		if (!isPrefetched(rows)) {
+			return this.delegate.skipRows(rows, count);
+		}
+		if (!this.started) {
+			return this.delegate.skipRows(this.rows, count);
+		}
+		return Sheet.super.skipRows(rows, count);
+	}
+
+	/**
+	 * Only the iterator returned first from {@link #iterator()} is read ahead, the rows
+	 * of other iterators are read by the other {@code Sheet}.
+	 * @param rows the iterator
+	 * @return {@code true} if the rows of the iterator are read ahead
+	 */
+	private boolean isPrefetched(Iterator<String[]> rows) {
+		return rows == this.prefetched;
+	}
+
+	private void prefetch() {
+		try {
+			boolean more = true;
+			List<Object> batch = new ArrayList<>(this.batchSize);
+			while (more && !this.closed) {
+				Object element;
+				try {
+					TypedRow row = this.delegate.nextTypedRow(this.rows);
+					element = (row != null) ? TypedRow.copyOf(row) : END;
+				}
+				catch (RuntimeException | Error ex) {
+					element = ex;
+				}
+				more = element instanceof TypedRow;
+				batch.add(element);
+				if (!more || batch.size() == this.batchSize) {
+					put(batch);
+					batch = new ArrayList<>(this.batchSize);
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			this.done.countDown();
+		}
+	}
+
+	private void put(List<Object> batch) throws InterruptedException {
+		while (!this.closed && !this.queue.offer(batch, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+			// wait until the reader takes the next row or closes the sheet
+		}
+	}
+
+	private Object take() {
+		if (this.position < this.batch.size()) {
+			return this.batch.get(this.position++);
+		}
+		try {
+			List<Object> batch = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			while (batch == null) {
+				if (this.done.getCount() == 0) {
+					batch = this.queue.poll();
+					if (batch == null) {
+						throw new IllegalStateException("Reading ahead the rows of sheet " + getName() + " stopped.");
+					}
+				}
+				else {
+					batch = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+			}
+			this.batch = batch;
+			this.position = 1;
+			return batch.get(0);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a row of sheet " + getName() + ".", ex);
+		}
+	}
+
+	/**
+	 * Stop reading ahead and wait for the thread reading ahead to stop, before closing the
+	 * other {@code Sheet}.
+	 */
+	@Override
+	public void close() throws Exception {
+		this.closed = true;
+		this.queue.clear();
+		this.batch = Collections.emptyList();
+		if (this.started) {
+			this.done.await();
+		}
+		this.delegate.close();
+	}
+
+}
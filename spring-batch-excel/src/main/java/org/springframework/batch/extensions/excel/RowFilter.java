@@ -0,0 +1,44 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+
+/**
+ * Filter rows from an excel sheet before they are mapped. Rows which aren't accepted are
+ * never passed to the {@link RowMapper}.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ * @see AbstractExcelItemReader#setRowFilter(RowFilter)
+ */
+@FunctionalInterface
+public interface RowFilter {
+
+	/**
+	 * Determine if the current row of the {@code RowSet} is to be mapped. Implementations
+	 * should use the typed values (e.g. {@link RowSet#getDouble(int)}) or
+	 * {@link RowSet#getString(int)} of the columns they need instead of
+	 * {@link RowSet#getCurrentRow()}, so that the row is only formatted, and for the
+	 * {@code StreamingXlsxItemReader} only parsed, as far as needed.
+	 * @param rs the {@code RowSet} positioned at the row to filter
+	 * @return {@code true} to map the row, {@code false} to skip it
+	 * @throws Exception if the row cannot be evaluated
+	 */
+	boolean accept(RowSet rs) throws Exception;
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.batch.extensions.excel;
 
+import java.util.Iterator;
+
 import org.springframework.lang.Nullable;
 
 /**
@@ -47,8 +49,119 @@ public interface Sheet extends Iterable<String[]>, AutoCloseable {
 	@Nullable
 	String[] getRow(int rowNumber);
 
+	/**
+	 * Only read the given columns, in the given order, for the rows returned by
+	 * {@link #iterator()} and {@link #nextTypedRow(Iterator)}. The cells of the other
+	 * columns are not formatted and, when skipping rows, not taken into account to
+	 * determine if a row is blank. Must be set before any rows are read and doesn't apply
+	 * to {@link #getRow(int)}. Can throw an {@code UnsupportedOperationException} when the
+	 * underlying implementation doesn't support projecting columns.
+	 * @param columns the 0-based indexes of the columns to read
+	 */
+	default void setColumnProjection(int[] columns) {
+		throw new UnsupportedOperationException("Column projection not supported by " + getClass().getName() + ".");
+	}
+
+	/**
+	 * The columns to read as set by {@link #setColumnProjection(int[])}.
+	 * @return the 0-based indexes of the columns or {@code null} if all columns are read
+	 */
+	@Nullable
+	default int[] getColumnProjection() {
+		return null;
+	}
+
+	/**
+	 * Whether the rows of this sheet can only be read once, in order, through
+	 * {@link #iterator()}, in which case {@link #getRow(int)} isn't supported. The
+	 * reader then reads rows requested by {@link #getRow(int)}, like the header row, ahead
+	 * in the same pass.
+	 * @return {@code true} when the sheet is forward-only, default {@code false}.
+	 */
+	default boolean isForwardOnly() {
+		return false;
+	}
+
+	/**
+	 * Whether the rows returned from the {@code Iterator} share a single, reused
+	 * {@code String[]}. If so, a row is only valid until the next row has been read.
+	 * @return {@code true} when the row buffer is reused, default {@code false}.
+	 */
+	default boolean isRowBufferReused() {
+		return false;
+	}
+
+	/**
+	 * Move the given iterator, obtained from {@link #iterator()}, to the next row and
+	 * return that row with access to the raw values of its cells. The cells are only
+	 * formatted when a formatted value is requested. The default implementation reads,
+	 * and formats, the row.
+	 * @param rows the iterator to move
+	 * @return the row, only valid until the next row is read, or {@code null} if there
+	 * are no more rows
+	 */
+	@Nullable
+	default TypedRow nextTypedRow(Iterator<String[]> rows) {
+		return rows.hasNext() ? TypedRow.of(rows.next()) : null;
+	}
+
+	/**
+	 * Move the given iterator, obtained from {@link #iterator()}, past the next row
+	 * without converting the cells of that row into {@code String}s. Used to quickly
+	 * skip rows on restart. A row is considered blank when none of its cells have a
+	 * value, cells with a value which would format to an empty {@code String} (e.g. due
+	 * to a {@code ;;;} number format) are not detected. The default implementation reads,
+	 * and formats, the row.
+	 * @param rows the iterator to move
+	 * @return the result of skipping the row
+	 */
+	default SkippedRow skipRow(Iterator<String[]> rows) {
+		if (!rows.hasNext()) {
+			return SkippedRow.NONE;
+		}
+		for (String value : rows.next()) {
+			if (value != null && !value.isEmpty()) {
+				return SkippedRow.CONTENT;
+			}
+		}
+		return SkippedRow.BLANK;
+	}
+
+	/**
+	 * Move the given iterator, obtained from {@link #iterator()}, past the given number of
+	 * rows without converting them into {@code String}s. The default implementation uses
+	 * {@link #skipRow(Iterator)} for each row.
+	 * @param rows the iterator to move
+	 * @param count the number of rows to skip
+	 * @return the number of rows skipped, less than {@code count} when there are no more
+	 * rows
+	 */
+	default int skipRows(Iterator<String[]> rows, int count) {
+		int skipped = 0;
+		while (skipped < count && skipRow(rows) != SkippedRow.NONE) {
+			skipped++;
+		}
+		return skipped;
+	}
+
 	@Override
 	default void close() throws Exception {
 	}
 
+	/**
+	 * The result of {@link #skipRow(Iterator)}.
+	 */
+	enum SkippedRow {
+
+		/** There was no row to skip. **/
+		NONE,
+
+		/** A row without content has been skipped. **/
+		BLANK,
+
+		/** A row with content has been skipped. **/
+		CONTENT
+
+	}
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Strategy to select the sheets of a workbook which should be read. Sheets which aren't
+ * selected are never opened. Designed for use with a lambda expression or method
+ * reference, or one of the factory methods.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface SheetSelector {
+
+	/** Select all the sheets, used by default. **/
+	SheetSelector ALL = (index, name) -> true;
+
+	/**
+	 * Determine if the given sheet should be read.
+	 * @param index the 0-based index of the sheet in the workbook
+	 * @param name the name of the sheet
+	 * @return {@code true} to read the sheet, {@code false} to skip it
+	 */
+	boolean select(int index, String name);
+
+	/**
+	 * Select the sheets with one of the given names.
+	 * @param names the names of the sheets to read
+	 * @return the {@code SheetSelector}
+	 */
+	static SheetSelector names(String... names) {
+		Set<String> selected = Set.of(names);
+		return (index, name) -> selected.contains(name);
+	}
+
+	/**
+	 * Select the sheets with one of the given (0-based) indexes.
+	 * @param indexes the indexes of the sheets to read
+	 * @return the {@code SheetSelector}
+	 */
+	static SheetSelector indexes(int... indexes) {
+		int[] selected = Arrays.copyOf(indexes, indexes.length);
+		return (index, name) -> Arrays.stream(selected).anyMatch((idx) -> idx == index);
+	}
+
+	/**
+	 * Select the sheets of which the name matches the given regular expression.
+	 * @param regex the regular expression to match the sheet name against
+	 * @return the {@code SheetSelector}
+	 */
+	static SheetSelector pattern(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		return (index, name) -> pattern.matcher(name).matches();
+	}
+
+}
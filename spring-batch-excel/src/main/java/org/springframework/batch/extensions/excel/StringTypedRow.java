@@ -0,0 +1,67 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code TypedRow} for a row which has already been formatted, for {@code Sheet}
+ * implementations without access to the raw values.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ * @see TypedRow#of(String[])
+ */
+final class StringTypedRow implements TypedRow {
+
+	private final String[] row;
+
+	StringTypedRow(String[] row) {
+		this.row = row;
+	}
+
+	@Override
+	public int getNumberOfColumns() {
+		return this.row.length;
+	}
+
+	@Override
+	public CellType getCellType(int column) {
+		return (getRawString(column) != null) ? CellType.STRING : CellType.BLANK;
+	}
+
+	@Override
+	@Nullable
+	public String getRawString(int column) {
+		String value = (column < this.row.length) ? this.row[column] : null;
+		return (value != null && !value.isEmpty()) ? value : null;
+	}
+
+	@Override
+	public String getString(int column) {
+		String value = getRawString(column);
+		return (value != null) ? value : "";
+	}
+
+	@Override
+	public String[] getStrings() {
+		return this.row;
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.time.LocalDateTime;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A row of a {@link Sheet} giving access to the raw values of its cells. The cells are
+ * only formatted, with the {@code DataFormatter} of the reader, when a formatted value is
+ * requested through {@link #getString(int)} or {@link #getStrings()}.
+ *
+ * Formula cells expose the type and value of their result, hence
+ * {@link #getCellType(int)} never returns {@link CellType#FORMULA}. Like Apache POI,
+ * requesting a value of a different type than the type of the cell results in an
+ * {@code IllegalStateException}. A {@code TypedRow} is only valid until the next row has
+ * been read.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public interface TypedRow {
+
+	/**
+	 * The number of columns in this row, the length of {@link #getStrings()}.
+	 * @return the number of columns
+	 */
+	int getNumberOfColumns();
+
+	/**
+	 * The type of the value of the cell in the given column.
+	 * @param column the 0-based column index
+	 * @return the type of the value, {@link CellType#BLANK} for cells without a value or
+	 * columns beyond the end of the row
+	 */
+	CellType getCellType(int column);
+
+	/**
+	 * The value of the cell as stored in the sheet, without applying its format. Numbers
+	 * are returned in their plain notation (e.g. {@code 45424.5} for a date), booleans as
+	 * {@code TRUE} or {@code FALSE} and errors as their error code (e.g. {@code #DIV/0!}).
+	 * @param column the 0-based column index
+	 * @return the raw value or {@code null} for a blank cell
+	 */
+	@Nullable
+	String getRawString(int column);
+
+	/**
+	 * The value of the cell formatted with the {@code DataFormatter} of the reader, the
+	 * same value as returned in {@link #getStrings()}.
+	 * @param column the 0-based column index
+	 * @return the formatted value, an empty {@code String} for a blank cell
+	 */
+	String getString(int column);
+
+	/**
+	 * All the cells of this row formatted with the {@code DataFormatter} of the reader.
+	 * @return the formatted row
+	 */
+	String[] getStrings();
+
+	/**
+	 * The numeric value of the cell.
+	 * @param column the 0-based column index
+	 * @return the value, {@code 0} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a number
+	 */
+	default double getDouble(int column) {
+		CellType cellType = getCellType(column);
+		if (cellType == CellType.BLANK) {
+			return 0;
+		}
+		if (cellType != CellType.NUMERIC) {
+			throw typeMismatch(CellType.NUMERIC, cellType, column);
+		}
+		return Double.parseDouble(getRawString(column));
+	}
+
+	/**
+	 * The boolean value of the cell.
+	 * @param column the 0-based column index
+	 * @return the value, {@code false} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a boolean
+	 */
+	default boolean getBoolean(int column) {
+		CellType cellType = getCellType(column);
+		if (cellType == CellType.BLANK) {
+			return false;
+		}
+		if (cellType != CellType.BOOLEAN) {
+			throw typeMismatch(CellType.BOOLEAN, cellType, column);
+		}
+		return "TRUE".equals(getRawString(column));
+	}
+
+	/**
+	 * Whether the dates of the workbook of this row use the 1904 date system, used by
+	 * {@link #getLocalDateTime(int)}.
+	 * @return {@code true} for the 1904 date system, default {@code false}
+	 */
+	default boolean isDate1904() {
+		return false;
+	}
+
+	/**
+	 * The numeric value of the cell as a date, regardless of the format of the cell.
+	 * @param column the 0-based column index
+	 * @return the value, {@code null} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a number
+	 */
+	@Nullable
+	default LocalDateTime getLocalDateTime(int column) {
+		CellType cellType = getCellType(column);
+		if (cellType == CellType.BLANK) {
+			return null;
+		}
+		if (cellType != CellType.NUMERIC) {
+			throw typeMismatch(CellType.NUMERIC, cellType, column);
+		}
+		return DateUtil.getLocalDateTime(getDouble(column), isDate1904());
+	}
+
+	/**
+	 * The index of the first column, at or after the given column, with a cell which
+	 * isn't {@link CellType#BLANK}. Allows iterating only the cells with a value of a
+	 * wide, mostly empty, row:
+	 * <pre class="code">
+	 * for (int col = row.nextNonBlankColumn(0); col != -1; col = row.nextNonBlankColumn(col + 1)) {
+	 *     String value = row.getString(col);
+	 * }
+	 * </pre>
+	 * Implementations which know the cells present in the row only visit those cells.
+	 * The default implementation checks each column.
+	 * @param column the 0-based column index to start at
+	 * @return the 0-based column index or {@code -1} if there are no more cells with a
+	 * value
+	 */
+	default int nextNonBlankColumn(int column) {
+		for (int i = Math.max(column, 0); i < getNumberOfColumns(); i++) {
+			if (getCellType(i) != CellType.BLANK) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determine if none of the cells of this row have content, without formatting them.
+	 * Cells with a value which would format to an empty {@code String} (e.g. due to a
+	 * {@code ;;;} number format) are considered to have content.
+	 * @return {@code true} if the row is blank
+	 */
+	default boolean isBlank() {
+		for (int i = 0; i < getNumberOfColumns(); i++) {
+			CellType cellType = getCellType(i);
+			if (cellType != CellType.BLANK && (cellType != CellType.STRING || !getRawString(i).isEmpty())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create a {@code TypedRow} for an already formatted row, all non-empty cells are of
+	 * type {@link CellType#STRING}.
+	 * @param row the formatted row, can be {@code null}
+	 * @return the {@code TypedRow}
+	 */
+	static TypedRow of(@Nullable String[] row) {
+		return new StringTypedRow((row != null) ? row : new String[0]);
+	}
+
+	/**
+	 * Create a copy of the given row which remains valid after the next row has been read
+	 * and which can be handed over to other threads. The cells of the row are formatted
+	 * while copying.
+	 * @param row the row to copy
+	 * @return the copy of the row
+	 */
+	static TypedRow copyOf(TypedRow row) {
+		return new TypedRowCopy(row);
+	}
+
+	private static IllegalStateException typeMismatch(CellType expected, CellType actual, int column) {
+		return new IllegalStateException(
+				"Cannot get a " + expected + " value from a " + actual + " cell in column " + column + ".");
+	}
+
+}
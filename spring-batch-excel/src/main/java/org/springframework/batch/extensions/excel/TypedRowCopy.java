@@ -0,0 +1,118 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code TypedRow} holding a copy of the values of another {@code TypedRow}, the cells are
+ * formatted when the copy is made. The copy remains valid after the next row has been
+ * read and can be handed over to other threads.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ * @see TypedRow#copyOf(TypedRow)
+ */
+final class TypedRowCopy implements TypedRow {
+
+	private final CellType[] types;
+
+	private final String[] rawStrings;
+
+	private final double[] numbers;
+
+	@Nullable
+	private final String[] strings;
+
+	private final boolean blank;
+
+	private final boolean date1904;
+
+	TypedRowCopy(TypedRow row) {
+		int columns = row.getNumberOfColumns();
+		this.types = new CellType[columns];
+		this.rawStrings = new String[columns];
+		this.numbers = new double[columns];
+		this.blank = row.isBlank();
+		this.date1904 = row.isDate1904();
+		String[] strings = this.blank ? null : row.getStrings();
+		this.strings = (strings != null) ? Arrays.copyOf(strings, strings.length) : null;
+		for (int column = row.nextNonBlankColumn(0); column != -1; column = row.nextNonBlankColumn(column + 1)) {
+			CellType type = row.getCellType(column);
+			this.types[column] = type;
+			if (type == CellType.NUMERIC) {
+				this.numbers[column] = row.getDouble(column);
+			}
+			// the formatted value of a string is the string itself
+			this.rawStrings[column] = (type == CellType.STRING && this.strings != null) ? this.strings[column]
+					: row.getRawString(column);
+		}
+	}
+
+	@Override
+	public int getNumberOfColumns() {
+		return this.types.length;
+	}
+
+	@Override
+	public CellType getCellType(int column) {
+		CellType type = (column >= 0 && column < this.types.length) ? this.types[column] : null;
+		return (type != null) ? type : CellType.BLANK;
+	}
+
+	@Override
+	@Nullable
+	public String getRawString(int column) {
+		return (column >= 0 && column < this.rawStrings.length) ? this.rawStrings[column] : null;
+	}
+
+	@Override
+	public String getString(int column) {
+		String[] strings = getStrings();
+		return (column >= 0 && column < strings.length && strings[column] != null) ? strings[column] : "";
+	}
+
+	@Override
+	public String[] getStrings() {
+		if (this.strings != null) {
+			return this.strings;
+		}
+		String[] strings = new String[this.types.length];
+		Arrays.fill(strings, "");
+		return strings;
+	}
+
+	@Override
+	public double getDouble(int column) {
+		return (getCellType(column) == CellType.NUMERIC) ? this.numbers[column] : TypedRow.super.getDouble(column);
+	}
+
+	@Override
+	public boolean isBlank() {
+		return this.blank;
+	}
+
+	@Override
+	public boolean isDate1904() {
+		return this.date1904;
+	}
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.mapping;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.beans.PropertyEditor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.MethodInvocationException;
+import org.springframework.beans.PropertyAccessException;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyEditorRegistrar;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.DefaultBindingErrorProcessor;
+
+/**
+ * Binding of the columns of a sheet, by index, to the (nested) properties of a bean
+ * class. The property paths, setters and conversions are resolved once when the plan is
+ * compiled, binding a row only invokes {@code MethodHandle}s. Used by the
+ * {@link BeanWrapperRowMapper} in compiled mode.
+ *
+ * The conversions follow those of the {@code DataBinder}: custom editors registered by
+ * the {@code PropertyEditorRegistrar} take precedence, numbers are parsed like the
+ * default {@code CustomNumberEditor} does and all other types are converted with a
+ * {@code SimpleTypeConverter} per thread. Failures are reported as a
+ * {@code BindException} with the same errors as the {@code DataBinder} reports.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class BeanBindingPlan {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private final ColumnBinding[] bindings;
+
+	private BeanBindingPlan(ColumnBinding[] bindings) {
+		this.bindings = bindings;
+	}
+
+	/**
+	 * Compile the binding of the given columns.
+	 * @param beanClass the class of the beans to bind to
+	 * @param propertyPaths the property path for each column, {@code null} for columns
+	 * without a property
+	 * @param strict whether columns without a writable property are an error
+	 * @param registrar the registrar of the custom editors
+	 * @return the plan or {@code null} if the columns cannot be bound through a plan,
+	 * e.g. because of indexed or map properties, and need to be bound by the
+	 * {@code DataBinder}
+	 */
+	@Nullable
+	static BeanBindingPlan compile(Class<?> beanClass, String[] propertyPaths, boolean strict,
+			PropertyEditorRegistrar registrar) {
+		List<ColumnBinding> bindings = new ArrayList<>();
+		ThreadLocal<SimpleTypeConverter> typeConverter = ThreadLocal.withInitial(() -> {
+			SimpleTypeConverter converter = new SimpleTypeConverter();
+			registrar.registerCustomEditors(converter);
+			return converter;
+		});
+		SimpleTypeConverter editors = typeConverter.get();
+		for (int column = 0; column < propertyPaths.length; column++) {
+			String path = propertyPaths[column];
+			if (path == null) {
+				continue;
+			}
+			if (path.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR) != -1) {
+				return null;
+			}
+			ColumnBinding binding = compile(beanClass, column, path, typeConverter, editors);
+			if (binding == null && strict) {
+				return null;
+			}
+			if (binding != null) {
+				bindings.add(binding);
+			}
+		}
+		return new BeanBindingPlan(bindings.toArray(new ColumnBinding[0]));
+	}
+
+	@Nullable
+	private static ColumnBinding compile(Class<?> beanClass, int column, String path,
+			ThreadLocal<SimpleTypeConverter> typeConverter, SimpleTypeConverter editors) {
+		String[] names = StringUtils.delimitedListToStringArray(path, PropertyAccessor.NESTED_PROPERTY_SEPARATOR);
+		NestedProperty[] parents = new NestedProperty[names.length - 1];
+		Class<?> type = beanClass;
+		try {
+			for (int i = 0; i < parents.length; i++) {
+				PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, names[i]);
+				if (descriptor == null || descriptor.getReadMethod() == null || descriptor.getWriteMethod() == null) {
+					return null;
+				}
+				type = descriptor.getPropertyType();
+				parents[i] = new NestedProperty(getter(descriptor.getReadMethod()), setter(descriptor.getWriteMethod()),
+						constructor(type));
+			}
+			PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, names[names.length - 1]);
+			if (descriptor == null || descriptor.getWriteMethod() == null) {
+				return null;
+			}
+			Method writeMethod = descriptor.getWriteMethod();
+			return new ColumnBinding(column, path, parents, setter(writeMethod), descriptor.getPropertyType(),
+					converter(new MethodParameter(writeMethod, 0), typeConverter, editors));
+		}
+		catch (ReflectiveOperationException ex) {
+			return null;
+		}
+	}
+
+	private static Function<String, Object> converter(MethodParameter parameter,
+			ThreadLocal<SimpleTypeConverter> typeConverter, SimpleTypeConverter editors) {
+		Class<?> type = parameter.getParameterType();
+		PropertyEditor customEditor = editors.findCustomEditor(type, null);
+		if (customEditor == null && type == String.class) {
+			return (value) -> value;
+		}
+		Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+		if (customEditor == null && Number.class.isAssignableFrom(wrapperType)) {
+			@SuppressWarnings("unchecked")
+			Class<? extends Number> numberType = (Class<? extends Number>) wrapperType;
+			boolean allowEmpty = !type.isPrimitive();
+			return (value) -> (allowEmpty && !StringUtils.hasText(value)) ? null
+					: NumberUtils.parseNumber(value, numberType);
+		}
+		TypeDescriptor typeDescriptor = new TypeDescriptor(parameter);
+		return (value) -> typeConverter.get().convertIfNecessary(value, type, typeDescriptor);
+	}
+
+	private static MethodHandle getter(Method method) throws IllegalAccessException {
+		ReflectionUtils.makeAccessible(method);
+		return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+	}
+
+	private static MethodHandle setter(Method method) throws IllegalAccessException {
+		ReflectionUtils.makeAccessible(method);
+		return MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+	}
+
+	@Nullable
+	private static MethodHandle constructor(Class<?> type) throws IllegalAccessException {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		}
+		catch (NoSuchMethodException ex) {
+			return null;
+		}
+		ReflectionUtils.makeAccessible(constructor);
+		return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+	}
+
+	/**
+	 * Bind the values of the row to the bean, continuing with the other columns when a
+	 * value cannot be bound like the {@code DataBinder} does.
+	 * @param bean the bean to bind to
+	 * @param row the formatted values of the row
+	 * @throws BindException when one or more values could not be bound
+	 */
+	void bind(Object bean, String[] row) throws BindException {
+		BindingResult bindingResult = null;
+		for (ColumnBinding binding : this.bindings) {
+			if (binding.column >= row.length || row[binding.column] == null) {
+				continue;
+			}
+			try {
+				binding.bind(bean, row[binding.column]);
+			}
+			catch (PropertyAccessException ex) {
+				if (bindingResult == null) {
+					bindingResult = new BeanPropertyBindingResult(bean, DataBinder.DEFAULT_OBJECT_NAME);
+				}
+				new DefaultBindingErrorProcessor().processPropertyAccessException(ex, bindingResult);
+			}
+		}
+		if (bindingResult != null) {
+			throw new BindException(bindingResult);
+		}
+	}
+
+	private static final class NestedProperty {
+
+		private final MethodHandle getter;
+
+		private final MethodHandle setter;
+
+		@Nullable
+		private final MethodHandle constructor;
+
+		private NestedProperty(MethodHandle getter, MethodHandle setter, @Nullable MethodHandle constructor) {
+			this.getter = getter;
+			this.setter = setter;
+			this.constructor = constructor;
+		}
+
+	}
+
+	private static final class ColumnBinding {
+
+		private final int column;
+
+		private final String path;
+
+		private final NestedProperty[] parents;
+
+		private final MethodHandle setter;
+
+		private final Class<?> type;
+
+		private final Function<String, Object> converter;
+
+		private ColumnBinding(int column, String path, NestedProperty[] parents, MethodHandle setter, Class<?> type,
+				Function<String, Object> converter) {
+			this.column = column;
+			this.path = path;
+			this.parents = parents;
+			this.setter = setter;
+			this.type = type;
+			this.converter = converter;
+		}
+
+		/**
+		 * Set the converted value, creating the nested beans on the path which are
+		 * {@code null} like the {@code DataBinder} does with its auto-growing nested
+		 * paths.
+		 * @param bean the bean to bind to
+		 * @param value the formatted value
+		 * @throws PropertyAccessException when the value cannot be converted or set
+		 */
+		private void bind(Object bean, String value) {
+			Object converted;
+			try {
+				converted = this.converter.apply(value);
+			}
+			catch (TypeMismatchException ex) {
+				throw new TypeMismatchException(event(bean, value), this.type, ex.getCause());
+			}
+			catch (IllegalArgumentException ex) {
+				throw new TypeMismatchException(event(bean, value), this.type, ex);
+			}
+			try {
+				Object target = bean;
+				for (NestedProperty parent : this.parents) {
+					Object nested = parent.getter.invokeExact(target);
+					if (nested == null) {
+						if (parent.constructor == null) {
+							throw new IllegalStateException("Cannot create nested bean for " + this.path + ".");
+						}
+						nested = parent.constructor.invokeExact();
+						parent.setter.invokeExact(target, nested);
+					}
+					target = nested;
+				}
+				this.setter.invokeExact(target, converted);
+			}
+			catch (ClassCastException ex) {
+				throw new TypeMismatchException(event(bean, value), this.type, ex);
+			}
+			catch (Throwable ex) {
+				throw new MethodInvocationException(event(bean, value), ex);
+			}
+		}
+
+		private PropertyChangeEvent event(Object bean, String value) {
+			return new PropertyChangeEvent(bean, this.path, null, value);
+		}
+
+	}
+
+}
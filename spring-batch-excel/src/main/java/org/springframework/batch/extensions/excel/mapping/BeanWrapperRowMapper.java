@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.batch.extensions.excel.mapping;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -28,7 +29,6 @@ import org.springframework.batch.extensions.excel.RowMapper;
 import org.springframework.batch.extensions.excel.support.rowset.RowSet;
 import org.springframework.batch.support.DefaultPropertyEditorRegistrar;
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.PropertyAccessor;
@@ -36,6 +36,7 @@ import org.springframework.beans.PropertyAccessorUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.validation.BindException;
 import org.springframework.validation.DataBinder;
@@ -80,6 +81,11 @@ import org.springframework.validation.DataBinder;
  * search successively through more distant matches until precisely one match is found. If
  * more than one match is found there will be an error.
  *
+ * In {@link #setCompiled(boolean) compiled} mode the matching, the setters and the
+ * conversions are resolved once per combination of column names and bean class, after
+ * which the rows are bound by column index without creating {@code Properties} or a
+ * {@code DataBinder} for each row.
+ *
  * @param <T> type
  * @author Marten Deinum
  * @since 0.1.0
@@ -99,6 +105,13 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 
 	private boolean strict = true;
 
+	private boolean compiled;
+
+	private final ConcurrentMap<HeaderKey, CompiledHeader> compiledHeaders = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile CompiledHeader lastCompiledHeader;
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
@@ -163,6 +176,13 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 	@Override
 	public T mapRow(RowSet rs) throws BindException {
 		T copy = getBean();
+		if (this.compiled) {
+			BeanBindingPlan plan = getBindingPlan(copy, rs.getMetaData().getColumnNames());
+			if (plan != null) {
+				plan.bind(copy, rs.getCurrentRow());
+				return copy;
+			}
+		}
 		DataBinder binder = createBinder(copy);
 		binder.bind(new MutablePropertyValues(getBeanProperties(copy, rs.getProperties())));
 		if (binder.getBindingResult().hasErrors()) {
@@ -201,6 +221,46 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 	protected void initBinder(DataBinder binder) {
 	}
 
+	/**
+	 * The compiled binding for the given column names, which is compiled when these column
+	 * names are seen for the first time.
+	 * @param bean the bean to bind to
+	 * @param columnNames the column names of the sheet
+	 * @return the plan or {@code null} when the columns need to be bound by the
+	 * {@code DataBinder}
+	 */
+	@Nullable
+	private BeanBindingPlan getBindingPlan(Object bean, @Nullable String[] columnNames) {
+		if (columnNames == null) {
+			return null;
+		}
+		CompiledHeader header = this.lastCompiledHeader;
+		if (header == null || !header.matches(bean.getClass(), columnNames)) {
+			HeaderKey key = new HeaderKey(bean.getClass(), columnNames.clone());
+			header = this.compiledHeaders.computeIfAbsent(key, (k) -> compile(bean, k)).forColumnNames(columnNames);
+			this.lastCompiledHeader = header;
+		}
+		return header.plan;
+	}
+
+	private CompiledHeader compile(Object bean, HeaderKey key) {
+		// match the column names like the values of a row, the values are the column names
+		Properties properties = new Properties();
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < key.columnNames.length; i++) {
+			String columnName = key.columnNames[i];
+			if (columnName != null) {
+				properties.setProperty(columnName, columnName);
+				columns.put(columnName, i);
+			}
+		}
+		getBeanProperties(bean, properties);
+		String[] propertyPaths = new String[key.columnNames.length];
+		properties.forEach((path, columnName) -> propertyPaths[columns.get(columnName)] = (String) path);
+		return new CompiledHeader(key, BeanBindingPlan.compile(key.type, propertyPaths, this.strict, this),
+				key.columnNames);
+	}
+
 	@SuppressWarnings("unchecked")
 	private T getBean() {
 		if (this.name != null) {
@@ -229,7 +289,7 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 				continue;
 			}
 
-			String name = findPropertyName(bean, key);
+			String name = findPropertyName(cls, key);
 
 			if (name != null) {
 				if (matches.containsValue(name)) {
@@ -246,14 +306,22 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 		return properties;
 	}
 
-	private String findPropertyName(Object bean, String key) {
+	/**
+	 * Find the property matching the given key, the (shared) index of the class is used
+	 * to find a unique close match. Nested paths are matched against the declared type of
+	 * the nested property.
+	 * @param cls the class of the bean
+	 * @param key the key to match
+	 * @return the property path or {@code null} if there is no unique match
+	 */
+	@Nullable
+	private String findPropertyName(@Nullable Class<?> cls, String key) {
 
-		if (bean == null) {
+		if (cls == null) {
 			return null;
 		}
 
-		Class<?> cls = bean.getClass();
-
+		PropertyNameIndex propertyNames = PropertyNameIndex.forClass(cls);
 		int index = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(key);
 		String prefix;
 		String suffix;
@@ -263,18 +331,15 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 		if (index > 0) {
 			prefix = key.substring(0, index);
 			suffix = key.substring(index + 1);
-			String nestedName = findPropertyName(bean, prefix);
+			String nestedName = findPropertyName(cls, prefix);
 			if (nestedName == null) {
 				return null;
 			}
 
-			Object nestedValue = getPropertyValue(bean, nestedName);
-			String nestedPropertyName = findPropertyName(nestedValue, suffix);
+			String nestedPropertyName = findPropertyName(propertyNames.getPropertyType(nestedName), suffix);
 			return (nestedPropertyName != null) ? nestedName + "." + nestedPropertyName : null;
 		}
 
-		String name = null;
-		int distance = 0;
 		index = key.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR);
 
 		if (index > 0) {
@@ -286,34 +351,12 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 			suffix = "";
 		}
 
-		while (name == null && distance <= this.distanceLimit) {
-			String[] candidates = PropertyMatches.forProperty(prefix, cls, distance).getPossibleMatches();
-			// If we find precisely one match, then use that one...
-			if (candidates.length == 1) {
-				String candidate = candidates[0];
-				if (candidate.equals(prefix)) { // if it's the same don't
-					// replace it...
-					name = key;
-				}
-				else {
-					name = candidate + suffix;
-				}
-			}
-			distance++;
-		}
-		return name;
-	}
-
-	private Object getPropertyValue(Object bean, String nestedName) {
-		BeanWrapperImpl wrapper = new BeanWrapperImpl(bean);
-		wrapper.setAutoGrowNestedPaths(true);
-
-		Object nestedValue = wrapper.getPropertyValue(nestedName);
-		if (nestedValue == null) {
-			nestedValue = BeanUtils.instantiateClass(wrapper.getPropertyType(nestedName));
-			wrapper.setPropertyValue(nestedName, nestedValue);
+		String candidate = propertyNames.findMatch(prefix, this.distanceLimit);
+		if (candidate == null) {
+			return null;
 		}
-		return nestedValue;
+		// if it's the same don't replace it...
+		return candidate.equals(prefix) ? key : candidate + suffix;
 	}
 
 	private void switchPropertyNames(Properties properties, String oldName, String newName) {
@@ -331,6 +374,83 @@ public class BeanWrapperRowMapper<T> extends DefaultPropertyEditorRegistrar
 		this.strict = strict;
 	}
 
+	/**
+	 * Public setter for the 'compiled' property. If true, the matching of the column names
+	 * to the bean properties, the setters and the conversions are resolved once per
+	 * combination of column names and bean class and the rows are bound by column index.
+	 * This bypasses the {@code DataBinder}: conversions use the custom editors and the
+	 * default conversions, but {@link #createBinder(Object)} and
+	 * {@link #initBinder(DataBinder)} are not called. Rows of a sheet with column names
+	 * which map to indexed or map properties are still bound by the {@code DataBinder}.
+	 * Default {@code false}.
+	 * @param compiled bind the rows through a compiled binding
+	 */
+	public void setCompiled(boolean compiled) {
+		this.compiled = compiled;
+	}
+
+	private static final class HeaderKey {
+
+		private final Class<?> type;
+
+		private final String[] columnNames;
+
+		private HeaderKey(Class<?> type, String[] columnNames) {
+			this.type = type;
+			this.columnNames = columnNames;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof HeaderKey other)) {
+				return false;
+			}
+			return this.type == other.type && Arrays.equals(this.columnNames, other.columnNames);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.type.hashCode() + Arrays.hashCode(this.columnNames);
+		}
+
+	}
+
+	private static final class CompiledHeader {
+
+		private final HeaderKey key;
+
+		@Nullable
+		private final BeanBindingPlan plan;
+
+		private final String[] columnNames;
+
+		private CompiledHeader(HeaderKey key, @Nullable BeanBindingPlan plan, String[] columnNames) {
+			this.key = key;
+			this.plan = plan;
+			this.columnNames = columnNames;
+		}
+
+		private CompiledHeader forColumnNames(String[] columnNames) {
+			return (columnNames == this.columnNames) ? this : new CompiledHeader(this.key, this.plan, columnNames);
+		}
+
+		/**
+		 * Match against the column names of a sheet, which are usually the same array
+		 * for all rows of the sheet.
+		 * @param type the class of the bean
+		 * @param columnNames the column names
+		 * @return {@code true} if this header is for the given class and column names
+		 */
+		private boolean matches(Class<?> type, String[] columnNames) {
+			return this.key.type == type
+					&& (this.columnNames == columnNames || Arrays.equals(this.key.columnNames, columnNames));
+		}
+
+	}
+
 	private static class DistanceHolder {
 
 		private final Class<?> cls;
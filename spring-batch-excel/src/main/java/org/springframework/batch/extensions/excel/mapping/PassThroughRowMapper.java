@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,7 +30,7 @@ public class PassThroughRowMapper implements RowMapper<String[]> {
 
 	@Override
 	public String[] mapRow(final RowSet rs) {
-		return rs.getCurrentRow();
+		return rs.copyCurrentRow();
 	}
 
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.mapping;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of the writable properties of a bean class for matching names to properties
+ * which are spelled slightly differently. The names of the properties are grouped by
+ * length, so only properties which can be within the maximum distance are compared, and
+ * the matches found are remembered. The indexes are shared between all
+ * {@link BeanWrapperRowMapper}s, so the names of a header are only matched once per
+ * class.
+ *
+ * The distance between names is the Levenshtein distance, ignoring case, as calculated
+ * by the {@code PropertyMatches} of Spring.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class PropertyNameIndex {
+
+	private static final Map<Class<?>, PropertyNameIndex> INDEXES = new ConcurrentReferenceHashMap<>();
+
+	private static final String NO_MATCH = "";
+
+	private final Class<?> beanClass;
+
+	private final Map<String, PropertyDescriptor> descriptors;
+
+	private final String[][] namesByLength;
+
+	private final Map<String, String> matches = new ConcurrentHashMap<>();
+
+	private PropertyNameIndex(Class<?> beanClass) {
+		this.beanClass = beanClass;
+		this.descriptors = new ConcurrentHashMap<>();
+		List<List<String>> namesByLength = new ArrayList<>();
+		for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(beanClass)) {
+			this.descriptors.put(descriptor.getName(), descriptor);
+			if (descriptor.getWriteMethod() != null) {
+				String name = descriptor.getName();
+				while (namesByLength.size() <= name.length()) {
+					namesByLength.add(new ArrayList<>());
+				}
+				namesByLength.get(name.length()).add(name);
+			}
+		}
+		this.namesByLength = new String[namesByLength.size()][];
+		for (int i = 0; i < this.namesByLength.length; i++) {
+			this.namesByLength[i] = namesByLength.get(i).toArray(new String[0]);
+		}
+	}
+
+	/**
+	 * The index of the given bean class.
+	 * @param beanClass the bean class
+	 * @return the (shared) index
+	 */
+	static PropertyNameIndex forClass(Class<?> beanClass) {
+		return INDEXES.computeIfAbsent(beanClass, PropertyNameIndex::new);
+	}
+
+	/**
+	 * Find the writable property which is closest to the given name. Like searching
+	 * successively through more distant matches until precisely one match is found, the
+	 * closest property is only returned when no other property is as close.
+	 * @param name the name to match
+	 * @param maxDistance the maximum distance of the property
+	 * @return the name of the property or {@code null} when there is no unique closest
+	 * property within the maximum distance
+	 */
+	@Nullable
+	String findMatch(String name, int maxDistance) {
+		if (maxDistance < 0) {
+			return null;
+		}
+		String match = this.matches.computeIfAbsent(maxDistance + ":" + name,
+				(key) -> calculateMatch(name, maxDistance));
+		return (!match.isEmpty()) ? match : null;
+	}
+
+	private String calculateMatch(String name, int maxDistance) {
+		String closest = null;
+		int closestDistance = maxDistance + 1;
+		boolean unique = false;
+		int minLength = Math.max(0, name.length() - maxDistance);
+		int maxLength = Math.min(this.namesByLength.length - 1, name.length() + maxDistance);
+		for (int length = minLength; length <= maxLength; length++) {
+			for (String candidate : this.namesByLength[length]) {
+				int distance = calculateStringDistance(name, candidate, closestDistance);
+				if (distance < closestDistance) {
+					closest = candidate;
+					closestDistance = distance;
+					unique = true;
+				}
+				else if (distance == closestDistance) {
+					unique = false;
+				}
+			}
+		}
+		return (unique) ? closest : NO_MATCH;
+	}
+
+	/**
+	 * The type of the given property, for an indexed property (e.g. {@code items[0]}) the
+	 * type of the element.
+	 * @param propertyName the name of the property, optionally with keys
+	 * @return the type of the property or {@code null} if it is unknown
+	 */
+	@Nullable
+	Class<?> getPropertyType(String propertyName) {
+		int index = propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR);
+		String name = (index > 0) ? propertyName.substring(0, index) : propertyName;
+		PropertyDescriptor descriptor = this.descriptors.get(name);
+		if (descriptor == null) {
+			return null;
+		}
+		int nestingLevel = 0;
+		for (int i = index; i >= 0; i = propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR, i + 1)) {
+			nestingLevel++;
+		}
+		Property property = new Property(this.beanClass, descriptor.getReadMethod(), descriptor.getWriteMethod());
+		TypeDescriptor type = TypeDescriptor.nested(property, nestingLevel);
+		return (type != null) ? type.getType() : null;
+	}
+
+	/**
+	 * Calculate the Levenshtein distance between the given two Strings, ignoring case,
+	 * giving up once the distance exceeds the limit.
+	 * @param s1 the first String
+	 * @param s2 the second String
+	 * @param limit the distance above which the exact distance doesn't matter
+	 * @return the distance, or a value greater than the limit
+	 */
+	private static int calculateStringDistance(String s1, String s2, int limit) {
+		if (s1.isEmpty() || s2.isEmpty()) {
+			return Math.max(s1.length(), s2.length());
+		}
+		int[] previous = new int[s2.length() + 1];
+		int[] current = new int[s2.length() + 1];
+		for (int j = 0; j <= s2.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= s1.length(); i++) {
+			char c1 = Character.toLowerCase(s1.charAt(i - 1));
+			current[0] = i;
+			int rowMinimum = i;
+			for (int j = 1; j <= s2.length(); j++) {
+				int cost = (c1 == Character.toLowerCase(s2.charAt(j - 1))) ? 0 : 1;
+				current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				rowMinimum = Math.min(rowMinimum, current[j]);
+			}
+			if (rowMinimum > limit) {
+				return rowMinimum;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[s2.length()];
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.batch.extensions.excel.RowMapper;
+import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link RowMapper} implementation which creates a record, or another immutable class,
+ * through its constructor. Like the {@code RecordFieldSetMapper} of Spring Batch the
+ * canonical constructor of a record is used, or the single (or default) constructor of a
+ * class, and its parameters are matched by name to the column names of the sheet.
+ *
+ * The names are matched ignoring case and characters other than letters and digits, e.g.
+ * a column {@code BIRTH_YEAR} matches a parameter {@code birthYear}. Parameters without a
+ * column are {@code null}, or the default value for primitives. The matching is done once
+ * per set of column names and the conversion of each parameter is resolved upfront, a
+ * row is mapped by converting the formatted values of the matched columns only and
+ * invoking the constructor through a {@code MethodHandle}.
+ *
+ * @param <T> type
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class RecordRowMapper<T> implements RowMapper<T> {
+
+	private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+	private final Class<T> targetType;
+
+	private final MethodHandle constructor;
+
+	private final String[] parameterNames;
+
+	private final List<Function<String, Object>> converters;
+
+	private final Object[] defaultValues;
+
+	private final ConcurrentMap<ColumnNames, int[]> columnIndexes = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile ColumnIndexes lastColumnIndexes;
+
+	/**
+	 * Create a new {@code RecordRowMapper} converting the values with the shared
+	 * {@code DefaultConversionService}.
+	 * @param targetType the type of the mapped items
+	 */
+	public RecordRowMapper(Class<T> targetType) {
+		this(targetType, DefaultConversionService.getSharedInstance());
+	}
+
+	/**
+	 * Create a new {@code RecordRowMapper}.
+	 * @param targetType the type of the mapped items
+	 * @param conversionService the service to convert the formatted values with, e.g. a
+	 * {@code DefaultFormattingConversionService} to convert dates
+	 */
+	public RecordRowMapper(Class<T> targetType, ConversionService conversionService) {
+		Assert.notNull(targetType, "The targetType cannot be null.");
+		Assert.notNull(conversionService, "The conversionService cannot be null.");
+		this.targetType = targetType;
+		Constructor<T> constructor = BeanUtils.getResolvableConstructor(targetType);
+		this.parameterNames = BeanUtils.getParameterNames(constructor);
+		int parameterCount = constructor.getParameterCount();
+		this.converters = new ArrayList<>(parameterCount);
+		this.defaultValues = new Object[parameterCount];
+		for (int i = 0; i < parameterCount; i++) {
+			MethodParameter parameter = new MethodParameter(constructor, i);
+			this.converters.add(converter(parameter, this.parameterNames[i], conversionService));
+			Class<?> type = parameter.getParameterType();
+			if (type.isPrimitive()) {
+				// like BeanUtils.instantiateClass, use the default value for a primitive
+				this.defaultValues[i] = Array.get(Array.newInstance(type, 1), 0);
+			}
+		}
+		this.constructor = constructorHandle(constructor);
+	}
+
+	private static Function<String, Object> converter(MethodParameter parameter, String parameterName,
+			ConversionService conversionService) {
+		if (parameter.getParameterType() == String.class) {
+			return (value) -> value;
+		}
+		TypeDescriptor targetType = new TypeDescriptor(parameter);
+		Assert.isTrue(conversionService.canConvert(STRING_TYPE, targetType),
+				() -> "Cannot convert a String to " + targetType + " for parameter " + parameterName + ".");
+		return (value) -> value.isEmpty() ? null : conversionService.convert(value, STRING_TYPE, targetType);
+	}
+
+	private static MethodHandle constructorHandle(Constructor<?> constructor) {
+		try {
+			ReflectionUtils.makeAccessible(constructor);
+			return MethodHandles.lookup()
+				.unreflectConstructor(constructor)
+				.asSpreader(Object[].class, constructor.getParameterCount())
+				.asType(MethodType.methodType(Object.class, Object[].class));
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Cannot access constructor " + constructor + ".", ex);
+		}
+	}
+
+	@Override
+	public T mapRow(RowSet rs) throws Exception {
+		int[] columns = getColumnIndexes(rs.getMetaData().getColumnNames());
+		Object[] args = new Object[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			Object value = (columns[i] != -1) ? this.converters.get(i).apply(rs.getString(columns[i])) : null;
+			args[i] = (value != null) ? value : this.defaultValues[i];
+		}
+		try {
+			return this.targetType.cast(this.constructor.invokeExact(args));
+		}
+		catch (Exception | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException("Cannot create " + this.targetType.getName() + ".", ex);
+		}
+	}
+
+	/**
+	 * The index of the column for each constructor parameter, matched when these column
+	 * names are seen for the first time.
+	 * @param columnNames the column names of the sheet
+	 * @return the column index for each parameter, {@code -1} for parameters without a
+	 * column
+	 */
+	private int[] getColumnIndexes(@Nullable String[] columnNames) {
+		Assert.state(columnNames != null, "Cannot map a row without column names.");
+		ColumnIndexes last = this.lastColumnIndexes;
+		if (last != null && last.columnNames == columnNames) {
+			return last.indexes;
+		}
+		int[] indexes = this.columnIndexes.computeIfAbsent(new ColumnNames(columnNames.clone()),
+				(key) -> match(key.names));
+		this.lastColumnIndexes = new ColumnIndexes(columnNames, indexes);
+		return indexes;
+	}
+
+	private int[] match(String[] columnNames) {
+		int[] indexes = new int[this.parameterNames.length];
+		Arrays.fill(indexes, -1);
+		for (int column = 0; column < columnNames.length; column++) {
+			if (columnNames[column] == null) {
+				continue;
+			}
+			String columnName = normalize(columnNames[column]);
+			for (int i = 0; i < this.parameterNames.length; i++) {
+				if (columnName.equals(normalize(this.parameterNames[i]))) {
+					if (indexes[i] != -1) {
+						throw new IllegalStateException("Both column " + columnNames[indexes[i]] + " and "
+								+ columnNames[column] + " match parameter " + this.parameterNames[i] + ".");
+					}
+					indexes[i] = column;
+				}
+			}
+		}
+		return indexes;
+	}
+
+	private static String normalize(String name) {
+		StringBuilder normalized = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				normalized.append(c);
+			}
+		}
+		return normalized.toString().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class ColumnNames {
+
+		private final String[] names;
+
+		private ColumnNames(String[] names) {
+			this.names = names;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return this == obj || (obj instanceof ColumnNames other && Arrays.equals(this.names, other.names));
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.names);
+		}
+
+	}
+
+	private static final class ColumnIndexes {
+
+		private final String[] columnNames;
+
+		private final int[] indexes;
+
+		private ColumnIndexes(String[] columnNames, int[] indexes) {
+			this.columnNames = columnNames;
+			this.indexes = indexes;
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.poi;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import org.springframework.batch.extensions.excel.FormulaEvaluatorFactory;
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the results of the formula cells of a workbook. The {@code FormulaEvaluator}
+ * is created once per workbook, when the first formula cell is read, and shared by all
+ * its sheets so the results it has evaluated before are reused. When the
+ * {@code FormulaEvaluatorFactory} doesn't provide an evaluator the result stored in the
+ * workbook is used.
+ *
+ * Counts the formula cells which were evaluated and those for which the stored result was
+ * used, over all the workbooks read since the counts were reset.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class PoiFormulaEvaluation {
+
+	@Nullable
+	private Workbook workbook;
+
+	@Nullable
+	private FormulaEvaluatorFactory formulaEvaluatorFactory;
+
+	@Nullable
+	private FormulaEvaluator evaluator;
+
+	private boolean evaluatorCreated;
+
+	private long evaluatedCount;
+
+	private long cachedResultCount;
+
+	/**
+	 * Start resolving the formulas of the given workbook, the evaluator of the workbook
+	 * read before is dropped.
+	 * @param workbook the workbook
+	 * @param formulaEvaluatorFactory creates the evaluator for the workbook
+	 */
+	void open(Workbook workbook, FormulaEvaluatorFactory formulaEvaluatorFactory) {
+		this.workbook = workbook;
+		this.formulaEvaluatorFactory = formulaEvaluatorFactory;
+		this.evaluator = null;
+		this.evaluatorCreated = false;
+	}
+
+	void close() {
+		this.workbook = null;
+		this.formulaEvaluatorFactory = null;
+		this.evaluator = null;
+		this.evaluatorCreated = false;
+	}
+
+	/**
+	 * Lazy getter for the {@code FormulaEvaluator}. Takes some time to create an
+	 * instance, so if not necessary don't create it. A {@code null} result of the
+	 * {@code FormulaEvaluatorFactory} is remembered as well.
+	 * @return the {@code FormulaEvaluator}, {@code null} to use the stored results
+	 */
+	@Nullable
+	FormulaEvaluator getEvaluator() {
+		if (!this.evaluatorCreated && this.workbook != null && this.formulaEvaluatorFactory != null) {
+			this.evaluator = this.formulaEvaluatorFactory.create(this.workbook);
+			this.evaluatorCreated = true;
+		}
+		return this.evaluator;
+	}
+
+	/**
+	 * Whether the formulas are evaluated, instead of using the results stored in the
+	 * workbook.
+	 * @return {@code true} if there is a {@code FormulaEvaluator}
+	 */
+	boolean isEvaluating() {
+		return getEvaluator() != null;
+	}
+
+	/**
+	 * Determine the type of the result of a formula cell, afterward the value of the
+	 * result can be read from the cell.
+	 * @param cell the formula cell
+	 * @return the type of the result
+	 */
+	CellType getResultType(Cell cell) {
+		FormulaEvaluator evaluator = getEvaluator();
+		count(evaluator);
+		return (evaluator != null) ? evaluator.evaluateFormulaCell(cell) : cell.getCachedFormulaResultType();
+	}
+
+	private void count(@Nullable FormulaEvaluator evaluator) {
+		if (evaluator != null) {
+			this.evaluatedCount++;
+		}
+		else {
+			this.cachedResultCount++;
+		}
+	}
+
+	long getEvaluatedCount() {
+		return this.evaluatedCount;
+	}
+
+	long getCachedResultCount() {
+		return this.cachedResultCount;
+	}
+
+	void resetCounts() {
+		this.evaluatedCount = 0;
+		this.cachedResultCount = 0;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ package org.springframework.batch.extensions.excel.poi;
 import java.io.File;
 import java.io.InputStream;
 
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 
@@ -44,9 +43,22 @@ public class PoiItemReader<T> extends AbstractExcelItemReader<T> {
 
 	private InputStream inputStream;
 
+	private final PoiFormulaEvaluation formulaEvaluation = new PoiFormulaEvaluation();
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		this.formulaEvaluation.resetCounts();
+	}
+
 	@Override
 	protected Sheet getSheet(final int sheet) {
-		return new PoiSheet(this.workbook.getSheetAt(sheet), getDataFormatter(), getFormulaEvaluatorFactory());
+		return new PoiSheet(this.workbook.getSheetAt(sheet), getCellValueFormatter(), this.formulaEvaluation);
+	}
+
+	@Override
+	protected String getSheetName(int sheet) {
+		return this.workbook.getSheetName(sheet);
 	}
 
 	@Override
@@ -66,6 +78,29 @@ public class PoiItemReader<T> extends AbstractExcelItemReader<T> {
 			this.workbook.close();
 			this.workbook = null;
 		}
+		this.formulaEvaluation.close();
+	}
+
+	/**
+	 * The number of formula cells which were evaluated with the {@code FormulaEvaluator}
+	 * of the {@code FormulaEvaluatorFactory}, since the reader was initialized. Only the
+	 * formula cells which are read are evaluated, those of columns which aren't projected
+	 * are passed over.
+	 * @return the number of evaluated formula cells
+	 * @see #setFormulaEvaluatorFactory(org.springframework.batch.extensions.excel.FormulaEvaluatorFactory)
+	 */
+	public long getEvaluatedFormulaCount() {
+		return this.formulaEvaluation.getEvaluatedCount();
+	}
+
+	/**
+	 * The number of formula cells for which the result stored in the workbook was used,
+	 * because the {@code FormulaEvaluatorFactory} didn't provide an evaluator, since the
+	 * reader was initialized.
+	 * @return the number of formula cells read from the stored results
+	 */
+	public long getCachedFormulaResultCount() {
+		return this.formulaEvaluation.getCachedResultCount();
 	}
 
 	/**
@@ -87,7 +122,7 @@ public class PoiItemReader<T> extends AbstractExcelItemReader<T> {
 			this.inputStream = resource.getInputStream();
 			this.workbook = WorkbookFactory.create(this.inputStream, password);
 		}
-		this.workbook.setMissingCellPolicy(Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
+		this.formulaEvaluation.open(this.workbook, getFormulaEvaluatorFactory());
 	}
 
 }
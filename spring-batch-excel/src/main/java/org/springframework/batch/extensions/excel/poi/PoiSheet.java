@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2023 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,25 @@
 
 package org.springframework.batch.extensions.excel.poi;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
+import org.apache.poi.ss.util.NumberToTextConverter;
 
-import org.springframework.batch.extensions.excel.FormulaEvaluatorFactory;
+import org.springframework.batch.extensions.excel.CellValueFormatter;
 import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.extensions.excel.TypedRow;
 import org.springframework.lang.Nullable;
 
 /**
@@ -38,27 +45,27 @@ import org.springframework.lang.Nullable;
  */
 class PoiSheet implements Sheet {
 
-	private final DataFormatter dataFormatter;
+	private final CellValueFormatter cellValueFormatter;
 	private final org.apache.poi.ss.usermodel.Sheet delegate;
 	private final int numberOfRows;
 	private final String name;
-	private final FormulaEvaluatorFactory formulaEvaluatorFactory;
+	private final PoiFormulaEvaluation formulaEvaluation;
 
-	private FormulaEvaluator evaluator;
+	private int[] columnProjection;
 
 	/**
 	 * Constructor which takes the delegate sheet.
 	 * @param delegate the apache POI sheet
-	 * @param dataFormatter the {@code DataFormatter} to use.
-	 * @param formulaEvaluatorFactory the {@code FormulaEvaluatorFactory} to use.
+	 * @param cellValueFormatter the {@code CellValueFormatter} to use.
+	 * @param formulaEvaluation resolves the formula cells, shared by the sheets of the workbook.
 	 */
-	PoiSheet(final org.apache.poi.ss.usermodel.Sheet delegate, DataFormatter dataFormatter, FormulaEvaluatorFactory formulaEvaluatorFactory) {
+	PoiSheet(final org.apache.poi.ss.usermodel.Sheet delegate, CellValueFormatter cellValueFormatter, PoiFormulaEvaluation formulaEvaluation) {
 		super();
 		this.delegate = delegate;
 		this.numberOfRows = this.delegate.getLastRowNum() + 1;
 		this.name = this.delegate.getSheetName();
-		this.dataFormatter = dataFormatter;
-		this.formulaEvaluatorFactory = formulaEvaluatorFactory;
+		this.cellValueFormatter = cellValueFormatter;
+		this.formulaEvaluation = formulaEvaluation;
 	}
 
 	/**
@@ -84,58 +91,319 @@ class PoiSheet implements Sheet {
 	@Nullable
 	public String[] getRow(final int rowNumber) {
 		final Row row = this.delegate.getRow(rowNumber);
-		return map(row);
+		return map(row, null);
 	}
 
+	@Override
+	public void setColumnProjection(int[] columns) {
+		this.columnProjection = columns;
+	}
+
+	@Override
 	@Nullable
-	private String[] map(Row row) {
+	public int[] getColumnProjection() {
+		return this.columnProjection;
+	}
+
+	/**
+	 * Only formats the cells present in the row, missing cells are left empty instead of
+	 * being created.
+	 * @param row the row to map, can be {@code null}
+	 * @param typedRow the {@code TypedRow} of the row, which remembers the result types of
+	 * its formula cells, {@code null} if there is none
+	 * @return the formatted cells or {@code null} if there is no row
+	 */
+	@Nullable
+	private String[] map(Row row, @Nullable PoiRow typedRow) {
 		if (row == null) {
 			return null;
 		}
-		final List<String> cells = new ArrayList<>();
-		final int numberOfColumns = row.getLastCellNum();
+		final String[] cells = new String[Math.max(row.getLastCellNum(), 0)];
+		Arrays.fill(cells, "");
+		for (Cell cell : row) {
+			cells[cell.getColumnIndex()] = format(cell, typedRow);
+		}
+		return cells;
+	}
 
-		for (int i = 0; i < numberOfColumns; i++) {
-			Cell cell = row.getCell(i);
-			CellType cellType = cell.getCellType();
-			if (cellType == CellType.FORMULA) {
-				cells.add(this.dataFormatter.formatCellValue(cell, getFormulaEvaluator()));
-			}
-			else {
-				cells.add(this.dataFormatter.formatCellValue(cell));
-			}
+	private String[] mapProjected(Row row, @Nullable PoiRow typedRow) {
+		if (this.columnProjection == null) {
+			return map(row, typedRow);
 		}
-		return cells.toArray(new String[0]);
+		String[] cells = new String[this.columnProjection.length];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = format(row.getCell(this.columnProjection[i], MissingCellPolicy.RETURN_NULL_AND_BLANK),
+					typedRow);
+		}
+		return cells;
 	}
 
 	/**
-	 * Lazy getter for the {@code FormulaEvaluator}. Takes some time to create an
-	 * instance, so if not necessary don't create it.
-	 * @return the {@code FormulaEvaluator}
-	 * @see FormulaEvaluatorFactory
+	 * Format a cell. The result of a formula cell is resolved once, through the
+	 * {@code TypedRow} if there is one, and formatted from its type. Only the results
+	 * evaluated by a {@code FormulaEvaluator} bypass the cache of the
+	 * {@code CellValueFormatter}, stored results are formatted like any other value.
+	 * @param cell the cell, can be {@code null}
+	 * @param typedRow the {@code TypedRow} of the row of the cell, can be {@code null}
+	 * @return the formatted value
 	 */
-	private FormulaEvaluator getFormulaEvaluator() {
-		if (this.evaluator == null) {
-			this.evaluator = this.formulaEvaluatorFactory.create(this.delegate.getWorkbook());
+	private String format(@Nullable Cell cell, @Nullable PoiRow typedRow) {
+		if (cell == null || cell.getCellType() != CellType.FORMULA) {
+			return this.cellValueFormatter.formatCellValue(cell);
+		}
+		if (!this.formulaEvaluation.isEvaluating()
+				&& !this.cellValueFormatter.getDataFormatter().useCachedValuesForFormulaCells()) {
+			return cell.getCellFormula();
 		}
-		return this.evaluator;
+		CellType resultType = (typedRow != null) ? typedRow.getResultType(cell)
+				: this.formulaEvaluation.getResultType(cell);
+		return formatResult(cell, resultType);
+	}
+
+	private String formatResult(Cell cell, CellType resultType) {
+		return switch (resultType) {
+			case NUMERIC -> formatNumericResult(cell);
+			case STRING -> cell.getRichStringCellValue().getString();
+			case BOOLEAN -> cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+			case ERROR -> FormulaError.forInt(cell.getErrorCellValue()).getString();
+			default -> "";
+		};
+	}
+
+	private String formatNumericResult(Cell cell) {
+		double value = cell.getNumericCellValue();
+		CellStyle style = cell.getCellStyle();
+		int formatIndex = style.getDataFormat();
+		String formatString = style.getDataFormatString();
+		if (formatString == null) {
+			formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+		}
+		if (formatString == null) {
+			formatString = "General";
+		}
+		boolean date1904 = isDate1904(cell.getRow());
+		if (this.formulaEvaluation.isEvaluating()) {
+			DataFormatter dataFormatter = this.cellValueFormatter.getDataFormatter();
+			return dataFormatter.formatRawCellContents(value, formatIndex, formatString, date1904);
+		}
+		return this.cellValueFormatter.formatRawCellContents(value, Short.toUnsignedInt(style.getIndex()),
+				formatIndex, formatString, date1904);
+	}
+
+	private static boolean isDate1904(Row row) {
+		return row.getSheet().getWorkbook() instanceof Date1904Support workbook && workbook.isDate1904();
 	}
 
 	@Override
 	public Iterator<String[]> iterator() {
-		return new Iterator<>() {
-			private final Iterator<Row> delegateIter = PoiSheet.this.delegate.iterator();
+		return new RowIterator();
+	}
+
+	/**
+	 * Returns the {@code Row} without formatting any of its cells.
+	 */
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		if (!(rows instanceof RowIterator rowIterator)) {
+			return Sheet.super.nextTypedRow(rows);
+		}
+		if (!rowIterator.delegateIter.hasNext()) {
+			return null;
+		}
+		rowIterator.currentRow.setRow(rowIterator.delegateIter.next());
+		return rowIterator.currentRow;
+	}
+
+	/**
+	 * Skips the {@code Row} without formatting any of its cells.
+	 */
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		if (!(rows instanceof RowIterator rowIterator)) {
+			return Sheet.super.skipRow(rows);
+		}
+		if (!rowIterator.delegateIter.hasNext()) {
+			return SkippedRow.NONE;
+		}
+		return isBlank(rowIterator.delegateIter.next()) ? SkippedRow.BLANK : SkippedRow.CONTENT;
+	}
 
-			@Override
-			public boolean hasNext() {
-				return this.delegateIter.hasNext();
+	private boolean isBlank(Row row) {
+		if (this.columnProjection != null) {
+			for (int column : this.columnProjection) {
+				Cell cell = row.getCell(column, MissingCellPolicy.RETURN_NULL_AND_BLANK);
+				if (cell != null && hasContent(cell)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (Cell cell : row) {
+			if (hasContent(cell)) {
+				return false;
 			}
+		}
+		return true;
+	}
+
+	private static boolean hasContent(Cell cell) {
+		CellType cellType = cell.getCellType();
+		if (cellType == CellType.FORMULA) {
+			cellType = cell.getCachedFormulaResultType();
+		}
+		if (cellType == CellType.BLANK) {
+			return false;
+		}
+		return cellType != CellType.STRING || !cell.getStringCellValue().isEmpty();
+	}
 
-			@Override
-			public String[] next() {
-				return map(this.delegateIter.next());
+	private final class RowIterator implements Iterator<String[]> {
+
+		private final Iterator<Row> delegateIter = PoiSheet.this.delegate.iterator();
+
+		private final PoiRow currentRow = new PoiRow();
+
+		@Override
+		public boolean hasNext() {
+			return this.delegateIter.hasNext();
+		}
+
+		@Override
+		public String[] next() {
+			return mapProjected(this.delegateIter.next(), null);
+		}
+
+	}
+
+	/**
+	 * {@code TypedRow} on top of the {@code Row}. Formula cells are evaluated with the
+	 * {@code FormulaEvaluator}, if there is one, otherwise their cached result is used.
+	 * A formula cell is only evaluated once per row, when its value is first accessed,
+	 * whether it is read typed or formatted.
+	 */
+	private final class PoiRow implements TypedRow {
+
+		private Row row;
+
+		/** The result types of the formula cells of the row, by column index. */
+		private CellType[] resultTypes = new CellType[0];
+
+		void setRow(Row row) {
+			this.row = row;
+			Arrays.fill(this.resultTypes, null);
+		}
+
+		@Override
+		public int getNumberOfColumns() {
+			int[] projection = PoiSheet.this.columnProjection;
+			return (projection != null) ? projection.length : Math.max(this.row.getLastCellNum(), 0);
+		}
+
+		@Nullable
+		private Cell getCell(int column) {
+			int[] projection = PoiSheet.this.columnProjection;
+			int index = column;
+			if (projection != null) {
+				index = (column >= 0 && column < projection.length) ? projection[column] : -1;
 			}
-		};
+			return (index >= 0) ? this.row.getCell(index, MissingCellPolicy.RETURN_NULL_AND_BLANK) : null;
+		}
+
+		/**
+		 * Without a projection only the cells present in the row are visited.
+		 */
+		@Override
+		public int nextNonBlankColumn(int column) {
+			if (PoiSheet.this.columnProjection != null) {
+				return TypedRow.super.nextNonBlankColumn(column);
+			}
+			for (Cell cell : this.row) {
+				if (cell.getColumnIndex() >= column && getCellType(cell.getColumnIndex()) != CellType.BLANK) {
+					return cell.getColumnIndex();
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public CellType getCellType(int column) {
+			Cell cell = getCell(column);
+			if (cell == null) {
+				return CellType.BLANK;
+			}
+			CellType cellType = cell.getCellType();
+			if (cellType == CellType.FORMULA) {
+				cellType = getResultType(cell);
+			}
+			return cellType;
+		}
+
+		CellType getResultType(Cell cell) {
+			int index = cell.getColumnIndex();
+			if (index >= this.resultTypes.length) {
+				this.resultTypes = Arrays.copyOf(this.resultTypes, Math.max(index + 1, this.row.getLastCellNum()));
+			}
+			if (this.resultTypes[index] == null) {
+				this.resultTypes[index] = PoiSheet.this.formulaEvaluation.getResultType(cell);
+			}
+			return this.resultTypes[index];
+		}
+
+		@Override
+		@Nullable
+		public String getRawString(int column) {
+			return switch (getCellType(column)) {
+				case STRING -> getCell(column).getStringCellValue();
+				case NUMERIC -> NumberToTextConverter.toText(getCell(column).getNumericCellValue());
+				case BOOLEAN -> getCell(column).getBooleanCellValue() ? "TRUE" : "FALSE";
+				case ERROR -> ErrorEval.getText(getCell(column).getErrorCellValue());
+				default -> null;
+			};
+		}
+
+		@Override
+		public String getString(int column) {
+			return format(getCell(column), this);
+		}
+
+		@Override
+		public String[] getStrings() {
+			return mapProjected(this.row, this);
+		}
+
+		@Override
+		public double getDouble(int column) {
+			CellType cellType = getCellType(column);
+			return (cellType == CellType.NUMERIC) ? getCell(column).getNumericCellValue()
+					: TypedRow.super.getDouble(column);
+		}
+
+		@Override
+		public boolean getBoolean(int column) {
+			CellType cellType = getCellType(column);
+			return (cellType == CellType.BOOLEAN) ? getCell(column).getBooleanCellValue()
+					: TypedRow.super.getBoolean(column);
+		}
+
+		@Override
+		@Nullable
+		public LocalDateTime getLocalDateTime(int column) {
+			CellType cellType = getCellType(column);
+			return (cellType == CellType.NUMERIC) ? getCell(column).getLocalDateTimeCellValue()
+					: TypedRow.super.getLocalDateTime(column);
+		}
+
+		@Override
+		public boolean isDate1904() {
+			return PoiSheet.isDate1904(this.row);
+		}
+
+		@Override
+		public boolean isBlank() {
+			return PoiSheet.this.isBlank(this.row);
+		}
+
 	}
 
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code TypedRow} for the binary formats, the values of the cells are decoded from the
+ * records of a row as they are read and the cells are formatted on first access. The
+ * same instance is used for all the rows of a sheet, only the cells present in a row are
+ * cleared when reading the next row.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+abstract class DecodedRow implements TypedRow {
+
+	private CellType[] types = new CellType[16];
+
+	private double[] numbers = new double[16];
+
+	private String[] strings = new String[16];
+
+	private int[] styles = new int[16];
+
+	private String[] formatted = new String[16];
+
+	private int[] cells = new int[16];
+
+	private int cellCount;
+
+	private int columns;
+
+	@Nullable
+	private int[] columnProjection;
+
+	@Nullable
+	private int[] projectedPositions;
+
+	/**
+	 * Only keep the given columns, in the given order.
+	 * @param columns the 0-based indexes of the columns
+	 */
+	void setColumnProjection(int[] columns) {
+		int[] projectedPositions = new int[Arrays.stream(columns).max().orElse(-1) + 1];
+		Arrays.fill(projectedPositions, -1);
+		for (int i = 0; i < columns.length; i++) {
+			projectedPositions[columns[i]] = i;
+		}
+		this.columnProjection = columns;
+		this.projectedPositions = projectedPositions;
+	}
+
+	@Nullable
+	int[] getColumnProjection() {
+		return this.columnProjection;
+	}
+
+	/**
+	 * Start a new row.
+	 * @param columns the minimal number of columns of the row, ignored with a column
+	 * projection
+	 */
+	void reset(int columns) {
+		for (int i = 0; i < this.cellCount; i++) {
+			this.types[this.cells[i]] = null;
+			this.formatted[this.cells[i]] = null;
+		}
+		this.cellCount = 0;
+		this.columns = (this.columnProjection != null) ? this.columnProjection.length : columns;
+	}
+
+	/**
+	 * Include the column in the row, extending the row up to the column.
+	 * @param column the 0-based column in the sheet
+	 * @return the index of the column in this row, {@code -1} if the column isn't part of
+	 * the column projection
+	 */
+	int include(int column) {
+		int[] projectedPositions = this.projectedPositions;
+		if (projectedPositions != null) {
+			return (column < projectedPositions.length) ? projectedPositions[column] : -1;
+		}
+		if (column >= this.columns) {
+			this.columns = column + 1;
+		}
+		return column;
+	}
+
+	void setNumber(int col, double value, int style) {
+		set(col, CellType.NUMERIC, value, null, style);
+	}
+
+	void setString(int col, String value, int style) {
+		set(col, CellType.STRING, 0, value, style);
+	}
+
+	void setBoolean(int col, boolean value, int style) {
+		set(col, CellType.BOOLEAN, value ? 1 : 0, null, style);
+	}
+
+	void setError(int col, String errorText, int style) {
+		set(col, CellType.ERROR, 0, errorText, style);
+	}
+
+	/**
+	 * Replace the value of a string cell, e.g. when the result of a formula is stored in
+	 * a separate record.
+	 * @param col the index of the column in this row
+	 * @param value the value
+	 */
+	void replaceString(int col, String value) {
+		this.strings[col] = value;
+		this.formatted[col] = null;
+	}
+
+	private void set(int col, CellType type, double number, @Nullable String string, int style) {
+		if (col < 0) {
+			return;
+		}
+		if (col >= this.types.length) {
+			int length = Math.max(col + 1, this.types.length * 2);
+			this.types = Arrays.copyOf(this.types, length);
+			this.numbers = Arrays.copyOf(this.numbers, length);
+			this.strings = Arrays.copyOf(this.strings, length);
+			this.styles = Arrays.copyOf(this.styles, length);
+			this.formatted = Arrays.copyOf(this.formatted, length);
+		}
+		if (this.types[col] == null) {
+			if (this.cellCount == this.cells.length) {
+				this.cells = Arrays.copyOf(this.cells, this.cellCount * 2);
+			}
+			this.cells[this.cellCount++] = col;
+		}
+		this.types[col] = type;
+		this.numbers[col] = number;
+		this.strings[col] = string;
+		this.styles[col] = style;
+		this.formatted[col] = null;
+	}
+
+	/**
+	 * Format a numeric value with the number format of the given style.
+	 * @param value the value
+	 * @param style the style index of the cell
+	 * @return the formatted value
+	 */
+	protected abstract String formatNumber(double value, int style);
+
+	@Override
+	public abstract boolean isDate1904();
+
+	@Override
+	public int getNumberOfColumns() {
+		return this.columns;
+	}
+
+	@Override
+	public CellType getCellType(int column) {
+		if (column < 0 || column >= this.types.length || this.types[column] == null) {
+			return CellType.BLANK;
+		}
+		return this.types[column];
+	}
+
+	@Override
+	@Nullable
+	public String getRawString(int column) {
+		return switch (getCellType(column)) {
+			case NUMERIC -> NumberToTextConverter.toText(this.numbers[column]);
+			case BOOLEAN -> (this.numbers[column] != 0) ? "TRUE" : "FALSE";
+			case STRING, ERROR -> this.strings[column];
+			default -> null;
+		};
+	}
+
+	@Override
+	public String getString(int column) {
+		CellType cellType = getCellType(column);
+		if (cellType == CellType.BLANK) {
+			return "";
+		}
+		if (this.formatted[column] == null) {
+			this.formatted[column] = (cellType == CellType.NUMERIC)
+					? formatNumber(this.numbers[column], this.styles[column]) : getRawString(column);
+		}
+		return this.formatted[column];
+	}
+
+	@Override
+	public double getDouble(int column) {
+		return (getCellType(column) == CellType.NUMERIC) ? this.numbers[column] : TypedRow.super.getDouble(column);
+	}
+
+	@Override
+	public boolean getBoolean(int column) {
+		return (getCellType(column) == CellType.BOOLEAN) ? this.numbers[column] != 0
+				: TypedRow.super.getBoolean(column);
+	}
+
+	@Override
+	@Nullable
+	public LocalDateTime getLocalDateTime(int column) {
+		return (getCellType(column) == CellType.NUMERIC)
+				? DateUtil.getLocalDateTime(this.numbers[column], isDate1904())
+				: TypedRow.super.getLocalDateTime(column);
+	}
+
+	/**
+	 * Only the cells present in the row are visited.
+	 */
+	@Override
+	public int nextNonBlankColumn(int column) {
+		int found = -1;
+		for (int i = 0; i < this.cellCount; i++) {
+			int col = this.cells[i];
+			if (col >= column && (found == -1 || col < found)) {
+				found = col;
+			}
+		}
+		return found;
+	}
+
+	@Override
+	public boolean isBlank() {
+		for (int i = 0; i < this.cellCount; i++) {
+			int col = this.cells[i];
+			if (this.types[col] != CellType.STRING || !this.strings[col].isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String[] getStrings() {
+		String[] values = new String[this.columns];
+		Arrays.fill(values, "");
+		for (int i = 0; i < this.cellCount; i++) {
+			values[this.cells[i]] = getString(this.cells[i]);
+		}
+		return values;
+	}
+
+}
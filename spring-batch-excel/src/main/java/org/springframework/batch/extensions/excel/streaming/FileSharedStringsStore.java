@@ -0,0 +1,212 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@code SharedStringsStore} which writes the strings, UTF-8 encoded, to a temporary file.
+ * Only the offset of each string is kept on the heap, a string is decoded from the file
+ * when it is looked up. For workbooks with millions of unique strings this takes a
+ * fraction of the heap of keeping the strings themselves.
+ *
+ * The most recently used strings can be kept in a bounded LRU cache, which prevents
+ * reading the same strings from the file over and over again for columns with few
+ * distinct values. The temporary file is deleted when the store is closed.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class FileSharedStringsStore implements SharedStringsStore {
+
+	@Nullable
+	private final Path directory;
+
+	@Nullable
+	private final Map<Integer, String> cache;
+
+	@Nullable
+	private Path file;
+
+	@Nullable
+	private OutputStream out;
+
+	private boolean completed;
+
+	@Nullable
+	private FileChannel channel;
+
+	private long[] offsets = new long[1024];
+
+	private int size;
+
+	private byte[] buffer = new byte[256];
+
+	/**
+	 * Create a store without a cache, in the default temporary directory.
+	 */
+	public FileSharedStringsStore() {
+		this(0, null);
+	}
+
+	/**
+	 * Create a store in the default temporary directory.
+	 * @param cacheSize the number of most recently used strings to keep on the heap,
+	 * {@code 0} for no cache
+	 */
+	public FileSharedStringsStore(int cacheSize) {
+		this(cacheSize, null);
+	}
+
+	/**
+	 * Create a store, the temporary file is created when the first string is added.
+	 * @param cacheSize the number of most recently used strings to keep on the heap,
+	 * {@code 0} for no cache
+	 * @param directory the directory for the temporary file, {@code null} for the default
+	 * temporary directory
+	 */
+	public FileSharedStringsStore(int cacheSize, @Nullable Path directory) {
+		Assert.isTrue(cacheSize >= 0, "The cacheSize cannot be negative.");
+		this.directory = directory;
+		this.cache = (cacheSize > 0) ? new LruCache(cacheSize) : null;
+	}
+
+	@Override
+	public void add(String string) throws IOException {
+		Assert.state(!this.completed, "Cannot add strings after the store has been completed.");
+		if (this.out == null) {
+			this.file = (this.directory != null) ? Files.createTempFile(this.directory, "shared-strings", ".bin")
+					: Files.createTempFile("shared-strings", ".bin");
+			this.out = new BufferedOutputStream(Files.newOutputStream(this.file), 64 * 1024);
+		}
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		if (this.size + 1 == this.offsets.length) {
+			this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+		}
+		this.out.write(bytes);
+		this.offsets[this.size + 1] = this.offsets[this.size] + bytes.length;
+		this.size++;
+	}
+
+	@Override
+	public void complete() throws IOException {
+		this.completed = true;
+		if (this.out != null) {
+			this.out.close();
+			this.out = null;
+			this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+		}
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IllegalStateException("Cannot get item at " + index + " with " + this.size + " shared strings.");
+		}
+		if (this.cache == null) {
+			return read(index);
+		}
+		String string = this.cache.get(index);
+		if (string == null) {
+			string = read(index);
+			this.cache.put(index, string);
+		}
+		return string;
+	}
+
+	private String read(int index) {
+		Assert.state(this.channel != null, "Cannot get strings before the store has been completed.");
+		long offset = this.offsets[index];
+		int length = (int) (this.offsets[index + 1] - offset);
+		if (this.buffer.length < length) {
+			this.buffer = new byte[Math.max(length, this.buffer.length * 2)];
+		}
+		ByteBuffer target = ByteBuffer.wrap(this.buffer, 0, length);
+		try {
+			while (target.hasRemaining()) {
+				if (this.channel.read(target, offset + target.position()) == -1) {
+					throw new IllegalStateException("Unexpected end of the shared strings file.");
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Error reading shared string " + index + ".", ex);
+		}
+		return new String(this.buffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (this.out != null) {
+				this.out.close();
+				this.out = null;
+			}
+			if (this.channel != null) {
+				this.channel.close();
+				this.channel = null;
+			}
+		}
+		finally {
+			if (this.cache != null) {
+				this.cache.clear();
+			}
+			if (this.file != null) {
+				Files.deleteIfExists(this.file);
+				this.file = null;
+			}
+		}
+	}
+
+	private static final class LruCache extends LinkedHashMap<Integer, String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private LruCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+			return size() > this.maxSize;
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code SharedStringsStore} which keeps all the strings on the heap, the default.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class InMemorySharedStringsStore implements SharedStringsStore {
+
+	private final List<String> strings = new ArrayList<>();
+
+	@Override
+	public void add(String string) {
+		this.strings.add(string);
+	}
+
+	@Override
+	public String get(int index) {
+		return this.strings.get(index);
+	}
+
+	@Override
+	public int size() {
+		return this.strings.size();
+	}
+
+	@Override
+	public void close() {
+		this.strings.clear();
+	}
+
+}
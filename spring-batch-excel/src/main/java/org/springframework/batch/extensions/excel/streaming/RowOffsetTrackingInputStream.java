@@ -0,0 +1,192 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@code InputStream} which records the byte offset of each {@code row} start tag in the
+ * XML of a sheet while the bytes are passing through. The XML parser reads ahead, so the
+ * offsets of the rows which haven't been parsed yet are kept until they are requested.
+ *
+ * The scan is done on the bytes, without decoding. This works as a {@code <} cannot occur
+ * unescaped in attribute values or text, as soon as a comment or {@code CDATA} section is
+ * encountered the offsets are no longer reliable and aren't reported anymore.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class RowOffsetTrackingInputStream extends FilterInputStream {
+
+	private static final int MAX_NAME_LENGTH = 3;
+
+	private final long shift;
+
+	private long position;
+
+	private int lastRow;
+
+	private long[] offsets = new long[64];
+
+	private int head;
+
+	private int firstRow;
+
+	private int count;
+
+	private boolean reliable = true;
+
+	private boolean inName;
+
+	private boolean afterLessThan;
+
+	private long tagStart;
+
+	private final byte[] name = new byte[MAX_NAME_LENGTH];
+
+	private int nameLength;
+
+	/**
+	 * Create a new stream.
+	 * @param in the XML of the sheet
+	 * @param shift the value to add to the positions in this stream to get the offsets in
+	 * the original XML
+	 * @param lastRow the index of the row before the first row in this stream
+	 */
+	RowOffsetTrackingInputStream(InputStream in, long shift, int lastRow) {
+		super(in);
+		this.shift = shift;
+		this.lastRow = lastRow;
+		this.firstRow = lastRow + 1;
+	}
+
+	/**
+	 * The offset in the XML of the row with the given index, offsets of rows before it are
+	 * discarded.
+	 * @param row the 0-based index of the row
+	 * @return the offset or {@code -1} if not known
+	 */
+	long getOffset(int row) {
+		discardBefore(row);
+		if (!this.reliable || row != this.firstRow || this.count == 0) {
+			return -1;
+		}
+		return this.offsets[this.head];
+	}
+
+	/**
+	 * Discard the offsets of the rows before the given row, as they won't be requested
+	 * anymore.
+	 * @param row the 0-based index of the row
+	 */
+	void discardBefore(int row) {
+		int drop = Math.min(row - this.firstRow, this.count);
+		if (drop > 0) {
+			this.head = (this.head + drop) & (this.offsets.length - 1);
+			this.count -= drop;
+			this.firstRow += drop;
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b != -1) {
+			scan((byte) b);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int read = super.read(b, off, len);
+		for (int i = 0; i < read; i++) {
+			scan(b[off + i]);
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		// skipped bytes cannot be scanned
+		this.reliable = false;
+		return super.skip(n);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	private void scan(byte b) {
+		if (this.afterLessThan) {
+			this.afterLessThan = false;
+			if (b == '!') {
+				this.reliable = false;
+			}
+			else if (b != '/' && b != '?') {
+				this.inName = true;
+				this.nameLength = 0;
+				addToName(b);
+			}
+		}
+		else if (this.inName) {
+			if (b == ' ' || b == '>' || b == '/' || b == '\t' || b == '\r' || b == '\n') {
+				this.inName = false;
+				if (this.nameLength == 3 && this.name[0] == 'r' && this.name[1] == 'o' && this.name[2] == 'w') {
+					addRow(this.tagStart + this.shift);
+				}
+			}
+			else if (b == ':') {
+				this.nameLength = 0;
+			}
+			else {
+				addToName(b);
+			}
+		}
+		else if (b == '<') {
+			this.afterLessThan = true;
+			this.tagStart = this.position;
+		}
+		this.position++;
+	}
+
+	private void addToName(byte b) {
+		if (this.nameLength < MAX_NAME_LENGTH) {
+			this.name[this.nameLength] = b;
+		}
+		// longer names never match, keep counting so they aren't mistaken for a row
+		this.nameLength = Math.min(this.nameLength + 1, MAX_NAME_LENGTH + 1);
+	}
+
+	private void addRow(long offset) {
+		if (this.count == this.offsets.length) {
+			long[] grown = new long[this.offsets.length * 2];
+			int tail = this.offsets.length - this.head;
+			System.arraycopy(this.offsets, this.head, grown, 0, tail);
+			System.arraycopy(this.offsets, 0, grown, tail, this.head);
+			this.offsets = grown;
+			this.head = 0;
+		}
+		this.offsets[(this.head + this.count) & (this.offsets.length - 1)] = offset;
+		this.count++;
+		this.lastRow++;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Store for the text of the shared strings of a workbook. The strings are added in the
+ * order of the shared strings table while it is being read, afterwards they are looked
+ * up by their index. A store is used for a single workbook and closed with the reader.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ * @see InMemorySharedStringsStore
+ * @see FileSharedStringsStore
+ */
+public interface SharedStringsStore extends Closeable {
+
+	/**
+	 * Add the next string of the shared strings table.
+	 * @param string the text of the entry
+	 * @throws IOException when the string cannot be stored
+	 */
+	void add(String string) throws IOException;
+
+	/**
+	 * Called once all the strings have been added, before the first lookup.
+	 * @throws IOException when the store cannot be prepared for lookups
+	 */
+	default void complete() throws IOException {
+	}
+
+	/**
+	 * Get the text of the entry at the given index.
+	 * @param index the 0-based index of the entry
+	 * @return the text
+	 */
+	String get(int index);
+
+	/**
+	 * The number of strings in this store.
+	 * @return the number of strings
+	 */
+	int size();
+
+}
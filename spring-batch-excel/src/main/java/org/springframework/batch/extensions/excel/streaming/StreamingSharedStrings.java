@@ -0,0 +1,189 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * Read-only shared strings table which keeps the plain (decoded) text of each entry. The
+ * {@code ReadOnlySharedStringsTable} from Apache POI creates a new
+ * {@code XSSFRichTextString} for each lookup, while all that is needed here is the text.
+ *
+ * The text of an entry is determined the same way as the
+ * {@code ReadOnlySharedStringsTable} does, including phonetic runs. The text of the
+ * entries is kept in a {@link SharedStringsStore}, on the heap or e.g. in a temporary file.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class StreamingSharedStrings implements SharedStrings, Closeable {
+
+	private final SharedStringsStore strings;
+
+	private final int count;
+
+	private StreamingSharedStrings(SharedStringsStore strings, int count) {
+		this.strings = strings;
+		this.count = count;
+	}
+
+	/**
+	 * Get the text of the entry at the given index.
+	 * @param idx the index of the entry
+	 * @return the text
+	 */
+	String getString(int idx) {
+		if (idx < 0 || idx >= this.strings.size()) {
+			throw new IllegalStateException(
+					"Cannot get item at " + idx + " with " + this.strings.size() + " shared strings.");
+		}
+		return this.strings.get(idx);
+	}
+
+	@Override
+	public RichTextString getItemAt(int idx) {
+		return new XSSFRichTextString(getString(idx));
+	}
+
+	@Override
+	public int getCount() {
+		return this.count;
+	}
+
+	@Override
+	public int getUniqueCount() {
+		return this.strings.size();
+	}
+
+	/**
+	 * Close the store of the strings.
+	 * @throws IOException when the store cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.strings.close();
+	}
+
+	/**
+	 * Read the shared strings part of the given package into memory.
+	 * @param pkg the package
+	 * @return the shared strings, never {@code null}
+	 * @throws IOException when the shared strings part cannot be opened
+	 * @throws XMLStreamException when the shared strings cannot be parsed
+	 */
+	static StreamingSharedStrings read(OPCPackage pkg) throws IOException, XMLStreamException {
+		return read(pkg, new InMemorySharedStringsStore());
+	}
+
+	/**
+	 * Read the shared strings part of the given package, some workbooks don't have one.
+	 * @param pkg the package
+	 * @param store the store for the text of the entries
+	 * @return the shared strings, never {@code null}
+	 * @throws IOException when the shared strings part cannot be opened
+	 * @throws XMLStreamException when the shared strings cannot be parsed
+	 */
+	static StreamingSharedStrings read(OPCPackage pkg, SharedStringsStore store)
+			throws IOException, XMLStreamException {
+		List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+		if (parts.isEmpty()) {
+			return empty(store);
+		}
+		try (InputStream is = parts.get(0).getInputStream()) {
+			return read(is, store);
+		}
+	}
+
+	/**
+	 * Shared strings for a workbook without a shared strings part.
+	 * @param store the store for the text of the entries, which remains empty
+	 * @return the shared strings, never {@code null}
+	 * @throws IOException when the store cannot be completed
+	 */
+	static StreamingSharedStrings empty(SharedStringsStore store) throws IOException {
+		store.complete();
+		return new StreamingSharedStrings(store, 0);
+	}
+
+	static StreamingSharedStrings read(InputStream is) throws IOException, XMLStreamException {
+		return read(is, new InMemorySharedStringsStore());
+	}
+
+	static StreamingSharedStrings read(InputStream is, SharedStringsStore store)
+			throws IOException, XMLStreamException {
+		XMLStreamReader reader = StaxUtils.createDefensiveInputFactory().createXMLStreamReader(is);
+		try {
+			int count = 0;
+			StringBuilder text = new StringBuilder(64);
+			boolean inText = false;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String localName = reader.getLocalName();
+					if ("t".equals(localName)) {
+						inText = true;
+					}
+					else if ("si".equals(localName)) {
+						text.setLength(0);
+					}
+					else if ("rPh".equals(localName) && text.length() > 0) {
+						// phonetic runs follow the regular text, separated by a space
+						text.append(' ');
+					}
+					else if ("sst".equals(localName)) {
+						String totalCount = reader.getAttributeValue(null, "count");
+						count = (totalCount != null) ? (int) Long.parseLong(totalCount) : 0;
+					}
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					String localName = reader.getLocalName();
+					if ("t".equals(localName)) {
+						inText = false;
+					}
+					else if ("si".equals(localName)) {
+						store.add(XlsxSheetParser.utfDecode(text.toString()));
+					}
+				}
+				else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+					text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				}
+			}
+			store.complete();
+			return new StreamingSharedStrings(store, count);
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,63 +16,100 @@
 
 package org.springframework.batch.extensions.excel.streaming;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 
-import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
-import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.xssf.model.Styles;
-import org.apache.poi.xssf.usermodel.XSSFComment;
-import org.xml.sax.Attributes;
 
+import org.springframework.batch.extensions.excel.CellValueFormatter;
 import org.springframework.batch.extensions.excel.Sheet;
-import org.springframework.util.CollectionUtils;
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.batch.extensions.excel.streaming.XlsxSheetParser.DataType;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 import org.springframework.util.xml.StaxUtils;
 
 /**
  * {@code Sheet} implementation for Apache POI using the streaming event mode to read the rows.
  *
+ * A sheet can be given a checkpoint, the position of a row in the XML of the sheet, when
+ * skipping rows over that checkpoint the XML is re-opened and the parsing resumes at the
+ * checkpoint. The XML still needs to be inflated up to that position, but it doesn't need
+ * to be parsed. The offsets of the rows are tracked by scanning the bytes as they are
+ * read, see {@link RowOffsetTrackingInputStream}.
+ *
  * @author Marten Deinum
  * @since 0.1.0
  */
 class StreamingSheet implements Sheet {
 
+	private static final Pattern SHEET_DATA_START = Pattern.compile("<([\\w.-]+:)?sheetData(\\s[^>]*)?>");
+
+	private static final Pattern ROW_START = Pattern.compile("<([\\w.-]+:)?row[\\s/>]");
+
+	private static final int ROW_START_LENGTH = 32;
+
 	private final Log logger = LogFactory.getLog(StreamingSheet.class);
 
 	private final String name;
 
-	private final InputStream is;
+	private final StreamingSharedStrings sharedStrings;
+
+	private final Styles styles;
+
+	private final CellValueFormatter cellValueFormatter;
+
+	private InputStream is;
+
+	private RowOffsetTrackingInputStream offsets;
+
+	private XlsxSheetParser parser;
+
+	private final StreamingRow currentRow = new StreamingRow();
+
+	private boolean reuseRowBuffer;
 
-	private final XMLStreamReader reader;
+	@Nullable
+	private int[] columnProjection;
 
-	private final ValueRetrievingContentsHandler contentHandler;
+	@Nullable
+	private boolean[] includedColumns;
 
-	private final XSSFSheetXMLHandler sheetHandler;
+	@Nullable
+	private int[] projectedPositions;
 
-	private int rowCount;
+	private int row = -1;
 
-	private int colCount;
+	@Nullable
+	private Checkpoint checkpoint;
 
-	StreamingSheet(String name, InputStream is, SharedStrings sharedStrings, Styles styles, DataFormatter dataFormatter) {
+	StreamingSheet(String name, InputStream is, StreamingSharedStrings sharedStrings, Styles styles,
+			CellValueFormatter cellValueFormatter) {
 		this.name = name;
 		this.is = is;
-		this.contentHandler = new ValueRetrievingContentsHandler();
-		this.sheetHandler = new XSSFSheetXMLHandler(styles, sharedStrings, this.contentHandler, dataFormatter, false);
+		this.sharedStrings = sharedStrings;
+		this.styles = styles;
+		this.cellValueFormatter = cellValueFormatter;
 
 		try {
-			this.reader = StaxUtils.createDefensiveInputFactory().createXMLStreamReader(is);
+			this.offsets = new RowOffsetTrackingInputStream(is, 0, -1);
+			this.parser = new XlsxSheetParser(
+					StaxUtils.createDefensiveInputFactory().createXMLStreamReader(this.offsets), sharedStrings, styles,
+					cellValueFormatter);
+			this.parser.readToSheetData();
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException(ex);
@@ -81,7 +118,7 @@ class StreamingSheet implements Sheet {
 
 	@Override
 	public int getNumberOfRows() {
-		return this.rowCount;
+		return this.parser.getRowCount();
 	}
 
 	@Override
@@ -94,63 +131,253 @@ class StreamingSheet implements Sheet {
 		throw new UnsupportedOperationException("Getting row by index not supported when streaming.");
 	}
 
+	@Override
+	public boolean isForwardOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isRowBufferReused() {
+		return this.reuseRowBuffer;
+	}
+
+	/**
+	 * Return the same {@code String[]} for each row instead of a copy.
+	 * @param reuseRowBuffer {@code true} to reuse the row buffer
+	 */
+	void setReuseRowBuffer(boolean reuseRowBuffer) {
+		this.reuseRowBuffer = reuseRowBuffer;
+	}
+
+	/**
+	 * Cells of columns which aren't projected are passed over by the parser, without
+	 * reading their value.
+	 */
+	@Override
+	public void setColumnProjection(int[] columns) {
+		int length = Arrays.stream(columns).max().orElse(-1) + 1;
+		boolean[] includedColumns = new boolean[length];
+		int[] projectedPositions = new int[length];
+		for (int i = 0; i < columns.length; i++) {
+			includedColumns[columns[i]] = true;
+			projectedPositions[columns[i]] = i;
+		}
+		this.columnProjection = columns;
+		this.includedColumns = includedColumns;
+		this.projectedPositions = projectedPositions;
+		this.parser.setIncludedColumns(includedColumns);
+		this.currentRow.resize();
+	}
+
+	@Override
+	@Nullable
+	public int[] getColumnProjection() {
+		return this.columnProjection;
+	}
+
+	/**
+	 * Set the checkpoint to use when skipping rows.
+	 * @param row the 0-based index of the row as returned by this sheet
+	 * @param rowNumber the 0-based row number of the row in the XML
+	 * @param offset the byte offset of the row in the XML
+	 * @param source to re-open the XML of this sheet
+	 * @see #getCurrentRowOffset()
+	 */
+	void setCheckpoint(int row, int rowNumber, long offset, Callable<InputStream> source) {
+		this.checkpoint = new Checkpoint(row, rowNumber, offset, source);
+	}
+
+	/**
+	 * The byte offset in the XML of the row which has been read last, usable as checkpoint
+	 * for that row.
+	 * @return the offset or {@code -1} if unknown
+	 */
+	long getCurrentRowOffset() {
+		return this.offsets.getOffset(this.row);
+	}
+
+	/**
+	 * The 0-based row number, as declared in the XML, of the row which has been read last.
+	 * @return the row number
+	 */
+	int getCurrentRowNumber() {
+		return this.parser.getRowIndex();
+	}
+
 	private String[] nextRow() {
+		if (!readRow()) {
+			return null;
+		}
+		String[] values = this.currentRow.getStrings();
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Row ended, returning: " + StringUtils.arrayToCommaDelimitedString(values));
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the next row into the raw values of the current row, without formatting any
+	 * of the cells.
+	 */
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		return readRow() ? this.currentRow : null;
+	}
+
+	private boolean readRow() {
 		try {
-			while (this.reader.hasNext()) {
-				int type = this.reader.next();
-				if (type == XMLStreamConstants.START_DOCUMENT) {
-					this.sheetHandler.startDocument();
-				}
-				else if (type == XMLStreamConstants.END_DOCUMENT) {
-					this.sheetHandler.endDocument();
-					return null;
-				}
-				else if (type == XMLStreamConstants.CHARACTERS) {
-					this.sheetHandler.characters(this.reader.getTextCharacters(), this.reader.getTextStart(), this.reader.getTextLength());
-				}
-				else if (type == XMLStreamConstants.START_ELEMENT) {
-					String localName = this.reader.getLocalName();
-					if ("dimension".equals(localName)) {
-						String v = this.reader.getAttributeValue(null, "ref");
-						if (v != null && v.indexOf(':') > -1) {
-							CellRangeAddress range = CellRangeAddress.valueOf(v);
-							int rowEnd = range.getLastRow();
-							int rowStart = range.getFirstRow();
-							this.rowCount = rowEnd - rowStart + 1;
-
-							int colStart = range.getFirstColumn();
-							int colEnd = range.getLastColumn();
-							this.colCount = colEnd - colStart + 1;
-						}
-					}
-					else {
-						Attributes delegating = new AttributesAdapter(this.reader);
-						this.sheetHandler.startElement(null, localName, null, delegating);
-					}
-				}
-				else if (type == XMLStreamConstants.END_ELEMENT) {
-					String tag = this.reader.getLocalName();
-					this.sheetHandler.endElement(null, tag, null);
-					if ("row".equals(tag)) {
-						if (this.logger.isTraceEnabled()) {
-							this.logger.trace("Row ended, returning: "
-									+ StringUtils.arrayToCommaDelimitedString(this.contentHandler.getValues()));
-						}
-						return this.contentHandler.getValues();
-					}
+			if (!this.parser.nextRow()) {
+				return false;
+			}
+			this.offsets.discardBefore(++this.row);
+			this.currentRow.reset(this.parser);
+			return true;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Error reading file.", ex);
+		}
+	}
+
+	/**
+	 * Skips the row at the XML level, the cells are read only up to the first cell with
+	 * content and none of the cells are formatted.
+	 */
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		try {
+			if (!this.parser.nextRow()) {
+				return SkippedRow.NONE;
+			}
+			this.offsets.discardBefore(++this.row);
+			while (this.parser.nextCell()) {
+				if (this.parser.hasContent()) {
+					return SkippedRow.CONTENT;
 				}
 			}
+			return SkippedRow.BLANK;
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException("Error reading file.", ex);
 		}
-		return null;
 	}
 
+	/**
+	 * Resumes parsing at the checkpoint, if there is one within the rows to skip.
+	 */
 	@Override
-	public void close() throws Exception {
+	public int skipRows(Iterator<String[]> rows, int count) {
+		int start = this.row;
+		int target = this.row + count;
+		Checkpoint checkpoint = this.checkpoint;
+		this.checkpoint = null;
+		if (checkpoint != null && checkpoint.row > this.row && checkpoint.row <= target && seek(checkpoint)) {
+			this.row = checkpoint.row;
+		}
+		while (this.row < target && skipRow(rows) != SkippedRow.NONE) {
+			// keep skipping
+		}
+		return this.row - start;
+	}
+
+	/**
+	 * Re-open the XML and position the parser right after the row of the checkpoint. The
+	 * part of the XML up to, and including, the {@code sheetData} start tag is kept, so the
+	 * namespaces and dimension stay the same, after which the bytes up to the row of the
+	 * checkpoint are skipped. When the row found isn't the row of the checkpoint the
+	 * current parser is left untouched.
+	 * @param checkpoint the checkpoint to resume at
+	 * @return {@code true} if positioned on the row of the checkpoint
+	 */
+	private boolean seek(Checkpoint checkpoint) {
+		InputStream source = null;
 		try {
-			this.reader.close();
+			source = checkpoint.source.call();
+			byte[] prolog = readProlog(source);
+			if (prolog == null || checkpoint.offset < prolog.length) {
+				return closeAfterFailedSeek(source, "no sheetData before the checkpoint");
+			}
+			source.skipNBytes(checkpoint.offset - prolog.length);
+			byte[] rowStart = source.readNBytes(ROW_START_LENGTH);
+			if (!ROW_START.matcher(new String(rowStart, StandardCharsets.ISO_8859_1)).lookingAt()) {
+				return closeAfterFailedSeek(source, "no row found at the checkpoint");
+			}
+			InputStream resumedStream = new SequenceInputStream(
+					new ByteArrayInputStream(concat(prolog, rowStart)), source);
+			RowOffsetTrackingInputStream resumedOffsets = new RowOffsetTrackingInputStream(resumedStream,
+					checkpoint.offset - prolog.length, checkpoint.row - 1);
+			XlsxSheetParser resumed = new XlsxSheetParser(
+					StaxUtils.createDefensiveInputFactory().createXMLStreamReader(resumedOffsets), this.sharedStrings,
+					this.styles, this.cellValueFormatter);
+			resumed.setIncludedColumns(this.includedColumns);
+			resumed.readToSheetData();
+			if (!resumed.nextRow() || resumed.getRowIndex() != checkpoint.rowNumber) {
+				resumed.close();
+				return closeAfterFailedSeek(source, "row at the checkpoint doesn't match");
+			}
+			closeParser();
+			this.parser = resumed;
+			this.offsets = resumedOffsets;
+			this.is = source;
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Resumed sheet " + this.name + " at row " + checkpoint.row + ".");
+			}
+			return true;
+		}
+		catch (Exception ex) {
+			return closeAfterFailedSeek(source, ex.getMessage());
+		}
+	}
+
+	private boolean closeAfterFailedSeek(@Nullable InputStream source, String reason) {
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Cannot resume sheet " + this.name + " at checkpoint, " + reason + ".");
+		}
+		if (source != null) {
+			try {
+				source.close();
+			}
+			catch (IOException ex) {
+				// Ignore exception we cannot recover
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Read the XML up to and including the {@code sheetData} start tag. The bytes are
+	 * matched as ISO-8859-1 so that each character is a single byte.
+	 * @param is the stream to read from
+	 * @return the XML or {@code null} if there is no (non-empty) {@code sheetData}
+	 * @throws IOException when the XML cannot be read
+	 */
+	@Nullable
+	private static byte[] readProlog(InputStream is) throws IOException {
+		ByteArrayOutputStream prolog = new ByteArrayOutputStream(1024);
+		StringBuilder tag = new StringBuilder(64);
+		int b;
+		while ((b = is.read()) != -1) {
+			prolog.write(b);
+			if (b == '<') {
+				tag.setLength(0);
+			}
+			tag.append((char) b);
+			if (b == '>' && SHEET_DATA_START.matcher(tag).matches()) {
+				return (tag.charAt(tag.length() - 2) != '/') ? prolog.toByteArray() : null;
+			}
+		}
+		return null;
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		byte[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+	private void closeParser() throws IOException {
+		try {
+			this.parser.close();
 		}
 		catch (XMLStreamException ex) {
 			// Ignore exception we cannot recover
@@ -159,6 +386,11 @@ class StreamingSheet implements Sheet {
 		this.is.close();
 	}
 
+	@Override
+	public void close() throws Exception {
+		closeParser();
+	}
+
 	@Override
 	public Iterator<String[]> iterator() {
 		return new Iterator<>() {
@@ -178,130 +410,292 @@ class StreamingSheet implements Sheet {
 		};
 	}
 
-	private class ValueRetrievingContentsHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+	/**
+	 * The raw values of the cells of the current row, the same instance is used for all
+	 * the rows of the sheet. The cells are parsed on demand, up to the column being
+	 * accessed, so that a row can be rejected (or found not to be blank) without parsing
+	 * the remaining cells. This relies on the cells being stored in column order, as Excel
+	 * does. Cells are formatted on first access.
+	 */
+	private final class StreamingRow implements TypedRow {
+
+		private int columns = -1;
+
+		private boolean complete;
+
+		private int lastColumn;
 
-		private final Log logger = LogFactory.getLog(ValueRetrievingContentsHandler.class);
+		private DataType[] types;
+
+		private String[] rawValues;
+
+		private int[] styleIndexes;
+
+		private String[] formatted;
 
 		private String[] values;
 
-		@Override
-		public void startRow(int rowNum) {
-			if (this.logger.isTraceEnabled()) {
-				this.logger.trace("Start processing row: " + rowNum);
+		private int[] parsed = new int[16];
+
+		private int parsedCount;
+
+		/**
+		 * Start a new row, the parser is positioned at the start of the row. Only the
+		 * cells parsed for the previous row are cleared, so the cost doesn't depend on the
+		 * number of columns of the sheet.
+		 * @param parser the parser
+		 */
+		void reset(XlsxSheetParser parser) {
+			if (this.columns == -1) {
+				this.columns = 0;
+				grow((StreamingSheet.this.columnProjection != null) ? StreamingSheet.this.columnProjection.length
+						: parser.getColumnCount());
 			}
-			// Prepare for this row
-			if (this.values == null) {
-				this.values = new String[StreamingSheet.this.colCount];
+			for (int i = 0; i < this.parsedCount; i++) {
+				this.types[this.parsed[i]] = null;
+				this.formatted[this.parsed[i]] = null;
 			}
-			Arrays.fill(this.values, "");
+			this.parsedCount = 0;
+			this.complete = false;
+			this.lastColumn = -1;
 		}
 
-		@Override
-		public void endRow(int rowNum) {
-			if (this.logger.isTraceEnabled()) {
-				this.logger.trace("End processing row: " + rowNum);
-			}
+		/**
+		 * Size the row again when the next row starts, e.g. when a projection is set after
+		 * rows have been read ahead.
+		 */
+		void resize() {
+			this.columns = -1;
+			this.types = null;
+			this.rawValues = null;
+			this.styleIndexes = null;
+			this.formatted = null;
+			this.values = null;
+			this.parsedCount = 0;
 		}
 
-		@Override
-		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
-			int col = new CellReference(cellReference).getCol();
-			if (this.logger.isTraceEnabled()) {
-				this.logger.trace("Setting value (" + cellReference + ") = " + formattedValue);
+		/**
+		 * Parse the next cell of the row.
+		 * @return the index of the cell in this row or {@code -1} if there are no more
+		 * cells
+		 */
+		private int parseNext() {
+			if (this.complete) {
+				return -1;
+			}
+			XlsxSheetParser parser = StreamingSheet.this.parser;
+			try {
+				if (!parser.nextCell()) {
+					this.complete = true;
+					return -1;
+				}
+			}
+			catch (XMLStreamException ex) {
+				throw new IllegalStateException("Error reading file.", ex);
 			}
+			this.lastColumn = parser.getColumnIndex();
+			int[] projectedPositions = StreamingSheet.this.projectedPositions;
+			int col = (projectedPositions != null) ? projectedPositions[this.lastColumn] : this.lastColumn;
 			// This can happen if the dimensions cannot be read properly but there are
-			// still rows.
-			// Create a copy of the existing array and append to it.
-			if (this.values.length <= col) {
-				String[] newValues = Arrays.copyOf(this.values, col + 1);
-				Arrays.setAll(newValues, (idx) -> (newValues[idx] != null) ? newValues[idx] : "");
-				this.values = newValues;
+			// still rows. Grow the arrays, the new columns start out empty.
+			if (this.columns <= col) {
+				grow(col + 1);
+			}
+			this.types[col] = parser.getDataType();
+			this.rawValues[col] = parser.getRawValue();
+			this.styleIndexes[col] = parser.getStyleIndex();
+			if (this.parsedCount == this.parsed.length) {
+				this.parsed = Arrays.copyOf(this.parsed, this.parsedCount * 2);
 			}
-			this.values[col] = formattedValue;
+			this.parsed[this.parsedCount++] = col;
+			return col;
 		}
 
-		String[] getValues() {
-			return Arrays.copyOf(this.values, this.values.length);
+		private void parseUpTo(int column) {
+			int[] projection = StreamingSheet.this.columnProjection;
+			if (projection != null && column >= projection.length) {
+				return;
+			}
+			int lastColumn = (projection != null) ? projection[column] : column;
+			while (!this.complete && this.lastColumn < lastColumn) {
+				parseNext();
+			}
 		}
 
-	}
-
-	/**
-	 * Minimal adapter for {@code Attributes} so that it works with the
-	 * {@code XSSFSheetXMLHandler}. Adapts an {@code XMLStreamReader} so that it can be
-	 * used as an {@code org.xml.sax.Attributes} implementation.
-	 */
-	private static final class AttributesAdapter implements Attributes {
-
-		private final Map<String, String> attributes;
-
-		private AttributesAdapter(XMLStreamReader delegate) {
-			this.attributes = CollectionUtils.newHashMap(delegate.getAttributeCount());
-			for (int i = 0; i < delegate.getAttributeCount(); i++) {
-				String name = delegate.getAttributeLocalName(i);
-				String value = delegate.getAttributeValue(i);
-				this.attributes.put(name, value);
+		private void parseAll() {
+			while (parseNext() != -1) {
+				// keep parsing
 			}
 		}
 
-		@Override
-		public int getLength() {
-			return this.attributes.size();
+		private void grow(int columns) {
+			this.types = (this.types != null) ? Arrays.copyOf(this.types, columns) : new DataType[columns];
+			this.rawValues = (this.rawValues != null) ? Arrays.copyOf(this.rawValues, columns) : new String[columns];
+			this.styleIndexes = (this.styleIndexes != null) ? Arrays.copyOf(this.styleIndexes, columns)
+					: new int[columns];
+			this.formatted = (this.formatted != null) ? Arrays.copyOf(this.formatted, columns) : new String[columns];
+			this.columns = columns;
 		}
 
 		@Override
-		public String getURI(int index) {
-			return null;
+		public int getNumberOfColumns() {
+			parseAll();
+			return this.columns;
 		}
 
 		@Override
-		public String getLocalName(int index) {
-			return null;
+		public CellType getCellType(int column) {
+			if (column < 0) {
+				return CellType.BLANK;
+			}
+			parseUpTo(column);
+			return cellType(column);
 		}
 
-		@Override
-		public String getQName(int index) {
-			return null;
+		private CellType cellType(int column) {
+			DataType type = (column < this.columns) ? this.types[column] : null;
+			if (type == null) {
+				return CellType.BLANK;
+			}
+			switch (type) {
+				case BOOLEAN:
+					return CellType.BOOLEAN;
+				case ERROR:
+					return CellType.ERROR;
+				case NUMBER:
+				case FORMULA:
+					return (this.rawValues[column].isEmpty()) ? CellType.BLANK : CellType.NUMERIC;
+				case SST_STRING:
+					return (this.rawValues[column].isEmpty()) ? CellType.BLANK : CellType.STRING;
+				default:
+					return CellType.STRING;
+			}
 		}
 
 		@Override
-		public String getType(int index) {
-			return null;
+		@Nullable
+		public String getRawString(int column) {
+			CellType cellType = getCellType(column);
+			if (cellType == CellType.BLANK) {
+				return null;
+			}
+			String value = this.rawValues[column];
+			switch (this.types[column]) {
+				case BOOLEAN:
+					return (!value.isEmpty() && value.charAt(0) != '0') ? "TRUE" : "FALSE";
+				case SST_STRING:
+					return StreamingSheet.this.sharedStrings.getString(Integer.parseInt(value));
+				case INLINE_STRING:
+					return XlsxSheetParser.utfDecode(value);
+				default:
+					return value;
+			}
 		}
 
 		@Override
-		public String getValue(int index) {
-			return null;
+		public String getString(int column) {
+			if (column < 0) {
+				return "";
+			}
+			parseUpTo(column);
+			if (column >= this.columns || this.types[column] == null) {
+				return "";
+			}
+			if (this.formatted[column] == null) {
+				this.formatted[column] = StreamingSheet.this.parser.format(this.types[column],
+						this.rawValues[column], this.styleIndexes[column]);
+			}
+			return this.formatted[column];
 		}
 
+		/**
+		 * Only the cells present in the sheet are visited, without a projection these are
+		 * in column order.
+		 */
 		@Override
-		public int getIndex(String uri, String localName) {
-			return 0;
+		public int nextNonBlankColumn(int column) {
+			int found = -1;
+			for (int i = 0; i < this.parsedCount; i++) {
+				int col = this.parsed[i];
+				if (col >= column && (found == -1 || col < found) && cellType(col) != CellType.BLANK) {
+					found = col;
+				}
+			}
+			boolean ordered = StreamingSheet.this.columnProjection == null;
+			if (found != -1 && ordered) {
+				return found;
+			}
+			int col;
+			while ((col = parseNext()) != -1) {
+				if (col >= column && (found == -1 || col < found) && cellType(col) != CellType.BLANK) {
+					found = col;
+					if (ordered) {
+						return found;
+					}
+				}
+			}
+			return found;
 		}
 
+		/**
+		 * Parses one cell at a time until a cell with content is found.
+		 */
 		@Override
-		public int getIndex(String qName) {
-			return 0;
+		public boolean isBlank() {
+			for (int i = 0; i < this.parsedCount; i++) {
+				if (hasContent(this.parsed[i])) {
+					return false;
+				}
+			}
+			int col;
+			while ((col = parseNext()) != -1) {
+				if (hasContent(col)) {
+					return false;
+				}
+			}
+			return true;
 		}
 
-		@Override
-		public String getType(String uri, String localName) {
-			return null;
+		private boolean hasContent(int column) {
+			CellType cellType = cellType(column);
+			return cellType != CellType.BLANK
+					&& (cellType != CellType.STRING || !getRawString(column).isEmpty());
 		}
 
 		@Override
-		public String getType(String qName) {
-			return null;
+		public String[] getStrings() {
+			parseAll();
+			String[] values = this.values;
+			if (!StreamingSheet.this.reuseRowBuffer || values == null || values.length != this.columns) {
+				values = new String[this.columns];
+			}
+			Arrays.fill(values, "");
+			for (int i = 0; i < this.parsedCount; i++) {
+				values[this.parsed[i]] = getString(this.parsed[i]);
+			}
+			if (StreamingSheet.this.reuseRowBuffer) {
+				this.values = values;
+			}
+			return values;
 		}
 
-		@Override
-		public String getValue(String uri, String localName) {
-			return this.attributes.get(localName);
-		}
+	}
 
-		@Override
-		public String getValue(String qName) {
-			return this.attributes.get(qName);
+	private static final class Checkpoint {
+
+		private final int row;
+
+		private final int rowNumber;
+
+		private final long offset;
+
+		private final Callable<InputStream> source;
+
+		private Checkpoint(int row, int rowNumber, long offset, Callable<InputStream> source) {
+			this.row = row;
+			this.rowNumber = rowNumber;
+			this.offset = offset;
+			this.source = source;
 		}
 
 	}
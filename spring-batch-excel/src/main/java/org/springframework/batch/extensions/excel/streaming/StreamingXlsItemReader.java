@@ -0,0 +1,178 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.core.io.Resource;
+
+/**
+ * Streaming reader for {@code .xls} (BIFF8) workbooks, the counterpart of the
+ * {@link StreamingXlsxItemReader}. Instead of building the {@code HSSFWorkbook} the
+ * records of the workbook stream are read one at a time with the record level API of
+ * Apache POI, only the workbook globals (sheets, shared strings and formats) and the
+ * cells of the current row are kept in memory.
+ *
+ * Sheets are opened when they are being read, in an unencrypted workbook at the position
+ * of the sheet in the workbook stream. In an encrypted workbook the stream is decrypted
+ * from its start, skipping the records of the preceding sheets. A {@code Resource} which
+ * isn't a file is read into memory, as Apache POI needs random access to the file
+ * system of the workbook, the rows are still read one at a time.
+ *
+ * @param <T> the type
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class StreamingXlsItemReader<T> extends AbstractExcelItemReader<T> {
+
+	private POIFSFileSystem fileSystem;
+
+	private String workbookEntryName;
+
+	private String password;
+
+	private XlsWorkbookGlobals globals;
+
+	@Override
+	protected Sheet getSheet(int sheet) {
+		InputStream is = null;
+		try {
+			is = this.fileSystem.createDocumentInputStream(this.workbookEntryName);
+			RecordFactoryInputStream records = openSheet(is, sheet);
+			return new StreamingXlsSheet(this.globals.getSheetName(sheet), is, records, this.globals,
+					getCellValueFormatter());
+		}
+		catch (Exception ex) {
+			closeQuietly(is);
+			throw new IllegalStateException("Cannot open sheet " + this.globals.getSheetName(sheet) + ".", ex);
+		}
+	}
+
+	/**
+	 * Position the workbook stream just after the {@code BOF} record of the sheet.
+	 * @param is the workbook stream, positioned at its start
+	 * @param sheet the 0-based index of the sheet
+	 * @return the records of the sheet
+	 * @throws IOException when the stream cannot be read
+	 */
+	private RecordFactoryInputStream openSheet(InputStream is, int sheet) throws IOException {
+		if (!this.globals.isEncrypted()) {
+			is.skipNBytes(this.globals.getPositionOfBof(sheet));
+			RecordFactoryInputStream records = createRecordFactoryInputStream(is);
+			if (!(records.nextRecord() instanceof BOFRecord)) {
+				throw new IllegalStateException("No BOF record at the position of the sheet.");
+			}
+			return records;
+		}
+		// The sheets are in the order of their substreams, the first is the globals
+		RecordFactoryInputStream records = createRecordFactoryInputStream(is);
+		int substreams = 0;
+		int depth = 0;
+		Record record;
+		while ((record = records.nextRecord()) != null) {
+			if (record instanceof BOFRecord) {
+				if (depth++ == 0 && substreams++ == sheet + 1) {
+					return records;
+				}
+			}
+			else if (record instanceof EOFRecord) {
+				depth--;
+			}
+		}
+		throw new IllegalStateException("No substream for the sheet.");
+	}
+
+	private RecordFactoryInputStream createRecordFactoryInputStream(InputStream is) {
+		if (this.password == null) {
+			return new RecordFactoryInputStream(is, false);
+		}
+		// The password is only used when the stream is created
+		Biff8EncryptionKey.setCurrentUserPassword(this.password);
+		try {
+			return new RecordFactoryInputStream(is, false);
+		}
+		finally {
+			Biff8EncryptionKey.setCurrentUserPassword(null);
+		}
+	}
+
+	@Override
+	protected String getSheetName(int sheet) {
+		return this.globals.getSheetName(sheet);
+	}
+
+	@Override
+	protected int getNumberOfSheets() {
+		return this.globals.getNumberOfSheets();
+	}
+
+	@Override
+	protected void openExcelFile(Resource resource, String password) throws Exception {
+		if (resource.isFile()) {
+			this.fileSystem = new POIFSFileSystem(resource.getFile(), true);
+		}
+		else {
+			try (InputStream is = resource.getInputStream()) {
+				this.fileSystem = new POIFSFileSystem(is);
+			}
+		}
+		this.workbookEntryName = HSSFWorkbook.getWorkbookDirEntryName(this.fileSystem.getRoot());
+		this.password = password;
+		try (InputStream is = this.fileSystem.createDocumentInputStream(this.workbookEntryName)) {
+			this.globals = XlsWorkbookGlobals.read(createRecordFactoryInputStream(is));
+		}
+
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Prepared " + this.globals.getNumberOfSheets() + " sheets.");
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		super.doClose();
+
+		this.globals = null;
+		this.password = null;
+		if (this.fileSystem != null) {
+			this.fileSystem.close();
+			this.fileSystem = null;
+		}
+	}
+
+	private static void closeQuietly(InputStream is) {
+		if (is != null) {
+			try {
+				is.close();
+			}
+			catch (IOException ex) {
+				// ignore, already failed to open the sheet
+			}
+		}
+	}
+
+}
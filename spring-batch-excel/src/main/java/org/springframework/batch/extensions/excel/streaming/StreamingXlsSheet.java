@@ -0,0 +1,393 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code Sheet} implementation for {@code .xls} (BIFF8) workbooks which reads the records
+ * of a sheet one at a time, with the record level API of Apache POI, instead of building
+ * the {@code HSSFWorkbook}. Only the cells of the current row are kept in memory.
+ *
+ * Like the {@code HSSFSheet} a row is returned for each {@code ROW} record, and for cells
+ * without one, and the length of a row is determined by its last cell, including cells
+ * which only have a format. Formula cells return their cached result.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsSheet implements Sheet {
+
+	private final Log logger = LogFactory.getLog(StreamingXlsSheet.class);
+
+	private final String name;
+
+	private final InputStream is;
+
+	private final RecordFactoryInputStream records;
+
+	private final XlsWorkbookGlobals globals;
+
+	private final CellValueFormatter cellValueFormatter;
+
+	private final XlsRow currentRow = new XlsRow();
+
+	private int numberOfRows;
+
+	/** Row numbers of the {@code ROW} records read ahead of their cells. */
+	private int[] announcedRows = new int[32];
+
+	private int announcedHead;
+
+	private int announcedTail;
+
+	@Nullable
+	private Record pushedBack;
+
+	private int depth = 1;
+
+	private boolean ended;
+
+	/**
+	 * Create a sheet for the records of a sheet substream.
+	 * @param name the name of the sheet
+	 * @param is the workbook stream, closed when the sheet is closed
+	 * @param records the records of the workbook stream, positioned just after the
+	 * {@code BOF} record of the sheet
+	 * @param globals the workbook globals
+	 * @param cellValueFormatter the {@code CellValueFormatter} to format the cells with
+	 */
+	StreamingXlsSheet(String name, InputStream is, RecordFactoryInputStream records, XlsWorkbookGlobals globals,
+			CellValueFormatter cellValueFormatter) {
+		this.name = name;
+		this.is = is;
+		this.records = records;
+		this.globals = globals;
+		this.cellValueFormatter = cellValueFormatter;
+		readToRows();
+	}
+
+	/**
+	 * Read the records before the first row, the {@code DIMENSIONS} record gives the
+	 * number of rows.
+	 */
+	private void readToRows() {
+		Record record;
+		while ((record = nextRecord()) != null) {
+			if (record instanceof DimensionsRecord dimensions) {
+				this.numberOfRows = dimensions.getLastRow();
+			}
+			else if (record instanceof RowRecord || isCell(record)) {
+				this.pushedBack = record;
+				return;
+			}
+		}
+	}
+
+	@Override
+	public int getNumberOfRows() {
+		return this.numberOfRows;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public String[] getRow(int rowNumber) {
+		throw new UnsupportedOperationException("Getting row by index not supported when streaming.");
+	}
+
+	@Override
+	public boolean isForwardOnly() {
+		return true;
+	}
+
+	@Override
+	public void setColumnProjection(int[] columns) {
+		this.currentRow.setColumnProjection(columns);
+	}
+
+	@Override
+	@Nullable
+	public int[] getColumnProjection() {
+		return this.currentRow.getColumnProjection();
+	}
+
+	@Override
+	public Iterator<String[]> iterator() {
+		return new Iterator<>() {
+
+			private String[] currentRow;
+
+			@Override
+			public boolean hasNext() {
+				this.currentRow = nextRow();
+				return this.currentRow != null;
+			}
+
+			@Override
+			public String[] next() {
+				return this.currentRow;
+			}
+		};
+	}
+
+	private String[] nextRow() {
+		if (!readRow()) {
+			return null;
+		}
+		String[] values = this.currentRow.getStrings();
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Row ended, returning: " + StringUtils.arrayToCommaDelimitedString(values));
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the next row into the raw values of the current row, without formatting any
+	 * of the cells.
+	 */
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		return readRow() ? this.currentRow : null;
+	}
+
+	/**
+	 * Reads the records of the row without formatting any of the cells.
+	 */
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		if (!readRow()) {
+			return SkippedRow.NONE;
+		}
+		return this.currentRow.isBlank() ? SkippedRow.BLANK : SkippedRow.CONTENT;
+	}
+
+	/**
+	 * Read the records of the next row. The {@code ROW} records of a block of rows
+	 * precede the cells of those rows, rows without cells are returned as empty rows in
+	 * the order of their row number.
+	 * @return {@code true} if a row has been read, {@code false} at the end of the sheet
+	 */
+	private boolean readRow() {
+		this.currentRow.reset();
+		int rowNumber = -1;
+		Record record;
+		while ((record = nextRecord()) != null) {
+			if (record instanceof RowRecord row) {
+				if (rowNumber != -1) {
+					this.pushedBack = record;
+					return true;
+				}
+				announce(row.getRowNumber());
+			}
+			else if (isCell(record)) {
+				int cellRow = (record instanceof MulBlankRecord blanks) ? blanks.getRow()
+						: ((CellValueRecordInterface) record).getRow();
+				if (rowNumber == -1) {
+					while (this.announcedHead < this.announcedTail
+							&& this.announcedRows[this.announcedHead] <= cellRow) {
+						int announced = this.announcedRows[this.announcedHead++];
+						if (announced < cellRow) {
+							// A row without cells
+							this.pushedBack = record;
+							return true;
+						}
+					}
+					rowNumber = cellRow;
+				}
+				else if (cellRow != rowNumber) {
+					this.pushedBack = record;
+					return true;
+				}
+				this.currentRow.add(record);
+			}
+			else if (record instanceof StringRecord string) {
+				this.currentRow.setFormulaString(string.getString());
+			}
+		}
+		if (rowNumber != -1) {
+			return true;
+		}
+		if (this.announcedHead < this.announcedTail) {
+			this.announcedHead++;
+			return true;
+		}
+		return false;
+	}
+
+	private void announce(int rowNumber) {
+		if (this.announcedHead == this.announcedTail) {
+			this.announcedHead = 0;
+			this.announcedTail = 0;
+		}
+		if (this.announcedTail == this.announcedRows.length) {
+			this.announcedRows = Arrays.copyOf(this.announcedRows, this.announcedRows.length * 2);
+		}
+		this.announcedRows[this.announcedTail++] = rowNumber;
+	}
+
+	private static boolean isCell(Record record) {
+		return record instanceof CellValueRecordInterface || record instanceof MulBlankRecord;
+	}
+
+	/**
+	 * The next record of this sheet, skipping the records of embedded substreams (e.g.
+	 * charts).
+	 * @return the record or {@code null} at the end of the sheet
+	 */
+	@Nullable
+	private Record nextRecord() {
+		if (this.pushedBack != null) {
+			Record record = this.pushedBack;
+			this.pushedBack = null;
+			return record;
+		}
+		try {
+			while (!this.ended) {
+				Record record = this.records.nextRecord();
+				if (record == null) {
+					this.ended = true;
+				}
+				else if (record instanceof BOFRecord) {
+					this.depth++;
+				}
+				else if (record instanceof EOFRecord) {
+					this.ended = --this.depth == 0;
+				}
+				else if (this.depth == 1) {
+					return record;
+				}
+			}
+			return null;
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalStateException("Error reading file.", ex);
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		this.ended = true;
+		this.is.close();
+	}
+
+	/**
+	 * The cells of the current row, decoded from the cell records.
+	 */
+	private final class XlsRow extends DecodedRow {
+
+		private int formulaString = -1;
+
+		void reset() {
+			reset(0);
+			this.formulaString = -1;
+		}
+
+		void add(Record record) {
+			if (record instanceof MulBlankRecord blanks) {
+				include(blanks.getLastColumn());
+				return;
+			}
+			CellValueRecordInterface cell = (CellValueRecordInterface) record;
+			int col = include(cell.getColumn());
+			if (col == -1 || record instanceof BlankRecord) {
+				return;
+			}
+			if (record instanceof NumberRecord number) {
+				setNumber(col, number.getValue(), cell.getXFIndex());
+			}
+			else if (record instanceof LabelSSTRecord label) {
+				setString(col, StreamingXlsSheet.this.globals.getSharedString(label.getSSTIndex()), cell.getXFIndex());
+			}
+			else if (record instanceof LabelRecord label) {
+				setString(col, label.getValue(), cell.getXFIndex());
+			}
+			else if (record instanceof BoolErrRecord boolErr) {
+				if (boolErr.isBoolean()) {
+					setBoolean(col, boolErr.getBooleanValue(), cell.getXFIndex());
+				}
+				else {
+					setError(col, ErrorEval.getText(boolErr.getErrorValue()), cell.getXFIndex());
+				}
+			}
+			else if (record instanceof FormulaRecord formula) {
+				switch (formula.getCachedResultTypeEnum()) {
+					case STRING -> {
+						// The value follows in a STRING record, unless it is empty
+						setString(col, "", cell.getXFIndex());
+						this.formulaString = formula.hasCachedResultString() ? col : -1;
+					}
+					case BOOLEAN -> setBoolean(col, formula.getCachedBooleanValue(), cell.getXFIndex());
+					case ERROR -> setError(col, ErrorEval.getText(formula.getCachedErrorValue()), cell.getXFIndex());
+					default -> setNumber(col, formula.getValue(), cell.getXFIndex());
+				}
+			}
+		}
+
+		void setFormulaString(String value) {
+			if (this.formulaString != -1) {
+				replaceString(this.formulaString, value);
+				this.formulaString = -1;
+			}
+		}
+
+		@Override
+		protected String formatNumber(double value, int style) {
+			XlsWorkbookGlobals globals = StreamingXlsSheet.this.globals;
+			return StreamingXlsSheet.this.cellValueFormatter.formatRawCellContents(value, style,
+					globals.getFormatIndex(style), globals.getFormatString(style), globals.isDate1904());
+		}
+
+		@Override
+		public boolean isDate1904() {
+			return StreamingXlsSheet.this.globals.isDate1904();
+		}
+
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.InputStream;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.XSSFBReader;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.core.io.Resource;
+
+/**
+ * Streaming reader for {@code .xlsb} (BIFF12) workbooks, the counterpart of the
+ * {@link StreamingXlsxItemReader}. The parts of the workbook are located with the
+ * {@code XSSFBReader} of Apache POI, their records are read one at a time with a reusable
+ * buffer, only the workbook globals (sheets, shared strings and formats) and the cells of
+ * the current row are kept in memory.
+ *
+ * Sheets are opened when they are being read and closed as soon as all of their rows have
+ * been read, sheets which aren't selected (see
+ * {@link #setSheetSelector(org.springframework.batch.extensions.excel.SheetSelector)}) are
+ * never opened. Encrypted workbooks aren't supported.
+ *
+ * @param <T> the type
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class StreamingXlsbItemReader<T> extends AbstractExcelItemReader<T> {
+
+	private OPCPackage pkg;
+
+	private InputStream inputStream;
+
+	private XSSFBReader reader;
+
+	private XlsbWorkbookGlobals globals;
+
+	@Override
+	protected Sheet getSheet(int sheet) {
+		InputStream is;
+		try {
+			is = this.reader.getSheet(this.globals.getSheetId(sheet));
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot open sheet " + this.globals.getSheetName(sheet) + ".", ex);
+		}
+		return new StreamingXlsbSheet(this.globals.getSheetName(sheet), new XlsbRecordReader(is), this.globals,
+				getCellValueFormatter());
+	}
+
+	@Override
+	protected String getSheetName(int sheet) {
+		return this.globals.getSheetName(sheet);
+	}
+
+	@Override
+	protected int getNumberOfSheets() {
+		return this.globals.getNumberOfSheets();
+	}
+
+	@Override
+	protected void openExcelFile(Resource resource, String password) throws Exception {
+		if (resource.isFile()) {
+			this.pkg = OPCPackage.open(resource.getFile(), PackageAccess.READ);
+		}
+		else {
+			this.inputStream = resource.getInputStream();
+			this.pkg = OPCPackage.open(this.inputStream);
+		}
+		this.reader = new XSSFBReader(this.pkg);
+		this.globals = XlsbWorkbookGlobals.read(this.reader);
+
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Prepared " + this.globals.getNumberOfSheets() + " sheets.");
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		super.doClose();
+
+		if (this.pkg != null) {
+			this.pkg.revert();
+			this.pkg = null;
+		}
+		this.reader = null;
+		this.globals = null;
+
+		if (this.inputStream != null) {
+			this.inputStream.close();
+			this.inputStream = null;
+		}
+	}
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.util.LittleEndian;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code Sheet} implementation for {@code .xlsb} (BIFF12) workbooks which reads the
+ * records of a sheet one at a time with the {@link XlsbRecordReader}. Only the cells of
+ * the current row are kept in memory.
+ *
+ * Like the {@link StreamingSheet} a row is returned for each row in the sheet, the length
+ * of a row is at least the number of columns of the dimension of the sheet and grows with
+ * the cells read. Formula cells return their cached result.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsbSheet implements Sheet {
+
+	private final Log logger = LogFactory.getLog(StreamingXlsbSheet.class);
+
+	private final String name;
+
+	private final XlsbRecordReader records;
+
+	private final XlsbWorkbookGlobals globals;
+
+	private final CellValueFormatter cellValueFormatter;
+
+	private final XlsbRow currentRow = new XlsbRow();
+
+	private int numberOfRows;
+
+	private int columns;
+
+	/** Whether the reader is positioned at the header of the next row. */
+	private boolean atRow;
+
+	private boolean ended;
+
+	/**
+	 * Create a sheet for the records of a sheet part.
+	 * @param name the name of the sheet
+	 * @param records the records of the sheet part, closed when the sheet is closed
+	 * @param globals the workbook globals
+	 * @param cellValueFormatter the {@code CellValueFormatter} to format the cells with
+	 */
+	StreamingXlsbSheet(String name, XlsbRecordReader records, XlsbWorkbookGlobals globals,
+			CellValueFormatter cellValueFormatter) {
+		this.name = name;
+		this.records = records;
+		this.globals = globals;
+		this.cellValueFormatter = cellValueFormatter;
+		readToRows();
+	}
+
+	/**
+	 * Read the records before the sheet data, the dimension gives the number of rows and
+	 * columns.
+	 */
+	private void readToRows() {
+		try {
+			while (this.records.next()) {
+				int recordType = this.records.getRecordType();
+				if (recordType == XlsbRecordReader.WS_DIM) {
+					byte[] data = this.records.getData();
+					this.numberOfRows = XlsbRecordReader.getInt(data, 4) + 1;
+					this.columns = XlsbRecordReader.getInt(data, 12) + 1;
+				}
+				else if (recordType == XlsbRecordReader.BEGIN_SHEET_DATA) {
+					return;
+				}
+			}
+			this.ended = true;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Error reading file.", ex);
+		}
+	}
+
+	@Override
+	public int getNumberOfRows() {
+		return this.numberOfRows;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public String[] getRow(int rowNumber) {
+		throw new UnsupportedOperationException("Getting row by index not supported when streaming.");
+	}
+
+	@Override
+	public boolean isForwardOnly() {
+		return true;
+	}
+
+	@Override
+	public void setColumnProjection(int[] columns) {
+		this.currentRow.setColumnProjection(columns);
+	}
+
+	@Override
+	@Nullable
+	public int[] getColumnProjection() {
+		return this.currentRow.getColumnProjection();
+	}
+
+	@Override
+	public Iterator<String[]> iterator() {
+		return new Iterator<>() {
+
+			private String[] currentRow;
+
+			@Override
+			public boolean hasNext() {
+				this.currentRow = nextRow();
+				return this.currentRow != null;
+			}
+
+			@Override
+			public String[] next() {
+				return this.currentRow;
+			}
+		};
+	}
+
+	private String[] nextRow() {
+		if (!readRow()) {
+			return null;
+		}
+		String[] values = this.currentRow.getStrings();
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Row ended, returning: " + StringUtils.arrayToCommaDelimitedString(values));
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the next row into the raw values of the current row, without formatting any
+	 * of the cells.
+	 */
+	@Override
+	@Nullable
+	public TypedRow nextTypedRow(Iterator<String[]> rows) {
+		return readRow() ? this.currentRow : null;
+	}
+
+	/**
+	 * Reads the records of the row without formatting any of the cells.
+	 */
+	@Override
+	public SkippedRow skipRow(Iterator<String[]> rows) {
+		if (!readRow()) {
+			return SkippedRow.NONE;
+		}
+		return this.currentRow.isBlank() ? SkippedRow.BLANK : SkippedRow.CONTENT;
+	}
+
+	/**
+	 * Read the records of the next row, from its header up to the header of the next row
+	 * or the end of the sheet data.
+	 * @return {@code true} if a row has been read, {@code false} at the end of the sheet
+	 */
+	private boolean readRow() {
+		try {
+			while (!this.atRow) {
+				if (this.ended || !this.records.next()) {
+					this.ended = true;
+					return false;
+				}
+				int recordType = this.records.getRecordType();
+				if (recordType == XlsbRecordReader.END_SHEET_DATA) {
+					this.ended = true;
+					return false;
+				}
+				this.atRow = recordType == XlsbRecordReader.ROW_HDR;
+			}
+			this.atRow = false;
+			this.currentRow.reset(this.columns);
+			while (this.records.next()) {
+				int recordType = this.records.getRecordType();
+				if (recordType == XlsbRecordReader.ROW_HDR) {
+					this.atRow = true;
+					break;
+				}
+				if (recordType == XlsbRecordReader.END_SHEET_DATA) {
+					this.ended = true;
+					break;
+				}
+				this.currentRow.add(recordType, this.records);
+			}
+			if (getColumnProjection() == null) {
+				this.columns = Math.max(this.columns, this.currentRow.getNumberOfColumns());
+			}
+			return true;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Error reading file.", ex);
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		this.ended = true;
+		this.records.close();
+	}
+
+	/**
+	 * The cells of the current row, decoded from the cell records.
+	 */
+	private final class XlsbRow extends DecodedRow {
+
+		void add(int recordType, XlsbRecordReader records) throws IOException {
+			if (recordType < XlsbRecordReader.CELL_BLANK
+					|| (recordType > XlsbRecordReader.FMLA_ERROR && recordType != XlsbRecordReader.CELL_RSTRING)) {
+				return;
+			}
+			byte[] data = records.getData();
+			int col = include(XlsbRecordReader.getInt(data, 0));
+			if (col == -1) {
+				return;
+			}
+			int style = XlsbRecordReader.getStyle(data);
+			int value = XlsbRecordReader.CELL_HEADER_LENGTH;
+			switch (recordType) {
+				case XlsbRecordReader.CELL_RK -> setNumber(col, XlsbRecordReader.getRk(data, value), style);
+				case XlsbRecordReader.CELL_REAL, XlsbRecordReader.FMLA_NUM ->
+					setNumber(col, LittleEndian.getDouble(data, value), style);
+				case XlsbRecordReader.CELL_ISST ->
+					setString(col, StreamingXlsbSheet.this.globals.getSharedString(XlsbRecordReader.getInt(data, value)),
+							style);
+				case XlsbRecordReader.CELL_ST, XlsbRecordReader.FMLA_STRING ->
+					setString(col, XlsbRecordReader.getWideString(data, value, records.getLength()), style);
+				case XlsbRecordReader.CELL_RSTRING ->
+					// A flags byte precedes the text of the rich string
+					setString(col, XlsbRecordReader.getWideString(data, value + 1, records.getLength()), style);
+				case XlsbRecordReader.CELL_BOOL, XlsbRecordReader.FMLA_BOOL -> setBoolean(col, data[value] != 0, style);
+				case XlsbRecordReader.CELL_ERROR, XlsbRecordReader.FMLA_ERROR ->
+					setError(col, ErrorEval.getText(data[value] & 0xFF), style);
+				default -> {
+					// A blank cell, which only has a format
+				}
+			}
+		}
+
+		@Override
+		protected String formatNumber(double value, int style) {
+			XlsbWorkbookGlobals globals = StreamingXlsbSheet.this.globals;
+			return StreamingXlsbSheet.this.cellValueFormatter.formatRawCellContents(value, style,
+					globals.getFormatIndex(style), globals.getFormatString(style), globals.isDate1904());
+		}
+
+		@Override
+		public boolean isDate1904() {
+			return StreamingXlsbSheet.this.globals.isDate1904();
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,42 +17,107 @@
 package org.springframework.batch.extensions.excel.streaming;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
 
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
-import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.util.XMLHelper;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.Styles;
-import org.xml.sax.SAXException;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
 import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Simple streaming reader without Apache POI.
  *
+ * Sheets are opened when they are being read and closed as soon as all of their rows have
+ * been read, sheets which aren't selected (see
+ * {@link #setSheetSelector(org.springframework.batch.extensions.excel.SheetSelector)}) are
+ * never opened.
+ *
  * @param <T> the type
  * @author Marten Deinum
  * @since 0.1.0
  **/
 public class StreamingXlsxItemReader<T> extends AbstractExcelItemReader<T> {
 
-	private final List<StreamingSheet> sheets = new ArrayList<>();
+	private static final String CURRENT_ROW_OFFSET_KEY = "current.row.offset";
+
+	private static final String CURRENT_ROW_NUMBER_KEY = "current.row.number";
+
+	private final List<XSSFReader.XSSFSheetRef> sheets = new ArrayList<>();
 
 	private OPCPackage pkg;
 
 	private InputStream inputStream;
 
+	private XSSFReader reader;
+
+	private StreamingSharedStrings sharedStrings;
+
+	private Styles styles;
+
+	private Supplier<? extends SharedStringsStore> sharedStringsStore = InMemorySharedStringsStore::new;
+
+	private boolean singlePass = false;
+
+	private long maxSpoolSize = Long.MAX_VALUE;
+
+	private StreamingXlsxPackage streamingPackage;
+
+	private boolean reuseRowBuffer = false;
+
+	private StreamingSheet openedSheet;
+
+	private int checkpointSheet = -1;
+
+	private int checkpointRow;
+
+	private int checkpointRowNumber;
+
+	private long checkpointOffset;
+
 	@Override
 	protected Sheet getSheet(int sheet) {
-		return this.sheets.get(sheet);
+		XSSFReader.XSSFSheetRef ref = this.sheets.get(sheet);
+		InputStream is;
+		try {
+			is = (this.streamingPackage != null)
+					? this.streamingPackage.getSheet(sheet, (next) -> next > sheet && isSheetSelected(next))
+					: this.reader.getSheet(ref.getId());
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot open sheet " + ref.getName() + ".", ex);
+		}
+		StreamingSheet streamingSheet = new StreamingSheet(ref.getName(), is, this.sharedStrings, this.styles,
+				getCellValueFormatter());
+		streamingSheet.setReuseRowBuffer(this.reuseRowBuffer);
+		if (this.checkpointSheet == sheet && this.reader != null) {
+			XSSFReader sheetReader = this.reader;
+			streamingSheet.setCheckpoint(this.checkpointRow, this.checkpointRowNumber, this.checkpointOffset,
+					() -> sheetReader.getSheet(ref.getId()));
+			this.checkpointSheet = -1;
+		}
+		this.openedSheet = streamingSheet;
+		return streamingSheet;
+	}
+
+	@Override
+	protected String getSheetName(int sheet) {
+		return this.sheets.get(sheet).getName();
 	}
 
 	@Override
@@ -66,52 +131,216 @@ public class StreamingXlsxItemReader<T> extends AbstractExcelItemReader<T> {
 			File file = resource.getFile();
 			this.pkg = OPCPackage.open(file, PackageAccess.READ);
 		}
+		else if (this.singlePass) {
+			this.inputStream = resource.getInputStream();
+			openSinglePass(this.inputStream);
+			return;
+		}
 		else {
 			this.inputStream = resource.getInputStream();
 			this.pkg = OPCPackage.open(this.inputStream);
 		}
-		XSSFReader reader = new XSSFReader(this.pkg);
-		initSheets(reader, this.pkg);
+		this.reader = new XSSFReader(this.pkg);
+		initSheets(this.reader, this.pkg);
+	}
+
+	/**
+	 * Read the shared strings, styles and the references to the sheets from the start of
+	 * the stream. The selected sheets which come before them in the stream are spooled to
+	 * temporary files.
+	 * @param is the stream of the workbook
+	 * @throws Exception when the workbook cannot be read
+	 */
+	private void openSinglePass(InputStream is) throws Exception {
+		SharedStringsStore store = this.sharedStringsStore.get();
+		try {
+			this.streamingPackage = StreamingXlsxPackage.open(is, store, this.maxSpoolSize);
+		}
+		catch (Exception ex) {
+			store.close();
+			throw ex;
+		}
+		this.sharedStrings = this.streamingPackage.getSharedStrings();
+		this.styles = this.streamingPackage.getStyles();
+		this.sheets.addAll(this.streamingPackage.getSheetRefs());
+		this.streamingPackage.retainSheets(this::isSheetSelected);
+
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Prepared " + this.sheets.size() + " sheets, reading in a single pass.");
+		}
 	}
 
-	private void initSheets(XSSFReader reader, OPCPackage pkg) throws IOException, InvalidFormatException {
-		XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) reader.getSheetsData();
-		SharedStrings sharedStrings;
+	/**
+	 * Read the shared strings, styles and the references to the sheets. The sheets
+	 * themselves are only opened when they are being read.
+	 * @param reader the reader for the parts of the workbook
+	 * @param pkg the package of the workbook
+	 * @throws Exception when the workbook cannot be read
+	 */
+	private void initSheets(XSSFReader reader, OPCPackage pkg) throws Exception {
+		SharedStringsStore store = this.sharedStringsStore.get();
 		try {
-			sharedStrings = new ReadOnlySharedStringsTable(pkg);
+			this.sharedStrings = StreamingSharedStrings.read(pkg, store);
 		}
-		catch (SAXException ex) {
+		catch (XMLStreamException ex) {
+			store.close();
 			throw new IllegalStateException("Cannot read shared-strings-table.", ex);
 		}
-		Styles styles = reader.getStylesTable();
-		while (iter.hasNext()) {
-			InputStream is = iter.next();
-			String name = iter.getSheetName();
-			this.sheets.add(new StreamingSheet(name, is, sharedStrings, styles, getDataFormatter()));
+		catch (Exception ex) {
+			store.close();
+			throw ex;
 		}
+		this.styles = reader.getStylesTable();
+
+		this.sheets.addAll(readSheetRefs(reader));
 
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace("Prepared " + this.sheets.size() + " sheets.");
 		}
 	}
 
+	/**
+	 * Read the references to the sheets, in workbook order, from the workbook part. Like
+	 * the {@code XSSFReader}, sheets without a relationship id are silently skipped.
+	 * @param reader the reader for the parts of the workbook
+	 * @return the references to the sheets
+	 * @throws Exception when the workbook part cannot be read
+	 */
+	static List<XSSFReader.XSSFSheetRef> readSheetRefs(XSSFReader reader) throws Exception {
+		XSSFReader.XMLSheetRefReader sheetRefReader = new XSSFReader.XMLSheetRefReader();
+		XMLReader xmlReader = XMLHelper.newXMLReader();
+		xmlReader.setContentHandler(sheetRefReader);
+		try (InputStream is = reader.getWorkbookData()) {
+			xmlReader.parse(new InputSource(is));
+		}
+		List<XSSFReader.XSSFSheetRef> refs = new ArrayList<>();
+		for (XSSFReader.XSSFSheetRef ref : sheetRefReader.getSheetRefs()) {
+			if (StringUtils.hasLength(ref.getId())) {
+				refs.add(ref);
+			}
+		}
+		return refs;
+	}
+
+	/**
+	 * Next to the position stored by the {@code AbstractExcelItemReader} the byte offset,
+	 * in the XML of the sheet, of the row read last is stored. On restart the XML before
+	 * that offset is skipped instead of parsed. When the row at the offset doesn't match,
+	 * the rows are skipped one by one.
+	 */
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		this.checkpointSheet = -1;
+		if (isSaveState() && executionContext.containsKey(getExecutionContextKey(CURRENT_ROW_OFFSET_KEY))
+				&& executionContext.containsKey(getExecutionContextKey(CURRENT_SHEET_KEY))) {
+			this.checkpointSheet = executionContext.getInt(getExecutionContextKey(CURRENT_SHEET_KEY));
+			this.checkpointRow = executionContext.getInt(getExecutionContextKey(CURRENT_ROW_KEY));
+			this.checkpointRowNumber = executionContext.getInt(getExecutionContextKey(CURRENT_ROW_NUMBER_KEY));
+			this.checkpointOffset = executionContext.getLong(getExecutionContextKey(CURRENT_ROW_OFFSET_KEY));
+		}
+		super.open(executionContext);
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (!isSaveState()) {
+			return;
+		}
+		// when reading ahead the position of the sheet is beyond the row read last
+		if (executionContext.containsKey(getExecutionContextKey(CURRENT_SHEET_KEY)) && this.openedSheet != null
+				&& this.openedSheet.getCurrentRowOffset() >= 0 && !isReadingAhead()) {
+			executionContext.putLong(getExecutionContextKey(CURRENT_ROW_OFFSET_KEY),
+					this.openedSheet.getCurrentRowOffset());
+			executionContext.putInt(getExecutionContextKey(CURRENT_ROW_NUMBER_KEY),
+					this.openedSheet.getCurrentRowNumber());
+		}
+		else {
+			executionContext.remove(getExecutionContextKey(CURRENT_ROW_OFFSET_KEY));
+			executionContext.remove(getExecutionContextKey(CURRENT_ROW_NUMBER_KEY));
+		}
+	}
+
+	@Override
+	protected void clearResumePosition(ExecutionContext executionContext) {
+		super.clearResumePosition(executionContext);
+		executionContext.remove(getExecutionContextKey(CURRENT_ROW_OFFSET_KEY));
+		executionContext.remove(getExecutionContextKey(CURRENT_ROW_NUMBER_KEY));
+	}
+
+	/**
+	 * Reuse a single {@code String[]} for all the rows of a sheet instead of creating a new
+	 * one for each row. The {@code RowSet} passed to the {@code RowMapper} then exposes a
+	 * row which is only valid until the next row is read, a {@code RowMapper} which needs
+	 * to keep the row should use {@code RowSet#copyCurrentRow()}. Default {@code false}.
+	 * @param reuseRowBuffer {@code true} to reuse the row buffer.
+	 */
+	public void setReuseRowBuffer(boolean reuseRowBuffer) {
+		this.reuseRowBuffer = reuseRowBuffer;
+	}
+
+	/**
+	 * The store for the text of the shared strings, a new store is created each time a
+	 * workbook is opened. By default, all the strings are kept on the heap, for workbooks
+	 * with a large number of unique strings a {@link FileSharedStringsStore} keeps them in
+	 * a temporary file instead.
+	 * @param sharedStringsStore creates the store for the shared strings of a workbook
+	 */
+	public void setSharedStringsStore(Supplier<? extends SharedStringsStore> sharedStringsStore) {
+		Assert.notNull(sharedStringsStore, "The sharedStringsStore cannot be null.");
+		this.sharedStringsStore = sharedStringsStore;
+	}
+
+	/**
+	 * Read a workbook, from a {@code Resource} which isn't a file, in a single pass over
+	 * the stream instead of reading the whole workbook into memory first. The workbook
+	 * parts which are needed before the sheets can be read, and the selected sheets which
+	 * come before them in the stream, are spooled to temporary files (see
+	 * {@link #setMaxSpoolSize(long)}). The sheets have to be read in order, on restart
+	 * the rows before the restart position are parsed again. Default {@code false}.
+	 * @param singlePass {@code true} to read the workbook in a single pass.
+	 */
+	public void setSinglePass(boolean singlePass) {
+		this.singlePass = singlePass;
+	}
+
+	/**
+	 * The maximum number of bytes to spool to temporary files when reading in a single
+	 * pass, when more is needed reading the workbook fails. Default unlimited.
+	 * @param maxSpoolSize the maximum number of bytes to spool
+	 */
+	public void setMaxSpoolSize(long maxSpoolSize) {
+		Assert.isTrue(maxSpoolSize >= 0, "The maxSpoolSize cannot be negative.");
+		this.maxSpoolSize = maxSpoolSize;
+	}
+
 	@Override
 	protected void doClose() throws Exception {
+		super.doClose();
 
 		if (this.pkg != null) {
 			this.pkg.revert();
+			this.pkg = null;
 		}
-
-		for (StreamingSheet sheet : this.sheets) {
-			sheet.close();
-		}
+		this.reader = null;
+		this.openedSheet = null;
+		this.checkpointSheet = -1;
+		this.styles = null;
 		this.sheets.clear();
 
+		if (this.streamingPackage != null) {
+			this.streamingPackage.close();
+			this.streamingPackage = null;
+		}
 		if (this.inputStream != null) {
 			this.inputStream.close();
 			this.inputStream = null;
 		}
-		super.doClose();
+		if (this.sharedStrings != null) {
+			StreamingSharedStrings sharedStrings = this.sharedStrings;
+			this.sharedStrings = null;
+			sharedStrings.close();
+		}
 	}
 
 }
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.streaming.XlsxSheetParser.DataType;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.ResourceAwareItemWriterItemStream;
+import org.springframework.batch.item.file.transform.FieldExtractor;
+import org.springframework.batch.item.file.transform.PassThroughFieldExtractor;
+import org.springframework.batch.item.support.AbstractItemStreamItemWriter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.WritableResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * {@link org.springframework.batch.item.ItemWriter} which writes the items as the rows of
+ * a single sheet of an XLSX file, using the {@code SXSSFWorkbook} of Apache POI. Only the
+ * last {@link #setRowAccessWindowSize(int) rowAccessWindowSize} rows are kept in memory,
+ * older rows are flushed to a temporary file, so the heap used doesn't grow with the
+ * number of rows. The workbook is written to the {@code Resource} when the writer is
+ * closed.
+ *
+ * An item is turned into the values of a row by a {@link FieldExtractor}, the counterpart
+ * of the {@code RowMapper} of the readers. {@code Number}, {@code Boolean} and
+ * {@code String} values are written as such, {@code LocalDate}, {@code LocalDateTime},
+ * {@code Date} and {@code Calendar} values as dates with the configured format,
+ * {@code null} values as blank cells and other values as their {@code toString()}.
+ *
+ * The number of rows written is stored in the {@code ExecutionContext}. As an XLSX file
+ * cannot be appended to, on restart the rows written before are copied from the existing
+ * file into the new workbook, without the rows of the chunk which failed. When the rows
+ * are written in a transaction the rows of a chunk which is rolled back are removed
+ * again, which requires the chunk to fit in the {@code rowAccessWindowSize}.
+ *
+ * Nothing is written to the {@code Resource} before the writer is closed, so only an
+ * execution which closed the writer, e.g. one which failed on a chunk, can be restarted.
+ * When the process died before the writer was closed the rows counted in the
+ * {@code ExecutionContext} were never written, opening the writer on restart then fails
+ * when the file is missing or has fewer rows. A file of an earlier execution which
+ * happens to have enough rows cannot be told apart, its rows are copied. The copied rows
+ * keep the index of their style, so the {@code dateFormat} and {@code dateTimeFormat}
+ * cannot be changed before a restart, which is checked.
+ *
+ * @param <T> the type
+ * @author Marten Deinum
+ * @since 0.2.0
+ * @see StreamingXlsxItemWriterBuilder
+ */
+public class StreamingXlsxItemWriter<T> extends AbstractItemStreamItemWriter<T>
+		implements ResourceAwareItemWriterItemStream<T>, InitializingBean {
+
+	/**
+	 * Key in the {@code ExecutionContext} for the number of rows written, excluding the
+	 * header row.
+	 */
+	private static final String WRITTEN_KEY = "written";
+
+	/**
+	 * Key in the {@code ExecutionContext} for the number format of the dates, the copied
+	 * rows depend on it on restart.
+	 */
+	private static final String DATE_FORMAT_KEY = "date.format";
+
+	/**
+	 * Key in the {@code ExecutionContext} for the number format of the date-times, the
+	 * copied rows depend on it on restart.
+	 */
+	private static final String DATE_TIME_FORMAT_KEY = "date.time.format";
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private WritableResource resource;
+
+	private FieldExtractor<T> fieldExtractor = new PassThroughFieldExtractor<>();
+
+	private String sheetName = "Sheet1";
+
+	private String[] headerNames;
+
+	private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	private boolean compressTempFiles = false;
+
+	private boolean useSharedStringsTable = false;
+
+	private String dateFormat = "yyyy-mm-dd";
+
+	private String dateTimeFormat = "yyyy-mm-dd hh:mm:ss";
+
+	private boolean saveState = true;
+
+	private boolean transactional = true;
+
+	private SXSSFWorkbook workbook;
+
+	private SXSSFSheet sheet;
+
+	private CellStyle dateStyle;
+
+	private CellStyle dateTimeStyle;
+
+	private int headerRows;
+
+	private int written;
+
+	private boolean rollbackFailed;
+
+	public StreamingXlsxItemWriter() {
+		super();
+		this.setName(ClassUtils.getShortName(this.getClass()));
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.notNull(this.resource, "Resource must be set");
+		Assert.notNull(this.fieldExtractor, "FieldExtractor must be set");
+		Assert.hasText(this.sheetName, "SheetName must be set");
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		super.open(executionContext);
+		Assert.notNull(this.resource, "Resource must be set");
+		if (this.workbook != null) {
+			return;
+		}
+		boolean restart = this.saveState && executionContext.containsKey(getExecutionContextKey(WRITTEN_KEY));
+		if (restart) {
+			assertUnchanged(executionContext, DATE_FORMAT_KEY, this.dateFormat);
+			assertUnchanged(executionContext, DATE_TIME_FORMAT_KEY, this.dateTimeFormat);
+		}
+		this.workbook = new SXSSFWorkbook(new XSSFWorkbook(), this.rowAccessWindowSize, this.compressTempFiles,
+				this.useSharedStringsTable);
+		// created in a fixed order, so the styles of the copied rows keep their index
+		this.dateStyle = createDateStyle(this.dateFormat);
+		this.dateTimeStyle = createDateStyle(this.dateTimeFormat);
+		this.sheet = this.workbook.createSheet(this.sheetName);
+		this.headerRows = 0;
+		this.written = 0;
+		this.rollbackFailed = false;
+		if (this.headerNames != null) {
+			Row header = this.sheet.createRow(this.headerRows++);
+			for (int i = 0; i < this.headerNames.length; i++) {
+				header.createCell(i).setCellValue(this.headerNames[i]);
+			}
+		}
+
+		if (restart) {
+			int written = executionContext.getInt(getExecutionContextKey(WRITTEN_KEY));
+			try {
+				copyWrittenRows(written);
+			}
+			catch (Exception ex) {
+				disposeWorkbook();
+				throw new ItemStreamException("Cannot restart, failed to copy the rows written before from "
+						+ this.resource.getDescription() + ".", ex);
+			}
+			this.written = written;
+		}
+	}
+
+	@Override
+	public void write(Chunk<? extends T> chunk) throws Exception {
+		Assert.state(this.workbook != null, "Writer must be open before it can be written to");
+		if (this.rollbackFailed) {
+			throw new IllegalStateException("The rows of a rolled back chunk have already been flushed, the "
+					+ "rowAccessWindowSize (" + this.rowAccessWindowSize + ") must be larger than the chunk.");
+		}
+		// extract the values first, so a failing item doesn't leave half a chunk behind
+		Object[][] rows = new Object[chunk.size()][];
+		int idx = 0;
+		for (T item : chunk) {
+			rows[idx++] = this.fieldExtractor.extract(item);
+		}
+		if (this.transactional && TransactionSynchronizationManager.isSynchronizationActive()) {
+			registerRollback();
+		}
+		for (Object[] values : rows) {
+			Row row = this.sheet.createRow(this.headerRows + this.written);
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					setCellValue(row.createCell(i), values[i]);
+				}
+			}
+			this.written++;
+		}
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (this.saveState && this.workbook != null) {
+			executionContext.putInt(getExecutionContextKey(WRITTEN_KEY), this.written);
+			executionContext.putString(getExecutionContextKey(DATE_FORMAT_KEY), this.dateFormat);
+			executionContext.putString(getExecutionContextKey(DATE_TIME_FORMAT_KEY), this.dateTimeFormat);
+		}
+	}
+
+	private void assertUnchanged(ExecutionContext executionContext, String key, String format) {
+		String stored = executionContext.getString(getExecutionContextKey(key), format);
+		if (!stored.equals(format)) {
+			throw new ItemStreamException("Cannot restart, the styles of the rows written before depend on the "
+					+ "format '" + stored + "' which has been changed to '" + format + "'.");
+		}
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		super.close();
+		if (this.workbook == null) {
+			return;
+		}
+		try (OutputStream os = this.resource.getOutputStream()) {
+			this.workbook.write(os);
+		}
+		catch (Exception ex) {
+			throw new ItemStreamException("Cannot write workbook to " + this.resource.getDescription() + ".", ex);
+		}
+		finally {
+			disposeWorkbook();
+		}
+	}
+
+	private CellStyle createDateStyle(String format) {
+		CellStyle style = this.workbook.createCellStyle();
+		style.setDataFormat(this.workbook.createDataFormat().getFormat(format));
+		return style;
+	}
+
+	private void setCellValue(Cell cell, Object value) {
+		if (value instanceof Number number) {
+			cell.setCellValue(number.doubleValue());
+		}
+		else if (value instanceof Boolean bool) {
+			cell.setCellValue(bool);
+		}
+		else if (value instanceof String string) {
+			cell.setCellValue(string);
+		}
+		else if (value instanceof LocalDate date) {
+			cell.setCellValue(date);
+			cell.setCellStyle(this.dateStyle);
+		}
+		else if (value instanceof LocalDateTime dateTime) {
+			cell.setCellValue(dateTime);
+			cell.setCellStyle(this.dateTimeStyle);
+		}
+		else if (value instanceof Date date) {
+			cell.setCellValue(date);
+			cell.setCellStyle(this.dateTimeStyle);
+		}
+		else if (value instanceof Calendar calendar) {
+			cell.setCellValue(calendar);
+			cell.setCellStyle(this.dateTimeStyle);
+		}
+		else {
+			cell.setCellValue(value.toString());
+		}
+	}
+
+	/**
+	 * Remove the rows written in the current transaction when it is rolled back. Rows
+	 * which have already been flushed cannot be removed, writing then fails.
+	 */
+	private void registerRollback() {
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(this, this.written);
+		int start = this.written;
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(StreamingXlsxItemWriter.this);
+				if (status == STATUS_ROLLED_BACK) {
+					rollback(start);
+				}
+			}
+
+		});
+	}
+
+	private void rollback(int start) {
+		if (this.sheet == null || this.written <= start) {
+			return;
+		}
+		if (this.headerRows + start <= this.sheet.getLastFlushedRowNum()) {
+			this.rollbackFailed = true;
+			return;
+		}
+		for (int i = this.written - 1; i >= start; i--) {
+			Row row = this.sheet.getRow(this.headerRows + i);
+			if (row != null) {
+				this.sheet.removeRow(row);
+			}
+		}
+		this.written = start;
+	}
+
+	/**
+	 * Copy the rows written before a restart from the existing file, after the header
+	 * row. The values are copied as they are stored, the styles by their index, so the
+	 * style of the dates is kept.
+	 * @param count the number of rows to copy
+	 * @throws Exception when the existing file cannot be read or misses rows
+	 */
+	private void copyWrittenRows(int count) throws Exception {
+		if (count == 0) {
+			return;
+		}
+		Assert.state(this.resource.exists(), () -> this.resource.getDescription() + " doesn't exist, the previous "
+				+ "execution didn't close the writer so its " + count + " rows were never written.");
+		int copied = 0;
+		OPCPackage pkg = this.resource.isFile() ? OPCPackage.open(this.resource.getFile(), PackageAccess.READ)
+				: OPCPackage.open(this.resource.getInputStream());
+		try (StreamingSharedStrings sharedStrings = StreamingSharedStrings.read(pkg)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			try (InputStream is = reader.getSheet(findSheetId(reader))) {
+				XlsxSheetParser parser = new XlsxSheetParser(
+						StaxUtils.createDefensiveInputFactory().createXMLStreamReader(is), sharedStrings, null,
+						new CellValueFormatter(new DataFormatter()));
+				try {
+					parser.readToSheetData();
+					int end = this.headerRows + count;
+					while (parser.nextRow() && parser.getRowIndex() < end) {
+						if (parser.getRowIndex() >= this.headerRows) {
+							copyRow(parser, this.sheet.createRow(parser.getRowIndex()));
+							copied++;
+						}
+					}
+				}
+				finally {
+					parser.close();
+				}
+			}
+		}
+		finally {
+			pkg.revert();
+		}
+		int found = copied;
+		Assert.state(found == count, () -> this.resource.getDescription() + " has " + found + " of the " + count
+				+ " rows written before, the previous execution didn't close the writer so its rows were never "
+				+ "written.");
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Copied " + count + " rows written before restart.");
+		}
+	}
+
+	private String findSheetId(XSSFReader reader) throws Exception {
+		for (XSSFReader.XSSFSheetRef ref : StreamingXlsxItemReader.readSheetRefs(reader)) {
+			if (this.sheetName.equals(ref.getName())) {
+				return ref.getId();
+			}
+		}
+		throw new IllegalStateException("No sheet named " + this.sheetName + ".");
+	}
+
+	private void copyRow(XlsxSheetParser parser, Row row) throws Exception {
+		while (parser.nextCell()) {
+			Cell cell = row.createCell(parser.getColumnIndex());
+			DataType dataType = parser.getDataType();
+			String value = parser.getRawValue();
+			if (dataType == DataType.NUMBER) {
+				cell.setCellValue(Double.parseDouble(value));
+			}
+			else if (dataType == DataType.BOOLEAN) {
+				cell.setCellValue(!value.isEmpty() && value.charAt(0) != '0');
+			}
+			else {
+				cell.setCellValue(parser.format(dataType, value, parser.getStyleIndex()));
+			}
+			int styleIndex = parser.getStyleIndex();
+			if (styleIndex > 0 && styleIndex < this.workbook.getNumCellStyles()) {
+				cell.setCellStyle(this.workbook.getCellStyleAt(styleIndex));
+			}
+		}
+	}
+
+	private void disposeWorkbook() {
+		try {
+			// also removes the temporary files of the flushed rows
+			this.workbook.close();
+		}
+		catch (Exception ex) {
+			this.logger.warn("Exception disposing workbook.", ex);
+		}
+		this.workbook = null;
+		this.sheet = null;
+		this.dateStyle = null;
+		this.dateTimeStyle = null;
+	}
+
+	@Override
+	public void setResource(WritableResource resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * The {@code FieldExtractor} turning an item into the values of a row. Default a
+	 * {@code PassThroughFieldExtractor}, which writes arrays, collections and maps as is.
+	 * @param fieldExtractor the {@code FieldExtractor} to use
+	 */
+	public void setFieldExtractor(FieldExtractor<T> fieldExtractor) {
+		this.fieldExtractor = fieldExtractor;
+	}
+
+	/**
+	 * The name of the sheet to write the rows to, default {@code Sheet1}.
+	 * @param sheetName the name of the sheet
+	 */
+	public void setSheetName(String sheetName) {
+		this.sheetName = sheetName;
+	}
+
+	/**
+	 * The names of the columns, written as the first row of the sheet. Default no header
+	 * row is written.
+	 * @param headerNames the names of the columns
+	 */
+	public void setHeaderNames(String... headerNames) {
+		this.headerNames = headerNames;
+	}
+
+	/**
+	 * The number of rows kept in memory, older rows are flushed to a temporary file and
+	 * can no longer be changed. Default {@value SXSSFWorkbook#DEFAULT_WINDOW_SIZE}.
+	 * @param rowAccessWindowSize the number of rows kept in memory
+	 */
+	public void setRowAccessWindowSize(int rowAccessWindowSize) {
+		Assert.isTrue(rowAccessWindowSize > 0, "The rowAccessWindowSize must be positive.");
+		this.rowAccessWindowSize = rowAccessWindowSize;
+	}
+
+	/**
+	 * Compress the temporary files the rows are flushed to. Saves disk space for large
+	 * sheets at the expense of CPU. Default {@code false}.
+	 * @param compressTempFiles {@code true} to compress the temporary files
+	 */
+	public void setCompressTempFiles(boolean compressTempFiles) {
+		this.compressTempFiles = compressTempFiles;
+	}
+
+	/**
+	 * Store the text of the cells in the shared strings table of the workbook instead of
+	 * inline in the sheet. This makes the file smaller when values repeat, but the table
+	 * is kept in memory until the workbook is written. Default {@code false}.
+	 * @param useSharedStringsTable {@code true} to use the shared strings table
+	 */
+	public void setUseSharedStringsTable(boolean useSharedStringsTable) {
+		this.useSharedStringsTable = useSharedStringsTable;
+	}
+
+	/**
+	 * The Excel number format for {@code LocalDate} values, default {@code yyyy-mm-dd}.
+	 * Cannot be changed before a restart.
+	 * @param dateFormat the number format
+	 */
+	public void setDateFormat(String dateFormat) {
+		this.dateFormat = dateFormat;
+	}
+
+	/**
+	 * The Excel number format for {@code LocalDateTime}, {@code Date} and
+	 * {@code Calendar} values, default {@code yyyy-mm-dd hh:mm:ss}. Cannot be changed
+	 * before a restart.
+	 * @param dateTimeFormat the number format
+	 */
+	public void setDateTimeFormat(String dateTimeFormat) {
+		this.dateTimeFormat = dateTimeFormat;
+	}
+
+	/**
+	 * Set the flag indicating whether the number of rows written should be stored in the
+	 * {@code ExecutionContext}, to continue after them on restart. Default {@code true}.
+	 * @param saveState the value to set
+	 */
+	public void setSaveState(boolean saveState) {
+		this.saveState = saveState;
+	}
+
+	/**
+	 * Remove the rows of a chunk again when the transaction it has been written in is
+	 * rolled back. Default {@code true}.
+	 * @param transactional {@code true} to remove the rows on rollback
+	 */
+	public void setTransactional(boolean transactional) {
+		this.transactional = transactional;
+	}
+
+	/**
+	 * The number of rows written, excluding the header row.
+	 * @return the number of rows written
+	 */
+	public int getWrittenCount() {
+		return this.written;
+	}
+
+}
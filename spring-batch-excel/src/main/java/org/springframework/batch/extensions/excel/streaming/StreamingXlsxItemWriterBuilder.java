@@ -0,0 +1,270 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import org.springframework.batch.item.file.transform.BeanWrapperFieldExtractor;
+import org.springframework.batch.item.file.transform.FieldExtractor;
+import org.springframework.batch.item.file.transform.PassThroughFieldExtractor;
+import org.springframework.batch.item.file.transform.RecordFieldExtractor;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Builder for a {@link StreamingXlsxItemWriter}. The values of a row are extracted with
+ * the configured {@code FieldExtractor}, or else with a {@code BeanWrapperFieldExtractor}
+ * for the given {@link #names(String...) names}, a {@code RecordFieldExtractor} for a
+ * record {@link #sourceType(Class) sourceType} or a {@code PassThroughFieldExtractor}.
+ *
+ * @param <T> the type
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class StreamingXlsxItemWriterBuilder<T> {
+
+	private String name;
+
+	private WritableResource resource;
+
+	private FieldExtractor<T> fieldExtractor;
+
+	private String[] names;
+
+	private Class<T> sourceType;
+
+	private String sheetName = "Sheet1";
+
+	private String[] headerNames;
+
+	private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	private boolean compressTempFiles = false;
+
+	private boolean useSharedStringsTable = false;
+
+	private String dateFormat = "yyyy-mm-dd";
+
+	private String dateTimeFormat = "yyyy-mm-dd hh:mm:ss";
+
+	private boolean saveState = true;
+
+	private boolean transactional = true;
+
+	/**
+	 * The name used to prefix the keys in the {@code ExecutionContext}, required when
+	 * {@link #saveState(boolean) saveState} is enabled.
+	 * @param name the name of the writer
+	 * @return this builder
+	 */
+	public StreamingXlsxItemWriterBuilder<T> name(String name) {
+		this.name = name;
+		return this;
+	}
+
+	/**
+	 * The {@code Resource} to write the workbook to.
+	 * @param resource the resource
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setResource(WritableResource)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> resource(WritableResource resource) {
+		this.resource = resource;
+		return this;
+	}
+
+	/**
+	 * The {@code FieldExtractor} turning an item into the values of a row.
+	 * @param fieldExtractor the field extractor
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setFieldExtractor(FieldExtractor)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> fieldExtractor(FieldExtractor<T> fieldExtractor) {
+		this.fieldExtractor = fieldExtractor;
+		return this;
+	}
+
+	/**
+	 * The names of the properties to write, in column order, extracted with a
+	 * {@code BeanWrapperFieldExtractor}.
+	 * @param names the names of the properties
+	 * @return this builder
+	 */
+	public StreamingXlsxItemWriterBuilder<T> names(String... names) {
+		this.names = names;
+		return this;
+	}
+
+	/**
+	 * The type of the items, for a record the components are written in declaration
+	 * order with a {@code RecordFieldExtractor}.
+	 * @param sourceType the type of the items
+	 * @return this builder
+	 */
+	public StreamingXlsxItemWriterBuilder<T> sourceType(Class<T> sourceType) {
+		this.sourceType = sourceType;
+		return this;
+	}
+
+	/**
+	 * The name of the sheet to write the rows to.
+	 * @param sheetName the name of the sheet
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setSheetName(String)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> sheetName(String sheetName) {
+		this.sheetName = sheetName;
+		return this;
+	}
+
+	/**
+	 * The names of the columns, written as the first row of the sheet.
+	 * @param headerNames the names of the columns
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setHeaderNames(String...)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> headerNames(String... headerNames) {
+		this.headerNames = headerNames;
+		return this;
+	}
+
+	/**
+	 * The number of rows kept in memory.
+	 * @param rowAccessWindowSize the number of rows kept in memory
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setRowAccessWindowSize(int)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> rowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = rowAccessWindowSize;
+		return this;
+	}
+
+	/**
+	 * Compress the temporary files the rows are flushed to.
+	 * @param compressTempFiles {@code true} to compress the temporary files
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setCompressTempFiles(boolean)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> compressTempFiles(boolean compressTempFiles) {
+		this.compressTempFiles = compressTempFiles;
+		return this;
+	}
+
+	/**
+	 * Store the text of the cells in the shared strings table instead of inline.
+	 * @param useSharedStringsTable {@code true} to use the shared strings table
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setUseSharedStringsTable(boolean)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> useSharedStringsTable(boolean useSharedStringsTable) {
+		this.useSharedStringsTable = useSharedStringsTable;
+		return this;
+	}
+
+	/**
+	 * The Excel number format for {@code LocalDate} values.
+	 * @param dateFormat the number format
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setDateFormat(String)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> dateFormat(String dateFormat) {
+		this.dateFormat = dateFormat;
+		return this;
+	}
+
+	/**
+	 * The Excel number format for {@code LocalDateTime}, {@code Date} and
+	 * {@code Calendar} values.
+	 * @param dateTimeFormat the number format
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setDateTimeFormat(String)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> dateTimeFormat(String dateTimeFormat) {
+		this.dateTimeFormat = dateTimeFormat;
+		return this;
+	}
+
+	/**
+	 * Whether the number of rows written is stored in the {@code ExecutionContext}.
+	 * @param saveState {@code true} to store the state
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setSaveState(boolean)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> saveState(boolean saveState) {
+		this.saveState = saveState;
+		return this;
+	}
+
+	/**
+	 * Whether the rows of a chunk are removed again when its transaction is rolled back.
+	 * @param transactional {@code true} to remove the rows on rollback
+	 * @return this builder
+	 * @see StreamingXlsxItemWriter#setTransactional(boolean)
+	 */
+	public StreamingXlsxItemWriterBuilder<T> transactional(boolean transactional) {
+		this.transactional = transactional;
+		return this;
+	}
+
+	/**
+	 * Build the {@code StreamingXlsxItemWriter}.
+	 * @return the writer
+	 */
+	public StreamingXlsxItemWriter<T> build() {
+		Assert.notNull(this.resource, "A resource is required.");
+		if (this.saveState) {
+			Assert.hasText(this.name, "A name is required when saveState is set to true.");
+		}
+
+		StreamingXlsxItemWriter<T> writer = new StreamingXlsxItemWriter<>();
+		if (StringUtils.hasText(this.name)) {
+			writer.setName(this.name);
+		}
+		writer.setResource(this.resource);
+		writer.setFieldExtractor(determineFieldExtractor());
+		writer.setSheetName(this.sheetName);
+		if (this.headerNames != null) {
+			writer.setHeaderNames(this.headerNames);
+		}
+		writer.setRowAccessWindowSize(this.rowAccessWindowSize);
+		writer.setCompressTempFiles(this.compressTempFiles);
+		writer.setUseSharedStringsTable(this.useSharedStringsTable);
+		writer.setDateFormat(this.dateFormat);
+		writer.setDateTimeFormat(this.dateTimeFormat);
+		writer.setSaveState(this.saveState);
+		writer.setTransactional(this.transactional);
+		writer.afterPropertiesSet();
+		return writer;
+	}
+
+	private FieldExtractor<T> determineFieldExtractor() {
+		if (this.fieldExtractor != null) {
+			return this.fieldExtractor;
+		}
+		if (this.names != null) {
+			BeanWrapperFieldExtractor<T> extractor = new BeanWrapperFieldExtractor<>();
+			extractor.setNames(this.names);
+			return extractor;
+		}
+		if (this.sourceType != null && this.sourceType.isRecord()) {
+			return new RecordFieldExtractor<>(this.sourceType);
+		}
+		return new PassThroughFieldExtractor<>();
+	}
+
+}
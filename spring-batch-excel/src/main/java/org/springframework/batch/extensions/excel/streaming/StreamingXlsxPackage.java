@@ -0,0 +1,457 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * Reads the parts of an XLSX workbook from a {@code ZipInputStream}, in the order in
+ * which they are stored, without reading the whole package into memory.
+ *
+ * When opened, the workbook, its relationships, the styles and the shared strings are
+ * read. Parts which might still be needed but which come before these, most notably
+ * the sheets in workbooks written by Excel, are spooled to temporary files. The sheets
+ * after them are parsed directly from the stream when they are being read. Sheets have to
+ * be read in the order of the workbook, a sheet which has been passed in the stream can
+ * only be read when it has been spooled.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class StreamingXlsxPackage implements Closeable {
+
+	private static final String CONTENT_TYPES = "[Content_Types].xml";
+
+	private static final String ROOT_RELATIONSHIPS = "_rels/.rels";
+
+	private final ZipInputStream zip;
+
+	private final SharedStringsStore store;
+
+	private final long maxSpoolSize;
+
+	private final Map<String, Path> spooled = new LinkedHashMap<>();
+
+	private long spoolSize;
+
+	@Nullable
+	private String workbookPart;
+
+	@Nullable
+	private String workbookRelationshipsPart;
+
+	/**
+	 * The names of the sheet parts by relationship id, {@code null} until the
+	 * relationships of the workbook have been read.
+	 */
+	@Nullable
+	private Map<String, String> relationships;
+
+	@Nullable
+	private String stylesPart;
+
+	@Nullable
+	private String sharedStringsPart;
+
+	@Nullable
+	private List<XSSFReader.XSSFSheetRef> sheetRefs;
+
+	private final List<String> sheetParts = new ArrayList<>();
+
+	@Nullable
+	private StylesTable styles;
+
+	@Nullable
+	private StreamingSharedStrings sharedStrings;
+
+	private StreamingXlsxPackage(InputStream is, SharedStringsStore store, long maxSpoolSize) {
+		this.zip = new ZipInputStream(is);
+		this.store = store;
+		this.maxSpoolSize = maxSpoolSize;
+	}
+
+	/**
+	 * Read the workbook, styles and shared strings from the start of the stream.
+	 * @param is the stream of the XLSX file
+	 * @param store the store for the shared strings
+	 * @param maxSpoolSize the maximum number of bytes to spool to temporary files
+	 * @return the package, positioned after the parts of the workbook which have been read
+	 * @throws IOException when the stream cannot be read
+	 */
+	static StreamingXlsxPackage open(InputStream is, SharedStringsStore store, long maxSpoolSize)
+			throws IOException {
+		StreamingXlsxPackage pkg = new StreamingXlsxPackage(is, store, maxSpoolSize);
+		try {
+			pkg.readWorkbook();
+			return pkg;
+		}
+		catch (IOException | RuntimeException ex) {
+			pkg.close();
+			throw ex;
+		}
+	}
+
+	private void readWorkbook() throws IOException {
+		ZipEntry entry;
+		while (!isWorkbookRead() && (entry = this.zip.getNextEntry()) != null) {
+			if (!entry.isDirectory()) {
+				handle(entry.getName(), new EntryInputStream(this.zip));
+			}
+		}
+		if (this.sheetRefs == null || this.relationships == null) {
+			throw new IllegalStateException("No workbook found, the stream is not an XLSX file.");
+		}
+		if (this.styles == null && this.stylesPart != null) {
+			throw new IllegalStateException("Cannot find the styles " + this.stylesPart + " of the workbook.");
+		}
+		if (this.sharedStrings == null) {
+			if (this.sharedStringsPart != null) {
+				throw new IllegalStateException(
+						"Cannot find the shared strings " + this.sharedStringsPart + " of the workbook.");
+			}
+			this.sharedStrings = StreamingSharedStrings.empty(this.store);
+		}
+		List<XSSFReader.XSSFSheetRef> refs = new ArrayList<>();
+		for (XSSFReader.XSSFSheetRef ref : this.sheetRefs) {
+			// Like the XSSFReader, silently skip sheets without a (resolvable) relationship
+			String part = this.relationships.get(ref.getId());
+			if (part != null) {
+				refs.add(ref);
+				this.sheetParts.add(part);
+			}
+		}
+		this.sheetRefs = refs;
+		for (String name : new ArrayList<>(this.spooled.keySet())) {
+			if (!this.sheetParts.contains(name)) {
+				delete(name);
+			}
+		}
+	}
+
+	private boolean isWorkbookRead() {
+		return this.sheetRefs != null && this.relationships != null && (this.stylesPart == null || this.styles != null)
+				&& (this.sharedStringsPart == null || this.sharedStrings != null);
+	}
+
+	/**
+	 * Read the part if it is one of the parts of the workbook, otherwise spool it if it
+	 * might be needed later.
+	 * @param name the name of the part
+	 * @param is the content of the part
+	 * @throws IOException when the part cannot be read
+	 */
+	private void handle(String name, InputStream is) throws IOException {
+		if (ROOT_RELATIONSHIPS.equals(name)) {
+			this.workbookPart = readRelationships(is, "").getTarget("officeDocument");
+			if (this.workbookPart == null) {
+				throw new IllegalStateException("No workbook found, the stream is not an XLSX file.");
+			}
+			int index = this.workbookPart.lastIndexOf('/') + 1;
+			this.workbookRelationshipsPart = this.workbookPart.substring(0, index) + "_rels/"
+					+ this.workbookPart.substring(index) + ".rels";
+			handleSpooled();
+		}
+		else if (name.equals(this.workbookPart)) {
+			this.sheetRefs = readSheetRefs(is);
+		}
+		else if (name.equals(this.workbookRelationshipsPart)) {
+			Relationships relationships = readRelationships(is, this.workbookPart);
+			this.stylesPart = relationships.getTarget("styles");
+			this.sharedStringsPart = relationships.getTarget("sharedStrings");
+			this.relationships = relationships.sheets;
+			handleSpooled();
+		}
+		else if (name.equals(this.stylesPart)) {
+			this.styles = new StylesTable(is);
+		}
+		else if (name.equals(this.sharedStringsPart)) {
+			try {
+				this.sharedStrings = StreamingSharedStrings.read(is, this.store);
+			}
+			catch (XMLStreamException ex) {
+				throw new IllegalStateException("Cannot read shared-strings-table.", ex);
+			}
+		}
+		else if ((this.relationships != null) ? this.relationships.containsValue(name) : mightBeNeeded(name)) {
+			spool(name, is);
+		}
+	}
+
+	/**
+	 * Until the relationships of the workbook are known any XML part might be a sheet or
+	 * another part which is needed, except for the content types.
+	 * @param name the name of the part
+	 * @return {@code true} if the part has to be spooled
+	 */
+	private boolean mightBeNeeded(String name) {
+		return !CONTENT_TYPES.equals(name) && (name.endsWith(".xml") || name.endsWith(".rels"));
+	}
+
+	/**
+	 * Read the parts of the workbook which have been spooled before it was known that they
+	 * were needed, the spooled parts which aren't needed at all are deleted.
+	 * @throws IOException when a spooled part cannot be read
+	 */
+	private void handleSpooled() throws IOException {
+		for (String name : new ArrayList<>(this.spooled.keySet())) {
+			Path file = this.spooled.get(name);
+			if (file == null) {
+				// already handled while handling another spooled part
+				continue;
+			}
+			if (name.equals(this.workbookPart) || name.equals(this.workbookRelationshipsPart)
+					|| name.equals(this.stylesPart) || name.equals(this.sharedStringsPart)) {
+				this.spooled.remove(name);
+				try (InputStream is = Files.newInputStream(file)) {
+					handle(name, is);
+				}
+				finally {
+					deleteFile(file);
+				}
+			}
+			else if (this.relationships != null && !this.relationships.containsValue(name)) {
+				delete(name);
+			}
+		}
+	}
+
+	private void spool(String name, InputStream is) throws IOException {
+		Path file = Files.createTempFile("spooled-part", ".xml");
+		this.spooled.put(name, file);
+		try (OutputStream out = Files.newOutputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				this.spoolSize += read;
+				if (this.spoolSize > this.maxSpoolSize) {
+					throw new IllegalStateException("Cannot spool " + name + ", more than " + this.maxSpoolSize
+							+ " bytes of the workbook would be spooled.");
+				}
+				out.write(buffer, 0, read);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			delete(name);
+			throw ex;
+		}
+	}
+
+	private void delete(String name) throws IOException {
+		Path file = this.spooled.remove(name);
+		if (file != null) {
+			deleteFile(file);
+		}
+	}
+
+	private void deleteFile(Path file) throws IOException {
+		this.spoolSize -= Files.size(file);
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * The sheets of the workbook, in the order of the workbook.
+	 * @return the references to the sheets
+	 */
+	List<XSSFReader.XSSFSheetRef> getSheetRefs() {
+		return Collections.unmodifiableList(this.sheetRefs);
+	}
+
+	@Nullable
+	StylesTable getStyles() {
+		return this.styles;
+	}
+
+	StreamingSharedStrings getSharedStrings() {
+		return this.sharedStrings;
+	}
+
+	/**
+	 * Delete the spooled sheets which aren't going to be read.
+	 * @param needed determines, by index, if a sheet is going to be read
+	 * @throws IOException when a spooled sheet cannot be deleted
+	 */
+	void retainSheets(IntPredicate needed) throws IOException {
+		for (int i = 0; i < this.sheetParts.size(); i++) {
+			if (!needed.test(i)) {
+				delete(this.sheetParts.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Open the sheet with the given index, either from its spooled copy or by advancing
+	 * the stream to the sheet. The sheets passed in the stream are spooled when they are
+	 * needed later on, otherwise they are skipped.
+	 * @param sheet the index of the sheet
+	 * @param neededLater determines, by index, if a sheet which is passed will be read
+	 * @return the content of the sheet, to be closed when done
+	 * @throws IOException when the stream cannot be read
+	 */
+	InputStream getSheet(int sheet, IntPredicate neededLater) throws IOException {
+		String part = this.sheetParts.get(sheet);
+		Path file = this.spooled.remove(part);
+		if (file != null) {
+			this.spoolSize -= Files.size(file);
+			return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+		}
+		ZipEntry entry;
+		while ((entry = this.zip.getNextEntry()) != null) {
+			String name = entry.getName();
+			if (name.equals(part)) {
+				return new EntryInputStream(this.zip);
+			}
+			int index = this.sheetParts.indexOf(name);
+			if (index != -1 && neededLater.test(index)) {
+				spool(name, this.zip);
+			}
+		}
+		throw new IllegalStateException("Cannot find sheet " + part + ", it is missing or it has already been passed.");
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			this.zip.close();
+		}
+		finally {
+			for (String name : new ArrayList<>(this.spooled.keySet())) {
+				delete(name);
+			}
+		}
+	}
+
+	private static List<XSSFReader.XSSFSheetRef> readSheetRefs(InputStream is) throws IOException {
+		XSSFReader.XMLSheetRefReader sheetRefReader = new XSSFReader.XMLSheetRefReader();
+		try {
+			XMLReader xmlReader = XMLHelper.newXMLReader();
+			xmlReader.setContentHandler(sheetRefReader);
+			xmlReader.parse(new InputSource(is));
+		}
+		catch (SAXException | ParserConfigurationException ex) {
+			throw new IllegalStateException("Cannot read the sheets of the workbook.", ex);
+		}
+		return sheetRefReader.getSheetRefs();
+	}
+
+	/**
+	 * Read the internal relationships of a part.
+	 * @param is the content of the relationships part
+	 * @param source the name of the part the relationships belong to
+	 * @return the relationships
+	 * @throws IOException when the relationships cannot be read
+	 */
+	private static Relationships readRelationships(InputStream is, String source) throws IOException {
+		Relationships relationships = new Relationships();
+		URI base = URI.create("/" + source);
+		try {
+			XMLStreamReader reader = StaxUtils.createDefensiveInputFactory().createXMLStreamReader(is);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT
+							&& "Relationship".equals(reader.getLocalName())
+							&& !"External".equals(reader.getAttributeValue(null, "TargetMode"))) {
+						String type = reader.getAttributeValue(null, "Type");
+						String target = base.resolve(reader.getAttributeValue(null, "Target")).getPath();
+						relationships.add(reader.getAttributeValue(null, "Id"),
+								(type != null) ? type.substring(type.lastIndexOf('/') + 1) : "", target.substring(1));
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException ex) {
+			throw new IllegalStateException("Cannot read the relationships of " + source + ".", ex);
+		}
+		return relationships;
+	}
+
+	/**
+	 * The relationships of a part, the types are the last segment of the relationship
+	 * type, e.g. {@code worksheet}.
+	 */
+	private static final class Relationships {
+
+		private final Map<String, String> sheets = new HashMap<>();
+
+		private final Map<String, String> byType = new HashMap<>();
+
+		private void add(String id, String type, String target) {
+			if (type.endsWith("sheet")) {
+				this.sheets.put(id, target);
+			}
+			else {
+				this.byType.putIfAbsent(type, target);
+			}
+		}
+
+		@Nullable
+		private String getTarget(String type) {
+			return this.byType.get(type);
+		}
+
+	}
+
+	/**
+	 * Exposes the current entry of the ZIP stream, without closing the stream when closed.
+	 */
+	private static final class EntryInputStream extends FilterInputStream {
+
+		private EntryInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
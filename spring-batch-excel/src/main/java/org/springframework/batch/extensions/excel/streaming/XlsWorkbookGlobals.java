@@ -0,0 +1,175 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FilePassRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+
+/**
+ * The workbook globals of an {@code .xls} (BIFF8) workbook: the sheets, the shared strings
+ * and the number formats. These are stored before the first sheet in the workbook stream
+ * and read once, the sheets are read record by record afterwards.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class XlsWorkbookGlobals {
+
+	private static final String GENERAL = "General";
+
+	private final List<BoundSheetRecord> sheets = new ArrayList<>();
+
+	private final Map<Integer, String> formats = new HashMap<>();
+
+	private final List<Short> formatIndexes = new ArrayList<>();
+
+	private String[] formatStrings = new String[0];
+
+	private SSTRecord sst;
+
+	private boolean date1904;
+
+	private boolean encrypted;
+
+	private XlsWorkbookGlobals() {
+	}
+
+	/**
+	 * Read the workbook globals, the records up to the end of the globals substream.
+	 * @param records the records of the workbook stream, positioned at its start
+	 * @return the workbook globals
+	 */
+	static XlsWorkbookGlobals read(RecordFactoryInputStream records) {
+		XlsWorkbookGlobals globals = new XlsWorkbookGlobals();
+		int depth = 0;
+		Record record;
+		while ((record = records.nextRecord()) != null) {
+			if (record instanceof BOFRecord) {
+				depth++;
+			}
+			else if (record instanceof EOFRecord) {
+				if (--depth == 0) {
+					break;
+				}
+			}
+			else if (record instanceof BoundSheetRecord boundSheet) {
+				globals.sheets.add(boundSheet);
+			}
+			else if (record instanceof SSTRecord sst) {
+				globals.sst = sst;
+			}
+			else if (record instanceof FormatRecord format) {
+				globals.formats.put(format.getIndexCode(), format.getFormatString());
+			}
+			else if (record instanceof ExtendedFormatRecord xf) {
+				globals.formatIndexes.add(xf.getFormatIndex());
+			}
+			else if (record instanceof DateWindow1904Record window) {
+				globals.date1904 = window.getWindowing() == 1;
+			}
+			else if (record instanceof FilePassRecord) {
+				globals.encrypted = true;
+			}
+		}
+		// Like Apache POI, the sheets are in the order of their substreams
+		globals.sheets.sort((s1, s2) -> Integer.compare(s1.getPositionOfBof(), s2.getPositionOfBof()));
+		globals.formatStrings = new String[globals.formatIndexes.size()];
+		return globals;
+	}
+
+	int getNumberOfSheets() {
+		return this.sheets.size();
+	}
+
+	String getSheetName(int sheet) {
+		return this.sheets.get(sheet).getSheetname();
+	}
+
+	/**
+	 * The byte offset of the {@code BOF} record of the sheet in the workbook stream.
+	 * @param sheet the 0-based index of the sheet
+	 * @return the offset
+	 */
+	int getPositionOfBof(int sheet) {
+		return this.sheets.get(sheet).getPositionOfBof();
+	}
+
+	/**
+	 * Whether the workbook stream is encrypted, the sheets can then only be reached by
+	 * decrypting the stream from its start.
+	 * @return {@code true} if the workbook is encrypted
+	 */
+	boolean isEncrypted() {
+		return this.encrypted;
+	}
+
+	boolean isDate1904() {
+		return this.date1904;
+	}
+
+	String getSharedString(int index) {
+		return this.sst.getString(index).getString();
+	}
+
+	/**
+	 * The index of the number format of the given cell format (XF).
+	 * @param xfIndex the index of the cell format
+	 * @return the index of the number format, {@code 0} (General) for an unknown format
+	 */
+	int getFormatIndex(int xfIndex) {
+		return (xfIndex >= 0 && xfIndex < this.formatIndexes.size()) ? this.formatIndexes.get(xfIndex) : 0;
+	}
+
+	/**
+	 * The number format of the given cell format (XF), resolved once per cell format.
+	 * @param xfIndex the index of the cell format
+	 * @return the number format, {@code General} for an unknown format
+	 */
+	String getFormatString(int xfIndex) {
+		if (xfIndex < 0 || xfIndex >= this.formatStrings.length) {
+			return GENERAL;
+		}
+		String formatString = this.formatStrings[xfIndex];
+		if (formatString == null) {
+			int formatIndex = getFormatIndex(xfIndex);
+			formatString = this.formats.get(formatIndex);
+			if (formatString == null) {
+				formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+			}
+			if (formatString == null) {
+				formatString = GENERAL;
+			}
+			this.formatStrings[xfIndex] = formatString;
+		}
+		return formatString;
+	}
+
+}
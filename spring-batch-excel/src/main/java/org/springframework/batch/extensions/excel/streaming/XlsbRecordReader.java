@@ -0,0 +1,230 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.util.LittleEndian;
+
+/**
+ * Reads the records of a part of an {@code .xlsb} (BIFF12) workbook one at a time. Unlike
+ * the {@code XSSFBParser} of Apache POI, which pushes each record in a newly allocated
+ * array to a handler, the records are pulled and the data of a record is only read when
+ * asked for, into a buffer which is reused for all the records of the part.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class XlsbRecordReader implements Closeable {
+
+	static final int ROW_HDR = 0;
+
+	static final int CELL_BLANK = 1;
+
+	static final int CELL_RK = 2;
+
+	static final int CELL_ERROR = 3;
+
+	static final int CELL_BOOL = 4;
+
+	static final int CELL_REAL = 5;
+
+	static final int CELL_ST = 6;
+
+	static final int CELL_ISST = 7;
+
+	static final int FMLA_STRING = 8;
+
+	static final int FMLA_NUM = 9;
+
+	static final int FMLA_BOOL = 10;
+
+	static final int FMLA_ERROR = 11;
+
+	static final int SST_ITEM = 19;
+
+	static final int FMT = 44;
+
+	static final int XF = 47;
+
+	static final int CELL_RSTRING = 62;
+
+	static final int BEGIN_SHEET_DATA = 145;
+
+	static final int END_SHEET_DATA = 146;
+
+	static final int WS_DIM = 148;
+
+	static final int WB_PROP = 153;
+
+	static final int BUNDLE_SH = 156;
+
+	static final int BEGIN_CELL_XFS = 617;
+
+	static final int END_CELL_XFS = 618;
+
+	/** Length of the column, style and flags preceding the value of a cell. */
+	static final int CELL_HEADER_LENGTH = 8;
+
+	private static final int MAX_RECORD_LENGTH = 100_000_000;
+
+	private final InputStream is;
+
+	private byte[] data = new byte[256];
+
+	private int recordType = -1;
+
+	private int length;
+
+	private boolean dataRead;
+
+	XlsbRecordReader(InputStream is) {
+		this.is = new BufferedInputStream(is, 64 * 1024);
+	}
+
+	/**
+	 * Move to the next record, skipping the data of the current record when it hasn't
+	 * been read.
+	 * @return {@code false} at the end of the part
+	 * @throws IOException when the part cannot be read
+	 */
+	boolean next() throws IOException {
+		if (this.recordType != -1 && !this.dataRead) {
+			this.is.skipNBytes(this.length);
+		}
+		int b1 = this.is.read();
+		if (b1 == -1) {
+			this.recordType = -1;
+			return false;
+		}
+		int recordType = b1 & 0x7F;
+		if ((b1 & 0x80) != 0) {
+			recordType += (readByte() & 0x7F) << 7;
+		}
+		int length = 0;
+		for (int i = 0; i < 4; i++) {
+			int b = readByte();
+			length += (b & 0x7F) << (i * 7);
+			if ((b & 0x80) == 0) {
+				break;
+			}
+		}
+		if (length > MAX_RECORD_LENGTH) {
+			throw new IOException("Record of type " + recordType + " too long: " + length + " bytes.");
+		}
+		this.recordType = recordType;
+		this.length = length;
+		this.dataRead = false;
+		return true;
+	}
+
+	private int readByte() throws IOException {
+		int b = this.is.read();
+		if (b == -1) {
+			throw new EOFException("End of part within the header of a record.");
+		}
+		return b;
+	}
+
+	int getRecordType() {
+		return this.recordType;
+	}
+
+	int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * The data of the current record, only valid until the next record is read.
+	 * @return the buffer holding the data of the record, which can be longer than the
+	 * record
+	 * @throws IOException when the part cannot be read
+	 */
+	byte[] getData() throws IOException {
+		if (!this.dataRead) {
+			if (this.data.length < this.length) {
+				this.data = new byte[Math.max(this.length, this.data.length * 2)];
+			}
+			if (this.is.readNBytes(this.data, 0, this.length) != this.length) {
+				throw new EOFException("End of part within the data of a record.");
+			}
+			this.dataRead = true;
+		}
+		return this.data;
+	}
+
+	/**
+	 * Read an unsigned 32-bit value, which fits an {@code int} for the indexes and counts
+	 * in a workbook.
+	 * @param data the data
+	 * @param offset the offset of the value
+	 * @return the value
+	 */
+	static int getInt(byte[] data, int offset) {
+		return LittleEndian.getInt(data, offset);
+	}
+
+	/**
+	 * Read the 24-bit style index of a cell.
+	 * @param data the data of the cell record
+	 * @return the index of the cell format
+	 */
+	static int getStyle(byte[] data) {
+		return (data[4] & 0xFF) | (data[5] & 0xFF) << 8 | (data[6] & 0xFF) << 16;
+	}
+
+	/**
+	 * Read an {@code RkNumber}, a 30-bit integer or the high bits of a double, optionally
+	 * multiplied by 100.
+	 * @param data the data
+	 * @param offset the offset of the value
+	 * @return the value
+	 */
+	static double getRk(byte[] data, int offset) {
+		int rk = LittleEndian.getInt(data, offset);
+		double value = ((rk & 0x02) != 0) ? (rk >> 2) : Double.longBitsToDouble((long) (rk & 0xFFFFFFFC) << 32);
+		return ((rk & 0x01) != 0) ? value / 100 : value;
+	}
+
+	/**
+	 * Read an {@code XLWideString}, a 32-bit character count followed by the UTF-16LE
+	 * characters.
+	 * @param data the data
+	 * @param offset the offset of the string
+	 * @param limit the length of the record
+	 * @return the string
+	 * @throws IOException when the string runs past the end of the record
+	 */
+	static String getWideString(byte[] data, int offset, int limit) throws IOException {
+		long chars = LittleEndian.getUInt(data, offset);
+		if (offset + 4 + chars * 2 > limit) {
+			throw new IOException("String of " + chars + " characters past the end of the record.");
+		}
+		return new String(data, offset + 4, (int) chars * 2, StandardCharsets.UTF_16LE);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.is.close();
+	}
+
+}
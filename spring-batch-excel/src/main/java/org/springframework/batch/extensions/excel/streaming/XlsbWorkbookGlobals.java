@@ -0,0 +1,211 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * The workbook globals of an {@code .xlsb} (BIFF12) workbook: the sheets, the shared
+ * strings and the number formats, read from the workbook, shared strings and styles
+ * parts. The number formats of the {@code XSSFBStylesTable} of Apache POI aren't
+ * accessible, hence these parts are read with the {@link XlsbRecordReader} as well.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class XlsbWorkbookGlobals {
+
+	private static final String GENERAL = "General";
+
+	private final List<String> sheetNames = new ArrayList<>();
+
+	private final List<String> sheetIds = new ArrayList<>();
+
+	private final Map<Integer, String> formats = new HashMap<>();
+
+	private int[] formatIndexes = new int[0];
+
+	private String[] formatStrings = new String[0];
+
+	private String[] sharedStrings = new String[0];
+
+	private boolean date1904;
+
+	private XlsbWorkbookGlobals() {
+	}
+
+	/**
+	 * Read the workbook globals.
+	 * @param reader the reader for the parts of the workbook
+	 * @return the workbook globals
+	 * @throws Exception when the workbook cannot be read
+	 */
+	static XlsbWorkbookGlobals read(XSSFReader reader) throws Exception {
+		XlsbWorkbookGlobals globals = new XlsbWorkbookGlobals();
+		try (XlsbRecordReader records = new XlsbRecordReader(reader.getWorkbookData())) {
+			globals.readWorkbook(records);
+		}
+		// Parts without content can be left out, they are null then
+		InputStream styles = reader.getStylesData();
+		if (styles != null) {
+			try (XlsbRecordReader records = new XlsbRecordReader(styles)) {
+				globals.readStyles(records);
+			}
+		}
+		InputStream sharedStrings = reader.getSharedStringsData();
+		if (sharedStrings != null) {
+			try (XlsbRecordReader records = new XlsbRecordReader(sharedStrings)) {
+				globals.readSharedStrings(records);
+			}
+		}
+		return globals;
+	}
+
+	private void readWorkbook(XlsbRecordReader records) throws IOException {
+		while (records.next()) {
+			if (records.getRecordType() == XlsbRecordReader.BUNDLE_SH) {
+				byte[] data = records.getData();
+				// hsState and iTabID precede the relationship id and the name
+				int offset = 8;
+				String id = XlsbRecordReader.getWideString(data, offset, records.getLength());
+				offset += 4 + id.length() * 2;
+				String name = XlsbRecordReader.getWideString(data, offset, records.getLength());
+				// Like the XSSFReader, silently skip sheets without a relationship id
+				if (StringUtils.hasText(id)) {
+					this.sheetIds.add(id);
+					this.sheetNames.add(name);
+				}
+			}
+			else if (records.getRecordType() == XlsbRecordReader.WB_PROP) {
+				this.date1904 = (records.getData()[0] & 0x01) != 0;
+			}
+		}
+	}
+
+	private void readStyles(XlsbRecordReader records) throws IOException {
+		List<Integer> formatIndexes = new ArrayList<>();
+		boolean inCellXfs = false;
+		while (records.next()) {
+			switch (records.getRecordType()) {
+				case XlsbRecordReader.BEGIN_CELL_XFS -> {
+					inCellXfs = true;
+				}
+				case XlsbRecordReader.END_CELL_XFS -> {
+					inCellXfs = false;
+				}
+				case XlsbRecordReader.XF -> {
+					if (inCellXfs) {
+						formatIndexes.add(LittleEndian.getUShort(records.getData(), 2));
+					}
+				}
+				case XlsbRecordReader.FMT -> {
+					byte[] data = records.getData();
+					this.formats.put(LittleEndian.getUShort(data, 0),
+							XlsbRecordReader.getWideString(data, 2, records.getLength()));
+				}
+				default -> {
+				}
+			}
+		}
+		this.formatIndexes = formatIndexes.stream().mapToInt(Integer::intValue).toArray();
+		this.formatStrings = new String[this.formatIndexes.length];
+	}
+
+	private void readSharedStrings(XlsbRecordReader records) throws IOException {
+		List<String> strings = new ArrayList<>();
+		while (records.next()) {
+			if (records.getRecordType() == XlsbRecordReader.SST_ITEM) {
+				// A flags byte precedes the text of the rich string
+				strings.add(XlsbRecordReader.getWideString(records.getData(), 1, records.getLength()));
+			}
+		}
+		this.sharedStrings = strings.toArray(new String[0]);
+	}
+
+	int getNumberOfSheets() {
+		return this.sheetIds.size();
+	}
+
+	String getSheetName(int sheet) {
+		return this.sheetNames.get(sheet);
+	}
+
+	/**
+	 * The relationship id of the sheet part.
+	 * @param sheet the 0-based index of the sheet
+	 * @return the relationship id
+	 */
+	String getSheetId(int sheet) {
+		return this.sheetIds.get(sheet);
+	}
+
+	boolean isDate1904() {
+		return this.date1904;
+	}
+
+	String getSharedString(int index) {
+		if (index < 0 || index >= this.sharedStrings.length) {
+			throw new IllegalStateException("No shared string at index " + index + ".");
+		}
+		return this.sharedStrings[index];
+	}
+
+	/**
+	 * The index of the number format of the given cell format (XF).
+	 * @param xfIndex the index of the cell format
+	 * @return the index of the number format, {@code 0} (General) for an unknown format
+	 */
+	int getFormatIndex(int xfIndex) {
+		return (xfIndex >= 0 && xfIndex < this.formatIndexes.length) ? this.formatIndexes[xfIndex] : 0;
+	}
+
+	/**
+	 * The number format of the given cell format (XF), resolved once per cell format.
+	 * @param xfIndex the index of the cell format
+	 * @return the number format, {@code General} for an unknown format
+	 */
+	String getFormatString(int xfIndex) {
+		if (xfIndex < 0 || xfIndex >= this.formatStrings.length) {
+			return GENERAL;
+		}
+		String formatString = this.formatStrings[xfIndex];
+		if (formatString == null) {
+			int formatIndex = getFormatIndex(xfIndex);
+			formatString = this.formats.get(formatIndex);
+			if (formatString == null) {
+				formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+			}
+			if (formatString == null) {
+				formatString = GENERAL;
+			}
+			this.formatStrings[xfIndex] = formatString;
+		}
+		return formatString;
+	}
+
+}
@@ -0,0 +1,747 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.Styles;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.DataFormatterCustomizer;
+import org.springframework.batch.extensions.excel.IsoFormattingDateDataFormatter;
+import org.springframework.batch.extensions.excel.SheetSelector;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * {@code Tasklet} which converts the sheets of an XLSX file into a CSV or NDJSON file,
+ * for steps which only hand the rows over to another system. Instead of reading the rows
+ * as items, each through a {@code RowSet}, a {@code RowMapper} and an item writer, the
+ * cells are formatted while the XML of a sheet is parsed and their values are encoded
+ * straight into a reusable byte buffer, which is written to the output whenever it is
+ * full. No objects are created per row, only the formatted values of the cells.
+ *
+ * The values are formatted like the {@link StreamingXlsxItemReader} formats them. The
+ * selected sheets (see {@link #setSheetSelector(SheetSelector)}) are written one after
+ * the other, rows without any content are left out. When the sheets have a
+ * {@link #setHeader(boolean) header} row, the CSV file starts with the column names of
+ * the first sheet and the keys of the NDJSON objects are the column names of each sheet.
+ * The output is always encoded as UTF-8.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class XlsxConversionTasklet implements Tasklet, InitializingBean {
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private Resource resource;
+
+	private WritableResource output;
+
+	private Format format = Format.CSV;
+
+	private SheetSelector sheetSelector = SheetSelector.ALL;
+
+	private boolean header = true;
+
+	@Nullable
+	private String[] columnNames;
+
+	@Nullable
+	private int[] projectedColumns;
+
+	@Nullable
+	private String[] projectedColumnNames;
+
+	private char delimiter = ',';
+
+	private String lineSeparator = "\n";
+
+	private int bufferSize = 64 * 1024;
+
+	private boolean datesAsIso = false;
+
+	@Nullable
+	private Locale userLocale;
+
+	private DataFormatterCustomizer dataFormatterCustomizer = DataFormatterCustomizer.DEFAULT;
+
+	private int formatCacheSize = 0;
+
+	private Supplier<? extends SharedStringsStore> sharedStringsStore = InMemorySharedStringsStore::new;
+
+	private CellValueFormatter cellValueFormatter;
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.notNull(this.resource, "Resource must be set");
+		Assert.notNull(this.output, "Output must be set");
+		Assert.isTrue(this.projectedColumns == null || this.projectedColumnNames == null,
+				"Either the projected columns or the projected column names can be set, not both");
+		Assert.isTrue(this.projectedColumnNames == null || this.header || this.columnNames != null,
+				"Projected column names require a header row or column names");
+		if (this.projectedColumns != null) {
+			Assert.isTrue(Arrays.stream(this.projectedColumns).allMatch((column) -> column >= 0),
+					"Projected columns must not be negative");
+			Assert.isTrue(Arrays.stream(this.projectedColumns).distinct().count() == this.projectedColumns.length,
+					"Projected columns must be unique");
+		}
+		DataFormatter dataFormatter;
+		if (this.datesAsIso) {
+			dataFormatter = (this.userLocale != null) ? new IsoFormattingDateDataFormatter(this.userLocale)
+					: new IsoFormattingDateDataFormatter();
+		}
+		else {
+			dataFormatter = (this.userLocale != null) ? new DataFormatter(this.userLocale) : new DataFormatter();
+		}
+		this.dataFormatterCustomizer.customize(dataFormatter);
+		this.cellValueFormatter = new CellValueFormatter(dataFormatter, this.formatCacheSize);
+	}
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+		contribution.incrementWriteCount(convert());
+		return RepeatStatus.FINISHED;
+	}
+
+	/**
+	 * Convert the selected sheets of the {@code Resource} into the output.
+	 * @return the number of rows written, not counting the header line
+	 * @throws Exception when the workbook cannot be read or the output cannot be written
+	 */
+	public long convert() throws Exception {
+		OPCPackage pkg = this.resource.isFile() ? OPCPackage.open(this.resource.getFile(), PackageAccess.READ)
+				: OPCPackage.open(this.resource.getInputStream());
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			SharedStringsStore store = this.sharedStringsStore.get();
+			StreamingSharedStrings sharedStrings;
+			try {
+				sharedStrings = StreamingSharedStrings.read(pkg, store);
+			}
+			catch (Exception ex) {
+				store.close();
+				throw ex;
+			}
+			try (sharedStrings; OutputStream out = this.output.getOutputStream()) {
+				Converter converter = new Converter(out);
+				Styles styles = reader.getStylesTable();
+				List<XSSFReader.XSSFSheetRef> refs = StreamingXlsxItemReader.readSheetRefs(reader);
+				for (int i = 0; i < refs.size(); i++) {
+					XSSFReader.XSSFSheetRef ref = refs.get(i);
+					if (!this.sheetSelector.select(i, ref.getName())) {
+						continue;
+					}
+					try (InputStream is = reader.getSheet(ref.getId())) {
+						XlsxSheetParser parser = new XlsxSheetParser(
+								StaxUtils.createDefensiveInputFactory().createXMLStreamReader(is), sharedStrings,
+								styles, this.cellValueFormatter);
+						try {
+							converter.convert(parser, ref.getName());
+						}
+						finally {
+							parser.close();
+						}
+					}
+				}
+				converter.flush();
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Converted " + converter.rows + " rows into " + this.output.getDescription()
+							+ ".");
+				}
+				return converter.rows;
+			}
+		}
+		finally {
+			pkg.revert();
+		}
+	}
+
+	/**
+	 * The XLSX file to convert.
+	 * @param resource the XLSX file
+	 */
+	public void setResource(Resource resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * The {@code Resource} to write the CSV or NDJSON to.
+	 * @param output the output
+	 */
+	public void setOutput(WritableResource output) {
+		this.output = output;
+	}
+
+	/**
+	 * The format to convert the sheets to. Default {@link Format#CSV}.
+	 * @param format the format
+	 */
+	public void setFormat(Format format) {
+		Assert.notNull(format, "The format cannot be null.");
+		this.format = format;
+	}
+
+	/**
+	 * The {@code SheetSelector} determining which sheets are converted. Default all
+	 * sheets.
+	 * @param sheetSelector the {@code SheetSelector} to use, never {@code null}
+	 */
+	public void setSheetSelector(SheetSelector sheetSelector) {
+		Assert.notNull(sheetSelector, "The sheetSelector cannot be null.");
+		this.sheetSelector = sheetSelector;
+	}
+
+	/**
+	 * Whether the first row of each sheet contains the names of the columns. The header
+	 * rows aren't converted, the names of the first sheet are written as the first line
+	 * of a CSV file and the names of each sheet are used as the keys of the NDJSON
+	 * objects. Without a header row the keys are the column letters, like {@code A}.
+	 * Default {@code true}.
+	 * @param header {@code false} when the sheets have no header row
+	 */
+	public void setHeader(boolean header) {
+		this.header = header;
+	}
+
+	/**
+	 * The names of the columns, used instead of the names in the header row.
+	 * @param columnNames the names of the columns, in column order
+	 */
+	public void setColumnNames(String... columnNames) {
+		this.columnNames = columnNames;
+	}
+
+	/**
+	 * Only convert the columns with the given (0-based) indexes, in the given order. Cells
+	 * of the other columns are passed over without being formatted. Default all columns
+	 * are converted.
+	 * @param projectedColumns the indexes of the columns to convert
+	 */
+	public void setProjectedColumns(int... projectedColumns) {
+		this.projectedColumns = projectedColumns;
+	}
+
+	/**
+	 * Only convert the columns with the given names, in the given order, like
+	 * {@link #setProjectedColumns(int...)}. The names are resolved, for each sheet,
+	 * against the column names.
+	 * @param projectedColumnNames the names of the columns to convert
+	 */
+	public void setProjectedColumnNames(String... projectedColumnNames) {
+		this.projectedColumnNames = projectedColumnNames;
+	}
+
+	/**
+	 * The character separating the values of a CSV line. Values containing it, a quote or
+	 * a line break are quoted. Default {@code ,}.
+	 * @param delimiter the delimiter
+	 */
+	public void setDelimiter(char delimiter) {
+		Assert.isTrue(delimiter != '"' && delimiter != '\r' && delimiter != '\n',
+				"The delimiter cannot be a quote or a line break.");
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * The separator written after each line. Default {@code \n}.
+	 * @param lineSeparator the line separator
+	 */
+	public void setLineSeparator(String lineSeparator) {
+		Assert.hasLength(lineSeparator, "The lineSeparator cannot be empty.");
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * The number of bytes collected before they are written to the output. Default 64K.
+	 * @param bufferSize the size of the buffer
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "The bufferSize must be positive.");
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Write dates as ISO formatted values instead of using the format defined in the
+	 * sheet. Default {@code false}.
+	 * @param datesAsIso {@code true} to write the dates as ISO formatted values
+	 */
+	public void setDatesAsIso(boolean datesAsIso) {
+		this.datesAsIso = datesAsIso;
+	}
+
+	/**
+	 * The {@code Locale} to format the values with. Defaults to the platform default.
+	 * @param userLocale the {@code Locale} to use, default {@code null}
+	 */
+	public void setUserLocale(Locale userLocale) {
+		this.userLocale = userLocale;
+	}
+
+	/**
+	 * The {@code DataFormatterCustomizer} to configure the {@code DataFormatter} with.
+	 * Default {@code DataFormatterCustomizer.DEFAULT}.
+	 * @param dataFormatterCustomizer the {@code DataFormatterCustomizer}, never
+	 * {@code null}
+	 */
+	public void setDataFormatterCustomizer(DataFormatterCustomizer dataFormatterCustomizer) {
+		Assert.notNull(dataFormatterCustomizer, "The dataFormatterCustomizer cannot be null.");
+		this.dataFormatterCustomizer = dataFormatterCustomizer;
+	}
+
+	/**
+	 * The number of formatted numeric values to remember, per style. Default {@code 0}.
+	 * @param formatCacheSize the number of formatted values to remember, {@code 0} to
+	 * disable
+	 * @see CellValueFormatter
+	 */
+	public void setFormatCacheSize(int formatCacheSize) {
+		Assert.isTrue(formatCacheSize >= 0, "The formatCacheSize cannot be negative.");
+		this.formatCacheSize = formatCacheSize;
+	}
+
+	/**
+	 * The store for the text of the shared strings. Default all the strings are kept on
+	 * the heap.
+	 * @param sharedStringsStore creates the store for the shared strings of the workbook
+	 * @see StreamingXlsxItemReader#setSharedStringsStore(Supplier)
+	 */
+	public void setSharedStringsStore(Supplier<? extends SharedStringsStore> sharedStringsStore) {
+		Assert.notNull(sharedStringsStore, "The sharedStringsStore cannot be null.");
+		this.sharedStringsStore = sharedStringsStore;
+	}
+
+	/**
+	 * The format to convert the sheets to.
+	 */
+	public enum Format {
+
+		/**
+		 * Comma separated values as described by RFC 4180, one line per row.
+		 */
+		CSV,
+
+		/**
+		 * Newline delimited JSON, one object per row with the formatted values of the cells
+		 * as strings.
+		 */
+		NDJSON
+
+	}
+
+	/**
+	 * Encodes the rows of the sheets into the buffer. The buffer is only written to the
+	 * output at the end of a row, so a blank row can be dropped by moving back to where
+	 * the row started.
+	 */
+	private final class Converter {
+
+		private final OutputStream out;
+
+		private final byte[] lineSeparator;
+
+		private final boolean json;
+
+		private byte[] buffer;
+
+		private int position;
+
+		private boolean headerWritten;
+
+		private long rows;
+
+		/** The encoded {@code "name":} of each output column, for NDJSON. */
+		private byte[][] keys = new byte[0][];
+
+		/** The names the keys have been encoded for. */
+		@Nullable
+		private String[] keyNames;
+
+		/** For each column index the position in the output, -1 if not projected. */
+		private int[] positions = new int[0];
+
+		/** The formatted values of the projected columns of the current row. */
+		private String[] values = new String[0];
+
+		Converter(OutputStream out) {
+			this.out = out;
+			this.lineSeparator = XlsxConversionTasklet.this.lineSeparator.getBytes(StandardCharsets.UTF_8);
+			this.json = XlsxConversionTasklet.this.format == Format.NDJSON;
+			this.buffer = new byte[XlsxConversionTasklet.this.bufferSize + 1024];
+		}
+
+		void convert(XlsxSheetParser parser, String sheetName) throws XMLStreamException, IOException {
+			parser.readToSheetData();
+			String[] names = XlsxConversionTasklet.this.columnNames;
+			if (XlsxConversionTasklet.this.header) {
+				if (!parser.nextRow()) {
+					return;
+				}
+				String[] headerNames = readHeaderRow(parser);
+				if (names == null) {
+					names = headerNames;
+				}
+			}
+			int[] columns = resolveColumns(names, sheetName);
+			String[] outputNames = names;
+			if (columns != null) {
+				outputNames = new String[columns.length];
+				for (int i = 0; i < columns.length; i++) {
+					outputNames[i] = (names != null && columns[i] < names.length) ? names[columns[i]]
+							: CellReference.convertNumToColString(columns[i]);
+				}
+				project(parser, columns);
+			}
+			if (this.json) {
+				encodeKeys(outputNames);
+			}
+			else if (!this.headerWritten && outputNames != null) {
+				for (int i = 0; i < outputNames.length; i++) {
+					writeValue(i, outputNames[i]);
+				}
+				endRow();
+			}
+			this.headerWritten = true;
+
+			int width = (outputNames != null) ? outputNames.length : 0;
+			while (parser.nextRow()) {
+				int start = this.position;
+				if (this.json) {
+					this.buffer[this.position++] = '{';
+				}
+				boolean content = (columns != null) ? writeProjectedRow(parser) : writeRow(parser, width);
+				if (content) {
+					endRow();
+					this.rows++;
+				}
+				else {
+					this.position = start;
+				}
+			}
+		}
+
+		/**
+		 * Write the cells of the current row in column order, filling the gaps between
+		 * them with empty values.
+		 * @param parser the parser positioned on the row
+		 * @param width the number of columns of the header, shorter rows are padded
+		 * @return {@code true} if the row has content
+		 */
+		private boolean writeRow(XlsxSheetParser parser, int width) throws XMLStreamException {
+			boolean content = false;
+			int next = 0;
+			while (parser.nextCell()) {
+				String value = parser.format(parser.getDataType(), parser.getRawValue(), parser.getStyleIndex());
+				if (value.isEmpty()) {
+					continue;
+				}
+				for (int column = parser.getColumnIndex(); next < column; next++) {
+					writeValue(next, "");
+				}
+				writeValue(next++, value);
+				content = true;
+			}
+			for (; content && next < width; next++) {
+				writeValue(next, "");
+			}
+			return content;
+		}
+
+		/**
+		 * Collect the values of the projected columns of the current row and write them in
+		 * projection order.
+		 * @param parser the parser positioned on the row
+		 * @return {@code true} if the row has content
+		 */
+		private boolean writeProjectedRow(XlsxSheetParser parser) throws XMLStreamException {
+			Arrays.fill(this.values, "");
+			boolean content = false;
+			while (parser.nextCell()) {
+				String value = parser.format(parser.getDataType(), parser.getRawValue(), parser.getStyleIndex());
+				this.values[this.positions[parser.getColumnIndex()]] = value;
+				content |= !value.isEmpty();
+			}
+			if (content) {
+				for (int i = 0; i < this.values.length; i++) {
+					writeValue(i, this.values[i]);
+				}
+			}
+			return content;
+		}
+
+		private String[] readHeaderRow(XlsxSheetParser parser) throws XMLStreamException {
+			List<String> names = new ArrayList<>();
+			while (parser.nextCell()) {
+				while (names.size() < parser.getColumnIndex()) {
+					names.add("");
+				}
+				names.add(parser.format(parser.getDataType(), parser.getRawValue(), parser.getStyleIndex()));
+			}
+			return names.toArray(new String[0]);
+		}
+
+		@Nullable
+		private int[] resolveColumns(@Nullable String[] names, String sheetName) {
+			String[] projectedNames = XlsxConversionTasklet.this.projectedColumnNames;
+			if (projectedNames == null) {
+				return XlsxConversionTasklet.this.projectedColumns;
+			}
+			List<String> available = (names != null) ? Arrays.asList(names) : List.of();
+			int[] columns = new int[projectedNames.length];
+			for (int i = 0; i < projectedNames.length; i++) {
+				columns[i] = available.indexOf(projectedNames[i]);
+				if (columns[i] == -1) {
+					throw new IllegalStateException(
+							"No column named " + projectedNames[i] + " in sheet " + sheetName + ".");
+				}
+			}
+			return columns;
+		}
+
+		private void project(XlsxSheetParser parser, int[] columns) {
+			int max = Arrays.stream(columns).max().orElse(-1);
+			boolean[] included = new boolean[max + 1];
+			this.positions = new int[max + 1];
+			Arrays.fill(this.positions, -1);
+			for (int i = 0; i < columns.length; i++) {
+				included[columns[i]] = true;
+				this.positions[columns[i]] = i;
+			}
+			this.values = new String[columns.length];
+			parser.setIncludedColumns(included);
+		}
+
+		private void encodeKeys(@Nullable String[] names) {
+			if (Arrays.equals(names, this.keyNames)) {
+				return;
+			}
+			this.keyNames = names;
+			if (names == null) {
+				this.keys = new byte[0][];
+				return;
+			}
+			this.keys = new byte[names.length][];
+			for (int i = 0; i < names.length; i++) {
+				this.keys[i] = encodeKey(names[i]);
+			}
+		}
+
+		/**
+		 * Encode a key by writing it to the buffer and taking it back out.
+		 * @param name the name of the column
+		 * @return the encoded key, including the colon
+		 */
+		private byte[] encodeKey(String name) {
+			int start = this.position;
+			ensureCapacity(name.length() * 6 + 3);
+			writeJsonString(name);
+			this.buffer[this.position++] = ':';
+			byte[] key = Arrays.copyOfRange(this.buffer, start, this.position);
+			this.position = start;
+			return key;
+		}
+
+		private byte[] key(int column) {
+			if (column >= this.keys.length) {
+				int length = this.keys.length;
+				this.keys = Arrays.copyOf(this.keys, column + 1);
+				for (int i = length; i <= column; i++) {
+					this.keys[i] = encodeKey(CellReference.convertNumToColString(i));
+				}
+			}
+			return this.keys[column];
+		}
+
+		private void writeValue(int column, String value) {
+			if (this.json) {
+				byte[] key = key(column);
+				ensureCapacity(key.length + value.length() * 6 + 3);
+				if (column > 0) {
+					this.buffer[this.position++] = ',';
+				}
+				System.arraycopy(key, 0, this.buffer, this.position, key.length);
+				this.position += key.length;
+				writeJsonString(value);
+			}
+			else {
+				ensureCapacity(value.length() * 6 + 3);
+				if (column > 0) {
+					this.buffer[this.position++] = (byte) XlsxConversionTasklet.this.delimiter;
+				}
+				writeCsvValue(value);
+			}
+		}
+
+		private void writeCsvValue(String value) {
+			char delimiter = XlsxConversionTasklet.this.delimiter;
+			boolean quote = false;
+			for (int i = 0; i < value.length() && !quote; i++) {
+				char ch = value.charAt(i);
+				quote = ch == delimiter || ch == '"' || ch == '\r' || ch == '\n';
+			}
+			if (!quote) {
+				writeUtf8(value, 0, value.length());
+				return;
+			}
+			this.buffer[this.position++] = '"';
+			int start = 0;
+			for (int i = 0; i < value.length(); i++) {
+				if (value.charAt(i) == '"') {
+					// the quote is written twice, once with the run before it
+					writeUtf8(value, start, i + 1);
+					start = i;
+				}
+			}
+			writeUtf8(value, start, value.length());
+			this.buffer[this.position++] = '"';
+		}
+
+		private void writeJsonString(String value) {
+			byte[] buffer = this.buffer;
+			buffer[this.position++] = '"';
+			int start = 0;
+			for (int i = 0; i < value.length(); i++) {
+				char ch = value.charAt(i);
+				if (ch >= 0x20 && ch != '"' && ch != '\\') {
+					continue;
+				}
+				writeUtf8(value, start, i);
+				buffer[this.position++] = '\\';
+				switch (ch) {
+					case '"', '\\' -> {
+						buffer[this.position++] = (byte) ch;
+					}
+					case '\n' -> {
+						buffer[this.position++] = 'n';
+					}
+					case '\r' -> {
+						buffer[this.position++] = 'r';
+					}
+					case '\t' -> {
+						buffer[this.position++] = 't';
+					}
+					default -> {
+						buffer[this.position++] = 'u';
+						buffer[this.position++] = '0';
+						buffer[this.position++] = '0';
+						buffer[this.position++] = HEX[ch >> 4];
+						buffer[this.position++] = HEX[ch & 0xF];
+					}
+				}
+				start = i + 1;
+			}
+			writeUtf8(value, start, value.length());
+			buffer[this.position++] = '"';
+		}
+
+		/**
+		 * Encode the characters as UTF-8, the caller ensures the buffer can hold 3 bytes
+		 * per character.
+		 * @param value the characters to encode
+		 * @param start the index of the first character
+		 * @param end the index after the last character
+		 */
+		private void writeUtf8(String value, int start, int end) {
+			byte[] buffer = this.buffer;
+			int pos = this.position;
+			for (int i = start; i < end; i++) {
+				char ch = value.charAt(i);
+				if (ch < 0x80) {
+					buffer[pos++] = (byte) ch;
+				}
+				else if (ch < 0x800) {
+					buffer[pos++] = (byte) (0xC0 | (ch >> 6));
+					buffer[pos++] = (byte) (0x80 | (ch & 0x3F));
+				}
+				else if (Character.isHighSurrogate(ch) && i + 1 < end
+						&& Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+					buffer[pos++] = (byte) (0xF0 | (codePoint >> 18));
+					buffer[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+					buffer[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+					buffer[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+				}
+				else if (Character.isSurrogate(ch)) {
+					buffer[pos++] = '?';
+				}
+				else {
+					buffer[pos++] = (byte) (0xE0 | (ch >> 12));
+					buffer[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+					buffer[pos++] = (byte) (0x80 | (ch & 0x3F));
+				}
+			}
+			this.position = pos;
+		}
+
+		private void endRow() throws IOException {
+			ensureCapacity(this.lineSeparator.length + 1);
+			if (this.json) {
+				this.buffer[this.position++] = '}';
+			}
+			System.arraycopy(this.lineSeparator, 0, this.buffer, this.position, this.lineSeparator.length);
+			this.position += this.lineSeparator.length;
+			if (this.position >= XlsxConversionTasklet.this.bufferSize) {
+				flush();
+			}
+		}
+
+		/**
+		 * Grow the buffer, only needed for rows which don't fit in it.
+		 * @param length the number of bytes to make room for
+		 */
+		private void ensureCapacity(int length) {
+			if (this.position + length > this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + length));
+			}
+		}
+
+		void flush() throws IOException {
+			this.out.write(this.buffer, 0, this.position);
+			this.position = 0;
+		}
+
+	}
+
+}
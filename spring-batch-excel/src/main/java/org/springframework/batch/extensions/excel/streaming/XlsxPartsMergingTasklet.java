@@ -0,0 +1,654 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+/**
+ * {@code Tasklet} which merges XLSX files, e.g. written by a
+ * {@link StreamingXlsxItemWriter} per partition of a partitioned step, into a single
+ * workbook. Run it in a step after the partitioned step.
+ *
+ * With {@link Mode#SHEET_PER_PART} the sheets of all the parts become the sheets of the
+ * workbook. Their entries are copied as they are, still deflated, only the small parts
+ * describing the workbook are written again. With {@link Mode#SINGLE_SHEET} the rows of
+ * the first sheet of each part are concatenated into a single sheet. The rows are then
+ * inflated and deflated again to renumber them, but the XML is only scanned for the
+ * {@code row} and {@code c} tags, it isn't parsed.
+ *
+ * The styles and other parts of the workbook are taken from the first part, so all the
+ * parts need to be written with the same styles, e.g. by writers with the same
+ * configuration. As the shared strings of the parts cannot be combined without rewriting
+ * the cells, only the first part can use a shared strings table. Sheets with
+ * relationships of their own, like drawings or comments, aren't supported.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+public class XlsxPartsMergingTasklet implements Tasklet, InitializingBean {
+
+	private static final String CONTENT_TYPES = "[Content_Types].xml";
+
+	private static final String WORKBOOK = "xl/workbook.xml";
+
+	private static final String WORKBOOK_RELATIONSHIPS = "xl/_rels/workbook.xml.rels";
+
+	private static final String STYLES = "xl/styles.xml";
+
+	private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+
+	private static final String CONTENT_TYPES_NS = "http://schemas.openxmlformats.org/package/2006/content-types";
+
+	private static final String PACKAGE_RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+	private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+	private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+	private static final Pattern UNIQUE_COUNT = Pattern.compile("uniqueCount=\"(\\d+)\"");
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private Resource[] parts;
+
+	private WritableResource resource;
+
+	private Mode mode = Mode.SHEET_PER_PART;
+
+	private int headerRows = 0;
+
+	private boolean deleteParts = false;
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.notEmpty(this.parts, "Parts must be set");
+		Assert.notNull(this.resource, "Resource must be set");
+	}
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+		merge();
+		if (this.deleteParts) {
+			for (Resource part : this.parts) {
+				if (!part.getFile().delete()) {
+					this.logger.warn("Cannot delete part " + part.getDescription() + ".");
+				}
+			}
+		}
+		return RepeatStatus.FINISHED;
+	}
+
+	/**
+	 * Merge the parts into the {@code Resource}.
+	 * @throws Exception when the parts cannot be read or merged
+	 */
+	public void merge() throws Exception {
+		List<ZipFile> zips = new ArrayList<>(this.parts.length);
+		try {
+			for (Resource part : this.parts) {
+				zips.add(ZipFile.builder().setFile(part.getFile()).get());
+			}
+			List<List<SheetRef>> sheets = new ArrayList<>(zips.size());
+			for (int i = 0; i < zips.size(); i++) {
+				sheets.add(readPart(zips.get(i), i, zips.get(0)));
+			}
+			try (ZipArchiveOutputStream out = this.resource.isFile()
+					? new ZipArchiveOutputStream(this.resource.getFile())
+					: new ZipArchiveOutputStream(this.resource.getOutputStream())) {
+				if (this.mode == Mode.SINGLE_SHEET) {
+					writeSingleSheet(zips, sheets, out);
+				}
+				else {
+					writeSheetPerPart(zips, sheets, out);
+				}
+			}
+		}
+		finally {
+			for (ZipFile zip : zips) {
+				zip.close();
+			}
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Merged " + this.parts.length + " parts into " + this.resource.getDescription() + ".");
+		}
+	}
+
+	/**
+	 * Determine the sheets of a part and check that the part can be merged.
+	 * @param zip the part
+	 * @param index the index of the part
+	 * @param first the first part
+	 * @return the sheets of the part
+	 * @throws Exception when the part cannot be read or cannot be merged
+	 */
+	private List<SheetRef> readPart(ZipFile zip, int index, ZipFile first) throws Exception {
+		String description = this.parts[index].getDescription();
+		ZipArchiveEntry styles = zip.getEntry(STYLES);
+		ZipArchiveEntry firstStyles = first.getEntry(STYLES);
+		if ((styles == null) != (firstStyles == null) || (styles != null && styles.getCrc() != firstStyles.getCrc())) {
+			throw new IllegalStateException("The styles of " + description + " differ from those of the first part.");
+		}
+		if (index > 0 && hasSharedStrings(zip)) {
+			throw new IllegalStateException(
+					"Cannot merge " + description + ", only the first part can use a shared strings table.");
+		}
+
+		Map<String, String> targets = new HashMap<>();
+		NodeList relationships = parse(zip, WORKBOOK_RELATIONSHIPS).getElementsByTagNameNS(PACKAGE_RELATIONSHIPS_NS,
+				"Relationship");
+		for (int i = 0; i < relationships.getLength(); i++) {
+			Element relationship = (Element) relationships.item(i);
+			String target = relationship.getAttribute("Target");
+			targets.put(relationship.getAttribute("Id"), target.startsWith("/") ? target.substring(1) : "xl/" + target);
+		}
+		List<SheetRef> sheets = new ArrayList<>();
+		NodeList sheetElements = parse(zip, WORKBOOK).getElementsByTagNameNS(MAIN_NS, "sheet");
+		for (int i = 0; i < sheetElements.getLength(); i++) {
+			Element sheet = (Element) sheetElements.item(i);
+			String entry = targets.get(sheet.getAttributeNS(RELATIONSHIPS_NS, "id"));
+			Assert.state(entry != null && zip.getEntry(entry) != null,
+					() -> "Cannot find sheet " + sheet.getAttribute("name") + " in " + description + ".");
+			int slash = entry.lastIndexOf('/');
+			if (zip.getEntry(entry.substring(0, slash + 1) + "_rels/" + entry.substring(slash + 1) + ".rels") != null) {
+				throw new IllegalStateException("Cannot merge sheet " + sheet.getAttribute("name") + " of "
+						+ description + ", sheets with relationships aren't supported.");
+			}
+			sheets.add(new SheetRef(sheet.getAttribute("name"), zip.getEntry(entry)));
+		}
+		Assert.state(!sheets.isEmpty(), () -> description + " has no sheets.");
+		return sheets;
+	}
+
+	private static boolean hasSharedStrings(ZipFile zip) throws IOException {
+		ZipArchiveEntry entry = zip.getEntry(SHARED_STRINGS);
+		if (entry == null) {
+			return false;
+		}
+		try (InputStream is = zip.getInputStream(entry)) {
+			// the counts are attributes of the root element
+			String start = new String(is.readNBytes(512), StandardCharsets.UTF_8);
+			Matcher matcher = UNIQUE_COUNT.matcher(start);
+			return !matcher.find() || Integer.parseInt(matcher.group(1)) > 0;
+		}
+	}
+
+	private void writeSheetPerPart(List<ZipFile> zips, List<List<SheetRef>> sheets, ZipArchiveOutputStream out)
+			throws Exception {
+		List<String> names = new ArrayList<>();
+		Set<String> uniqueNames = new HashSet<>();
+		for (List<SheetRef> partSheets : sheets) {
+			for (SheetRef sheet : partSheets) {
+				Assert.state(uniqueNames.add(sheet.name().toLowerCase(Locale.ROOT)),
+						() -> "The sheet name " + sheet.name() + " is used by more than one part.");
+				names.add(sheet.name());
+			}
+		}
+
+		ZipFile first = zips.get(0);
+		Set<String> firstSheets = new HashSet<>();
+		for (SheetRef sheet : sheets.get(0)) {
+			firstSheets.add(sheet.entry().getName());
+		}
+		for (ZipArchiveEntry entry : entries(first)) {
+			String name = entry.getName();
+			if (CONTENT_TYPES.equals(name)) {
+				write(out, name, contentTypes(parse(first, name), names.size()));
+			}
+			else if (WORKBOOK.equals(name)) {
+				write(out, name, workbook(parse(first, name), names));
+			}
+			else if (WORKBOOK_RELATIONSHIPS.equals(name)) {
+				write(out, name, workbookRelationships(parse(first, name), names.size()));
+			}
+			else if (!firstSheets.contains(name)) {
+				copy(first, entry, name, out);
+			}
+		}
+		int sheet = 0;
+		for (int i = 0; i < zips.size(); i++) {
+			for (SheetRef ref : sheets.get(i)) {
+				copy(zips.get(i), ref.entry(), sheetEntry(++sheet), out);
+			}
+		}
+	}
+
+	private void writeSingleSheet(List<ZipFile> zips, List<List<SheetRef>> sheets, ZipArchiveOutputStream out)
+			throws IOException {
+		ZipFile first = zips.get(0);
+		ZipArchiveEntry firstSheet = sheets.get(0).get(0).entry();
+		Assert.state(sheets.get(0).size() == 1,
+				() -> this.parts[0].getDescription() + " has more than one sheet, which cannot be concatenated.");
+		for (ZipArchiveEntry entry : entries(first)) {
+			if (!entry.getName().equals(firstSheet.getName())) {
+				copy(first, entry, entry.getName(), out);
+				continue;
+			}
+			out.putArchiveEntry(new ZipArchiveEntry(entry.getName()));
+			BufferedOutputStream os = new BufferedOutputStream(out, 65536);
+			ConcatenatedSheet sheet = new ConcatenatedSheet(os);
+			for (int i = 0; i < zips.size(); i++) {
+				try (InputStream is = zips.get(i).getInputStream(sheets.get(i).get(0).entry())) {
+					sheet.append(is, i == 0, this.headerRows);
+				}
+			}
+			sheet.finish();
+			os.flush();
+			out.closeArchiveEntry();
+		}
+	}
+
+	/**
+	 * Copy an entry without inflating it.
+	 * @param zip the part the entry is read from
+	 * @param entry the entry to copy
+	 * @param name the name of the entry in the merged workbook
+	 * @param out the merged workbook
+	 * @throws IOException when the entry cannot be copied
+	 */
+	private static void copy(ZipFile zip, ZipArchiveEntry entry, String name, ZipArchiveOutputStream out)
+			throws IOException {
+		ZipArchiveEntry copy = new ZipArchiveEntry(name);
+		copy.setMethod(entry.getMethod());
+		copy.setCrc(entry.getCrc());
+		copy.setSize(entry.getSize());
+		copy.setCompressedSize(entry.getCompressedSize());
+		copy.setTime(entry.getTime());
+		try (InputStream is = zip.getRawInputStream(entry)) {
+			out.addRawArchiveEntry(copy, is);
+		}
+	}
+
+	private static void write(ZipArchiveOutputStream out, String name, Document document) throws Exception {
+		out.putArchiveEntry(new ZipArchiveEntry(name));
+		XMLHelper.newTransformer().transform(new DOMSource(document), new StreamResult(out));
+		out.closeArchiveEntry();
+	}
+
+	private static Document parse(ZipFile zip, String name) throws Exception {
+		ZipArchiveEntry entry = zip.getEntry(name);
+		Assert.state(entry != null, () -> "Missing part " + name + ".");
+		try (InputStream is = zip.getInputStream(entry)) {
+			return XMLHelper.newDocumentBuilder().parse(is);
+		}
+	}
+
+	private static List<ZipArchiveEntry> entries(ZipFile zip) {
+		List<ZipArchiveEntry> entries = new ArrayList<>();
+		zip.getEntriesInPhysicalOrder().asIterator().forEachRemaining(entries::add);
+		return entries;
+	}
+
+	private static String sheetEntry(int sheet) {
+		return "xl/worksheets/sheet" + sheet + ".xml";
+	}
+
+	private static Document contentTypes(Document document, int sheets) {
+		Element types = document.getDocumentElement();
+		removeChildren(types, CONTENT_TYPES_NS, "Override",
+				(override) -> override.getAttribute("ContentType").equals(XSSFRelation.WORKSHEET.getContentType()));
+		for (int i = 1; i <= sheets; i++) {
+			Element override = document.createElementNS(CONTENT_TYPES_NS, "Override");
+			override.setAttribute("PartName", "/" + sheetEntry(i));
+			override.setAttribute("ContentType", XSSFRelation.WORKSHEET.getContentType());
+			types.appendChild(override);
+		}
+		return document;
+	}
+
+	private static Document workbookRelationships(Document document, int sheets) {
+		Element relationships = document.getDocumentElement();
+		removeChildren(relationships, PACKAGE_RELATIONSHIPS_NS, "Relationship",
+				(relationship) -> relationship.getAttribute("Type").equals(XSSFRelation.WORKSHEET.getRelation()));
+		for (int i = 1; i <= sheets; i++) {
+			Element relationship = document.createElementNS(PACKAGE_RELATIONSHIPS_NS, "Relationship");
+			relationship.setAttribute("Id", "rIdSheet" + i);
+			relationship.setAttribute("Type", XSSFRelation.WORKSHEET.getRelation());
+			relationship.setAttribute("Target", "worksheets/sheet" + i + ".xml");
+			relationships.appendChild(relationship);
+		}
+		return document;
+	}
+
+	private static Document workbook(Document document, List<String> names) {
+		Element sheets = (Element) document.getElementsByTagNameNS(MAIN_NS, "sheets").item(0);
+		Assert.state(sheets != null, "Missing sheets in workbook.");
+		removeChildren(sheets, MAIN_NS, "sheet", (sheet) -> true);
+		String prefix = sheets.getPrefix();
+		for (int i = 1; i <= names.size(); i++) {
+			Element sheet = document.createElementNS(MAIN_NS, (prefix != null) ? prefix + ":sheet" : "sheet");
+			sheet.setAttribute("name", names.get(i - 1));
+			sheet.setAttribute("sheetId", String.valueOf(i));
+			sheet.setAttributeNS(RELATIONSHIPS_NS, "r:id", "rIdSheet" + i);
+			sheets.appendChild(sheet);
+		}
+		return document;
+	}
+
+	private static void removeChildren(Element parent, String namespace, String localName,
+			Predicate<Element> filter) {
+		NodeList children = parent.getChildNodes();
+		for (int i = children.getLength() - 1; i >= 0; i--) {
+			Node child = children.item(i);
+			if (child instanceof Element element && namespace.equals(element.getNamespaceURI())
+					&& localName.equals(element.getLocalName()) && filter.test(element)) {
+				parent.removeChild(child);
+			}
+		}
+	}
+
+	/**
+	 * The XLSX files to merge, in the order of their sheets or rows in the merged
+	 * workbook. The parts have to be files.
+	 * @param parts the files to merge
+	 */
+	public void setParts(Resource... parts) {
+		this.parts = parts;
+	}
+
+	/**
+	 * The {@code Resource} to write the merged workbook to.
+	 * @param resource the resource
+	 */
+	public void setResource(WritableResource resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * How to merge the parts, default {@link Mode#SHEET_PER_PART}.
+	 * @param mode the mode
+	 */
+	public void setMode(Mode mode) {
+		Assert.notNull(mode, "The mode cannot be null.");
+		this.mode = mode;
+	}
+
+	/**
+	 * The number of header rows at the start of the sheet of each part. With
+	 * {@link Mode#SINGLE_SHEET} only the header rows of the first part are kept. Default
+	 * 0.
+	 * @param headerRows the number of header rows
+	 */
+	public void setHeaderRows(int headerRows) {
+		Assert.isTrue(headerRows >= 0, "The headerRows cannot be negative.");
+		this.headerRows = headerRows;
+	}
+
+	/**
+	 * Delete the parts once they have been merged. Default {@code false}.
+	 * @param deleteParts {@code true} to delete the parts
+	 */
+	public void setDeleteParts(boolean deleteParts) {
+		this.deleteParts = deleteParts;
+	}
+
+	/**
+	 * How the parts are merged.
+	 */
+	public enum Mode {
+
+		/**
+		 * Each sheet of a part becomes a sheet of the merged workbook, the sheet names have
+		 * to be unique.
+		 */
+		SHEET_PER_PART,
+
+		/**
+		 * The rows of the first sheet of each part are concatenated into a single sheet.
+		 */
+		SINGLE_SHEET
+
+	}
+
+	private record SheetRef(String name, ZipArchiveEntry entry) {
+	}
+
+	/**
+	 * Writes the XML of a sheet with the rows of several sheets. The start of the XML,
+	 * before the rows, is taken from the first sheet, without its {@code dimension} as that
+	 * is no longer correct, as is the end of the XML. The rows are renumbered to follow
+	 * the rows of the previous sheet by rewriting the {@code r} attribute of the
+	 * {@code row} and {@code c} tags, all other bytes are copied as is.
+	 */
+	static final class ConcatenatedSheet {
+
+		private static final Pattern REFERENCE = Pattern.compile("(\\sr=\")([A-Za-z$]*)(\\d+)(\")");
+
+		private static final byte[] SHEET_DATA_START = "<sheetData>".getBytes(StandardCharsets.US_ASCII);
+
+		private static final byte[] SHEET_DATA_END = "</sheetData>".getBytes(StandardCharsets.US_ASCII);
+
+		private final OutputStream out;
+
+		private final ByteArrayOutputStream end = new ByteArrayOutputStream();
+
+		private final ByteArrayOutputStream tag = new ByteArrayOutputStream(128);
+
+		private final byte[] buffer = new byte[65536];
+
+		private InputStream is;
+
+		private int pos;
+
+		private int limit;
+
+		private int lastRow;
+
+		ConcatenatedSheet(OutputStream out) {
+			this.out = out;
+		}
+
+		/**
+		 * Append the rows of a sheet.
+		 * @param is the XML of the sheet
+		 * @param first whether this is the first sheet
+		 * @param headerRows the number of rows to leave out, unless this is the first sheet
+		 * @throws IOException when the XML cannot be read or written
+		 */
+		void append(InputStream is, boolean first, int headerRows) throws IOException {
+			this.is = is;
+			this.pos = 0;
+			this.limit = 0;
+			OutputStream discard = OutputStream.nullOutputStream();
+			int skipped = first ? 0 : headerRows;
+			int offset = this.lastRow - skipped;
+			OutputStream sink = first ? this.out : discard;
+			boolean inRows = false;
+			boolean skipping = false;
+			int row = 0;
+			while (copyToTag(skipping ? discard : sink)) {
+				String tag = readTag();
+				String name = localName(tag);
+				boolean empty = tag.endsWith("/>");
+				if (!inRows) {
+					if ("sheetData".equals(name)) {
+						sink.write(SHEET_DATA_START);
+						sink = first ? this.end : discard;
+						if (empty) {
+							sink.write(SHEET_DATA_END);
+						}
+						else {
+							inRows = true;
+							sink = this.out;
+						}
+					}
+					else if (!"dimension".equals(name)) {
+						sink.write(tag.getBytes(StandardCharsets.ISO_8859_1));
+					}
+				}
+				else if ("/sheetData".equals(name)) {
+					inRows = false;
+					sink = first ? this.end : discard;
+					sink.write(SHEET_DATA_END);
+				}
+				else if ("row".equals(name)) {
+					Matcher matcher = REFERENCE.matcher(tag);
+					row = matcher.find() ? Integer.parseInt(matcher.group(3)) : row + 1;
+					skipping = row <= skipped && !empty;
+					if (row > skipped) {
+						this.lastRow = row + offset;
+						sink.write(renumber(tag, matcher, "row").getBytes(StandardCharsets.ISO_8859_1));
+					}
+				}
+				else if (skipping) {
+					skipping = !"/row".equals(name);
+				}
+				else {
+					String copy = "c".equals(name) ? renumber(tag, REFERENCE.matcher(tag), null) : tag;
+					sink.write(copy.getBytes(StandardCharsets.ISO_8859_1));
+				}
+			}
+			this.is = null;
+		}
+
+		/**
+		 * Write the end of the XML of the first sheet.
+		 * @throws IOException when the XML cannot be written
+		 */
+		void finish() throws IOException {
+			this.end.writeTo(this.out);
+		}
+
+		/**
+		 * Replace the row number in the {@code r} attribute of a tag by the current row,
+		 * or add the attribute to a {@code row} tag without it.
+		 * @param tag the tag to renumber
+		 * @param matcher the matcher of the {@code r} attribute on the tag
+		 * @param rowTag the name of the {@code row} tag, {@code null} for a cell tag
+		 * @return the renumbered tag
+		 */
+		private String renumber(String tag, Matcher matcher, String rowTag) {
+			if (matcher.find(0)) {
+				return tag.substring(0, matcher.start(3)) + this.lastRow + tag.substring(matcher.end(3));
+			}
+			if (rowTag != null) {
+				int idx = tag.indexOf(rowTag) + rowTag.length();
+				return tag.substring(0, idx) + " r=\"" + this.lastRow + "\"" + tag.substring(idx);
+			}
+			return tag;
+		}
+
+		/**
+		 * Copy the bytes up to the next tag, consuming its {@code <}.
+		 * @param sink where to copy the bytes to
+		 * @return {@code false} at the end of the XML
+		 */
+		private boolean copyToTag(OutputStream sink) throws IOException {
+			while (true) {
+				if (this.pos == this.limit && !fill()) {
+					return false;
+				}
+				int start = this.pos;
+				while (this.pos < this.limit && this.buffer[this.pos] != '<') {
+					this.pos++;
+				}
+				sink.write(this.buffer, start, this.pos - start);
+				if (this.pos < this.limit) {
+					this.pos++;
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Read a tag, after its {@code <}, up to and including the closing {@code >}. The
+		 * bytes are kept as ISO-8859-1 characters, so they are written back unchanged.
+		 * @return the tag, including its {@code <} and {@code >}
+		 * @throws IOException when the XML cannot be read
+		 */
+		private String readTag() throws IOException {
+			this.tag.reset();
+			this.tag.write('<');
+			int quote = 0;
+			while (this.pos < this.limit || fill()) {
+				int b = this.buffer[this.pos++];
+				this.tag.write(b);
+				if (quote != 0) {
+					quote = (b == quote) ? 0 : quote;
+				}
+				else if (b == '"' || b == '\'') {
+					quote = b;
+				}
+				else if (b == '>') {
+					break;
+				}
+			}
+			return this.tag.toString(StandardCharsets.ISO_8859_1);
+		}
+
+		private boolean fill() throws IOException {
+			int read = this.is.read(this.buffer, 0, this.buffer.length);
+			this.pos = 0;
+			this.limit = Math.max(read, 0);
+			return read > 0;
+		}
+
+		static String localName(String tag) {
+			int end = 1;
+			while (end < tag.length()
+					&& (" \t\r\n/>".indexOf(tag.charAt(end)) == -1 || (end == 1 && tag.charAt(end) == '/'))) {
+				end++;
+			}
+			String name = tag.substring(1, end);
+			int colon = name.indexOf(':');
+			if (colon == -1) {
+				return name;
+			}
+			return (name.startsWith("/") ? "/" : "") + name.substring(colon + 1);
+		}
+
+	}
+
+}
@@ -0,0 +1,550 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.model.Styles;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Pull parser for the XML of a single worksheet part. Reads the {@code row}, {@code c},
+ * {@code v} and {@code is} elements directly from an {@code XMLStreamReader} instead of
+ * adapting each event for the SAX based {@code XSSFSheetXMLHandler}. Shared strings and
+ * number formats are resolved by the parser itself, the latter once per style index.
+ *
+ * The raw values of the cells are available as is, formatting them is done separately
+ * through {@link #format(DataType, String, int)} so it can be deferred until a formatted
+ * value is needed. The resulting values are formatted the same way the
+ * {@code XSSFSheetXMLHandler} formats them.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class XlsxSheetParser {
+
+	private static final Pattern UTF_PATTERN = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+	private final XMLStreamReader reader;
+
+	private final StreamingSharedStrings sharedStrings;
+
+	@Nullable
+	private final Styles styles;
+
+	private final CellValueFormatter cellValueFormatter;
+
+	private final StringBuilder value = new StringBuilder(64);
+
+	private int[] formatIndexes = new int[0];
+
+	private String[] formatStrings = new String[0];
+
+	@Nullable
+	private boolean[] includedColumns;
+
+	private int rowCount;
+
+	private int columnCount;
+
+	private int rowIndex = -1;
+
+	private boolean inRow;
+
+	private int columnIndex;
+
+	private DataType dataType;
+
+	private int styleIndex;
+
+	XlsxSheetParser(XMLStreamReader reader, StreamingSharedStrings sharedStrings, @Nullable Styles styles,
+			CellValueFormatter cellValueFormatter) {
+		this.reader = reader;
+		this.sharedStrings = sharedStrings;
+		this.styles = styles;
+		this.cellValueFormatter = cellValueFormatter;
+	}
+
+	/**
+	 * The number of rows as declared by the {@code dimension} element, 0 if unknown.
+	 * @return the number of rows
+	 */
+	int getRowCount() {
+		return this.rowCount;
+	}
+
+	/**
+	 * The number of columns as declared by the {@code dimension} element, 0 if unknown.
+	 * @return the number of columns
+	 */
+	int getColumnCount() {
+		return this.columnCount;
+	}
+
+	/**
+	 * Only read the cells of the given columns, the cells of the other columns are passed
+	 * over without reading their value.
+	 * @param includedColumns for each column index whether it is read, columns beyond the
+	 * end of the array are not read, {@code null} to read all columns
+	 */
+	void setIncludedColumns(@Nullable boolean[] includedColumns) {
+		this.includedColumns = includedColumns;
+	}
+
+	/**
+	 * Move to the start of the {@code sheetData} element, reading the {@code dimension}
+	 * element on the way so that the row and column count are known before the first row
+	 * is read.
+	 * @throws XMLStreamException when the underlying XML cannot be read
+	 */
+	void readToSheetData() throws XMLStreamException {
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String localName = this.reader.getLocalName();
+				if ("sheetData".equals(localName)) {
+					return;
+				}
+				if ("dimension".equals(localName)) {
+					readDimension(this.reader.getAttributeValue(null, "ref"));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Move to the next {@code row} element. Any cells of the current row which haven't been
+	 * read are skipped without being decoded.
+	 * @return {@code true} if positioned on a row, {@code false} when there are no more rows
+	 * @throws XMLStreamException when the underlying XML cannot be read
+	 */
+	boolean nextRow() throws XMLStreamException {
+		if (this.inRow) {
+			skipToEndOfRow();
+		}
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String localName = this.reader.getLocalName();
+				if ("row".equals(localName)) {
+					String ref = this.reader.getAttributeValue(null, "r");
+					this.rowIndex = (ref != null) ? Integer.parseInt(ref) - 1 : this.rowIndex + 1;
+					this.columnIndex = -1;
+					this.inRow = true;
+					return true;
+				}
+				if ("dimension".equals(localName)) {
+					readDimension(this.reader.getAttributeValue(null, "ref"));
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The 0-based index of the current row.
+	 * @return the row index
+	 */
+	int getRowIndex() {
+		return this.rowIndex;
+	}
+
+	/**
+	 * Move to the next cell with a value in the current row. Cells without a value (for
+	 * instance cells which only carry a style) and cells of columns which aren't included
+	 * are passed over.
+	 * @return {@code true} if positioned on a cell, {@code false} at the end of the row
+	 * @throws XMLStreamException when the underlying XML cannot be read
+	 */
+	boolean nextCell() throws XMLStreamException {
+		while (this.inRow && this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if ("c".equals(this.reader.getLocalName()) && readCell()) {
+					return true;
+				}
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(this.reader.getLocalName())) {
+				this.inRow = false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The 0-based column index of the current cell.
+	 * @return the column index
+	 */
+	int getColumnIndex() {
+		return this.columnIndex;
+	}
+
+	/**
+	 * The type of the value of the current cell.
+	 * @return the type
+	 */
+	DataType getDataType() {
+		return this.dataType;
+	}
+
+	/**
+	 * The raw value of the current cell, for shared strings this is the index of the
+	 * string.
+	 * @return the raw value, never {@code null}
+	 */
+	String getRawValue() {
+		return this.value.toString();
+	}
+
+	/**
+	 * The style index of the current cell.
+	 * @return the style index, {@code -1} if the cell has no style
+	 */
+	int getStyleIndex() {
+		return this.styleIndex;
+	}
+
+	/**
+	 * Format a raw cell value with the configured {@code CellValueFormatter}.
+	 * @param dataType the type of the value
+	 * @param value the raw value as returned by {@link #getRawValue()}
+	 * @param styleIndex the style index of the cell
+	 * @return the formatted value, never {@code null}
+	 */
+	String format(DataType dataType, String value, int styleIndex) {
+		switch (dataType) {
+			case BOOLEAN:
+				return (!value.isEmpty() && value.charAt(0) != '0') ? "TRUE" : "FALSE";
+			case ERROR:
+				return "ERROR:" + value;
+			case FORMULA_STRING:
+				return value;
+			case INLINE_STRING:
+				return utfDecode(value);
+			case SST_STRING:
+				if (value.isEmpty()) {
+					return "";
+				}
+				return this.sharedStrings.getString(Integer.parseInt(value));
+			case FORMULA:
+				return formatFormulaResult(value, styleIndex);
+			default:
+				return formatNumber(value, styleIndex);
+		}
+	}
+
+	/**
+	 * Determine if the current cell has content, without formatting its value.
+	 * @return {@code true} if the cell has content
+	 */
+	boolean hasContent() {
+		if (this.value.length() == 0) {
+			return false;
+		}
+		if (this.dataType == DataType.SST_STRING) {
+			return !this.sharedStrings.getString(Integer.parseInt(this.value.toString())).isEmpty();
+		}
+		return true;
+	}
+
+	void close() throws XMLStreamException {
+		this.reader.close();
+	}
+
+	private boolean readCell() throws XMLStreamException {
+		String ref = null;
+		String type = null;
+		String style = null;
+		for (int i = 0; i < this.reader.getAttributeCount(); i++) {
+			String name = this.reader.getAttributeLocalName(i);
+			if ("r".equals(name)) {
+				ref = this.reader.getAttributeValue(i);
+			}
+			else if ("t".equals(name)) {
+				type = this.reader.getAttributeValue(i);
+			}
+			else if ("s".equals(name)) {
+				style = this.reader.getAttributeValue(i);
+			}
+		}
+		this.columnIndex = (ref != null) ? columnIndex(ref) : this.columnIndex + 1;
+		if (this.includedColumns != null
+				&& (this.columnIndex >= this.includedColumns.length || !this.includedColumns[this.columnIndex])) {
+			skipToEndOfElement();
+			return false;
+		}
+		this.dataType = DataType.from(type);
+		this.styleIndex = (style != null) ? Integer.parseInt(style) : -1;
+		this.value.setLength(0);
+
+		boolean hasValue = false;
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String localName = this.reader.getLocalName();
+				if ("v".equals(localName) || "inlineStr".equals(localName)) {
+					this.value.setLength(0);
+					appendText();
+					hasValue = true;
+				}
+				else if ("is".equals(localName)) {
+					appendInlineString();
+					hasValue = true;
+				}
+				else if ("f".equals(localName) && this.dataType == DataType.NUMBER) {
+					this.dataType = DataType.FORMULA;
+				}
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(this.reader.getLocalName())) {
+				return hasValue;
+			}
+		}
+		return hasValue;
+	}
+
+	/**
+	 * Append all the character data up to the end of the current element.
+	 */
+	private void appendText() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+				this.value.append(this.reader.getTextCharacters(), this.reader.getTextStart(),
+						this.reader.getTextLength());
+			}
+			else if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Append the text of all the {@code t} elements (including those in rich text runs) up
+	 * to the end of the {@code is} element.
+	 */
+	private void appendInlineString() throws XMLStreamException {
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "t".equals(this.reader.getLocalName())) {
+				appendText();
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT && "is".equals(this.reader.getLocalName())) {
+				return;
+			}
+		}
+	}
+
+	private void skipToEndOfElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private void skipToEndOfRow() throws XMLStreamException {
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT && "row".equals(this.reader.getLocalName())) {
+				break;
+			}
+		}
+		this.inRow = false;
+	}
+
+	private void readDimension(@Nullable String ref) {
+		if (ref != null && ref.indexOf(':') > -1) {
+			CellRangeAddress range = CellRangeAddress.valueOf(ref);
+			this.rowCount = range.getLastRow() - range.getFirstRow() + 1;
+			this.columnCount = range.getLastColumn() - range.getFirstColumn() + 1;
+		}
+	}
+
+	private String formatNumber(String value, int styleIndex) {
+		String formatString = (!value.isEmpty()) ? resolveFormatString(styleIndex) : null;
+		if (formatString == null) {
+			return value;
+		}
+		int style = resolvedStyleIndex(styleIndex);
+		return this.cellValueFormatter.formatRawCellContents(Double.parseDouble(value), style,
+				this.formatIndexes[style], formatString, false);
+	}
+
+	private String formatFormulaResult(String result, int styleIndex) {
+		String formatString = resolveFormatString(styleIndex);
+		if (formatString == null) {
+			return result;
+		}
+		try {
+			int style = resolvedStyleIndex(styleIndex);
+			return this.cellValueFormatter.formatRawCellContents(Double.parseDouble(result), style,
+					this.formatIndexes[style], formatString, false);
+		}
+		catch (NumberFormatException ex) {
+			// Formula with a string result
+			return result;
+		}
+	}
+
+	/**
+	 * The style to use for a cell, cells without an explicit style use the first
+	 * (default) style of the workbook.
+	 * @param styleIndex the style index of the cell
+	 * @return the style index to use
+	 */
+	private static int resolvedStyleIndex(int styleIndex) {
+		return (styleIndex != -1) ? styleIndex : 0;
+	}
+
+	/**
+	 * Resolve the number format for a cell. Resolving a format through the
+	 * {@code Styles} creates a new {@code XSSFCellStyle} each time, hence the result is
+	 * cached per style index.
+	 * @param styleIndex the style index of the cell
+	 * @return the format string or {@code null} if the cell has no number format
+	 */
+	@Nullable
+	private String resolveFormatString(int styleIndex) {
+		if (this.styles == null || (styleIndex == -1 && this.styles.getNumCellStyles() == 0)) {
+			return null;
+		}
+		int idx = resolvedStyleIndex(styleIndex);
+		if (idx >= this.formatStrings.length) {
+			int size = Math.max(idx + 1, this.styles.getNumCellStyles());
+			int[] formatIndexes = new int[size];
+			String[] formatStrings = new String[size];
+			System.arraycopy(this.formatIndexes, 0, formatIndexes, 0, this.formatIndexes.length);
+			System.arraycopy(this.formatStrings, 0, formatStrings, 0, this.formatStrings.length);
+			for (int i = this.formatIndexes.length; i < size; i++) {
+				formatIndexes[i] = -2;
+			}
+			this.formatIndexes = formatIndexes;
+			this.formatStrings = formatStrings;
+		}
+		if (this.formatIndexes[idx] == -2) {
+			XSSFCellStyle style = this.styles.getStyleAt(idx);
+			if (style != null) {
+				this.formatIndexes[idx] = style.getDataFormat();
+				String formatString = style.getDataFormatString();
+				this.formatStrings[idx] = (formatString != null) ? formatString
+						: BuiltinFormats.getBuiltinFormat(this.formatIndexes[idx]);
+			}
+			else {
+				this.formatIndexes[idx] = -1;
+			}
+		}
+		return this.formatStrings[idx];
+	}
+
+	/**
+	 * Decode the column part of a cell reference like {@code AB12} into a 0-based column
+	 * index, without creating a {@code CellReference}.
+	 * @param ref the cell reference
+	 * @return the 0-based column index
+	 */
+	static int columnIndex(String ref) {
+		int column = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char ch = ref.charAt(i);
+			if (ch >= 'A' && ch <= 'Z') {
+				column = column * 26 + (ch - 'A' + 1);
+			}
+			else if (ch >= 'a' && ch <= 'z') {
+				column = column * 26 + (ch - 'a' + 1);
+			}
+			else if (ch != '$') {
+				break;
+			}
+		}
+		return column - 1;
+	}
+
+	/**
+	 * Decode the {@code _xHHHH_} escapes as written for characters which aren't valid in
+	 * XML, see section 3.18.9 of the OOXML specification.
+	 * @param value the value to decode
+	 * @return the decoded value
+	 */
+	static String utfDecode(String value) {
+		if (!value.contains("_x")) {
+			return value;
+		}
+		StringBuilder buf = new StringBuilder(value.length());
+		Matcher matcher = UTF_PATTERN.matcher(value);
+		int idx = 0;
+		while (matcher.find()) {
+			buf.append(value, idx, matcher.start());
+			buf.append((char) Integer.parseInt(matcher.group(1), 16));
+			idx = matcher.end();
+		}
+		if (idx == 0) {
+			return value;
+		}
+		buf.append(value, idx, value.length());
+		return buf.toString();
+	}
+
+	/**
+	 * The type of the value of a cell, based on the {@code t} attribute. A {@code NUMBER}
+	 * becomes a {@code FORMULA} when the cell contains an {@code f} element.
+	 */
+	enum DataType {
+
+		BOOLEAN, ERROR, FORMULA, FORMULA_STRING, INLINE_STRING, SST_STRING, NUMBER;
+
+		static DataType from(@Nullable String type) {
+			if (type == null) {
+				return NUMBER;
+			}
+			switch (type) {
+				case "b":
+					return BOOLEAN;
+				case "e":
+					return ERROR;
+				case "inlineStr":
+					return INLINE_STRING;
+				case "s":
+					return SST_STRING;
+				case "str":
+					return FORMULA_STRING;
+				default:
+					return NUMBER;
+			}
+		}
+
+	}
+
+}
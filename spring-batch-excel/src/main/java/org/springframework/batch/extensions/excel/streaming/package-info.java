@@ -15,6 +15,6 @@
  */
 
 /**
- * Streaming implementation of ItemReaders.
+ * Streaming implementation of ItemReaders and ItemWriters.
  */
 package org.springframework.batch.extensions.excel.streaming;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,20 @@
 
 package org.springframework.batch.extensions.excel.support.rowset;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Properties;
 
+import org.apache.poi.ss.usermodel.CellType;
+
 import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.extensions.excel.TypedRow;
 
 /**
- * Default implementation of the {@code RowSet} interface.
+ * Default implementation of the {@code RowSet} interface. The rows are read as
+ * {@link TypedRow}s and only formatted when {@link #getCurrentRow()} is called, or for a
+ * single cell through {@link #getString(int)}.
  *
  * @author Marten Deinum
  * @since 0.1.0
@@ -30,16 +37,28 @@ import org.springframework.batch.extensions.excel.Sheet;
  */
 public class DefaultRowSet implements RowSet {
 
+	private final Sheet sheet;
+
 	private final Iterator<String[]> sheetData;
 
+	private final boolean rowBufferReused;
+
 	private final RowSetMetaData metaData;
 
 	private int currentRowIndex = -1;
 
+	private TypedRow currentTypedRow;
+
 	private String[] currentRow;
 
+	private boolean currentRowBlank;
+
+	private RowSetMetaData snapshotMetaData;
+
 	DefaultRowSet(Sheet sheet, RowSetMetaData metaData) {
+		this.sheet = sheet;
 		this.sheetData = sheet.iterator();
+		this.rowBufferReused = sheet.isRowBufferReused();
 		this.metaData = metaData;
 	}
 
@@ -52,11 +71,36 @@ public class DefaultRowSet implements RowSet {
 	public boolean next() {
 		this.currentRow = null;
 		this.currentRowIndex++;
-		if (this.sheetData.hasNext()) {
-			this.currentRow = this.sheetData.next();
+		this.currentTypedRow = this.sheet.nextTypedRow(this.sheetData);
+		return this.currentTypedRow != null;
+	}
+
+	@Override
+	public boolean skip() {
+		this.currentRow = null;
+		this.currentTypedRow = null;
+		this.currentRowIndex++;
+		Sheet.SkippedRow skipped = this.sheet.skipRow(this.sheetData);
+		this.currentRowBlank = skipped == Sheet.SkippedRow.BLANK;
+		return skipped != Sheet.SkippedRow.NONE;
+	}
+
+	@Override
+	public boolean skip(int count) {
+		if (count <= 0) {
 			return true;
 		}
-		return false;
+		this.currentRow = null;
+		this.currentTypedRow = null;
+		this.currentRowBlank = false;
+		int skipped = this.sheet.skipRows(this.sheetData, count);
+		this.currentRowIndex += skipped;
+		return skipped == count;
+	}
+
+	@Override
+	public boolean isCurrentRowBlank() {
+		return (this.currentTypedRow != null) ? this.currentTypedRow.isBlank() : this.currentRowBlank;
 	}
 
 	@Override
@@ -66,19 +110,86 @@ public class DefaultRowSet implements RowSet {
 
 	@Override
 	public String[] getCurrentRow() {
+		if (this.currentRow == null && this.currentTypedRow != null) {
+			this.currentRow = this.currentTypedRow.getStrings();
+		}
 		return this.currentRow;
 	}
 
+	@Override
+	public String[] copyCurrentRow() {
+		String[] row = getCurrentRow();
+		if (this.rowBufferReused && row != null) {
+			return Arrays.copyOf(row, row.length);
+		}
+		return row;
+	}
+
+	@Override
+	public CellType getCellType(int column) {
+		return getCurrentTypedRow().getCellType(column);
+	}
+
+	@Override
+	public String getRawString(int column) {
+		return getCurrentTypedRow().getRawString(column);
+	}
+
+	@Override
+	public String getString(int column) {
+		return getCurrentTypedRow().getString(column);
+	}
+
+	@Override
+	public double getDouble(int column) {
+		return getCurrentTypedRow().getDouble(column);
+	}
+
+	@Override
+	public boolean getBoolean(int column) {
+		return getCurrentTypedRow().getBoolean(column);
+	}
+
+	@Override
+	public LocalDateTime getLocalDateTime(int column) {
+		return getCurrentTypedRow().getLocalDateTime(column);
+	}
+
+	@Override
+	public int nextNonBlankColumn(int column) {
+		return getCurrentTypedRow().nextNonBlankColumn(column);
+	}
+
+	@Override
+	public RowSet snapshot() {
+		if (this.snapshotMetaData == null) {
+			this.snapshotMetaData = RowSetSnapshot.copyOf(this.metaData);
+		}
+		return new RowSetSnapshot(this.snapshotMetaData, this.currentRowIndex,
+				TypedRow.copyOf(getCurrentTypedRow()));
+	}
+
+	private TypedRow getCurrentTypedRow() {
+		if (this.currentTypedRow == null) {
+			throw new IllegalStateException("No current row, the row has been skipped or there are no more rows.");
+		}
+		return this.currentTypedRow;
+	}
+
 	@Override
 	public Properties getProperties() {
-		final String[] names = this.metaData.getColumnNames();
+		return getProperties(this.metaData, getCurrentRow());
+	}
+
+	static Properties getProperties(RowSetMetaData metaData, String[] row) {
+		final String[] names = metaData.getColumnNames();
 		if (names == null) {
 			throw new IllegalStateException("Cannot create properties without meta data");
 		}
 
 		Properties props = new Properties();
-		for (int i = 0; i < this.currentRow.length; i++) {
-			String value = this.currentRow[i];
+		for (int i = 0; i < row.length; i++) {
+			String value = row[i];
 			if (value != null) {
 				props.setProperty(names[i], value);
 			}
@@ -22,7 +22,9 @@ import org.springframework.batch.extensions.excel.Sheet;
  * Default implementation for the {@code RowSetMetaData} interface.
  *
  * Requires a {@code Sheet} and {@code ColumnNameExtractor} to operate correctly.
- * Delegates the retrieval of the column names to the {@code ColumnNameExtractor}.
+ * Delegates the retrieval of the column names to the {@code ColumnNameExtractor}. When
+ * the {@code Sheet} has a column projection, only the names of the projected columns are
+ * returned.
  *
  * @author Marten Deinum
  * @since 0.1.0
@@ -35,6 +37,10 @@ public class DefaultRowSetMetaData implements RowSetMetaData {
 
 	private String[] columnNames;
 
+	private int[] projection;
+
+	private String[] projectedColumnNames;
+
 	DefaultRowSetMetaData(Sheet sheet, ColumnNameExtractor columnNameExtractor) {
 		this.sheet = sheet;
 		this.columnNameExtractor = columnNameExtractor;
@@ -45,7 +51,20 @@ public class DefaultRowSetMetaData implements RowSetMetaData {
 		if (this.columnNames == null) {
 			this.columnNames = this.columnNameExtractor.getColumnNames(this.sheet);
 		}
-		return this.columnNames;
+		int[] projection = this.sheet.getColumnProjection();
+		if (projection == null || this.columnNames == null) {
+			return this.columnNames;
+		}
+		if (projection != this.projection) {
+			String[] projectedColumnNames = new String[projection.length];
+			for (int i = 0; i < projection.length; i++) {
+				projectedColumnNames[i] = (projection[i] < this.columnNames.length)
+						? this.columnNames[projection[i]] : null;
+			}
+			this.projection = projection;
+			this.projectedColumnNames = projectedColumnNames;
+		}
+		return this.projectedColumnNames;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2021 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,15 @@
 
 package org.springframework.batch.extensions.excel.support.rowset;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Properties;
 
+import org.apache.poi.ss.usermodel.CellType;
+
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.lang.Nullable;
+
 /**
  * Used by the {@code org.springframework.batch.item.excel.AbstractExcelItemReader} to
  * abstract away the complexities of the underlying Excel API implementations.
@@ -40,6 +47,55 @@ public interface RowSet {
 	 */
 	boolean next();
 
+	/**
+	 * Move to the next row in the document, without converting the row into a
+	 * {@code String[]} when the underlying {@code Sheet} supports it. After skipping a row
+	 * {@link #getCurrentRow()} can return {@code null}, use {@link #isCurrentRowBlank()}
+	 * to determine if the row has content. The default implementation uses
+	 * {@link #next()}.
+	 * @return {@code true} if the row is valid, {@code false} if there are no more rows
+	 * @see org.springframework.batch.extensions.excel.Sheet#skipRow(java.util.Iterator)
+	 */
+	default boolean skip() {
+		return next();
+	}
+
+	/**
+	 * Move the given number of rows forward, without converting the rows into
+	 * {@code String[]}s when the underlying {@code Sheet} supports it. Afterwards the
+	 * current row is the last row skipped. The default implementation uses
+	 * {@link #skip()} for each row.
+	 * @param count the number of rows to skip
+	 * @return {@code true} if the rows have been skipped, {@code false} if there are no
+	 * more rows
+	 * @see org.springframework.batch.extensions.excel.Sheet#skipRows(java.util.Iterator,
+	 * int)
+	 */
+	default boolean skip(int count) {
+		for (int i = 0; i < count; i++) {
+			if (!skip()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determine if the current row is blank, i.e. none of the cells have content.
+	 * @return {@code true} if the current row is blank
+	 */
+	default boolean isCurrentRowBlank() {
+		String[] row = getCurrentRow();
+		if (row != null) {
+			for (String value : row) {
+				if (!value.isEmpty()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns the current row number.
 	 * @return the current row number
@@ -52,6 +108,114 @@ public interface RowSet {
 	 */
 	String[] getCurrentRow();
 
+	/**
+	 * Return the current row as a {@code String[]} which stays valid after a call to
+	 * {@link #next()}. Use this instead of {@link #getCurrentRow()} when the row needs to be
+	 * kept and the underlying {@code Sheet} reuses its row buffer.
+	 * @return a copy of the current row, or the current row itself if it isn't reused
+	 * @see org.springframework.batch.extensions.excel.Sheet#isRowBufferReused()
+	 */
+	default String[] copyCurrentRow() {
+		String[] row = getCurrentRow();
+		return (row != null) ? Arrays.copyOf(row, row.length) : null;
+	}
+
+	/**
+	 * Create a copy of the current row, with its meta data, which stays valid after a call
+	 * to {@link #next()} and can be handed over to other threads, e.g. to map rows in
+	 * parallel. The snapshot is positioned on the copied row and cannot be moved, its
+	 * {@link #next()} and {@link #skip()} return {@code false}. The default implementation
+	 * copies the formatted row, {@code RowSet} implementations with access to the raw
+	 * values keep the types and raw values of the cells as well.
+	 * @return a detached copy of the current row
+	 * @see TypedRow#copyOf(TypedRow)
+	 */
+	default RowSet snapshot() {
+		return new RowSetSnapshot(RowSetSnapshot.copyOf(getMetaData()), getCurrentRowIndex(),
+				TypedRow.of(copyCurrentRow()));
+	}
+
+	/**
+	 * The type of the value of a cell of the current row, see
+	 * {@link TypedRow#getCellType(int)}. The default implementation only distinguishes
+	 * blank cells from {@code String} cells.
+	 * @param column the 0-based column index
+	 * @return the type of the value
+	 */
+	default CellType getCellType(int column) {
+		return TypedRow.of(getCurrentRow()).getCellType(column);
+	}
+
+	/**
+	 * The raw, unformatted, value of a cell of the current row, see
+	 * {@link TypedRow#getRawString(int)}. The default implementation returns the
+	 * formatted value.
+	 * @param column the 0-based column index
+	 * @return the raw value or {@code null} for a blank cell
+	 */
+	@Nullable
+	default String getRawString(int column) {
+		return TypedRow.of(getCurrentRow()).getRawString(column);
+	}
+
+	/**
+	 * The formatted value of a cell of the current row. Unlike {@link #getCurrentRow()}
+	 * only the requested cell is formatted.
+	 * @param column the 0-based column index
+	 * @return the formatted value, an empty {@code String} for a blank cell
+	 */
+	default String getString(int column) {
+		return TypedRow.of(getCurrentRow()).getString(column);
+	}
+
+	/**
+	 * The numeric value of a cell of the current row, without formatting and parsing it.
+	 * @param column the 0-based column index
+	 * @return the value, {@code 0} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a number
+	 * @see TypedRow#getDouble(int)
+	 */
+	default double getDouble(int column) {
+		return TypedRow.of(getCurrentRow()).getDouble(column);
+	}
+
+	/**
+	 * The boolean value of a cell of the current row.
+	 * @param column the 0-based column index
+	 * @return the value, {@code false} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a boolean
+	 * @see TypedRow#getBoolean(int)
+	 */
+	default boolean getBoolean(int column) {
+		return TypedRow.of(getCurrentRow()).getBoolean(column);
+	}
+
+	/**
+	 * The numeric value of a cell of the current row as a date, without formatting and
+	 * parsing it.
+	 * @param column the 0-based column index
+	 * @return the value, {@code null} for a blank cell
+	 * @throws IllegalStateException when the cell doesn't contain a number
+	 * @see TypedRow#getLocalDateTime(int)
+	 */
+	@Nullable
+	default LocalDateTime getLocalDateTime(int column) {
+		return TypedRow.of(getCurrentRow()).getLocalDateTime(column);
+	}
+
+	/**
+	 * The index of the first column of the current row, at or after the given column,
+	 * with a cell which has a value, see {@link TypedRow#nextNonBlankColumn(int)}. Use
+	 * this to visit only the cells with a value of wide, mostly empty, rows instead of
+	 * {@link #getCurrentRow()}.
+	 * @param column the 0-based column index to start at
+	 * @return the 0-based column index or {@code -1} if there are no more cells with a
+	 * value
+	 */
+	default int nextNonBlankColumn(int column) {
+		return TypedRow.of(getCurrentRow()).nextNonBlankColumn(column);
+	}
+
 	/**
 	 * Construct name-value pairs from the column names and string values. {@code null}
 	 * values are omitted.
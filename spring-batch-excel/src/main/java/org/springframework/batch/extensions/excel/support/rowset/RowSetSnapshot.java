@@ -0,0 +1,179 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.support.rowset;
+
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code RowSet} holding a copy of a single row, created by {@link RowSet#snapshot()}.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+final class RowSetSnapshot implements RowSet {
+
+	private final RowSetMetaData metaData;
+
+	private final int rowIndex;
+
+	private final TypedRow row;
+
+	RowSetSnapshot(RowSetMetaData metaData, int rowIndex, TypedRow row) {
+		this.metaData = metaData;
+		this.rowIndex = rowIndex;
+		this.row = row;
+	}
+
+	/**
+	 * Copy the column names and the name of the sheet, which can't be retrieved from the
+	 * {@code Sheet} on other threads. When the column names cannot be determined, the
+	 * failure is reported when the column names of the copy are requested.
+	 * @param metaData the meta data to copy
+	 * @return the copy of the meta data
+	 */
+	static RowSetMetaData copyOf(RowSetMetaData metaData) {
+		String sheetName = metaData.getSheetName();
+		try {
+			return new MetaDataSnapshot(metaData.getColumnNames(), sheetName, null);
+		}
+		catch (RuntimeException ex) {
+			return new MetaDataSnapshot(null, sheetName, ex);
+		}
+	}
+
+	@Override
+	public RowSetMetaData getMetaData() {
+		return this.metaData;
+	}
+
+	@Override
+	public boolean next() {
+		return false;
+	}
+
+	@Override
+	public boolean skip() {
+		return false;
+	}
+
+	@Override
+	public boolean isCurrentRowBlank() {
+		return this.row.isBlank();
+	}
+
+	@Override
+	public int getCurrentRowIndex() {
+		return this.rowIndex;
+	}
+
+	@Override
+	public String[] getCurrentRow() {
+		return this.row.getStrings();
+	}
+
+	@Override
+	public String[] copyCurrentRow() {
+		return getCurrentRow();
+	}
+
+	@Override
+	public RowSet snapshot() {
+		return this;
+	}
+
+	@Override
+	public CellType getCellType(int column) {
+		return this.row.getCellType(column);
+	}
+
+	@Override
+	@Nullable
+	public String getRawString(int column) {
+		return this.row.getRawString(column);
+	}
+
+	@Override
+	public String getString(int column) {
+		return this.row.getString(column);
+	}
+
+	@Override
+	public double getDouble(int column) {
+		return this.row.getDouble(column);
+	}
+
+	@Override
+	public boolean getBoolean(int column) {
+		return this.row.getBoolean(column);
+	}
+
+	@Override
+	@Nullable
+	public LocalDateTime getLocalDateTime(int column) {
+		return this.row.getLocalDateTime(column);
+	}
+
+	@Override
+	public int nextNonBlankColumn(int column) {
+		return this.row.nextNonBlankColumn(column);
+	}
+
+	@Override
+	public Properties getProperties() {
+		return DefaultRowSet.getProperties(this.metaData, getCurrentRow());
+	}
+
+	private static final class MetaDataSnapshot implements RowSetMetaData {
+
+		@Nullable
+		private final String[] columnNames;
+
+		private final String sheetName;
+
+		@Nullable
+		private final RuntimeException failure;
+
+		private MetaDataSnapshot(@Nullable String[] columnNames, String sheetName,
+				@Nullable RuntimeException failure) {
+			this.columnNames = columnNames;
+			this.sheetName = sheetName;
+			this.failure = failure;
+		}
+
+		@Override
+		public String[] getColumnNames() {
+			if (this.failure != null) {
+				throw new IllegalStateException("Cannot determine the column names of sheet " + this.sheetName + ".",
+						this.failure);
+			}
+			return this.columnNames;
+		}
+
+		@Override
+		public String getSheetName() {
+			return this.sheetName;
+		}
+
+	}
+
+}
@@ -16,8 +16,11 @@
 
 package org.springframework.batch.extensions.excel;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -30,8 +33,13 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory;
+import org.springframework.batch.extensions.excel.support.rowset.StaticColumnNameExtractor;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.core.io.DefaultResourceLoader;
 
@@ -75,6 +83,16 @@ public abstract class AbstractExcelItemReaderTests {
 	}
 
 
+	/**
+	 * The resource of one of the test workbooks in the format read by the reader under
+	 * test.
+	 * @param workbook the name of the workbook without extension
+	 * @return the resource location
+	 */
+	protected String resource(String workbook) {
+		return "classpath:/" + workbook + ".xlsx";
+	}
+
 	@AfterEach
 	public void after() {
 		this.itemReader.close();
@@ -101,6 +119,229 @@ public abstract class AbstractExcelItemReaderTests {
 	}
 
 
+	@ParameterizedTest
+	@ValueSource(strings = { "player", "player_with_blank_lines" })
+	public void restartShouldContinueWithNextItem(String workbook) throws Exception {
+		configureAndOpenItemReader(resource(workbook), NOOP);
+		List<String[]> all = new ArrayList<>();
+		String[] row;
+		while ((row = this.itemReader.read()) != null) {
+			all.add(row);
+		}
+		this.itemReader.close();
+
+		for (int offset : new int[] { 1, 500, all.size() - 1, all.size() }) {
+			ExecutionContext executionContext = new ExecutionContext();
+			this.itemReader.open(executionContext);
+			for (int i = 0; i < offset; i++) {
+				this.itemReader.read();
+			}
+			this.itemReader.update(executionContext);
+			this.itemReader.close();
+
+			this.itemReader.open(executionContext);
+			List<String[]> remaining = new ArrayList<>();
+			while ((row = this.itemReader.read()) != null) {
+				remaining.add(row);
+			}
+			this.itemReader.close();
+			assertThat(remaining).as("Items after restart at %d", offset)
+				.containsExactlyElementsOf(all.subList(offset, all.size()));
+		}
+	}
+
+	@Test
+	public void readSelectedSheetByName() throws Exception {
+		configureAndOpenItemReader(resource("player_with_blank_lines"), (reader) -> {
+			reader.setSheetSelector(SheetSelector.names("Blad2"));
+			reader.setRowMapper((rs) -> new String[] { rs.getMetaData().getSheetName(), rs.getCurrentRow()[4] });
+		});
+		assertThat(this.itemReader.read()).containsExactly("Blad2", "1973");
+		assertThat(this.itemReader.read()).isNull();
+	}
+
+	@Test
+	public void readSelectedSheetByIndexAndPattern() throws Exception {
+		configureAndOpenItemReader(resource("player_with_blank_lines"), (reader) -> {
+			reader.setSheetSelector(SheetSelector.indexes(1, 2));
+			reader.setRowMapper((rs) -> new String[] { rs.getMetaData().getSheetName() });
+		});
+		assertThat(this.itemReader.read()).containsExactly("Blad2");
+		assertThat(this.itemReader.read()).isNull();
+		this.itemReader.close();
+
+		configureAndOpenItemReader(resource("player_with_blank_lines"), (reader) -> {
+			reader.setSheetSelector(SheetSelector.pattern("Blad[23]"));
+			reader.setRowMapper(new PassThroughRowMapper());
+		});
+		assertThat(this.itemReader.read()).hasSize(6);
+		assertThat(this.itemReader.read()).isNull();
+	}
+
+	@Test
+	public void readProjectedColumns() throws Exception {
+		List<String[]> all = readAll(NOOP);
+		List<String[]> projected = readAll((reader) -> reader.setProjectedColumns(4, 0));
+
+		assertThat(projected).hasSameSizeAs(all);
+		for (int i = 0; i < all.size(); i++) {
+			assertThat(projected.get(i)).containsExactly(all.get(i)[4], all.get(i)[0]);
+		}
+	}
+
+	@Test
+	public void readProjectedColumnNames() throws Exception {
+		List<String[]> all = readAll(NOOP);
+		List<String[]> projected = readAll((reader) -> {
+			DefaultRowSetFactory rowSetFactory = new DefaultRowSetFactory();
+			rowSetFactory.setColumnNameExtractor(new StaticColumnNameExtractor(
+					new String[] { "id", "position", "lastName", "firstName", "birthYear", "debutYear" }));
+			reader.setRowSetFactory(rowSetFactory);
+			reader.setProjectedColumnNames("birthYear", "id");
+			reader.setRowMapper((rs) -> {
+				assertThat(rs.getMetaData().getColumnNames()).containsExactly("birthYear", "id");
+				return rs.getCurrentRow();
+			});
+		});
+
+		assertThat(projected).hasSameSizeAs(all);
+		for (int i = 0; i < all.size(); i++) {
+			assertThat(projected.get(i)).containsExactly(all.get(i)[4], all.get(i)[0]);
+		}
+	}
+
+	@Test
+	public void readProjectedColumnNamesFromHeaderRow() throws Exception {
+		List<String[]> all = readAll(NOOP);
+		List<String[]> projected = readAll((reader) -> {
+			reader.setProjectedColumnNames("birthYear", "id");
+			reader.setRowMapper((rs) -> {
+				assertThat(rs.getMetaData().getColumnNames()).containsExactly("birthYear", "id");
+				return rs.getCurrentRow();
+			});
+		});
+
+		assertThat(projected).hasSameSizeAs(all);
+		for (int i = 0; i < all.size(); i++) {
+			assertThat(projected.get(i)).containsExactly(all.get(i)[4], all.get(i)[0]);
+		}
+	}
+
+	@Test
+	public void readPropertiesNamedByHeaderRow() throws Exception {
+		List<String[]> all = readAll(NOOP);
+		List<String[]> mapped = readAll((reader) -> reader.setRowMapper((rs) -> {
+			assertThat(rs.getMetaData().getColumnNames()).startsWith("id", "lastName", "firstName");
+			return new String[] { rs.getProperties().getProperty("id"), rs.getProperties().getProperty("lastName") };
+		}));
+
+		assertThat(mapped).hasSameSizeAs(all);
+		for (int i = 0; i < all.size(); i++) {
+			assertThat(mapped.get(i)).containsExactly(all.get(i)[0], all.get(i)[1]);
+		}
+	}
+
+	@Test
+	public void unknownProjectedColumnNameShouldFail() {
+		assertThatThrownBy(() -> readAll((reader) -> {
+			DefaultRowSetFactory rowSetFactory = new DefaultRowSetFactory();
+			rowSetFactory.setColumnNameExtractor(new StaticColumnNameExtractor(new String[] { "id" }));
+			reader.setRowSetFactory(rowSetFactory);
+			reader.setProjectedColumnNames("unknown");
+		})).isInstanceOf(IllegalStateException.class).hasMessageContaining("'unknown'");
+	}
+
+	@Test
+	public void readWithRowFilter() throws Exception {
+		List<String[]> all = readAll(NOOP);
+		String birthYear = all.get(all.size() / 2)[4];
+		List<String[]> expected = all.stream().filter((row) -> row[4].compareTo(birthYear) < 0).toList();
+
+		List<String[]> filtered = readAll((reader) -> reader.setRowFilter((rs) -> rs.getString(4).compareTo(birthYear) < 0));
+
+		assertThat(filtered).containsExactlyElementsOf(expected);
+		assertThat(this.itemReader.getFilteredCount()).isEqualTo(all.size() - expected.size());
+
+		StepExecution stepExecution = new StepExecution("step", new JobExecution(1L));
+		stepExecution.setFilterCount(1);
+		this.itemReader.afterStep(stepExecution);
+		assertThat(stepExecution.getFilterCount()).isEqualTo(1 + all.size() - expected.size());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	public void restartWithRowFilterShouldContinueWithNextItem(boolean checkpoint) throws Exception {
+		List<String[]> all = readAll(NOOP);
+		String birthYear = all.get(all.size() / 2)[4];
+		List<String[]> expected = all.stream().filter((row) -> row[4].compareTo(birthYear) < 0).toList();
+		this.itemReader.setRowFilter((rs) -> rs.getString(4).compareTo(birthYear) < 0);
+
+		ExecutionContext executionContext = new ExecutionContext();
+		this.itemReader.open(executionContext);
+		for (int i = 0; i < 10; i++) {
+			this.itemReader.read();
+		}
+		this.itemReader.update(executionContext);
+		this.itemReader.close();
+		int filteredCount = this.itemReader.getFilteredCount();
+		assertThat(executionContext.getInt(this.itemReader.getClass().getSimpleName() + ".filtered.count"))
+			.isEqualTo(filteredCount);
+		if (!checkpoint) {
+			// Restart based on the item count only
+			executionContext.entrySet()
+				.stream()
+				.map(Map.Entry::getKey)
+				.filter((key) -> key.contains(".current."))
+				.toList()
+				.forEach(executionContext::remove);
+		}
+
+		this.itemReader.open(executionContext);
+		List<String[]> remaining = new ArrayList<>();
+		String[] row;
+		while ((row = this.itemReader.read()) != null) {
+			remaining.add(row);
+		}
+		this.itemReader.close();
+
+		assertThat(remaining).containsExactlyElementsOf(expected.subList(10, expected.size()));
+		assertThat(this.itemReader.getFilteredCount()).isEqualTo(all.size() - expected.size());
+		StepExecution stepExecution = new StepExecution("step", new JobExecution(1L));
+		this.itemReader.afterStep(stepExecution);
+		assertThat(stepExecution.getFilterCount()).isEqualTo(all.size() - expected.size() - filteredCount);
+	}
+
+	@Test
+	public void nextNonBlankColumnShouldVisitCellsWithValue() throws Exception {
+		List<String[]> rows = readAll((reader) -> reader.setRowMapper((rs) -> {
+			String[] row = rs.getCurrentRow();
+			List<String> expected = new ArrayList<>();
+			for (int i = 0; i < row.length; i++) {
+				if (!row[i].isEmpty()) {
+					expected.add(i + "=" + row[i]);
+				}
+			}
+			List<String> visited = new ArrayList<>();
+			for (int col = rs.nextNonBlankColumn(0); col != -1; col = rs.nextNonBlankColumn(col + 1)) {
+				visited.add(col + "=" + rs.getString(col));
+			}
+			assertThat(visited).containsExactlyElementsOf(expected);
+			return row;
+		}));
+		assertThat(rows).isNotEmpty();
+	}
+
+	private List<String[]> readAll(Consumer<AbstractExcelItemReader<String[]>> configurer) throws Exception {
+		configureAndOpenItemReader(resource("player"), configurer);
+		List<String[]> rows = new ArrayList<>();
+		String[] row;
+		while ((row = this.itemReader.read()) != null) {
+			rows.add(row);
+		}
+		this.itemReader.close();
+		return rows;
+	}
+
 	@Test
 	public void testRequiredProperties() {
 		assertThatThrownBy(() -> {
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.extensions.excel.poi.PoiItemReader;
+import org.springframework.batch.extensions.excel.streaming.StreamingXlsxItemReader;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ByteArrayResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class CellValueFormatterTests {
+
+	private final DataFormatter dataFormatter = new DataFormatter(Locale.US);
+
+	@Test
+	void shouldRememberFormattedValuePerStyle() {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter, 64);
+
+		assertThat(formatter.formatRawCellContents(45424.0, 1, 14, "m/d/yy", false)).isEqualTo("5/12/24");
+		assertThat(formatter.formatRawCellContents(45424.0, 1, 14, "m/d/yy", false)).isEqualTo("5/12/24");
+		assertThat(formatter.formatRawCellContents(45424.0, 2, 2, "0.00", false)).isEqualTo("45424.00");
+		assertThat(formatter.formatRawCellContents(45424.0, 2, 2, "0.00", false)).isEqualTo("45424.00");
+
+		assertThat(formatter.getHitCount()).isEqualTo(2);
+		assertThat(formatter.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldFormatLikeDataFormatterWhenValuesReplaceEachOther() {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter, 1);
+
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < 100; i++) {
+				double value = i * 1.5;
+				assertThat(formatter.formatRawCellContents(value, i % 3, 2, "0.00", false))
+					.isEqualTo(this.dataFormatter.formatRawCellContents(value, 2, "0.00"));
+			}
+		}
+		assertThat(formatter.getHitCount() + formatter.getMissCount()).isEqualTo(200);
+		assertThat(formatter.getMissCount()).isGreaterThan(100);
+	}
+
+	@Test
+	void shouldNotCountWhenCacheIsDisabled() {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter);
+
+		assertThat(formatter.formatRawCellContents(1.5, 0, 0, "General", false)).isEqualTo("1.5");
+		assertThat(formatter.formatRawCellContents(1.5, 0, 0, "General", false)).isEqualTo("1.5");
+
+		assertThat(formatter.getHitCount()).isZero();
+		assertThat(formatter.getMissCount()).isZero();
+	}
+
+	@Test
+	void shouldForgetFormattedValuesWhenCleared() {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter, 16);
+		formatter.formatRawCellContents(1.5, 0, 0, "General", false);
+
+		formatter.clear();
+
+		assertThat(formatter.formatRawCellContents(1.5, 0, 2, "0.00", false)).isEqualTo("1.50");
+		assertThat(formatter.getHitCount()).isZero();
+		assertThat(formatter.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldStopRememberingValuesOfStyleWithManyDistinctValues() {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter, 4096);
+		for (int i = 0; i < 2048; i++) {
+			formatter.formatRawCellContents(i, 1, 2, "0.00", false);
+			formatter.formatRawCellContents(i % 8, 2, 2, "0.00", false);
+		}
+		long hits = formatter.getHitCount();
+
+		// the style with distinct values is no longer remembered, even for known values
+		assertThat(formatter.formatRawCellContents(2047, 1, 2, "0.00", false)).isEqualTo("2047.00");
+		assertThat(formatter.formatRawCellContents(7, 2, 2, "0.00", false)).isEqualTo("7.00");
+		assertThat(formatter.getHitCount()).isEqualTo(hits + 1);
+		assertThat(hits).isGreaterThan(2000);
+	}
+
+	@Test
+	void shouldRejectNegativeCacheSize() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CellValueFormatter(this.dataFormatter, -1));
+	}
+
+	@Test
+	void shouldRememberFormattedValueOfNumericCells() throws Exception {
+		CellValueFormatter formatter = new CellValueFormatter(this.dataFormatter, 16);
+		try (Workbook workbook = new XSSFWorkbook()) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat((short) 14);
+			Row row = workbook.createSheet().createRow(0);
+			Cell date = row.createCell(0);
+			date.setCellValue(45424.0);
+			date.setCellStyle(dateStyle);
+			Cell number = row.createCell(1);
+			number.setCellValue(45424.0);
+			Cell text = row.createCell(2);
+			text.setCellValue("text");
+
+			for (int i = 0; i < 2; i++) {
+				assertThat(formatter.formatCellValue(date)).isEqualTo("5/12/24");
+				assertThat(formatter.formatCellValue(number)).isEqualTo("45424");
+				assertThat(formatter.formatCellValue(text)).isEqualTo("text");
+			}
+			assertThat(formatter.formatCellValue(null)).isEmpty();
+		}
+		assertThat(formatter.getHitCount()).isEqualTo(2);
+		assertThat(formatter.getMissCount()).isEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@MethodSource("readers")
+	void shouldReadSameRowsWithFormatCache(Supplier<AbstractExcelItemReader<String[]>> readers) throws Exception {
+		byte[] workbook = createWorkbook();
+
+		AbstractExcelItemReader<String[]> uncached = readers.get();
+		List<String[]> expected = readAll(uncached, workbook);
+		AbstractExcelItemReader<String[]> cached = readers.get();
+		cached.setFormatCacheSize(256);
+		List<String[]> rows = readAll(cached, workbook);
+
+		assertThat(rows).hasSize(500).containsExactlyElementsOf(expected);
+		assertThat(expected.get(0)).containsExactly("1/1/24", "1000.00", "row 0");
+		assertThat(uncached.getFormatCacheHitCount()).isZero();
+		assertThat(uncached.getFormatCacheMissCount()).isZero();
+		// 7 dates and 10 codes are formatted at least once, text cells aren't counted
+		assertThat(cached.getFormatCacheHitCount() + cached.getFormatCacheMissCount()).isEqualTo(2 * 500);
+		assertThat(cached.getFormatCacheMissCount()).isBetween(17L, 50L);
+	}
+
+	static Stream<Arguments> readers() {
+		Supplier<AbstractExcelItemReader<String[]>> poi = PoiItemReader::new;
+		Supplier<AbstractExcelItemReader<String[]>> streaming = StreamingXlsxItemReader::new;
+		return Stream.of(Arguments.of(poi), Arguments.of(streaming));
+	}
+
+	private static List<String[]> readAll(AbstractExcelItemReader<String[]> reader, byte[] workbook)
+			throws Exception {
+		reader.setResource(new ByteArrayResource(workbook));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		List<String[]> rows = new ArrayList<>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+	private static byte[] createWorkbook() throws Exception {
+		try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat((short) 14);
+			CellStyle codeStyle = workbook.createCellStyle();
+			codeStyle.setDataFormat((short) 2);
+			org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("data");
+			for (int i = 0; i < 500; i++) {
+				Row row = sheet.createRow(i);
+				Cell date = row.createCell(0);
+				date.setCellValue(45292.0 + (i % 7));
+				date.setCellStyle(dateStyle);
+				Cell code = row.createCell(1);
+				code.setCellValue(1000 + (i % 10));
+				code.setCellStyle(codeStyle);
+				row.createCell(2).setCellValue("row " + i);
+			}
+			workbook.write(out);
+			return out.toByteArray();
+		}
+	}
+
+}
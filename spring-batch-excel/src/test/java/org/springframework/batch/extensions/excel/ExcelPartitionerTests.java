@@ -0,0 +1,133 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.extensions.excel.poi.PoiItemReader;
+import org.springframework.batch.extensions.excel.streaming.StreamingXlsxItemReader;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExcelPartitioner}, reading all the partitions should result in the
+ * same rows as reading the workbook in one go.
+ *
+ * @author Marten Deinum
+ */
+class ExcelPartitionerTests {
+
+	static Stream<Arguments> readers() {
+		Supplier<AbstractExcelItemReader<String[]>> poi = PoiItemReader::new;
+		Supplier<AbstractExcelItemReader<String[]>> streaming = StreamingXlsxItemReader::new;
+		return Stream.of(Arguments.of(poi), Arguments.of(streaming));
+	}
+
+	@ParameterizedTest
+	@MethodSource("readers")
+	void shouldCreatePartitionPerSheet(Supplier<AbstractExcelItemReader<String[]>> readers) throws Exception {
+		ExcelPartitioner partitioner = createPartitioner(readers.get(), 0);
+
+		Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+		assertThat(partitions).hasSize(3);
+		assertThat(partitions.values()).extracting((ctx) -> ctx.getString(ExcelPartitioner.SHEET_NAME_KEY))
+			.containsExactly("Blad1", "Blad2", "Blad3");
+		assertThat(partitions.values()).extracting((ctx) -> ctx.getInt(ExcelPartitioner.END_ROW_KEY))
+			.containsOnly(-1);
+		assertThat(readPartitions(readers, partitions)).containsExactlyElementsOf(read(readers.get()));
+	}
+
+	@ParameterizedTest
+	@MethodSource("readers")
+	void shouldSplitSheetsIntoRowRanges(Supplier<AbstractExcelItemReader<String[]>> readers) throws Exception {
+		ExcelPartitioner partitioner = createPartitioner(readers.get(), 500);
+
+		Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+		assertThat(partitions).hasSizeGreaterThan(3);
+		List<String[]> all = read(readers.get());
+		assertThat(all).hasSize(4320);
+		assertThat(readPartitions(readers, partitions)).containsExactlyElementsOf(all);
+	}
+
+	@ParameterizedTest
+	@MethodSource("readers")
+	void shouldOnlyPartitionSelectedSheets(Supplier<AbstractExcelItemReader<String[]>> readers) throws Exception {
+		AbstractExcelItemReader<String[]> reader = readers.get();
+		reader.setSheetSelector(SheetSelector.names("Blad2"));
+		ExcelPartitioner partitioner = createPartitioner(reader, 0);
+
+		Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+		assertThat(partitions).hasSize(1);
+		assertThat(partitions.values().iterator().next().getInt(ExcelPartitioner.SHEET_INDEX_KEY)).isEqualTo(1);
+	}
+
+	private static ExcelPartitioner createPartitioner(AbstractExcelItemReader<String[]> reader, int rowsPerPartition) {
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		ExcelPartitioner partitioner = new ExcelPartitioner();
+		partitioner.setItemReader(reader);
+		partitioner.setRowsPerPartition(rowsPerPartition);
+		partitioner.afterPropertiesSet();
+		return partitioner;
+	}
+
+	private static List<String[]> readPartitions(Supplier<AbstractExcelItemReader<String[]>> readers,
+			Map<String, ExecutionContext> partitions) throws Exception {
+		List<String[]> rows = new ArrayList<>();
+		for (ExecutionContext partition : partitions.values()) {
+			AbstractExcelItemReader<String[]> reader = readers.get();
+			reader.setSheetIndex(partition.getInt(ExcelPartitioner.SHEET_INDEX_KEY));
+			reader.setStartRow(partition.getInt(ExcelPartitioner.START_ROW_KEY));
+			reader.setEndRow(partition.getInt(ExcelPartitioner.END_ROW_KEY));
+			rows.addAll(read(reader));
+		}
+		return rows;
+	}
+
+	private static List<String[]> read(AbstractExcelItemReader<String[]> reader) throws Exception {
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		reader.setLinesToSkip(1);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		try {
+			List<String[]> rows = new ArrayList<>();
+			String[] row;
+			while ((row = reader.read()) != null) {
+				rows.add(row);
+			}
+			return rows;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+}
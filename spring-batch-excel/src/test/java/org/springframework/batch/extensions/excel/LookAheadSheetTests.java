@@ -0,0 +1,173 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class LookAheadSheetTests {
+
+	private final List<String[]> rows = List.of(new String[] { "id", "name" }, new String[] { "1", "one" },
+			new String[] { "", "" }, new String[] { "3", "three" });
+
+	@Test
+	void shouldReturnRowsReadAheadWhenReading() throws Exception {
+		try (Sheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			assertThat(sheet.getRow(1)).containsExactly("1", "one");
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+
+			Iterator<String[]> iterator = sheet.iterator();
+			assertThat(sheet.nextTypedRow(iterator).getStrings()).containsExactly("id", "name");
+			assertThat(sheet.nextTypedRow(iterator).getStrings()).containsExactly("1", "one");
+			assertThat(sheet.nextTypedRow(iterator).isBlank()).isTrue();
+			assertThat(sheet.nextTypedRow(iterator).getStrings()).containsExactly("3", "three");
+			assertThat(sheet.nextTypedRow(iterator)).isNull();
+		}
+	}
+
+	@Test
+	void shouldSkipRowsReadAheadBeforeOtherRows() throws Exception {
+		try (Sheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+
+			Iterator<String[]> iterator = sheet.iterator();
+			assertThat(sheet.skipRows(iterator, 2)).isEqualTo(2);
+			assertThat(sheet.skipRow(iterator)).isEqualTo(Sheet.SkippedRow.BLANK);
+			assertThat(iterator.next()).containsExactly("3", "three");
+			assertThat(iterator.hasNext()).isFalse();
+		}
+	}
+
+	@Test
+	void shouldProjectRowsReadAheadWhenProjectionIsSetLater() throws Exception {
+		try (Sheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+			sheet.setColumnProjection(new int[] { 1 });
+
+			Iterator<String[]> iterator = sheet.iterator();
+			TypedRow header = sheet.nextTypedRow(iterator);
+			assertThat(header.getNumberOfColumns()).isEqualTo(1);
+			assertThat(header.getStrings()).containsExactly("name");
+			assertThat(header.getString(0)).isEqualTo("name");
+		}
+	}
+
+	@Test
+	void shouldReturnNullForRowAfterLastRow() throws Exception {
+		try (Sheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			assertThat(sheet.getRow(10)).isNull();
+			assertThat(sheet.getRow(3)).containsExactly("3", "three");
+		}
+	}
+
+	@Test
+	void shouldFailForRowsNotReadAheadOnceRowsAfterRowsReadAheadAreRead() throws Exception {
+		try (Sheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+			Iterator<String[]> iterator = sheet.iterator();
+			sheet.nextTypedRow(iterator);
+			sheet.nextTypedRow(iterator);
+
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+			assertThat(sheet.getRow(0)).isNotSameAs(sheet.getRow(0));
+			assertThatIllegalStateException().isThrownBy(() -> sheet.getRow(3));
+		}
+	}
+
+	@Test
+	void shouldKeepRowsReadWhileRetaining() throws Exception {
+		try (LookAheadSheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			Iterator<String[]> iterator = sheet.iterator();
+			sheet.setRetaining(true);
+			assertThat(sheet.nextTypedRow(iterator).getStrings()).containsExactly("id", "name");
+			sheet.setRetaining(false);
+			assertThat(sheet.hasPendingRows()).isFalse();
+			assertThat(sheet.nextTypedRow(iterator).getStrings()).containsExactly("1", "one");
+
+			assertThat(sheet.getRow(0)).containsExactly("id", "name");
+			assertThatIllegalStateException().isThrownBy(() -> sheet.getRow(1));
+		}
+	}
+
+	@Test
+	void shouldNotKeepRowsReadWhenNotRetaining() throws Exception {
+		try (LookAheadSheet sheet = new LookAheadSheet(new ForwardOnlySheet(this.rows))) {
+			Iterator<String[]> iterator = sheet.iterator();
+			sheet.nextTypedRow(iterator);
+			sheet.setRetaining(true);
+			sheet.nextTypedRow(iterator);
+
+			assertThatIllegalStateException().isThrownBy(() -> sheet.getRow(0));
+		}
+	}
+
+	/**
+	 * {@code MockSheet} which, like the streaming sheets, can only be read once.
+	 */
+	private static final class ForwardOnlySheet extends MockSheet {
+
+		private final List<String[]> rows;
+
+		private boolean read;
+
+		private int[] columnProjection;
+
+		ForwardOnlySheet(List<String[]> rows) {
+			super("Sheet1", rows);
+			this.rows = new ArrayList<>(rows);
+		}
+
+		@Override
+		public String[] getRow(int rowNumber) {
+			throw new UnsupportedOperationException("Getting row by index not supported when streaming.");
+		}
+
+		@Override
+		public boolean isForwardOnly() {
+			return true;
+		}
+
+		@Override
+		public void setColumnProjection(int[] columns) {
+			this.columnProjection = columns;
+		}
+
+		@Override
+		public int[] getColumnProjection() {
+			return this.columnProjection;
+		}
+
+		@Override
+		public Iterator<String[]> iterator() {
+			assertThat(this.read).isFalse();
+			this.read = true;
+			return this.rows.iterator();
+		}
+
+	}
+
+}
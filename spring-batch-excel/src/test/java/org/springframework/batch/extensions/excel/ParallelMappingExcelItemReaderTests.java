@@ -0,0 +1,151 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.extensions.excel.streaming.StreamingXlsxItemReader;
+import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class ParallelMappingExcelItemReaderTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void shouldReturnItemsInRowOrder() throws Exception {
+		List<String> expected = readAll(createReader(this::slowMap), new ExecutionContext(), Integer.MAX_VALUE);
+
+		assertThat(expected).hasSizeGreaterThan(100);
+		assertThat(expected).containsExactlyElementsOf(readSequentially());
+	}
+
+	@Test
+	void shouldRestartAfterItemReturnedLast() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		ParallelMappingExcelItemReader<String> reader = createReader(this::slowMap);
+		List<String> items = readAll(reader, executionContext, 10);
+
+		assertThat(executionContext.getInt("StreamingXlsxItemReader.read.count")).isEqualTo(10);
+		assertThat(executionContext.containsKey("StreamingXlsxItemReader.current.sheet")).isFalse();
+		assertThat(executionContext.containsKey("StreamingXlsxItemReader.current.row.offset")).isFalse();
+
+		items.addAll(readAll(createReader(this::slowMap), executionContext, Integer.MAX_VALUE));
+		assertThat(items).containsExactlyElementsOf(readSequentially());
+	}
+
+	@Test
+	void shouldReportFailureToMapRowInRowOrder() throws Exception {
+		ParallelMappingExcelItemReader<String> reader = createReader((rs) -> {
+			if (rs.getCurrentRowIndex() == 5) {
+				throw new IllegalArgumentException("Cannot map row 5");
+			}
+			return slowMap(rs);
+		});
+		reader.open(new ExecutionContext());
+		List<String> expected = readSequentially();
+		for (int i = 0; i < 5; i++) {
+			assertThat(reader.read()).isEqualTo(expected.get(i));
+		}
+
+		assertThatExceptionOfType(ExcelFileParseException.class).isThrownBy(reader::read)
+			.withCauseInstanceOf(IllegalArgumentException.class)
+			.satisfies((ex) -> {
+				assertThat(ex.getRowNumber()).isEqualTo(5);
+				assertThat(ex.getRow()).containsExactly(expected.get(5).split(","));
+			});
+		assertThat(reader.read()).isEqualTo(expected.get(6));
+		reader.close();
+	}
+
+	@Test
+	void shouldSkipRowsMappedToNull() throws Exception {
+		ParallelMappingExcelItemReader<String> reader = createReader(
+				(rs) -> (rs.getCurrentRowIndex() % 2 == 0) ? null : slowMap(rs));
+		List<String> items = readAll(reader, new ExecutionContext(), Integer.MAX_VALUE);
+
+		List<String> expected = readSequentially();
+		assertThat(items).hasSize(expected.size() / 2);
+		assertThat(items.get(0)).isEqualTo(expected.get(1));
+	}
+
+	private ParallelMappingExcelItemReader<String> createReader(RowMapper<String> rowMapper) {
+		StreamingXlsxItemReader<RowSet> delegate = new StreamingXlsxItemReader<>();
+		delegate.setResource(new ClassPathResource("player.xlsx"));
+		ParallelMappingExcelItemReader<String> reader = new ParallelMappingExcelItemReader<>(delegate, rowMapper);
+		reader.setTaskExecutor(new TaskExecutorAdapter(this.executor));
+		reader.setWindowSize(8);
+		reader.afterPropertiesSet();
+		return reader;
+	}
+
+	private String slowMap(RowSet rs) throws InterruptedException {
+		Thread.sleep(0, ThreadLocalRandom.current().nextInt(100_000));
+		return String.join(",", rs.getCurrentRow());
+	}
+
+	private static List<String> readAll(ParallelMappingExcelItemReader<String> reader,
+			ExecutionContext executionContext, int count) throws Exception {
+		reader.open(executionContext);
+		List<String> items = new ArrayList<>();
+		String item;
+		while (items.size() < count && (item = reader.read()) != null) {
+			items.add(item);
+		}
+		reader.update(executionContext);
+		reader.close();
+		return items;
+	}
+
+	private static List<String> readSequentially() throws Exception {
+		StreamingXlsxItemReader<String[]> reader = new StreamingXlsxItemReader<>();
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		List<String> items = new ArrayList<>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			items.add(String.join(",", row));
+		}
+		reader.close();
+		return items;
+	}
+
+}
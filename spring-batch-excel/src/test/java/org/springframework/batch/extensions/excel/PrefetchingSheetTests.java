@@ -0,0 +1,151 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class PrefetchingSheetTests {
+
+	private final AtomicInteger tasks = new AtomicInteger();
+
+	private final TaskExecutor taskExecutor = (task) -> {
+		this.tasks.incrementAndGet();
+		new SimpleAsyncTaskExecutor().execute(task);
+	};
+
+	@Test
+	void shouldReturnRowsInOrder() throws Exception {
+		List<String[]> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(new String[] { "row " + i, "", String.valueOf(i) });
+		}
+		try (Sheet sheet = new PrefetchingSheet(new MockSheet("Sheet1", rows), 4, this.taskExecutor)) {
+			Iterator<String[]> iterator = sheet.iterator();
+			for (int i = 0; i < 100; i++) {
+				TypedRow row = sheet.nextTypedRow(iterator);
+				assertThat(row.getStrings()).containsExactly("row " + i, "", String.valueOf(i));
+				assertThat(row.getCellType(0)).isEqualTo(CellType.STRING);
+				assertThat(row.isBlank()).isFalse();
+			}
+			assertThat(sheet.nextTypedRow(iterator)).isNull();
+			assertThat(sheet.nextTypedRow(iterator)).isNull();
+		}
+	}
+
+	@Test
+	void shouldSkipRowsOnThreadOfReaderUntilFirstRowIsRead() throws Exception {
+		List<String[]> rows = List.of(new String[] { "1" }, new String[] { "" }, new String[] { "3" });
+		try (Sheet sheet = new PrefetchingSheet(new MockSheet("Sheet1", rows), 4, this.taskExecutor)) {
+			Iterator<String[]> iterator = sheet.iterator();
+			assertThat(sheet.skipRow(iterator)).isEqualTo(Sheet.SkippedRow.CONTENT);
+			assertThat(this.tasks).hasValue(0);
+
+			assertThat(sheet.nextTypedRow(iterator).isBlank()).isTrue();
+			assertThat(this.tasks).hasValue(1);
+			assertThat(sheet.skipRow(iterator)).isEqualTo(Sheet.SkippedRow.CONTENT);
+			assertThat(sheet.skipRow(iterator)).isEqualTo(Sheet.SkippedRow.NONE);
+		}
+	}
+
+	@Test
+	void shouldRethrowExceptionOfSheet() throws Exception {
+		Sheet failing = new MockSheet("Sheet1", List.of()) {
+
+			@Override
+			public Iterator<String[]> iterator() {
+				return new Iterator<>() {
+
+					private int row;
+
+					@Override
+					public boolean hasNext() {
+						return true;
+					}
+
+					@Override
+					public String[] next() {
+						if (this.row++ == 2) {
+							throw new IllegalStateException("Cannot parse row 2.");
+						}
+						return new String[] { "row" };
+					}
+				};
+			}
+		};
+		try (Sheet sheet = new PrefetchingSheet(failing, 4, this.taskExecutor)) {
+			Iterator<String[]> iterator = sheet.iterator();
+			assertThat(sheet.nextTypedRow(iterator)).isNotNull();
+			assertThat(sheet.nextTypedRow(iterator)).isNotNull();
+			assertThatIllegalStateException().isThrownBy(() -> sheet.nextTypedRow(iterator))
+				.withMessage("Cannot parse row 2.");
+		}
+	}
+
+	@Test
+	@Timeout(value = 5, unit = TimeUnit.SECONDS)
+	void shouldStopReadingAheadWhenClosed() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		Sheet endless = new MockSheet("Sheet1", List.of()) {
+
+			@Override
+			public Iterator<String[]> iterator() {
+				return new Iterator<>() {
+
+					@Override
+					public boolean hasNext() {
+						return true;
+					}
+
+					@Override
+					public String[] next() {
+						return new String[] { "row" };
+					}
+				};
+			}
+
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+
+		Sheet sheet = new PrefetchingSheet(endless, 2, this.taskExecutor);
+		sheet.nextTypedRow(sheet.iterator());
+		sheet.close();
+		assertThat(closed).isTrue();
+	}
+
+}
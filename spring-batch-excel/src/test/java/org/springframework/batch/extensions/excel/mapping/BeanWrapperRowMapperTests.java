@@ -16,22 +16,30 @@
 
 package org.springframework.batch.extensions.excel.mapping;
 
+import java.beans.PropertyEditorSupport;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import org.springframework.batch.extensions.excel.MockSheet;
 import org.springframework.batch.extensions.excel.Player;
 import org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory;
 import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
+import org.springframework.validation.BindException;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Marten Deinum
@@ -106,6 +114,116 @@ class BeanWrapperRowMapperTests {
 
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldMapFuzzyColumnNamesToPlayer(boolean compiled) throws Exception {
+		BeanWrapperRowMapper<Player> mapper = createMapper(Player.class, compiled);
+		RowSet rs = rowSet(new String[] { "ID", "LAST_NAME", "firstname", "Position", "birth_year", "debutYear" },
+				new String[] { "AbduKa00", "Abdul-Jabbar", "Karim", "rb", "1974", "1996" },
+				new String[] { "AbduRa00", "Abdullah", "Rabih", "rb", "1975", "1999" });
+
+		Player first = mapper.mapRow(rs);
+		rs.next();
+		Player second = mapper.mapRow(rs);
+
+		assertThat(first).extracting(Player::getId, Player::getLastName, Player::getFirstName, Player::getPosition,
+				Player::getBirthYear, Player::getDebutYear)
+			.containsExactly("AbduKa00", "Abdul-Jabbar", "Karim", "rb", 1974L, 1996);
+		assertThat(second.getId()).isEqualTo("AbduRa00");
+		assertThat(second.getBirthYear()).isEqualTo(1975L);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldMapNestedProperties(boolean compiled) throws Exception {
+		BeanWrapperRowMapper<Order> mapper = createMapper(Order.class, compiled);
+		RowSet rs = rowSet(new String[] { "ORDER_ID", "CUSTOMER.NAME", "customer.id" },
+				new String[] { "42", "Karim", "7" }, new String[] { "43", "Rabih", "8" });
+
+		Order first = mapper.mapRow(rs);
+		rs.next();
+		Order second = mapper.mapRow(rs);
+
+		assertThat(first.getOrderId()).isEqualTo(42);
+		assertThat(first.getCustomer().getName()).isEqualTo("Karim");
+		assertThat(first.getCustomer().getId()).isEqualTo(7L);
+		assertThat(second.getCustomer()).isNotSameAs(first.getCustomer());
+		assertThat(second.getCustomer().getName()).isEqualTo("Rabih");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldMapIndexedProperties(boolean compiled) throws Exception {
+		BeanWrapperRowMapper<Order> mapper = createMapper(Order.class, compiled);
+		RowSet rs = rowSet(new String[] { "orderId", "tags[0]" }, new String[] { "42", "first" });
+
+		Order order = mapper.mapRow(rs);
+
+		assertThat(order.getOrderId()).isEqualTo(42);
+		assertThat(order.getTags()).containsExactly("first");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldReportConversionErrorsAsBindException(boolean compiled) {
+		BeanWrapperRowMapper<Player> mapper = createMapper(Player.class, compiled);
+		RowSet rs = rowSet(new String[] { "id", "birthYear", "debutYear" }, new String[] { "AbduKa00", "x", "" });
+
+		Assertions.assertThatExceptionOfType(BindException.class)
+			.isThrownBy(() -> mapper.mapRow(rs))
+			.satisfies((ex) -> {
+				assertThat(ex.getFieldErrorCount()).isEqualTo(2);
+				assertThat(ex.getFieldError("birthYear").getCode()).isEqualTo("typeMismatch");
+				assertThat(ex.getFieldError("birthYear").getRejectedValue()).isEqualTo("x");
+				assertThat(ex.getFieldError("debutYear").getCode()).isEqualTo("typeMismatch");
+			});
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldOnlyFailForUnknownColumnWhenStrict(boolean compiled) throws Exception {
+		BeanWrapperRowMapper<Player> mapper = createMapper(Player.class, compiled);
+		RowSet rs = rowSet(new String[] { "id", "unknownColumn" }, new String[] { "AbduKa00", "x" });
+
+		Assertions.assertThatExceptionOfType(NotWritablePropertyException.class).isThrownBy(() -> mapper.mapRow(rs));
+
+		BeanWrapperRowMapper<Player> lenient = createMapper(Player.class, compiled);
+		lenient.setStrict(false);
+		assertThat(lenient.mapRow(rs).getId()).isEqualTo("AbduKa00");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void shouldUseCustomEditors(boolean compiled) throws Exception {
+		BeanWrapperRowMapper<Player> mapper = createMapper(Player.class, compiled);
+		mapper.setCustomEditors(Map.of(String.class, new PropertyEditorSupport() {
+
+			@Override
+			public void setAsText(String text) {
+				setValue(text.toUpperCase());
+			}
+
+		}));
+		RowSet rs = rowSet(new String[] { "id", "position" }, new String[] { "AbduKa00", "rb" });
+
+		assertThat(mapper.mapRow(rs).getPosition()).isEqualTo("RB");
+	}
+
+	private static <T> BeanWrapperRowMapper<T> createMapper(Class<T> type, boolean compiled) {
+		BeanWrapperRowMapper<T> mapper = new BeanWrapperRowMapper<>();
+		mapper.setTargetType(type);
+		mapper.setCompiled(compiled);
+		mapper.afterPropertiesSet();
+		return mapper;
+	}
+
+	private static RowSet rowSet(String[]... rows) {
+		RowSet rs = new DefaultRowSetFactory().create(new MockSheet("sheet", List.of(rows)));
+		rs.next();
+		rs.next();
+		return rs;
+	}
+
 	@Configuration
 	public static class TestConfig {
 
@@ -126,4 +244,62 @@ class BeanWrapperRowMapperTests {
 
 	}
 
+	public static class Order {
+
+		private int orderId;
+
+		private Customer customer;
+
+		private List<String> tags = new ArrayList<>();
+
+		public int getOrderId() {
+			return this.orderId;
+		}
+
+		public void setOrderId(int orderId) {
+			this.orderId = orderId;
+		}
+
+		public Customer getCustomer() {
+			return this.customer;
+		}
+
+		public void setCustomer(Customer customer) {
+			this.customer = customer;
+		}
+
+		public List<String> getTags() {
+			return this.tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+
+	}
+
+	public static class Customer {
+
+		private long id;
+
+		private String name;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
 }
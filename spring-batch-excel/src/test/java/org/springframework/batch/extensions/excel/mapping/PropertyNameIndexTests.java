@@ -0,0 +1,166 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.mapping;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class PropertyNameIndexTests {
+
+	private final PropertyNameIndex index = PropertyNameIndex.forClass(Account.class);
+
+	@Test
+	void shouldShareIndexOfClass() {
+		assertThat(PropertyNameIndex.forClass(Account.class)).isSameAs(this.index);
+	}
+
+	@Test
+	void shouldFindUniqueClosestProperty() {
+		assertThat(this.index.findMatch("accountNumber", 5)).isEqualTo("accountNumber");
+		assertThat(this.index.findMatch("ACCOUNTNUMBER", 0)).isEqualTo("accountNumber");
+		assertThat(this.index.findMatch("ACCOUNT_NUMBER", 5)).isEqualTo("accountNumber");
+		assertThat(this.index.findMatch("balanse", 1)).isEqualTo("balance");
+	}
+
+	@Test
+	void shouldNotMatchBeyondMaximumDistance() {
+		assertThat(this.index.findMatch("ACCOUNT_NUMBER", 0)).isNull();
+		assertThat(this.index.findMatch("balance", -1)).isNull();
+		assertThat(this.index.findMatch("somethingElse", 5)).isNull();
+	}
+
+	@Test
+	void shouldNotMatchWhenClosestPropertyIsNotUnique() {
+		// code1 and code2 are both at distance 1
+		assertThat(this.index.findMatch("code", 5)).isNull();
+		assertThat(this.index.findMatch("code1", 5)).isEqualTo("code1");
+	}
+
+	@Test
+	void shouldOnlyMatchWritableProperties() {
+		assertThat(this.index.findMatch("readOnly", 0)).isNull();
+	}
+
+	@Test
+	void shouldDetermineTypeOfNestedAndIndexedProperties() {
+		assertThat(this.index.getPropertyType("owner")).isEqualTo(Owner.class);
+		assertThat(this.index.getPropertyType("owners[0]")).isEqualTo(Owner.class);
+		assertThat(this.index.getPropertyType("ownersByName[smith]")).isEqualTo(Owner.class);
+		assertThat(this.index.getPropertyType("unknown")).isNull();
+	}
+
+	public static class Account {
+
+		private String accountNumber;
+
+		private double balance;
+
+		private String code1;
+
+		private String code2;
+
+		private Owner owner;
+
+		private List<Owner> owners;
+
+		private Map<String, Owner> ownersByName;
+
+		public String getAccountNumber() {
+			return this.accountNumber;
+		}
+
+		public void setAccountNumber(String accountNumber) {
+			this.accountNumber = accountNumber;
+		}
+
+		public double getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(double balance) {
+			this.balance = balance;
+		}
+
+		public String getCode1() {
+			return this.code1;
+		}
+
+		public void setCode1(String code1) {
+			this.code1 = code1;
+		}
+
+		public String getCode2() {
+			return this.code2;
+		}
+
+		public void setCode2(String code2) {
+			this.code2 = code2;
+		}
+
+		public Owner getOwner() {
+			return this.owner;
+		}
+
+		public void setOwner(Owner owner) {
+			this.owner = owner;
+		}
+
+		public List<Owner> getOwners() {
+			return this.owners;
+		}
+
+		public void setOwners(List<Owner> owners) {
+			this.owners = owners;
+		}
+
+		public Map<String, Owner> getOwnersByName() {
+			return this.ownersByName;
+		}
+
+		public void setOwnersByName(Map<String, Owner> ownersByName) {
+			this.ownersByName = ownersByName;
+		}
+
+		public String getReadOnly() {
+			return "readOnly";
+		}
+
+	}
+
+	public static class Owner {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.mapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.batch.extensions.excel.MockSheet;
+import org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory;
+import org.springframework.batch.extensions.excel.support.rowset.RowSet;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class RecordRowMapperTests {
+
+	@Test
+	void shouldMapRowsToRecord() throws Exception {
+		RecordRowMapper<PlayerRecord> mapper = new RecordRowMapper<>(PlayerRecord.class);
+		RowSet rs = rowSet(new String[] { "ID", "LAST_NAME", "first name", "BirthYear", "debut-year", "salary" },
+				new String[] { "AbduKa00", "Abdul-Jabbar", "Karim", "1974", "1996", "1234.50" },
+				new String[] { "AbduRa00", "Abdullah", "Rabih", "1975", "", "" });
+
+		PlayerRecord first = mapper.mapRow(rs);
+		rs.next();
+		PlayerRecord second = mapper.mapRow(rs);
+
+		assertThat(first).isEqualTo(
+				new PlayerRecord("AbduKa00", "Abdul-Jabbar", "Karim", 1974, 1996, new BigDecimal("1234.50")));
+		assertThat(second).isEqualTo(new PlayerRecord("AbduRa00", "Abdullah", "Rabih", 1975, null, null));
+	}
+
+	@Test
+	void shouldUseDefaultsForParametersWithoutColumn() throws Exception {
+		RecordRowMapper<PlayerRecord> mapper = new RecordRowMapper<>(PlayerRecord.class);
+		RowSet rs = rowSet(new String[] { "id", "unknown" }, new String[] { "AbduKa00", "x" });
+
+		assertThat(mapper.mapRow(rs)).isEqualTo(new PlayerRecord("AbduKa00", null, null, 0, null, null));
+	}
+
+	@Test
+	void shouldMapRowsToImmutableClass() throws Exception {
+		RecordRowMapper<Game> mapper = new RecordRowMapper<>(Game.class, new DefaultFormattingConversionService());
+		RowSet rs = rowSet(new String[] { "played", "home" }, new String[] { "2024-05-12", "true" });
+
+		Game game = mapper.mapRow(rs);
+
+		assertThat(game.getHome()).isTrue();
+		assertThat(game.getPlayed()).isEqualTo(LocalDate.of(2024, 5, 12));
+	}
+
+	@Test
+	void shouldFailForParameterWhichCannotBeConverted() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new RecordRowMapper<>(Game.class))
+			.withMessageContaining("played");
+	}
+
+	@Test
+	void shouldFailForValueWhichCannotBeConverted() {
+		RecordRowMapper<PlayerRecord> mapper = new RecordRowMapper<>(PlayerRecord.class);
+		RowSet rs = rowSet(new String[] { "id", "birthYear" }, new String[] { "AbduKa00", "x" });
+
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() -> mapper.mapRow(rs));
+	}
+
+	@Test
+	void shouldFailForColumnsMatchingSameParameter() {
+		RecordRowMapper<PlayerRecord> mapper = new RecordRowMapper<>(PlayerRecord.class);
+		RowSet rs = rowSet(new String[] { "birthYear", "BIRTH_YEAR" }, new String[] { "1974", "1974" });
+
+		assertThatIllegalStateException().isThrownBy(() -> mapper.mapRow(rs))
+			.withMessageContaining("birthYear")
+			.withMessageContaining("BIRTH_YEAR");
+	}
+
+	private static RowSet rowSet(String[]... rows) {
+		RowSet rs = new DefaultRowSetFactory().create(new MockSheet("sheet", List.of(rows)));
+		rs.next();
+		rs.next();
+		return rs;
+	}
+
+	record PlayerRecord(String id, String lastName, String firstName, int birthYear, Integer debutYear,
+			BigDecimal salary) {
+	}
+
+	static final class Game {
+
+		private final LocalDate played;
+
+		private final boolean home;
+
+		Game(LocalDate played, boolean home) {
+			this.played = played;
+			this.home = home;
+		}
+
+		LocalDate getPlayed() {
+			return this.played;
+		}
+
+		boolean getHome() {
+			return this.home;
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.poi;
+
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.xssf.usermodel.XSSFFormulaEvaluator;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.FormulaEvaluatorFactory;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class PoiItemReaderFormulaTests {
+
+	@TempDir
+	Path tempDir;
+
+	private FileSystemResource resource;
+
+	/**
+	 * Two sheets with a formula doubling the first column, the stored results are stale
+	 * as the values were changed after evaluating the formulas.
+	 */
+	@BeforeEach
+	void createWorkbook() throws Exception {
+		this.resource = new FileSystemResource(this.tempDir.resolve("formulas.xlsx"));
+		try (var workbook = new XSSFWorkbook(); var out = new FileOutputStream(this.resource.getFile())) {
+			for (String name : new String[] { "first", "second" }) {
+				var sheet = workbook.createSheet(name);
+				for (int i = 0; i < 3; i++) {
+					var row = sheet.createRow(i);
+					row.createCell(0).setCellValue(i + 1);
+					row.createCell(1).setCellFormula("A" + (i + 1) + "*2");
+				}
+			}
+			XSSFFormulaEvaluator.evaluateAllFormulaCells(workbook);
+			for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+				for (var row : workbook.getSheetAt(i)) {
+					row.getCell(0).setCellValue(row.getCell(0).getNumericCellValue() * 10);
+				}
+			}
+			workbook.write(out);
+		}
+	}
+
+	@Test
+	void shouldUseStoredResults() throws Exception {
+		var reader = createReader(FormulaEvaluatorFactory.NOOP);
+
+		assertThat(readAll(reader)).extracting((row) -> row[1]).containsExactly("2", "4", "6", "2", "4", "6");
+		assertThat(reader.getCachedFormulaResultCount()).isEqualTo(6);
+		assertThat(reader.getEvaluatedFormulaCount()).isZero();
+	}
+
+	@Test
+	void shouldShareEvaluatorBetweenSheets() throws Exception {
+		var created = new AtomicInteger();
+		var reader = createReader((workbook) -> {
+			created.incrementAndGet();
+			return workbook.getCreationHelper().createFormulaEvaluator();
+		});
+
+		assertThat(readAll(reader)).extracting((row) -> row[1])
+			.containsExactly("20", "40", "60", "20", "40", "60");
+		assertThat(created).hasValue(1);
+		assertThat(reader.getEvaluatedFormulaCount()).isEqualTo(6);
+		assertThat(reader.getCachedFormulaResultCount()).isZero();
+	}
+
+	@Test
+	void shouldOnlyEvaluateProjectedColumns() throws Exception {
+		var created = new AtomicInteger();
+		var reader = createReader((workbook) -> {
+			created.incrementAndGet();
+			return workbook.getCreationHelper().createFormulaEvaluator();
+		});
+		reader.setProjectedColumns(0);
+		reader.afterPropertiesSet();
+
+		assertThat(readAll(reader)).extracting((row) -> row[0])
+			.containsExactly("10", "20", "30", "10", "20", "30");
+		assertThat(created).hasValue(0);
+		assertThat(reader.getEvaluatedFormulaCount()).isZero();
+	}
+
+	@Test
+	void shouldEvaluateTypedAccessOncePerCell() throws Exception {
+		var reader = createReader(FormulaEvaluatorFactory.SIMPLE);
+		reader.setRowMapper((rs) -> {
+			assertThat(rs.getCellType(1)).isEqualTo(org.apache.poi.ss.usermodel.CellType.NUMERIC);
+			return new String[] { rs.getRawString(1), String.valueOf(rs.getDouble(1)) };
+		});
+		reader.afterPropertiesSet();
+
+		assertThat(readAll(reader)).first().isEqualTo(new String[] { "20", "20.0" });
+		assertThat(reader.getEvaluatedFormulaCount()).isEqualTo(6);
+	}
+
+	@Test
+	void shouldEvaluateOnceWhenTypedAndFormatted() throws Exception {
+		var reader = createReader(FormulaEvaluatorFactory.SIMPLE);
+		reader.setRowMapper((rs) -> {
+			assertThat(rs.getCellType(1)).isEqualTo(org.apache.poi.ss.usermodel.CellType.NUMERIC);
+			return new String[] { rs.getString(1), rs.getCurrentRow()[1] };
+		});
+		reader.afterPropertiesSet();
+
+		assertThat(readAll(reader)).extracting((row) -> row[0]).containsExactly("20", "40", "60", "20", "40", "60");
+		assertThat(reader.getEvaluatedFormulaCount()).isEqualTo(6);
+	}
+
+	@Test
+	void shouldFormatStoredResultsThroughCache() throws Exception {
+		var reader = createReader(FormulaEvaluatorFactory.NOOP);
+		reader.setProjectedColumns(1);
+		reader.setFormatCacheSize(1024);
+		reader.afterPropertiesSet();
+
+		assertThat(readAll(reader)).extracting((row) -> row[0]).containsExactly("2", "4", "6", "2", "4", "6");
+		assertThat(reader.getFormatCacheMissCount()).isEqualTo(3);
+		assertThat(reader.getFormatCacheHitCount()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldOpenWithoutInitialization() throws Exception {
+		var reader = new PoiItemReader<String[]>();
+		reader.setResource(this.resource);
+
+		reader.open(new ExecutionContext());
+		reader.close();
+
+		assertThat(reader.getEvaluatedFormulaCount()).isZero();
+	}
+
+	private PoiItemReader<String[]> createReader(FormulaEvaluatorFactory formulaEvaluatorFactory) {
+		var reader = new PoiItemReader<String[]>();
+		reader.setResource(this.resource);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.setFormulaEvaluatorFactory(formulaEvaluatorFactory);
+		reader.afterPropertiesSet();
+		return reader;
+	}
+
+	private static List<String[]> readAll(PoiItemReader<String[]> reader) throws Exception {
+		reader.open(new ExecutionContext());
+		var rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+}
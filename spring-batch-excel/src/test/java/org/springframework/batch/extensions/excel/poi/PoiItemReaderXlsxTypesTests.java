@@ -16,8 +16,10 @@
 
 package org.springframework.batch.extensions.excel.poi;
 
+import java.time.LocalDateTime;
 import java.util.Locale;
 
+import org.apache.poi.ss.usermodel.CellType;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
@@ -25,6 +27,7 @@ import org.springframework.batch.item.ExecutionContext;
 import org.springframework.core.io.ClassPathResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 class PoiItemReaderXlsxTypesTests {
 
@@ -62,4 +65,33 @@ class PoiItemReaderXlsxTypesTests {
 		assertThat(row1).containsExactly("1", "1.0", "2024-05-12", "13:14:55", "2024-05-12T13:14:55", "hello world");
 		assertThat(row2).containsExactly("2", "2.5", "2023-08-08", "11:12:13", "2023-08-08T11:12:13", "world hello");
 	}
+
+	@Test
+	void shouldBeAbleToReadTypedValues() throws Exception {
+		var reader = new PoiItemReader<Object[]>();
+		reader.setResource(new ClassPathResource("types.xlsx"));
+		reader.setRowMapper((rs) -> {
+			assertThat(rs.getCellType(0)).isEqualTo(CellType.NUMERIC);
+			assertThat(rs.getCellType(5)).isEqualTo(CellType.STRING);
+			assertThat(rs.getCellType(6)).isEqualTo(CellType.BLANK);
+			assertThatIllegalStateException().isThrownBy(() -> rs.getDouble(5));
+			return new Object[] { rs.getDouble(0), rs.getDouble(1), rs.getLocalDateTime(2), rs.getLocalDateTime(4),
+					rs.getRawString(5), rs.getString(2), rs.getRawString(6) };
+		});
+		reader.setLinesToSkip(1); // Skip header
+		reader.setUserLocale(Locale.US); // Use a Locale to not be dependent on environment
+		reader.afterPropertiesSet();
+
+		reader.open(new ExecutionContext());
+
+		var row1 = reader.read();
+		var row2 = reader.read();
+		reader.close();
+
+		assertThat(row1).containsExactly(1.0, 1.0, LocalDateTime.of(2024, 5, 12, 0, 0),
+				LocalDateTime.of(2024, 5, 12, 13, 14, 55), "hello world", "5/12/24", null);
+		assertThat(row2).containsExactly(2.0, 2.5, LocalDateTime.of(2023, 8, 8, 0, 0),
+				LocalDateTime.of(2023, 8, 8, 11, 12, 13), "world hello", "8/8/23", null);
+	}
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class FileSharedStringsStoreTests {
+
+	@TempDir
+	Path tempDir;
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 2 })
+	void shouldReturnStringsInOrderOfAdding(int cacheSize) throws IOException {
+		try (FileSharedStringsStore store = new FileSharedStringsStore(cacheSize, this.tempDir)) {
+			store.add("first");
+			store.add("");
+			store.add("Ünïcödé 😀");
+			store.add("x".repeat(10_000));
+			store.complete();
+
+			assertThat(store.size()).isEqualTo(4);
+			for (int i = 0; i < 2; i++) {
+				assertThat(store.get(2)).isEqualTo("Ünïcödé 😀");
+				assertThat(store.get(0)).isEqualTo("first");
+				assertThat(store.get(3)).hasSize(10_000);
+				assertThat(store.get(1)).isEmpty();
+			}
+		}
+	}
+
+	@Test
+	void shouldFailForUnknownIndex() throws IOException {
+		try (FileSharedStringsStore store = new FileSharedStringsStore(0, this.tempDir)) {
+			store.add("first");
+			store.complete();
+
+			assertThatIllegalStateException().isThrownBy(() -> store.get(1));
+			assertThatIllegalStateException().isThrownBy(() -> store.get(-1));
+		}
+	}
+
+	@Test
+	void shouldDeleteTemporaryFileOnClose() throws IOException {
+		FileSharedStringsStore store = new FileSharedStringsStore(0, this.tempDir);
+		store.add("first");
+		store.complete();
+		try (Stream<Path> files = Files.list(this.tempDir)) {
+			assertThat(files).hasSize(1);
+		}
+
+		store.close();
+		try (Stream<Path> files = Files.list(this.tempDir)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void shouldNotCreateTemporaryFileWithoutStrings() throws IOException {
+		try (FileSharedStringsStore store = new FileSharedStringsStore(0, this.tempDir)) {
+			store.complete();
+
+			assertThat(store.size()).isZero();
+			try (Stream<Path> files = Files.list(this.tempDir)) {
+				assertThat(files).isEmpty();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time it takes to restart the {@code StreamingXlsxItemReader} at different
+ * row offsets, comparing resuming at the checkpoint stored in the
+ * {@code ExecutionContext}, skipping rows through {@code RowSet#skip()} (when only the
+ * item count is known) and reading (and formatting) each skipped row. Only runs when the
+ * {@code benchmark} system property is set, e.g. {@code ./mvnw test -Dbenchmark=true -Dtest=RestartBenchmarkTests}.
+ *
+ * @author Marten Deinum
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RestartBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+
+	private static final int ITERATIONS = 3;
+
+	private File file;
+
+	@BeforeAll
+	void createWorkbook(@TempDir Path tempDir) throws Exception {
+		this.file = tempDir.resolve("restart.xlsx").toFile();
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true)) {
+			org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("data");
+			for (int i = 0; i < ROWS; i++) {
+				Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue("code-" + (i % 100));
+				row.createCell(2).setCellValue(i * 0.75);
+				row.createCell(3).setCellValue(i % 3 == 0);
+				row.createCell(4).setCellValue("description " + (i % 1000));
+				row.createCell(5).setCellValue(i * 31L);
+			}
+			try (FileOutputStream out = new FileOutputStream(this.file)) {
+				workbook.write(out);
+			}
+			workbook.dispose();
+		}
+	}
+
+	@Test
+	void restartAtOffsets() throws Exception {
+		for (int offset : new int[] { 0, ROWS / 4, ROWS / 2, (ROWS / 4) * 3, ROWS - 1 }) {
+			ExecutionContext checkpoint = checkpoint(offset);
+			long resuming = Long.MAX_VALUE;
+			long skipping = Long.MAX_VALUE;
+			long reading = Long.MAX_VALUE;
+			for (int i = 0; i < ITERATIONS; i++) {
+				resuming = Math.min(resuming,
+						restart(new StreamingXlsxItemReader<>(), offset, new ExecutionContext(checkpoint)));
+				skipping = Math.min(skipping, restart(new StreamingXlsxItemReader<>(), offset, count(offset)));
+				reading = Math.min(reading, restart(new ReadingItemReader(), offset, count(offset)));
+			}
+			System.out.printf("offset %,9d: checkpoint %,6d ms, skip %,6d ms, read %,6d ms%n", offset,
+					resuming / 1_000_000, skipping / 1_000_000, reading / 1_000_000);
+		}
+	}
+
+	private ExecutionContext checkpoint(int offset) throws Exception {
+		StreamingXlsxItemReader<String[]> reader = configure(new StreamingXlsxItemReader<>());
+		ExecutionContext executionContext = new ExecutionContext();
+		reader.open(executionContext);
+		for (int i = 0; i < offset; i++) {
+			reader.read();
+		}
+		reader.update(executionContext);
+		reader.close();
+		return executionContext;
+	}
+
+	private static ExecutionContext count(int offset) {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.putInt(StreamingXlsxItemReader.class.getSimpleName() + ".read.count", offset);
+		return executionContext;
+	}
+
+	private StreamingXlsxItemReader<String[]> configure(StreamingXlsxItemReader<String[]> reader) {
+		reader.setResource(new FileSystemResource(this.file));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.afterPropertiesSet();
+		return reader;
+	}
+
+	private long restart(StreamingXlsxItemReader<String[]> reader, int offset, ExecutionContext executionContext)
+			throws Exception {
+		configure(reader);
+		long start = System.nanoTime();
+		reader.open(executionContext);
+		String[] row = reader.read();
+		long elapsed = System.nanoTime() - start;
+		reader.close();
+		assertThat(row).isNotNull();
+		assertThat(row[0]).isEqualTo(String.valueOf(offset));
+		return elapsed;
+	}
+
+	/**
+	 * Restarts the way the reader used to, by reading and formatting all the skipped
+	 * rows.
+	 */
+	private static final class ReadingItemReader extends StreamingXlsxItemReader<String[]> {
+
+		ReadingItemReader() {
+			setName(StreamingXlsxItemReader.class.getSimpleName());
+		}
+
+		@Override
+		protected void jumpToItem(int itemIndex) {
+			setRowMapper((rs) -> null);
+			try {
+				for (int i = 0; i < itemIndex; i++) {
+					doRead();
+				}
+			}
+			finally {
+				setRowMapper(new PassThroughRowMapper());
+			}
+		}
+
+	}
+
+}
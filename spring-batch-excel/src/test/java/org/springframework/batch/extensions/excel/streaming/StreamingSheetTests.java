@@ -0,0 +1,262 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.TypedRow;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for resuming a {@link StreamingSheet} at a checkpoint.
+ *
+ * @author Marten Deinum
+ */
+class StreamingSheetTests {
+
+	private static final String PREFIXED_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n"
+			+ "<x:worksheet xmlns:x=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+			+ "<x:dimension ref=\"A1:C6\"/><x:sheetData>\r\n"
+			+ "<x:row r=\"1\"><x:c r=\"A1\" t=\"inlineStr\"><x:is><x:t>één €</x:t></x:is></x:c></x:row>\r\n"
+			+ "<x:row r=\"2\"><x:c r=\"B2\"><x:v>2</x:v></x:c></x:row>\r\n"
+			+ "<x:row r=\"3\"><x:c r=\"A3\" t=\"inlineStr\"><x:is><x:t>a &amp; b</x:t></x:is></x:c></x:row>\r\n"
+			+ "<x:row r=\"5\"><x:c r=\"C5\"><x:v>5</x:v></x:c></x:row><x:row r=\"6\"/>\r\n"
+			+ "</x:sheetData></x:worksheet>";
+
+	private final CellValueFormatter cellValueFormatter = new CellValueFormatter(new DataFormatter(Locale.US));
+
+	@Test
+	void shouldResumeAtCheckpointOfPrefixedSheet() throws Exception {
+		byte[] xml = PREFIXED_XML.getBytes(StandardCharsets.UTF_8);
+		StreamingSharedStrings sharedStrings = StreamingSharedStrings
+			.read(new ByteArrayInputStream("<sst/>".getBytes(StandardCharsets.UTF_8)));
+		for (int row = 0; row < 5; row++) {
+			assertResumes(xml, sharedStrings, null, row);
+		}
+	}
+
+	@Test
+	void shouldResumeAtCheckpointOfWorkbookSheet() throws Exception {
+		try (OPCPackage pkg = OPCPackage.open(new ClassPathResource("player.xlsx").getFile(), PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			StreamingSharedStrings sharedStrings = StreamingSharedStrings.read(pkg);
+			StylesTable styles = reader.getStylesTable();
+			byte[] xml;
+			try (InputStream is = reader.getSheetsData().next()) {
+				xml = is.readAllBytes();
+			}
+			for (int row : new int[] { 0, 1, 10, 999, 1500 }) {
+				assertResumes(xml, sharedStrings, styles, row);
+			}
+		}
+	}
+
+	@Test
+	void shouldResumeAtCheckpointWithColumnProjection() throws Exception {
+		try (OPCPackage pkg = OPCPackage.open(new ClassPathResource("player.xlsx").getFile(), PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			StreamingSharedStrings sharedStrings = StreamingSharedStrings.read(pkg);
+			byte[] xml;
+			try (InputStream is = reader.getSheetsData().next()) {
+				xml = is.readAllBytes();
+			}
+			List<String[]> all = readAll(xml, sharedStrings, reader.getStylesTable(), null);
+			List<String[]> projected = readAll(xml, sharedStrings, reader.getStylesTable(), new int[] { 4, 0 });
+			assertThat(projected).hasSameSizeAs(all);
+			for (int i = 0; i < all.size(); i++) {
+				assertThat(projected.get(i)).containsExactly(all.get(i)[4], all.get(i)[0]);
+			}
+			assertResumes(xml, sharedStrings, reader.getStylesTable(), 999, new int[] { 4, 0 });
+		}
+	}
+
+	@Test
+	void shouldOnlyVisitCellsPresentInSparseRows() throws Exception {
+		String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+				+ "<dimension ref=\"A1:ALL3\"/><sheetData>"
+				+ "<row r=\"1\"><c r=\"C1\"><v>3</v></c><c r=\"F1\" s=\"0\"/><c r=\"ALL1\"><v>1000</v></c></row>"
+				+ "<row r=\"2\"><c r=\"B2\" s=\"0\"/></row>"
+				+ "<row r=\"3\"><c r=\"A3\" t=\"inlineStr\"><is><t>a</t></is></c></row>"
+				+ "</sheetData></worksheet>";
+		StreamingSharedStrings sharedStrings = StreamingSharedStrings
+			.read(new ByteArrayInputStream("<sst/>".getBytes(StandardCharsets.UTF_8)));
+
+		try (StreamingSheet sheet = new StreamingSheet("test",
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), sharedStrings, null,
+				this.cellValueFormatter)) {
+			Iterator<String[]> rows = sheet.iterator();
+			TypedRow row = sheet.nextTypedRow(rows);
+			assertThat(row.nextNonBlankColumn(0)).isEqualTo(2);
+			assertThat(row.nextNonBlankColumn(3)).isEqualTo(999);
+			assertThat(row.nextNonBlankColumn(1000)).isEqualTo(-1);
+			assertThat(row.isBlank()).isFalse();
+			String[] strings = row.getStrings();
+			assertThat(strings).hasSize(1000);
+			assertThat(strings[2]).isEqualTo("3");
+			assertThat(strings[999]).isEqualTo("1000");
+			assertThat(strings).filteredOn(String::isEmpty).hasSize(998);
+
+			row = sheet.nextTypedRow(rows);
+			assertThat(row.isBlank()).isTrue();
+			assertThat(row.nextNonBlankColumn(0)).isEqualTo(-1);
+			assertThat(row.getStrings()).containsOnly("");
+
+			row = sheet.nextTypedRow(rows);
+			assertThat(row.nextNonBlankColumn(0)).isZero();
+			assertThat(row.getString(2)).isEmpty();
+			assertThat(row.getStrings()[0]).isEqualTo("a");
+			assertThat(row.getStrings()).filteredOn(String::isEmpty).hasSize(999);
+		}
+	}
+
+	@Test
+	void shouldFindNonBlankColumnsWithColumnProjection() throws Exception {
+		String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+				+ "<dimension ref=\"A1:E1\"/><sheetData>"
+				+ "<row r=\"1\"><c r=\"A1\"><v>1</v></c><c r=\"C1\"><v>3</v></c><c r=\"E1\"><v>5</v></c></row>"
+				+ "</sheetData></worksheet>";
+		StreamingSharedStrings sharedStrings = StreamingSharedStrings
+			.read(new ByteArrayInputStream("<sst/>".getBytes(StandardCharsets.UTF_8)));
+
+		try (StreamingSheet sheet = new StreamingSheet("test",
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), sharedStrings, null,
+				this.cellValueFormatter)) {
+			sheet.setColumnProjection(new int[] { 4, 1, 0 });
+			Iterator<String[]> rows = sheet.iterator();
+			TypedRow row = sheet.nextTypedRow(rows);
+			assertThat(row.nextNonBlankColumn(0)).isZero();
+			assertThat(row.nextNonBlankColumn(1)).isEqualTo(2);
+			assertThat(row.nextNonBlankColumn(3)).isEqualTo(-1);
+			assertThat(row.getStrings()).containsExactly("5", "", "1");
+		}
+	}
+
+	@Test
+	void shouldSkipRowsWhenCheckpointDoesNotMatch() throws Exception {
+		byte[] xml = PREFIXED_XML.getBytes(StandardCharsets.UTF_8);
+		StreamingSharedStrings sharedStrings = StreamingSharedStrings
+			.read(new ByteArrayInputStream("<sst/>".getBytes(StandardCharsets.UTF_8)));
+		List<String[]> expected = readAll(xml, sharedStrings, null);
+		AtomicBoolean closed = new AtomicBoolean();
+
+		try (StreamingSheet sheet = new StreamingSheet("test", new ByteArrayInputStream(xml), sharedStrings, null,
+				this.cellValueFormatter)) {
+			// the row number doesn't match the row at the offset
+			long offset = PREFIXED_XML.substring(0, PREFIXED_XML.indexOf("<x:row r=\"3\""))
+				.getBytes(StandardCharsets.UTF_8).length;
+			sheet.setCheckpoint(2, 7, offset, () -> tracking(xml, closed));
+			Iterator<String[]> rows = sheet.iterator();
+			assertThat(sheet.skipRows(rows, 3)).isEqualTo(3);
+			assertThat(closed).isTrue();
+			assertThat(remaining(rows)).containsExactlyElementsOf(expected.subList(3, expected.size()));
+		}
+	}
+
+	private void assertResumes(byte[] xml, StreamingSharedStrings sharedStrings, StylesTable styles, int row)
+			throws Exception {
+		assertResumes(xml, sharedStrings, styles, row, null);
+	}
+
+	private void assertResumes(byte[] xml, StreamingSharedStrings sharedStrings, StylesTable styles, int row,
+			int[] projection) throws Exception {
+		List<String[]> expected = readAll(xml, sharedStrings, styles, projection);
+		long offset;
+		int rowNumber;
+		try (StreamingSheet sheet = new StreamingSheet("test", new ByteArrayInputStream(xml), sharedStrings, styles,
+				this.cellValueFormatter)) {
+			project(sheet, projection);
+			Iterator<String[]> rows = sheet.iterator();
+			for (int i = 0; i <= row; i++) {
+				assertThat(rows.hasNext()).isTrue();
+				rows.next();
+			}
+			offset = sheet.getCurrentRowOffset();
+			rowNumber = sheet.getCurrentRowNumber();
+		}
+		assertThat(offset).isPositive();
+
+		AtomicBoolean closed = new AtomicBoolean();
+		try (StreamingSheet sheet = new StreamingSheet("test", new ByteArrayInputStream(xml), sharedStrings, styles,
+				this.cellValueFormatter)) {
+			project(sheet, projection);
+			sheet.setCheckpoint(row, rowNumber, offset, () -> tracking(xml, closed));
+			Iterator<String[]> rows = sheet.iterator();
+			assertThat(sheet.skipRows(rows, row + 1)).isEqualTo(row + 1);
+			assertThat(closed).as("Resumed at checkpoint for row %d", row).isFalse();
+			assertThat(sheet.getCurrentRowOffset()).isEqualTo(offset);
+			assertThat(remaining(rows)).as("Rows after row %d", row)
+				.containsExactlyElementsOf(expected.subList(row + 1, expected.size()));
+		}
+		assertThat(closed).isTrue();
+	}
+
+	private List<String[]> readAll(byte[] xml, StreamingSharedStrings sharedStrings, StylesTable styles)
+			throws Exception {
+		return readAll(xml, sharedStrings, styles, null);
+	}
+
+	private List<String[]> readAll(byte[] xml, StreamingSharedStrings sharedStrings, StylesTable styles,
+			int[] projection) throws Exception {
+		try (StreamingSheet sheet = new StreamingSheet("test", new ByteArrayInputStream(xml), sharedStrings, styles,
+				this.cellValueFormatter)) {
+			project(sheet, projection);
+			return remaining(sheet.iterator());
+		}
+	}
+
+	private static void project(StreamingSheet sheet, int[] projection) {
+		if (projection != null) {
+			sheet.setColumnProjection(projection);
+		}
+	}
+
+	private static List<String[]> remaining(Iterator<String[]> rows) {
+		List<String[]> result = new ArrayList<>();
+		while (rows.hasNext()) {
+			result.add(rows.next());
+		}
+		return result;
+	}
+
+	private static InputStream tracking(byte[] xml, AtomicBoolean closed) {
+		return new ByteArrayInputStream(xml) {
+
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+	}
+
+}
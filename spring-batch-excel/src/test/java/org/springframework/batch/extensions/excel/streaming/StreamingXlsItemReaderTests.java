@@ -0,0 +1,88 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.AbstractExcelItemReaderTests;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.extensions.excel.poi.PoiItemReader;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsItemReaderTests extends AbstractExcelItemReaderTests {
+
+	@Override
+	protected AbstractExcelItemReader<String[]> createExcelItemReader() {
+		return new StreamingXlsItemReader<>();
+	}
+
+	@Override
+	protected String resource(String workbook) {
+		return "classpath:/" + workbook + ".xls";
+	}
+
+	@ParameterizedTest
+	@MethodSource("scenarios")
+	void shouldReadSameRowsAsPoiItemReader(String resource, Consumer<AbstractExcelItemReader<String[]>> configurer)
+			throws Exception {
+		List<String[]> expected = readAll(new PoiItemReader<>(), resource, configurer);
+		List<String[]> actual = readAll(new StreamingXlsItemReader<>(), resource, configurer);
+		assertThat(actual).isNotEmpty().usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+	}
+
+	private static List<String[]> readAll(AbstractExcelItemReader<String[]> reader, String resource,
+			Consumer<AbstractExcelItemReader<String[]>> configurer) throws Exception {
+		reader.setResource(new ClassPathResource(resource.substring("classpath:/".length())));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		configurer.accept(reader);
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		List<String[]> rows = new ArrayList<>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+	@Override
+	public Stream<Arguments> scenarios() {
+		return Stream.of(Arguments.of("classpath:/player.xls", NOOP),
+				Arguments.of("classpath:/player_with_blank_lines.xls", NOOP),
+				Arguments.of("classpath:/player_with_password.xls",
+						(Consumer<AbstractExcelItemReader<?>>) (reader) -> reader.setPassword("readme")));
+	}
+
+}
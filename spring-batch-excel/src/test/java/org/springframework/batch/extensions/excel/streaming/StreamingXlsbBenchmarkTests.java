@@ -0,0 +1,164 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares rows/s and allocated bytes per row of the {@code StreamingXlsbItemReader} with
+ * the {@code StreamingXlsxItemReader}, reading the same rows from an {@code .xlsb} and an
+ * {@code .xlsx} workbook. Only runs when the {@code benchmark} system property is set,
+ * e.g. {@code ./mvnw test -Dbenchmark=true -Dtest=StreamingXlsbBenchmarkTests}.
+ *
+ * @author Marten Deinum
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StreamingXlsbBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+
+	private static final int ITERATIONS = 5;
+
+	private File xlsx;
+
+	private File xlsb;
+
+	@BeforeAll
+	void createWorkbooks(@TempDir Path tempDir) throws Exception {
+		this.xlsx = tempDir.resolve("benchmark.xlsx").toFile();
+		this.xlsb = tempDir.resolve("benchmark.xlsb").toFile();
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true);
+				XlsbWriter writer = new XlsbWriter(new FileOutputStream(this.xlsb), false)) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+			CellStyle decimalStyle = workbook.createCellStyle();
+			decimalStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+			int xlsbDateStyle = writer.style(dateStyle.getDataFormat(), "yyyy-mm-dd");
+			int xlsbDecimalStyle = writer.style(decimalStyle.getDataFormat(), "#,##0.00");
+			org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("data");
+			writer.startSheet("data");
+			for (int i = 0; i < ROWS; i++) {
+				LocalDate date = LocalDate.of(2020, 1, 1).plusDays(i % 1000);
+				Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue("code-" + (i % 100));
+				row.createCell(2).setCellValue(i * 0.75);
+				row.getCell(2).setCellStyle(decimalStyle);
+				row.createCell(3).setCellValue(date);
+				row.getCell(3).setCellStyle(dateStyle);
+				row.createCell(4).setCellValue(i % 3 == 0);
+				row.createCell(5).setCellValue("description " + (i % 1000));
+				row.createCell(6).setCellValue(i * 31L);
+				row.createCell(7).setCellValue("status-" + (i % 7));
+
+				writer.startRow(i);
+				writer.number(0, i, 0, false);
+				writer.string(1, "code-" + (i % 100), 0, false);
+				writer.number(2, i * 0.75, xlsbDecimalStyle, false);
+				writer.number(3, DateUtil.getExcelDate(date), xlsbDateStyle, false);
+				writer.bool(4, i % 3 == 0, 0);
+				writer.string(5, "description " + (i % 1000), 0, false);
+				writer.number(6, i * 31L, 0, false);
+				writer.string(7, "status-" + (i % 7), 0, false);
+			}
+			writer.endSheet();
+			try (FileOutputStream out = new FileOutputStream(this.xlsx)) {
+				workbook.write(out);
+			}
+			workbook.dispose();
+		}
+	}
+
+	@Test
+	void compareWithStreamingXlsxItemReader() throws Exception {
+		Result xlsx = null;
+		Result xlsb = null;
+		for (int i = 0; i < ITERATIONS; i++) {
+			xlsx = measure(new StreamingXlsxItemReader<>(), this.xlsx);
+			xlsb = measure(new StreamingXlsbItemReader<>(), this.xlsb);
+		}
+		System.out.printf("StreamingXlsxItemReader: %s, %,d kB file%n", xlsx, this.xlsx.length() / 1024);
+		System.out.printf("StreamingXlsbItemReader: %s, %,d kB file%n", xlsb, this.xlsb.length() / 1024);
+		assertThat(xlsb.rows).isEqualTo(xlsx.rows).isEqualTo(ROWS);
+	}
+
+	private static Result measure(AbstractExcelItemReader<String[]> reader, File file) throws Exception {
+		reader.setResource(new FileSystemResource(file));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.afterPropertiesSet();
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+		long allocated = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		reader.open(new ExecutionContext());
+		int rows = 0;
+		while (reader.read() != null) {
+			rows++;
+		}
+		reader.close();
+		long elapsed = System.nanoTime() - start;
+		return new Result(rows, elapsed, threads.getCurrentThreadAllocatedBytes() - allocated);
+	}
+
+	private static final class Result {
+
+		private final int rows;
+
+		private final long nanos;
+
+		private final long bytes;
+
+		private Result(int rows, long nanos, long bytes) {
+			this.rows = rows;
+			this.nanos = nanos;
+			this.bytes = bytes;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%,d rows/s, %,d bytes/row", (long) (this.rows / (this.nanos / 1e9)),
+					this.bytes / this.rows);
+		}
+
+	}
+
+}
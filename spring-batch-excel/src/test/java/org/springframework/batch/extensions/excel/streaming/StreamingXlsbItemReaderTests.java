@@ -0,0 +1,219 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.binary.XSSFBSharedStringsTable;
+import org.apache.poi.xssf.binary.XSSFBSheetHandler;
+import org.apache.poi.xssf.binary.XSSFBStylesTable;
+import org.apache.poi.xssf.eventusermodel.XSSFBReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.AbstractExcelItemReaderTests;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As Apache POI cannot write {@code .xlsb} workbooks the test workbooks are converted
+ * with the {@link XlsbWriter}.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsbItemReaderTests extends AbstractExcelItemReaderTests {
+
+	private Path workbooks;
+
+	@BeforeAll
+	void convertWorkbooks(@TempDir Path tempDir) throws Exception {
+		this.workbooks = tempDir;
+		for (String workbook : List.of("player", "player_with_blank_lines", "types", "errors")) {
+			try (InputStream is = new ClassPathResource(workbook + ".xlsx").getInputStream()) {
+				XlsbWriter.convert(is, xlsb(workbook));
+			}
+		}
+	}
+
+	private File xlsb(String workbook) {
+		return this.workbooks.resolve(workbook + ".xlsb").toFile();
+	}
+
+	@Override
+	protected AbstractExcelItemReader<String[]> createExcelItemReader() {
+		return new StreamingXlsbItemReader<>();
+	}
+
+	@Override
+	protected String resource(String workbook) {
+		return xlsb(workbook).toURI().toString();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "player", "player_with_blank_lines", "types" })
+	void shouldReadSameRowsAsStreamingXlsxItemReader(String workbook) throws Exception {
+		List<String[]> expected = readAll(new StreamingXlsxItemReader<>(), new ClassPathResource(workbook + ".xlsx"));
+		List<String[]> actual = readAll(new StreamingXlsbItemReader<>(), new FileSystemResource(xlsb(workbook)));
+		assertThat(actual).isNotEmpty().usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "player", "player_with_blank_lines" })
+	void shouldReadSameCellsAsXssfbSheetHandler(String workbook) throws Exception {
+		List<String[]> expected = new ArrayList<>();
+		try (OPCPackage pkg = OPCPackage.open(xlsb(workbook), PackageAccess.READ)) {
+			XSSFBReader reader = new XSSFBReader(pkg);
+			XSSFBStylesTable styles = reader.getXSSFBStylesTable();
+			XSSFBSharedStringsTable sharedStrings = new XSSFBSharedStringsTable(pkg);
+			DataFormatter dataFormatter = new DataFormatter(Locale.US);
+			XSSFBReader.SheetIterator sheets = (XSSFBReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream is = sheets.next()) {
+					new XSSFBSheetHandler(is, styles, null, sharedStrings, new RowCollector(expected), dataFormatter,
+							false)
+						.parse();
+				}
+			}
+		}
+		List<String[]> actual = readAll(new StreamingXlsbItemReader<>(), new FileSystemResource(xlsb(workbook)));
+		assertThat(actual.stream().map(StreamingXlsbItemReaderTests::trim).toList())
+			.usingRecursiveFieldByFieldElementComparator()
+			.isEqualTo(expected);
+	}
+
+	@Test
+	void shouldReadTypedValues() throws Exception {
+		var reader = new StreamingXlsbItemReader<Object[]>();
+		reader.setResource(new FileSystemResource(xlsb("types")));
+		reader.setRowMapper((rs) -> new Object[] { rs.getCellType(0), rs.getDouble(1), rs.getLocalDateTime(4),
+				rs.getRawString(5), rs.getCellType(6) });
+		reader.setLinesToSkip(1);
+		reader.setUserLocale(Locale.US);
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+
+		var row1 = reader.read();
+		reader.close();
+
+		assertThat(row1).containsExactly(CellType.NUMERIC, 1.0, LocalDateTime.of(2024, 5, 12, 13, 14, 55),
+				"hello world", CellType.BLANK);
+	}
+
+	@Test
+	void shouldReadErrorsAsTheirText() throws Exception {
+		List<String[]> rows = readAll(new StreamingXlsbItemReader<>(), new FileSystemResource(xlsb("errors")));
+		assertThat(rows).flatMap(Arrays::asList).contains("#DIV/0!");
+	}
+
+	private static List<String[]> readAll(AbstractExcelItemReader<String[]> reader, Resource resource)
+			throws Exception {
+		reader.setResource(resource);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		List<String[]> rows = new ArrayList<>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+	/**
+	 * The {@code XSSFBSheetHandler} ignores the dimension of the sheet, rows end with
+	 * their last cell.
+	 */
+	private static String[] trim(String[] row) {
+		int length = row.length;
+		while (length > 0 && row[length - 1].isEmpty()) {
+			length--;
+		}
+		return Arrays.copyOf(row, length);
+	}
+
+	@Override
+	protected Stream<Arguments> scenarios() {
+		return Stream.of(Arguments.of(resource("player"), NOOP),
+				Arguments.of(resource("player_with_blank_lines"), NOOP));
+	}
+
+	private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+		private final List<String[]> rows;
+
+		private String[] values = new String[0];
+
+		private RowCollector(List<String[]> rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			this.values = new String[0];
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			// Like the item readers, skip blank rows
+			String[] row = trim(this.values);
+			if (row.length > 0) {
+				this.rows.add(row);
+			}
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int col = new CellReference(cellReference).getCol();
+			if (this.values.length <= col) {
+				int length = this.values.length;
+				this.values = Arrays.copyOf(this.values, col + 1);
+				Arrays.fill(this.values, length, col + 1, "");
+			}
+			this.values[col] = formattedValue;
+		}
+
+	}
+
+}
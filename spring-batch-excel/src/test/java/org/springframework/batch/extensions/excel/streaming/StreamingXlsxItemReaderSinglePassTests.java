@@ -0,0 +1,168 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.Arguments;
+
+import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
+import org.springframework.batch.extensions.excel.AbstractExcelItemReaderTests;
+import org.springframework.batch.extensions.excel.SheetSelector;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Runs the tests of the {@code StreamingXlsxItemReader} against resources which aren't
+ * files, read in a single pass.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsxItemReaderSinglePassTests extends AbstractExcelItemReaderTests {
+
+	@Override
+	protected AbstractExcelItemReader<String[]> createExcelItemReader() {
+		return new InMemoryResourceItemReader();
+	}
+
+	@Test
+	void shouldReadSameRowsAsFromFile() throws Exception {
+		var expected = readAll(new ClassPathResource("player.xlsx"), SheetSelector.ALL, false);
+
+		assertThat(readAll(inMemory(new ClassPathResource("player.xlsx")), SheetSelector.ALL, true))
+			.containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void shouldReadSheetsWhichComeAfterTheWorkbookInTheStream() throws Exception {
+		// Excel stores the sheets before the shared strings, move them to the end
+		var resource = reorder(new ClassPathResource("player.xlsx"));
+		var expected = readAll(new ClassPathResource("player.xlsx"), SheetSelector.names("Blad1", "Blad3"), false);
+
+		assertThat(readAll(resource, SheetSelector.names("Blad1", "Blad3"), true)).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void shouldFailWhenMoreThanMaxSpoolSizeIsNeeded() {
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setResource(inMemory(new ClassPathResource("player.xlsx")));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setSinglePass(true);
+		reader.setMaxSpoolSize(1024);
+		reader.afterPropertiesSet();
+
+		assertThatExceptionOfType(ItemStreamException.class).isThrownBy(() -> reader.open(new ExecutionContext()))
+			.havingRootCause()
+			.withMessageContaining("1024 bytes");
+		reader.close();
+	}
+
+	private static List<String[]> readAll(Resource resource, SheetSelector sheetSelector, boolean singlePass)
+			throws Exception {
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setResource(resource);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setSheetSelector(sheetSelector);
+		reader.setSinglePass(singlePass);
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		var rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+	private static Resource inMemory(Resource resource) {
+		try {
+			return new ByteArrayResource(resource.getContentAsByteArray(), resource.getDescription());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Copy the workbook with the sheets stored after all the other parts.
+	 */
+	private static Resource reorder(Resource resource) throws IOException {
+		var parts = new LinkedHashMap<String, byte[]>();
+		var sheets = new LinkedHashMap<String, byte[]>();
+		try (var zip = new ZipInputStream(resource.getInputStream())) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				(entry.getName().startsWith("xl/worksheets/sheet") ? sheets : parts).put(entry.getName(),
+						zip.readAllBytes());
+			}
+		}
+		parts.putAll(sheets);
+		var out = new ByteArrayOutputStream();
+		try (var zip = new ZipOutputStream(out)) {
+			for (var part : parts.entrySet()) {
+				zip.putNextEntry(new ZipEntry(part.getKey()));
+				zip.write(part.getValue());
+				zip.closeEntry();
+			}
+		}
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+	@Override
+	protected Stream<Arguments> scenarios() {
+		return Stream.of(
+				Arguments.of("classpath:/player.xlsx", NOOP),
+				Arguments.of("classpath:/player_with_blank_lines.xlsx", NOOP));
+	}
+
+	/**
+	 * Reads the resources, which are files, from memory instead.
+	 */
+	private static final class InMemoryResourceItemReader extends StreamingXlsxItemReader<String[]> {
+
+		private InMemoryResourceItemReader() {
+			setName(getClass().getSimpleName());
+			setSinglePass(true);
+		}
+
+		@Override
+		public void setResource(Resource resource) {
+			super.setResource(inMemory(resource));
+		}
+
+	}
+
+}
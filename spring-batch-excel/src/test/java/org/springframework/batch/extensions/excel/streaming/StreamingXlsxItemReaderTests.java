@@ -1,5 +1,5 @@
 /*
- * Copyright 2006-2024 the original author or authors.
+ * Copyright 2006-2025 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,22 @@
 
 package org.springframework.batch.extensions.excel.streaming;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
 import org.springframework.batch.extensions.excel.AbstractExcelItemReader;
 import org.springframework.batch.extensions.excel.AbstractExcelItemReaderTests;
+import org.springframework.batch.extensions.excel.Sheet;
+import org.springframework.batch.extensions.excel.SheetSelector;
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Marten Deinum
@@ -34,6 +44,76 @@ class StreamingXlsxItemReaderTests extends AbstractExcelItemReaderTests {
 		return new StreamingXlsxItemReader<>();
 	}
 
+	@Test
+	void shouldOnlyOpenSelectedSheets() throws Exception {
+		var opened = new ArrayList<Integer>();
+		var reader = new StreamingXlsxItemReader<String[]>() {
+
+			@Override
+			protected Sheet getSheet(int sheet) {
+				opened.add(sheet);
+				return super.getSheet(sheet);
+			}
+		};
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setSheetSelector(SheetSelector.names("Blad1", "Blad3"));
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+
+		assertThat(opened).isEmpty();
+		assertThat(reader.read()).isNotNull();
+		assertThat(opened).containsExactly(0);
+		while (reader.read() != null) {
+			// read all rows
+		}
+		reader.close();
+		assertThat(opened).containsExactly(0, 2);
+	}
+
+	@Test
+	void shouldStoreCheckpointOfCurrentRow() throws Exception {
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		var executionContext = new ExecutionContext();
+		reader.open(executionContext);
+		for (int i = 0; i < 10; i++) {
+			reader.read();
+		}
+		reader.update(executionContext);
+		reader.close();
+
+		assertThat(executionContext.getInt("StreamingXlsxItemReader.current.sheet")).isZero();
+		assertThat(executionContext.getInt("StreamingXlsxItemReader.current.row")).isEqualTo(9);
+		assertThat(executionContext.getInt("StreamingXlsxItemReader.current.row.number")).isEqualTo(9);
+		assertThat(executionContext.getLong("StreamingXlsxItemReader.current.row.offset")).isPositive();
+	}
+
+	@Test
+	void shouldReadSameRowsWithFileSharedStringsStore() throws Exception {
+		var expected = readAll(new StreamingXlsxItemReader<>());
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setSharedStringsStore(() -> new FileSharedStringsStore(10));
+
+		assertThat(readAll(reader)).containsExactlyElementsOf(expected);
+	}
+
+	private static List<String[]> readAll(StreamingXlsxItemReader<String[]> reader) throws Exception {
+		reader.setResource(new ClassPathResource("player.xlsx"));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		var rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
 	@Override
 	protected Stream<Arguments> scenarios() {
 		return Stream.of(
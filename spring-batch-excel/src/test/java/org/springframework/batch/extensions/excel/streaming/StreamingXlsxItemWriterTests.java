@@ -0,0 +1,257 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class StreamingXlsxItemWriterTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void shouldWriteHeaderAndTypedValues() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("players.xlsx"));
+		var writer = new StreamingXlsxItemWriterBuilder<Player>().name("playerWriter")
+			.resource(resource)
+			.sourceType(Player.class)
+			.headerNames("id", "name", "birthDate", "active")
+			.rowAccessWindowSize(2)
+			.build();
+
+		writer.open(new ExecutionContext());
+		writer.write(Chunk.of(new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true),
+				new Player(2, "Bruce", LocalDate.of(1990, 12, 31), false)));
+		writer.write(Chunk.of(new Player(3, "Calvin", null, true)));
+		writer.close();
+
+		assertThat(readAll(resource)).containsExactly(new String[] { "id", "name", "birthDate", "active" },
+				new String[] { "1", "Aaron", "1980-05-06", "TRUE" }, new String[] { "2", "Bruce", "1990-12-31", "FALSE" },
+				new String[] { "3", "Calvin", "", "TRUE" });
+	}
+
+	@Test
+	void shouldWriteBeanProperties() throws Exception {
+		var player = new org.springframework.batch.extensions.excel.Player();
+		player.setId("AbduKa00");
+		player.setLastName("Abdul-Jabbar");
+		player.setBirthYear(1947);
+		var resource = new FileSystemResource(this.tempDir.resolve("beans.xlsx"));
+		var writer = new StreamingXlsxItemWriterBuilder<org.springframework.batch.extensions.excel.Player>()
+			.name("writer")
+			.resource(resource)
+			.names("id", "lastName", "birthYear")
+			.build();
+
+		writer.open(new ExecutionContext());
+		writer.write(Chunk.of(player));
+		writer.close();
+
+		assertThat(readAll(resource)).containsExactly(new String[] { "AbduKa00", "Abdul-Jabbar", "1947" });
+	}
+
+	@Test
+	void shouldWriteToSharedStringsTable() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("shared.xlsx"));
+		var writer = new StreamingXlsxItemWriterBuilder<Object[]>().name("writer")
+			.resource(resource)
+			.useSharedStringsTable(true)
+			.compressTempFiles(true)
+			.build();
+
+		writer.open(new ExecutionContext());
+		writer.write(Chunk.of(new Object[] { "a", 1.5, LocalDateTime.of(2024, 1, 2, 3, 4, 5) },
+				new Object[] { "a", null, "b" }));
+		writer.close();
+
+		assertThat(readAll(resource)).containsExactly(new String[] { "a", "1.5", "2024-01-02 03:04:05" },
+				new String[] { "a", "", "b" });
+	}
+
+	@Test
+	void shouldCopyCommittedRowsOnRestart() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("restart.xlsx"));
+		var executionContext = new ExecutionContext();
+		var writer = createWriter(resource);
+		writer.open(executionContext);
+		writer.write(Chunk.of(new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true)));
+		writer.update(executionContext);
+		// not committed, the step fails
+		writer.write(Chunk.of(new Player(2, "Bruce", LocalDate.of(1990, 12, 31), false)));
+		writer.close();
+		assertThat(readAll(resource)).hasSize(3);
+
+		var restarted = createWriter(resource);
+		restarted.open(executionContext);
+		restarted.write(Chunk.of(new Player(3, "Calvin", LocalDate.of(2000, 1, 1), true)));
+		restarted.update(executionContext);
+		restarted.close();
+
+		assertThat(executionContext.getInt("playerWriter.written")).isEqualTo(2);
+		assertThat(readAll(resource)).containsExactly(new String[] { "id", "name", "birthDate", "active" },
+				new String[] { "1", "Aaron", "1980-05-06", "TRUE" }, new String[] { "3", "Calvin", "2000-01-01", "TRUE" });
+	}
+
+	@Test
+	void shouldFailRestartWhenWriterWasNotClosed() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("crashed.xlsx"));
+		var executionContext = new ExecutionContext();
+		var writer = createWriter(resource);
+		writer.open(executionContext);
+		writer.write(Chunk.of(new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true)));
+		writer.update(executionContext);
+		// the process dies, the writer is never closed
+
+		var restarted = createWriter(resource);
+		assertThatExceptionOfType(ItemStreamException.class).isThrownBy(() -> restarted.open(executionContext))
+			.havingCause()
+			.withMessageContaining("didn't close the writer");
+	}
+
+	@Test
+	void shouldFailRestartWhenFileMissesRows() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("short.xlsx"));
+		var executionContext = new ExecutionContext();
+		var writer = createWriter(resource);
+		writer.open(executionContext);
+		writer.write(Chunk.of(new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true)));
+		writer.close();
+		executionContext.putInt("playerWriter.written", 2);
+
+		var restarted = createWriter(resource);
+		assertThatExceptionOfType(ItemStreamException.class).isThrownBy(() -> restarted.open(executionContext))
+			.havingCause()
+			.withMessageContaining("has 1 of the 2 rows");
+	}
+
+	@Test
+	void shouldFailRestartWhenDateFormatChanged() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("format.xlsx"));
+		var executionContext = new ExecutionContext();
+		var writer = createWriter(resource);
+		writer.open(executionContext);
+		writer.write(Chunk.of(new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true)));
+		writer.update(executionContext);
+		writer.close();
+
+		var restarted = createWriter(resource);
+		restarted.setDateFormat("dd-mm-yyyy");
+		assertThatExceptionOfType(ItemStreamException.class).isThrownBy(() -> restarted.open(executionContext))
+			.withMessageContaining("dd-mm-yyyy");
+	}
+
+	@Test
+	void shouldRemoveRowsOfRolledBackChunk() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("rollback.xlsx"));
+		var writer = createWriter(resource);
+		var transactionTemplate = new TransactionTemplate(new ResourcelessTransactionManager());
+		writer.open(new ExecutionContext());
+
+		transactionTemplate.executeWithoutResult(
+				(status) -> write(writer, new Player(1, "Aaron", LocalDate.of(1980, 5, 6), true)));
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> transactionTemplate.executeWithoutResult((status) -> {
+				write(writer, new Player(2, "Bruce", LocalDate.of(1990, 12, 31), false));
+				throw new IllegalStateException("Rollback");
+			}));
+		transactionTemplate.executeWithoutResult(
+				(status) -> write(writer, new Player(3, "Calvin", LocalDate.of(2000, 1, 1), true)));
+		writer.close();
+
+		assertThat(writer.getWrittenCount()).isEqualTo(2);
+		assertThat(readAll(resource)).extracting((row) -> row[1]).containsExactly("name", "Aaron", "Calvin");
+	}
+
+	@Test
+	void shouldFailWhenRowsOfRolledBackChunkHaveBeenFlushed() throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve("flushed.xlsx"));
+		var writer = createWriter(resource);
+		writer.setRowAccessWindowSize(1);
+		var transactionTemplate = new TransactionTemplate(new ResourcelessTransactionManager());
+		writer.open(new ExecutionContext());
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> transactionTemplate.executeWithoutResult((status) -> {
+				write(writer, new Player(1, "Aaron", null, true), new Player(2, "Bruce", null, false));
+				throw new IllegalStateException("Rollback");
+			}));
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> writer.write(Chunk.of(new Player(3, "Calvin", null, true))))
+			.withMessageContaining("rowAccessWindowSize");
+		writer.close();
+	}
+
+	private static StreamingXlsxItemWriter<Player> createWriter(FileSystemResource resource) {
+		return new StreamingXlsxItemWriterBuilder<Player>().name("playerWriter")
+			.resource(resource)
+			.sourceType(Player.class)
+			.headerNames("id", "name", "birthDate", "active")
+			.build();
+	}
+
+	private static void write(StreamingXlsxItemWriter<Player> writer, Player... players) {
+		try {
+			writer.write(Chunk.of(players));
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static List<String[]> readAll(Resource resource) throws Exception {
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setResource(resource);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		var rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+	public record Player(int id, String name, LocalDate birthDate, boolean active) {
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads a sheet the way the {@code StreamingSheet} used to, through the
+ * {@code XSSFSheetXMLHandler} of Apache POI. Used as the reference to compare the output
+ * (and performance) of the {@code XlsxSheetParser} against.
+ *
+ * @author Marten Deinum
+ */
+final class XSSFSheetXMLHandlerReader {
+
+	private XSSFSheetXMLHandlerReader() {
+	}
+
+	static void read(InputStream is, SharedStrings sharedStrings, Styles styles, DataFormatter dataFormatter,
+			Consumer<String[]> rows) throws Exception {
+		ContentsHandler contentsHandler = new ContentsHandler(rows);
+		XMLReader reader = XMLHelper.newXMLReader();
+		reader.setContentHandler(new XSSFSheetXMLHandler(styles, sharedStrings, contentsHandler, dataFormatter, false) {
+
+			@Override
+			public void startElement(String uri, String localName, String qName, Attributes attributes)
+					throws SAXException {
+				// The StreamingSheet sized the rows based on the dimension of the sheet
+				String ref = attributes.getValue("ref");
+				if ("dimension".equals(localName) && ref != null && ref.indexOf(':') > -1) {
+					CellRangeAddress range = CellRangeAddress.valueOf(ref);
+					contentsHandler.values = new String[range.getLastColumn() - range.getFirstColumn() + 1];
+				}
+				super.startElement(uri, localName, qName, attributes);
+			}
+
+		});
+		reader.parse(new InputSource(is));
+	}
+
+	private static final class ContentsHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+		private final Consumer<String[]> rows;
+
+		private String[] values = new String[0];
+
+		private ContentsHandler(Consumer<String[]> rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			Arrays.fill(this.values, "");
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			this.rows.accept(Arrays.copyOf(this.values, this.values.length));
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int col = new CellReference(cellReference).getCol();
+			if (this.values.length <= col) {
+				String[] newValues = Arrays.copyOf(this.values, col + 1);
+				Arrays.setAll(newValues, (idx) -> (newValues[idx] != null) ? newValues[idx] : "");
+				this.values = newValues;
+			}
+			this.values[col] = formattedValue;
+		}
+
+	}
+
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Writes minimal {@code .xlsb} (BIFF12) workbooks, as Apache POI can only read them. Only
+ * the records needed for the cell values and their number formats are written. Used to
+ * create the {@code .xlsb} counterparts of the {@code .xlsx} test workbooks, which are
+ * compared with the output of the {@code XSSFBSheetHandler} of Apache POI as well.
+ *
+ * @author Marten Deinum
+ */
+final class XlsbWriter implements Closeable {
+
+	private final ZipOutputStream zip;
+
+	private final List<String> sheets = new ArrayList<>();
+
+	private final Map<String, Integer> sharedStrings = new LinkedHashMap<>();
+
+	private final Map<Integer, String> formats = new HashMap<>();
+
+	private final List<Integer> formatIndexes = new ArrayList<>(List.of(0));
+
+	private final boolean date1904;
+
+	private ByteArrayOutputStream sheetData;
+
+	private int lastRow;
+
+	private int lastColumn;
+
+	XlsbWriter(OutputStream out, boolean date1904) {
+		this.zip = new ZipOutputStream(out);
+		this.date1904 = date1904;
+	}
+
+	/**
+	 * Write the {@code .xlsb} counterpart of a workbook, with the cached results of the
+	 * formulas.
+	 * @param source the workbook to convert
+	 * @param target the {@code .xlsb} file to write
+	 * @throws IOException when the workbook cannot be read or written
+	 */
+	static void convert(InputStream source, File target) throws IOException {
+		try (Workbook workbook = WorkbookFactory.create(source);
+				XlsbWriter writer = new XlsbWriter(new FileOutputStream(target),
+						((XSSFWorkbook) workbook).isDate1904())) {
+			for (org.apache.poi.ss.usermodel.Sheet sheet : workbook) {
+				writer.startSheet(sheet.getSheetName());
+				for (Row row : sheet) {
+					writer.startRow(row.getRowNum());
+					for (Cell cell : row) {
+						writer.cell(cell);
+					}
+				}
+				writer.endSheet();
+			}
+		}
+	}
+
+	private void cell(Cell cell) throws IOException {
+		int col = cell.getColumnIndex();
+		int style = style(cell.getCellStyle().getDataFormat(), cell.getCellStyle().getDataFormatString());
+		CellType type = (cell.getCellType() == CellType.FORMULA) ? cell.getCachedFormulaResultType()
+				: cell.getCellType();
+		boolean formula = cell.getCellType() == CellType.FORMULA;
+		switch (type) {
+			case NUMERIC -> number(col, cell.getNumericCellValue(), style, formula);
+			case STRING -> string(col, cell.getStringCellValue(), style, formula);
+			case BOOLEAN -> cell(formula ? 10 : 4, col, style, new byte[] { (byte) (cell.getBooleanCellValue() ? 1 : 0) },
+					formula);
+			case ERROR -> cell(formula ? 11 : 3, col, style, new byte[] { cell.getErrorCellValue() }, formula);
+			default -> cell(1, col, style, new byte[0], false);
+		}
+	}
+
+	void startSheet(String name) {
+		this.sheets.add(name);
+		this.sheetData = new ByteArrayOutputStream();
+		this.lastRow = 0;
+		this.lastColumn = 0;
+	}
+
+	void startRow(int row) throws IOException {
+		// rw, ixfe, miyRw, flags and an empty list of column spans
+		byte[] data = new byte[17];
+		LittleEndian.putInt(data, 0, row);
+		LittleEndian.putShort(data, 8, (short) 300);
+		record(this.sheetData, 0, data);
+		this.lastRow = Math.max(this.lastRow, row);
+	}
+
+	/**
+	 * Write a numeric cell, as an {@code RkNumber} when the value fits.
+	 * @param col the 0-based column
+	 * @param value the value
+	 * @param style the index of the cell format, see {@link #style(int, String)}
+	 * @param formula whether to write the value as the result of a formula
+	 * @throws IOException never, the sheet is written to memory
+	 */
+	void number(int col, double value, int style, boolean formula) throws IOException {
+		if (!formula) {
+			Integer rk = rk(value);
+			if (rk != null) {
+				byte[] data = new byte[4];
+				LittleEndian.putInt(data, 0, rk);
+				cell(2, col, style, data, false);
+				return;
+			}
+		}
+		byte[] data = new byte[8];
+		LittleEndian.putDouble(data, 0, value);
+		cell(formula ? 9 : 5, col, style, data, formula);
+	}
+
+	/**
+	 * Write a string cell, as a shared string unless it is the result of a formula.
+	 * @param col the 0-based column
+	 * @param value the value
+	 * @param style the index of the cell format, see {@link #style(int, String)}
+	 * @param formula whether to write the value as the result of a formula
+	 * @throws IOException never, the sheet is written to memory
+	 */
+	void string(int col, String value, int style, boolean formula) throws IOException {
+		if (formula) {
+			cell(8, col, style, wideString(value), true);
+			return;
+		}
+		int index = this.sharedStrings.computeIfAbsent(value, (s) -> this.sharedStrings.size());
+		byte[] data = new byte[4];
+		LittleEndian.putInt(data, 0, index);
+		cell(7, col, style, data, false);
+	}
+
+	void bool(int col, boolean value, int style) throws IOException {
+		cell(4, col, style, new byte[] { (byte) (value ? 1 : 0) }, false);
+	}
+
+	private void cell(int recordType, int col, int style, byte[] value, boolean formula) throws IOException {
+		// A formula has flags and an empty parsed formula after its value
+		byte[] data = new byte[8 + value.length + (formula ? 10 : 0)];
+		LittleEndian.putInt(data, 0, col);
+		data[4] = (byte) style;
+		data[5] = (byte) (style >> 8);
+		data[6] = (byte) (style >> 16);
+		System.arraycopy(value, 0, data, 8, value.length);
+		record(this.sheetData, recordType, data);
+		this.lastColumn = Math.max(this.lastColumn, col);
+	}
+
+	/**
+	 * The cell format for the given number format, added on first use.
+	 * @param formatIndex the index of the number format
+	 * @param formatString the number format
+	 * @return the index of the cell format
+	 */
+	int style(int formatIndex, String formatString) {
+		if (BuiltinFormats.getBuiltinFormat(formatIndex) == null) {
+			this.formats.put(formatIndex, formatString);
+		}
+		int style = this.formatIndexes.indexOf(formatIndex);
+		if (style == -1) {
+			style = this.formatIndexes.size();
+			this.formatIndexes.add(formatIndex);
+		}
+		return style;
+	}
+
+	void endSheet() throws IOException {
+		ByteArrayOutputStream sheet = new ByteArrayOutputStream();
+		record(sheet, 129, new byte[0]);
+		byte[] dimension = new byte[16];
+		LittleEndian.putInt(dimension, 4, this.lastRow);
+		LittleEndian.putInt(dimension, 12, this.lastColumn);
+		record(sheet, 148, dimension);
+		record(sheet, 145, new byte[0]);
+		this.sheetData.writeTo(sheet);
+		record(sheet, 146, new byte[0]);
+		record(sheet, 130, new byte[0]);
+		entry("xl/worksheets/sheet" + this.sheets.size() + ".bin", sheet.toByteArray());
+		this.sheetData = null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+		record(workbook, 131, new byte[0]);
+		byte[] properties = new byte[12];
+		properties[0] = (byte) (this.date1904 ? 1 : 0);
+		record(workbook, 153, properties);
+		record(workbook, 143, new byte[0]);
+		StringBuilder workbookRels = new StringBuilder();
+		StringBuilder contentTypes = new StringBuilder();
+		for (int i = 0; i < this.sheets.size(); i++) {
+			ByteArrayOutputStream sheet = new ByteArrayOutputStream();
+			byte[] state = new byte[8];
+			LittleEndian.putInt(state, 4, i + 1);
+			sheet.write(state);
+			sheet.write(wideString("rId" + (i + 1)));
+			sheet.write(wideString(this.sheets.get(i)));
+			record(workbook, 156, sheet.toByteArray());
+			workbookRels.append(relationship("rId" + (i + 1), "worksheet", "worksheets/sheet" + (i + 1) + ".bin"));
+			contentTypes.append(override("/xl/worksheets/sheet" + (i + 1) + ".bin", "application/vnd.ms-excel.worksheet"));
+		}
+		record(workbook, 144, new byte[0]);
+		record(workbook, 132, new byte[0]);
+		entry("xl/workbook.bin", workbook.toByteArray());
+
+		ByteArrayOutputStream styles = new ByteArrayOutputStream();
+		record(styles, 278, new byte[0]);
+		record(styles, 615, intBytes(this.formats.size()));
+		for (Map.Entry<Integer, String> format : this.formats.entrySet()) {
+			ByteArrayOutputStream fmt = new ByteArrayOutputStream();
+			byte[] index = new byte[2];
+			LittleEndian.putUShort(index, 0, format.getKey());
+			fmt.write(index);
+			fmt.write(wideString(format.getValue()));
+			record(styles, 44, fmt.toByteArray());
+		}
+		record(styles, 616, new byte[0]);
+		record(styles, 617, intBytes(this.formatIndexes.size()));
+		for (int formatIndex : this.formatIndexes) {
+			byte[] xf = new byte[16];
+			LittleEndian.putUShort(xf, 2, formatIndex);
+			record(styles, 47, xf);
+		}
+		record(styles, 618, new byte[0]);
+		record(styles, 279, new byte[0]);
+		entry("xl/styles.bin", styles.toByteArray());
+		workbookRels.append(relationship("rId" + (this.sheets.size() + 1), "styles", "styles.bin"));
+		contentTypes.append(override("/xl/styles.bin", "application/vnd.ms-excel.styles"));
+
+		if (!this.sharedStrings.isEmpty()) {
+			ByteArrayOutputStream sst = new ByteArrayOutputStream();
+			byte[] counts = new byte[8];
+			LittleEndian.putInt(counts, 0, this.sharedStrings.size());
+			LittleEndian.putInt(counts, 4, this.sharedStrings.size());
+			record(sst, 159, counts);
+			for (String string : this.sharedStrings.keySet()) {
+				ByteArrayOutputStream item = new ByteArrayOutputStream();
+				item.write(0);
+				item.write(wideString(string));
+				record(sst, 19, item.toByteArray());
+			}
+			record(sst, 160, new byte[0]);
+			entry("xl/sharedStrings.bin", sst.toByteArray());
+			workbookRels.append(relationship("rId" + (this.sheets.size() + 2), "sharedStrings", "sharedStrings.bin"));
+			contentTypes.append(override("/xl/sharedStrings.bin", "application/vnd.ms-excel.sharedStrings"));
+		}
+
+		entry("xl/_rels/workbook.bin.rels", relationships(workbookRels));
+		entry("_rels/.rels", relationships(new StringBuilder(relationship("rId1", "officeDocument", "xl/workbook.bin"))));
+		entry("[Content_Types].xml", ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+				+ "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+				+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+				+ override("/xl/workbook.bin", "application/vnd.ms-excel.sheet.binary.macroEnabled.main") + contentTypes
+				+ "</Types>")
+			.getBytes(StandardCharsets.UTF_8));
+		this.zip.close();
+	}
+
+	private void entry(String name, byte[] data) throws IOException {
+		this.zip.putNextEntry(new ZipEntry(name));
+		this.zip.write(data);
+		this.zip.closeEntry();
+	}
+
+	private static byte[] relationships(StringBuilder relationships) {
+		return ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+				+ "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+				+ relationships + "</Relationships>")
+			.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String relationship(String id, String type, String target) {
+		return "<Relationship Id=\"" + id + "\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/"
+				+ type + "\" Target=\"" + target + "\"/>";
+	}
+
+	private static String override(String partName, String contentType) {
+		return "<Override PartName=\"" + partName + "\" ContentType=\"" + contentType + "\"/>";
+	}
+
+	private static Integer rk(double value) {
+		for (int divide = 0; divide < 2; divide++) {
+			double scaled = (divide == 1) ? value * 100 : value;
+			if (scaled == Math.rint(scaled) && Math.abs(scaled) < (1 << 29)) {
+				int rk = ((int) scaled << 2) | 0x02 | divide;
+				if (XlsbRecordReader.getRk(intBytes(rk), 0) == value) {
+					return rk;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static byte[] intBytes(int value) {
+		byte[] data = new byte[4];
+		LittleEndian.putInt(data, 0, value);
+		return data;
+	}
+
+	private static byte[] wideString(String value) {
+		byte[] chars = value.getBytes(StandardCharsets.UTF_16LE);
+		byte[] data = new byte[4 + chars.length];
+		LittleEndian.putInt(data, 0, value.length());
+		System.arraycopy(chars, 0, data, 4, chars.length);
+		return data;
+	}
+
+	private static void record(ByteArrayOutputStream out, int recordType, byte[] data) {
+		if (recordType >= 0x80) {
+			out.write((recordType & 0x7F) | 0x80);
+			out.write(recordType >> 7);
+		}
+		else {
+			out.write(recordType);
+		}
+		int length = data.length;
+		do {
+			int b = length & 0x7F;
+			length >>= 7;
+			out.write((length != 0) ? (b | 0x80) : b);
+		}
+		while (length != 0);
+		out.write(data, 0, data.length);
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares rows/s and allocated bytes per row of converting a sheet to CSV with the
+ * {@code XlsxConversionTasklet} with reading it with a {@code StreamingXlsxItemReader}
+ * and writing the rows, in chunks, with a {@code FlatFileItemWriter}. Only runs when the
+ * {@code benchmark} system property is set, e.g. {@code ./mvnw test -Dbenchmark=true
+ * -Dtest=XlsxConversionBenchmarkTests}.
+ *
+ * @author Marten Deinum
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class XlsxConversionBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+
+	private static final int ITERATIONS = 5;
+
+	private static final int CHUNK_SIZE = 100;
+
+	private File file;
+
+	private Path tempDir;
+
+	@BeforeAll
+	void createWorkbook(@TempDir Path tempDir) throws Exception {
+		this.tempDir = tempDir;
+		this.file = tempDir.resolve("benchmark.xlsx").toFile();
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true)) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+			CellStyle decimalStyle = workbook.createCellStyle();
+			decimalStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+			org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("data");
+			Row header = sheet.createRow(0);
+			String[] names = { "id", "code", "amount", "date", "flag", "description", "total", "status" };
+			for (int i = 0; i < names.length; i++) {
+				header.createCell(i).setCellValue(names[i]);
+			}
+			for (int i = 1; i <= ROWS; i++) {
+				Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue("code-" + (i % 100));
+				row.createCell(2).setCellValue(i * 0.75);
+				row.getCell(2).setCellStyle(decimalStyle);
+				row.createCell(3).setCellValue(LocalDate.of(2020, 1, 1).plusDays(i % 1000));
+				row.getCell(3).setCellStyle(dateStyle);
+				row.createCell(4).setCellValue(i % 3 == 0);
+				row.createCell(5).setCellValue("description " + (i % 1000));
+				row.createCell(6).setCellValue(i * 31L);
+				row.createCell(7).setCellValue("status-" + (i % 7));
+			}
+			try (FileOutputStream out = new FileOutputStream(this.file)) {
+				workbook.write(out);
+			}
+			workbook.dispose();
+		}
+	}
+
+	@Test
+	void compareWithItemOrientedConversion() throws Exception {
+		Path itemOutput = this.tempDir.resolve("items.csv");
+		Path taskletOutput = this.tempDir.resolve("tasklet.csv");
+
+		Result items = null;
+		Result tasklet = null;
+		for (int i = 0; i < ITERATIONS; i++) {
+			items = measure(() -> convertWithItems(itemOutput));
+			tasklet = measure(() -> convertWithTasklet(taskletOutput));
+		}
+		System.out.println("Reader and FlatFileItemWriter: " + items);
+		System.out.println("XlsxConversionTasklet        : " + tasklet);
+		assertThat(tasklet.rows).isEqualTo(items.rows).isEqualTo(ROWS);
+		assertThat(Files.readAllLines(taskletOutput)).hasSize(ROWS + 1)
+			.element(1)
+			.isEqualTo(Files.readAllLines(itemOutput).get(0));
+		assertThat(tasklet.bytesPerRow()).isLessThan(items.bytesPerRow());
+	}
+
+	private int convertWithItems(Path output) throws Exception {
+		StreamingXlsxItemReader<String[]> reader = new StreamingXlsxItemReader<>();
+		reader.setResource(new FileSystemResource(this.file));
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.setUserLocale(Locale.US);
+		reader.setLinesToSkip(1);
+		reader.afterPropertiesSet();
+		FlatFileItemWriter<String[]> writer = new FlatFileItemWriterBuilder<String[]>().name("writer")
+			.resource(new FileSystemResource(output))
+			.delimited()
+			.fieldExtractor((item) -> item)
+			.build();
+		reader.open(new ExecutionContext());
+		writer.open(new ExecutionContext());
+		int rows = 0;
+		Chunk<String[]> chunk = new Chunk<>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			chunk.add(row);
+			if (chunk.size() == CHUNK_SIZE) {
+				writer.write(chunk);
+				rows += chunk.size();
+				chunk = new Chunk<>();
+			}
+		}
+		writer.write(chunk);
+		rows += chunk.size();
+		writer.close();
+		reader.close();
+		return rows;
+	}
+
+	private int convertWithTasklet(Path output) throws Exception {
+		XlsxConversionTasklet tasklet = new XlsxConversionTasklet();
+		tasklet.setResource(new FileSystemResource(this.file));
+		tasklet.setOutput(new FileSystemResource(output));
+		tasklet.setUserLocale(Locale.US);
+		tasklet.afterPropertiesSet();
+		return (int) tasklet.convert();
+	}
+
+	private static Result measure(RowCountingTask task) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+		long allocated = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		int rows = task.run();
+		long elapsed = System.nanoTime() - start;
+		return new Result(rows, elapsed, threads.getCurrentThreadAllocatedBytes() - allocated);
+	}
+
+	@FunctionalInterface
+	private interface RowCountingTask {
+
+		int run() throws Exception;
+
+	}
+
+	private static final class Result {
+
+		private final int rows;
+
+		private final long nanos;
+
+		private final long bytes;
+
+		private Result(int rows, long nanos, long bytes) {
+			this.rows = rows;
+			this.nanos = nanos;
+			this.bytes = bytes;
+		}
+
+		long bytesPerRow() {
+			return this.bytes / this.rows;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%,d rows/s, %,d bytes/row", (long) (this.rows / (this.nanos / 1e9)),
+					bytesPerRow());
+		}
+
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.SheetSelector;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class XlsxConversionTaskletTests {
+
+	@TempDir
+	Path tempDir;
+
+	private FileSystemResource workbook;
+
+	@BeforeEach
+	void createWorkbook() throws Exception {
+		this.workbook = new FileSystemResource(this.tempDir.resolve("players.xlsx"));
+		try (var wb = new XSSFWorkbook(); var out = new FileOutputStream(this.workbook.getFile())) {
+			var north = wb.createSheet("North");
+			addRow(north.createRow(0), "id", "name", "city");
+			addRow(north.createRow(1), 1, "Aaron", "Amsterdam");
+			addRow(north.createRow(3), 2, "Bruce \"The Shark\"", "Berlin, DE");
+			var south = wb.createSheet("South");
+			addRow(south.createRow(0), "id", "name", "city");
+			addRow(south.createRow(1), 3, "Ćalvin\nJr.", null);
+			wb.write(out);
+		}
+	}
+
+	@Test
+	void shouldConvertToCsv() throws Exception {
+		var output = this.tempDir.resolve("players.csv");
+		var tasklet = createTasklet(output);
+		tasklet.afterPropertiesSet();
+
+		assertThat(tasklet.convert()).isEqualTo(3);
+		assertThat(Files.readString(output, StandardCharsets.UTF_8)).isEqualTo("""
+				id,name,city
+				1,Aaron,Amsterdam
+				2,"Bruce ""The Shark""\","Berlin, DE"
+				3,"Ćalvin
+				Jr.",
+				""");
+	}
+
+	@Test
+	void shouldConvertToNdjson() throws Exception {
+		var output = this.tempDir.resolve("players.ndjson");
+		var tasklet = createTasklet(output);
+		tasklet.setFormat(XlsxConversionTasklet.Format.NDJSON);
+		tasklet.afterPropertiesSet();
+
+		assertThat(tasklet.convert()).isEqualTo(3);
+		assertThat(Files.readAllLines(output, StandardCharsets.UTF_8)).containsExactly(
+				"{\"id\":\"1\",\"name\":\"Aaron\",\"city\":\"Amsterdam\"}",
+				"{\"id\":\"2\",\"name\":\"Bruce \\\"The Shark\\\"\",\"city\":\"Berlin, DE\"}",
+				"{\"id\":\"3\",\"name\":\"Ćalvin\\nJr.\",\"city\":\"\"}");
+	}
+
+	@Test
+	void shouldConvertProjectedColumnsOfSelectedSheets() throws Exception {
+		var output = this.tempDir.resolve("projected.csv");
+		var tasklet = createTasklet(output);
+		tasklet.setProjectedColumnNames("city", "id");
+		tasklet.setSheetSelector(SheetSelector.names("North"));
+		tasklet.setDelimiter(';');
+		tasklet.afterPropertiesSet();
+
+		tasklet.convert();
+
+		assertThat(Files.readAllLines(output, StandardCharsets.UTF_8)).containsExactly("city;id", "Amsterdam;1",
+				"Berlin, DE;2");
+	}
+
+	@Test
+	void shouldUseColumnLettersWithoutHeader() throws Exception {
+		var output = this.tempDir.resolve("letters.ndjson");
+		var tasklet = createTasklet(output);
+		tasklet.setFormat(XlsxConversionTasklet.Format.NDJSON);
+		tasklet.setHeader(false);
+		tasklet.setProjectedColumns(1);
+		tasklet.setSheetSelector(SheetSelector.indexes(1));
+		tasklet.afterPropertiesSet();
+
+		assertThat(tasklet.convert()).isEqualTo(2);
+		assertThat(Files.readAllLines(output, StandardCharsets.UTF_8)).containsExactly("{\"B\":\"name\"}",
+				"{\"B\":\"Ćalvin\\nJr.\"}");
+	}
+
+	@Test
+	void shouldFailForUnknownProjectedColumnName() throws Exception {
+		var tasklet = createTasklet(this.tempDir.resolve("unknown.csv"));
+		tasklet.setProjectedColumnNames("team");
+		tasklet.afterPropertiesSet();
+
+		assertThatIllegalStateException().isThrownBy(tasklet::convert).withMessageContaining("team");
+	}
+
+	private XlsxConversionTasklet createTasklet(Path output) {
+		var tasklet = new XlsxConversionTasklet();
+		tasklet.setResource(this.workbook);
+		tasklet.setOutput(new FileSystemResource(output));
+		tasklet.setUserLocale(Locale.US);
+		tasklet.setBufferSize(16);
+		return tasklet;
+	}
+
+	private static void addRow(Row row, Object... values) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] instanceof Number number) {
+				row.createCell(i).setCellValue(number.doubleValue());
+			}
+			else if (values[i] != null) {
+				row.createCell(i).setCellValue((String) values[i]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.batch.extensions.excel.mapping.PassThroughRowMapper;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class XlsxPartsMergingTaskletTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void shouldCopySheetOfEachPart() throws Exception {
+		var part1 = writePart("part1.xlsx", "North", false, new Object[] { "a", 1 }, new Object[] { "b", 2 });
+		var part2 = writePart("part2.xlsx", "South", false, new Object[] { "c", 3 });
+		var merged = new FileSystemResource(this.tempDir.resolve("merged.xlsx"));
+
+		merge(merged, XlsxPartsMergingTasklet.Mode.SHEET_PER_PART, part1, part2);
+
+		try (var workbook = new XSSFWorkbook(merged.getFile())) {
+			assertThat(workbook.getNumberOfSheets()).isEqualTo(2);
+			assertThat(workbook.getSheetName(0)).isEqualTo("North");
+			assertThat(workbook.getSheetName(1)).isEqualTo("South");
+			assertThat(workbook.getSheetAt(1).getRow(1).getCell(0).getStringCellValue()).isEqualTo("c");
+			assertThat(workbook.getSheetAt(1).getRow(1).getCell(1).getNumericCellValue()).isEqualTo(3);
+		}
+		assertThat(readAll(merged)).extracting((row) -> row[0]).containsExactly("name", "a", "b", "name", "c");
+		// copied without inflating and deflating again
+		try (var source = new ZipFile(part2.getFile()); var target = new ZipFile(merged.getFile())) {
+			var sheet = source.getEntry("xl/worksheets/sheet1.xml");
+			var copy = target.getEntry("xl/worksheets/sheet2.xml");
+			assertThat(copy.getCompressedSize()).isEqualTo(sheet.getCompressedSize());
+			assertThat(copy.getCrc()).isEqualTo(sheet.getCrc());
+		}
+	}
+
+	@Test
+	void shouldConcatenateRowsIntoSingleSheet() throws Exception {
+		var part1 = writePart("part1.xlsx", "Sheet1", false, new Object[] { "a", 1 }, new Object[] { "b", 2 });
+		var part2 = writePart("part2.xlsx", "Sheet1", false, new Object[] { "c", 3 }, new Object[] { "d", null, 4 });
+		var part3 = writePart("part3.xlsx", "Sheet1", false);
+		var merged = new FileSystemResource(this.tempDir.resolve("merged.xlsx"));
+
+		merge(merged, XlsxPartsMergingTasklet.Mode.SINGLE_SHEET, part1, part2, part3);
+
+		try (var workbook = new XSSFWorkbook(merged.getFile())) {
+			assertThat(workbook.getNumberOfSheets()).isEqualTo(1);
+			Sheet sheet = workbook.getSheetAt(0);
+			assertThat(sheet.getLastRowNum()).isEqualTo(4);
+			assertThat(sheet.getRow(3).getCell(0).getStringCellValue()).isEqualTo("c");
+			assertThat(sheet.getRow(4).getCell(2).getNumericCellValue()).isEqualTo(4);
+			assertThat(sheet.getRow(4).getCell(2).getAddress().formatAsString()).isEqualTo("C5");
+		}
+		assertThat(readAll(merged)).extracting((row) -> row[0]).containsExactly("name", "a", "b", "c", "d");
+	}
+
+	@Test
+	void shouldFailWhenLaterPartUsesSharedStrings() throws Exception {
+		var part1 = writePart("part1.xlsx", "North", false, new Object[] { "a", 1 });
+		var part2 = writePart("part2.xlsx", "South", true, new Object[] { "c", 3 });
+		var merged = new FileSystemResource(this.tempDir.resolve("merged.xlsx"));
+
+		assertThatIllegalStateException()
+			.isThrownBy(() -> merge(merged, XlsxPartsMergingTasklet.Mode.SHEET_PER_PART, part1, part2))
+			.withMessageContaining("shared strings");
+	}
+
+	@Test
+	void shouldFailOnDuplicateSheetNames() throws Exception {
+		var part1 = writePart("part1.xlsx", "Sheet1", false, new Object[] { "a", 1 });
+		var part2 = writePart("part2.xlsx", "sheet1", false, new Object[] { "c", 3 });
+		var merged = new FileSystemResource(this.tempDir.resolve("merged.xlsx"));
+
+		assertThatIllegalStateException()
+			.isThrownBy(() -> merge(merged, XlsxPartsMergingTasklet.Mode.SHEET_PER_PART, part1, part2))
+			.withMessageContaining("sheet1");
+	}
+
+	private FileSystemResource writePart(String name, String sheetName, boolean useSharedStringsTable,
+			Object[]... rows) throws Exception {
+		var resource = new FileSystemResource(this.tempDir.resolve(name));
+		var writer = new StreamingXlsxItemWriterBuilder<Object[]>().name("writer")
+			.resource(resource)
+			.sheetName(sheetName)
+			.headerNames("name", "value")
+			.useSharedStringsTable(useSharedStringsTable)
+			.build();
+		writer.open(new ExecutionContext());
+		writer.write(Chunk.of(rows));
+		writer.close();
+		return resource;
+	}
+
+	private static void merge(FileSystemResource merged, XlsxPartsMergingTasklet.Mode mode, Resource... parts)
+			throws Exception {
+		var tasklet = new XlsxPartsMergingTasklet();
+		tasklet.setParts(parts);
+		tasklet.setResource(merged);
+		tasklet.setMode(mode);
+		tasklet.setHeaderRows(1);
+		tasklet.afterPropertiesSet();
+		tasklet.merge();
+	}
+
+	private static List<String[]> readAll(Resource resource) throws Exception {
+		var reader = new StreamingXlsxItemReader<String[]>();
+		reader.setResource(resource);
+		reader.setRowMapper(new PassThroughRowMapper());
+		reader.afterPropertiesSet();
+		reader.open(new ExecutionContext());
+		var rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = reader.read()) != null) {
+			rows.add(row);
+		}
+		reader.close();
+		return rows;
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.streaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.batch.extensions.excel.CellValueFormatter;
+import org.springframework.batch.extensions.excel.IsoFormattingDateDataFormatter;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link XlsxSheetParser}, the output is compared with what the
+ * {@code XSSFSheetXMLHandler} from Apache POI produces.
+ *
+ * @author Marten Deinum
+ */
+class XlsxSheetParserTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void shouldDecodeColumnIndexes() {
+		assertThat(XlsxSheetParser.columnIndex("A1")).isEqualTo(0);
+		assertThat(XlsxSheetParser.columnIndex("Z10")).isEqualTo(25);
+		assertThat(XlsxSheetParser.columnIndex("AA3")).isEqualTo(26);
+		assertThat(XlsxSheetParser.columnIndex("$AB$3")).isEqualTo(27);
+		assertThat(XlsxSheetParser.columnIndex("XFD1048576")).isEqualTo(16383);
+	}
+
+	@Test
+	void shouldDecodeEscapedCharacters() {
+		assertThat(XlsxSheetParser.utfDecode("no escapes")).isEqualTo("no escapes");
+		assertThat(XlsxSheetParser.utfDecode("line_x000D_break")).isEqualTo("line\rbreak");
+		assertThat(XlsxSheetParser.utfDecode("_x0041__x0042_C")).isEqualTo("ABC");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "player.xlsx", "player_with_blank_lines.xlsx", "types.xlsx", "blankRow.xlsx",
+			"errors.xlsx" })
+	void shouldProduceSameRowsAsXSSFSheetXMLHandler(String resource) throws Exception {
+		File file = new ClassPathResource(resource).getFile();
+		assertSameRows(file, new DataFormatter(Locale.US));
+		assertSameRows(file, new IsoFormattingDateDataFormatter(Locale.US));
+	}
+
+	@Test
+	void shouldProduceSameRowsForAllCellTypes() throws Exception {
+		File file = this.tempDir.resolve("cell-types.xlsx").toFile();
+		try (Workbook workbook = new XSSFWorkbook()) {
+			writeCellTypes(workbook);
+			workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				workbook.write(out);
+			}
+		}
+		assertSameRows(file, new DataFormatter(Locale.US));
+		assertSameRows(file, new IsoFormattingDateDataFormatter(Locale.US));
+	}
+
+	@Test
+	void shouldProduceSameRowsForInlineStrings() throws Exception {
+		File file = this.tempDir.resolve("inline-strings.xlsx").toFile();
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+			writeCellTypes(workbook);
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				workbook.write(out);
+			}
+			workbook.dispose();
+		}
+		assertSameRows(file, new DataFormatter(Locale.US));
+	}
+
+	private static void writeCellTypes(Workbook workbook) {
+		CellStyle dateStyle = workbook.createCellStyle();
+		dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+		CellStyle decimalStyle = workbook.createCellStyle();
+		decimalStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+
+		org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("types");
+		for (int i = 0; i < 50; i++) {
+			Row row = sheet.createRow(i * 2);
+			row.createCell(0).setCellValue(i);
+			row.createCell(1).setCellValue(i * 1.255);
+			row.getCell(1).setCellStyle(decimalStyle);
+			row.createCell(2).setCellValue(LocalDateTime.of(2024, 1, 1, 12, 30).plusDays(i));
+			row.getCell(2).setCellStyle(dateStyle);
+			row.createCell(3).setCellValue("text " + (i % 5));
+			row.createCell(4).setCellValue(i % 2 == 0);
+			// column 5 is left empty, column 6 only has a style
+			row.createCell(6).setCellStyle(decimalStyle);
+			row.createCell(7).setCellErrorValue(FormulaError.DIV0.getCode());
+			row.createCell(8).setCellFormula("A" + (i * 2 + 1) + "*2");
+			row.getCell(8).setCellStyle(decimalStyle);
+			row.createCell(9).setCellFormula("D" + (i * 2 + 1) + "&\"!\"");
+			row.createCell(10).setCellValue("carriage\rreturn");
+			if (i % 10 == 0) {
+				row.createCell(15).setCellValue("wide");
+			}
+		}
+	}
+
+	private static void assertSameRows(File file, DataFormatter dataFormatter) throws Exception {
+		try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg);
+			StreamingSharedStrings streamingSharedStrings = StreamingSharedStrings.read(pkg);
+			StylesTable styles = reader.getStylesTable();
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			int rows = 0;
+			while (sheets.hasNext()) {
+				byte[] data;
+				try (InputStream is = sheets.next()) {
+					data = is.readAllBytes();
+				}
+
+				List<String[]> expected = new ArrayList<>();
+				XSSFSheetXMLHandlerReader.read(new ByteArrayInputStream(data), sharedStrings, styles, dataFormatter,
+						expected::add);
+
+				List<String[]> actual = new ArrayList<>();
+				try (StreamingSheet sheet = new StreamingSheet(sheets.getSheetName(), new ByteArrayInputStream(data),
+						streamingSharedStrings, styles, new CellValueFormatter(dataFormatter))) {
+					sheet.forEach(actual::add);
+				}
+				rows += expected.size();
+				assertThat(actual).as("Rows of sheet '%s'", sheets.getSheetName())
+					.containsExactlyElementsOf(expected);
+			}
+			assertThat(rows).isPositive();
+		}
+	}
+
+}
@@ -61,9 +61,22 @@ class DefaultRowSetMetaDataTests {
 		assertThat(names).isEqualTo(new String[] { "col1", "col2", "col3" });
 
 		verify(this.columnNameExtractor, times(1)).getColumnNames(this.sheet);
+		verify(this.sheet, times(1)).getColumnProjection();
 		verifyNoMoreInteractions(this.sheet, this.columnNameExtractor);
 	}
 
+	@Test
+	void shouldReturnProjectedColumns() {
+
+		given(this.columnNameExtractor.getColumnNames(this.sheet)).willReturn(COLUMNS);
+		given(this.sheet.getColumnProjection()).willReturn(new int[] { 2, 0 });
+
+		String[] names = this.rowSetMetaData.getColumnNames();
+
+		assertThat(names).isEqualTo(new String[] { "col3", "col1" });
+		assertThat(this.rowSetMetaData.getColumnNames()).isSameAs(names);
+	}
+
 	@Test
 	void shouldGetAndReturnNameOfTheSheet() {
 
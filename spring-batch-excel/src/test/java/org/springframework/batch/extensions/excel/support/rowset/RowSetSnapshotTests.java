@@ -0,0 +1,74 @@
+/*
+ * Copyright 2006-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.batch.extensions.excel.support.rowset;
+
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.batch.extensions.excel.MockSheet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link RowSet#snapshot()}.
+ *
+ * @author Marten Deinum
+ * @since 0.2.0
+ */
+class RowSetSnapshotTests {
+
+	@Test
+	void shouldKeepRowAfterRowSetHasMoved() {
+		MockSheet sheet = new MockSheet("players",
+				List.of(new String[] { "id", "name" }, new String[] { "1", "first" }, new String[] { "2", "" }));
+		RowSet rs = new DefaultRowSetFactory().create(sheet);
+		rs.next();
+		rs.next();
+
+		RowSet snapshot = rs.snapshot();
+		rs.next();
+
+		assertThat(snapshot.getCurrentRowIndex()).isEqualTo(1);
+		assertThat(snapshot.getCurrentRow()).containsExactly("1", "first");
+		assertThat(snapshot.getCellType(1)).isEqualTo(CellType.STRING);
+		assertThat(snapshot.getProperties()).containsEntry("id", "1").containsEntry("name", "first");
+		assertThat(snapshot.getMetaData().getSheetName()).isEqualTo("players");
+		assertThat(snapshot.next()).isFalse();
+		assertThat(snapshot.getCurrentRow()).containsExactly("1", "first");
+	}
+
+	@Test
+	void shouldReportMissingColumnNamesWhenRequested() {
+		MockSheet sheet = new MockSheet("players", List.<String[]>of(new String[] { "1", "first" }));
+		DefaultRowSetFactory rowSetFactory = new DefaultRowSetFactory();
+		rowSetFactory.setColumnNameExtractor((s) -> {
+			throw new UnsupportedOperationException("No random access");
+		});
+		RowSet rs = rowSetFactory.create(sheet);
+		rs.next();
+
+		RowSet snapshot = rs.snapshot();
+
+		assertThat(snapshot.getCurrentRow()).containsExactly("1", "first");
+		assertThatIllegalStateException().isThrownBy(() -> snapshot.getMetaData().getColumnNames())
+			.withCauseInstanceOf(UnsupportedOperationException.class);
+	}
+
+}